@@ -2,6 +2,7 @@ package com.werewolf;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 /**
  * 狼人杀多智能体平台 - 主应用类
@@ -10,6 +11,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * @version 0.1.0
  */
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class WerewolfApplication {
 
     public static void main(String[] args) {
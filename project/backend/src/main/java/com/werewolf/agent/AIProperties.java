@@ -0,0 +1,40 @@
+package com.werewolf.agent;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * AI 玩家配置
+ * 绑定 application.yml 中的 game.ai.* 配置项
+ *
+ * @author Claude & User
+ */
+@Data
+@ConfigurationProperties(prefix = "game.ai")
+public class AIProperties {
+
+    /**
+     * 默认使用的模型
+     */
+    private String defaultModel;
+
+    /**
+     * 是否启用推理引擎
+     */
+    private boolean enableReasoning = true;
+
+    /**
+     * 狼人夜间决策方式
+     */
+    private WerewolfDecisionMode werewolfDecisionMode = WerewolfDecisionMode.JOINT;
+
+    /**
+     * 记忆条目数量限制（提示词历史部分最多保留的条目数）
+     */
+    private int memoryLimit = 100;
+
+    /**
+     * 提示词历史部分的 token 预算（估算值，0 表示不限制）
+     */
+    private int promptTokenBudget = 3000;
+}
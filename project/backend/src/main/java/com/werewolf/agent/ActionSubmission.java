@@ -0,0 +1,67 @@
+package com.werewolf.agent;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * 玩家提交的行动
+ * version 为收到的决策提示（{@link DecisionPrompt}）的版本，idempotencyKey 由客户端生成，重试时保持不变
+ *
+ * @author Claude & User
+ */
+@Data
+@Builder
+public class ActionSubmission {
+
+    /**
+     * 行动所基于的决策版本
+     */
+    private long version;
+
+    /**
+     * 客户端幂等键
+     */
+    private String idempotencyKey;
+
+    /**
+     * 决策类型
+     */
+    private DecisionType type;
+
+    /**
+     * 目标玩家ID（击杀、查验、投票；null表示放弃或弃票）
+     */
+    private Long targetPlayerId;
+
+    /**
+     * 是否使用解药（女巫）
+     */
+    private boolean useAntidote;
+
+    /**
+     * 毒药目标（女巫，null表示不使用）
+     */
+    private Long poisonTargetId;
+
+    /**
+     * 发言或遗言内容
+     */
+    private String content;
+
+    /**
+     * 转换为决策
+     *
+     * @param source 决策来源
+     * @return 决策
+     */
+    public AgentDecision toDecision(String source) {
+        return AgentDecision.builder()
+                .type(type)
+                .targetPlayerId(targetPlayerId)
+                .useAntidote(useAntidote)
+                .poisonTargetId(poisonTargetId)
+                .content(content)
+                .source(source)
+                .build();
+    }
+}
@@ -0,0 +1,92 @@
+package com.werewolf.agent;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * AI决策结果
+ *
+ * @author Claude & User
+ */
+@Data
+@Builder(toBuilder = true)
+public class AgentDecision {
+
+    /**
+     * 决策类型
+     */
+    private DecisionType type;
+
+    /**
+     * 目标玩家ID（击杀、查验、投票；null表示放弃或弃票）
+     */
+    private Long targetPlayerId;
+
+    /**
+     * 是否使用解药（女巫）
+     */
+    private boolean useAntidote;
+
+    /**
+     * 毒药目标（女巫，null表示不使用）
+     */
+    private Long poisonTargetId;
+
+    /**
+     * 发言或遗言内容
+     */
+    private String content;
+
+    /**
+     * 决策来源（如 llm:gpt-4、heuristic）
+     */
+    private String source;
+
+    /**
+     * 是否为降级决策
+     */
+    private boolean fallback;
+
+    /**
+     * 创建选择目标的决策
+     *
+     * @param type 决策类型
+     * @param targetPlayerId 目标玩家ID
+     * @return 决策
+     */
+    public static AgentDecision target(DecisionType type, Long targetPlayerId) {
+        return AgentDecision.builder()
+                .type(type)
+                .targetPlayerId(targetPlayerId)
+                .build();
+    }
+
+    /**
+     * 创建发言决策
+     *
+     * @param type 决策类型
+     * @param content 发言内容
+     * @return 决策
+     */
+    public static AgentDecision speech(DecisionType type, String content) {
+        return AgentDecision.builder()
+                .type(type)
+                .content(content)
+                .build();
+    }
+
+    /**
+     * 创建女巫用药决策
+     *
+     * @param useAntidote 是否使用解药
+     * @param poisonTargetId 毒药目标
+     * @return 决策
+     */
+    public static AgentDecision witch(boolean useAntidote, Long poisonTargetId) {
+        return AgentDecision.builder()
+                .type(DecisionType.WITCH_ACTION)
+                .useAntidote(useAntidote)
+                .poisonTargetId(poisonTargetId)
+                .build();
+    }
+}
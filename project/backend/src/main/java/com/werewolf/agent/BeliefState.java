@@ -0,0 +1,214 @@
+package com.werewolf.agent;
+
+import com.werewolf.digest.Claim;
+import com.werewolf.digest.ClaimExtractor;
+import com.werewolf.domain.model.GameEvent;
+import com.werewolf.domain.model.GameState;
+import com.werewolf.domain.model.Player;
+import com.werewolf.domain.role.RoleType;
+import com.werewolf.domain.role.Werewolf;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 规则AI的信念状态
+ * 只根据玩家可见的事件更新：自己的身份、狼队友、预言家查验结果、
+ * 他人的预言家声明以及夜晚死亡信息，据此估计每名玩家是狼人的嫌疑
+ *
+ * @author Claude & User
+ */
+public class BeliefState {
+
+    /**
+     * 没有任何信息时的嫌疑值
+     */
+    public static final double BASE_SUSPICION = 0.5;
+
+    private static final String SEER_CLAIM = "我是预言家";
+
+    private final Long selfId;
+    private final Map<Integer, Long> seatToId = new HashMap<>();
+    private final Map<Long, Integer> idToSeat = new HashMap<>();
+    private final Set<Long> knownWerewolves = new HashSet<>();
+    private final Set<Long> knownGood = new HashSet<>();
+    private final Set<Long> killedAtNight = new HashSet<>();
+
+    // 自己作为预言家的查验结果（目标 -> 是否狼人）
+    private final Map<Long, Boolean> ownChecks = new LinkedHashMap<>();
+
+    // 他人的预言家声明（声明者 -> (目标 -> 是否狼人)）
+    private final Map<Long, Map<Long, Boolean>> seerClaims = new LinkedHashMap<>();
+
+    // 初始化座位表之前收到的发言，初始化后补充解析
+    private final List<Map.Entry<Long, String>> pendingSpeeches = new ArrayList<>();
+
+    private boolean werewolf;
+
+    public BeliefState(Long selfId) {
+        this.selfId = selfId;
+    }
+
+    /**
+     * 用座位表和自己的身份初始化，狼人额外知道队友
+     *
+     * @param gameState 游戏状态
+     * @param self 自己
+     */
+    public void initialize(GameState gameState, Player self) {
+        if (!seatToId.isEmpty()) {
+            return;
+        }
+        werewolf = self.getRole() instanceof Werewolf;
+        for (Player player : gameState.getPlayers()) {
+            seatToId.put(player.getSeatNumber(), player.getId());
+            idToSeat.put(player.getId(), player.getSeatNumber());
+            if (werewolf && player.getRole() instanceof Werewolf) {
+                knownWerewolves.add(player.getId());
+            }
+        }
+        knownGood.add(selfId);
+        knownWerewolves.remove(selfId);
+        pendingSpeeches.forEach(speech -> onSpeech(speech.getKey(), speech.getValue()));
+        pendingSpeeches.clear();
+    }
+
+    /**
+     * 根据可见事件更新信念
+     *
+     * @param event 游戏事件
+     */
+    public void onEvent(GameEvent event) {
+        if (event.getType() == null) {
+            return;
+        }
+        switch (event.getType()) {
+            case SEER_CHECK:
+                if (selfId.equals(event.getPlayerId()) && event.getTargetPlayerId() != null) {
+                    recordCheck(event.getTargetPlayerId(), isWerewolfResult(event));
+                }
+                break;
+            case WEREWOLF_KILL:
+                // 狼人击杀事件的 playerId 是被击杀的玩家
+                if (event.getPlayerId() != null) {
+                    killedAtNight.add(event.getPlayerId());
+                }
+                break;
+            case PLAYER_SPEECH:
+            case LAST_WORDS:
+                onSpeech(event.getPlayerId(), event.getDescription());
+                break;
+            default:
+                break;
+        }
+    }
+
+    private boolean isWerewolfResult(GameEvent event) {
+        if (event.getData() != null && event.getData().get("werewolf") instanceof Boolean result) {
+            return result;
+        }
+        return event.getDescription().endsWith("狼人");
+    }
+
+    /**
+     * 记录一段发言，识别其中的预言家声明
+     *
+     * @param speakerId 发言玩家ID
+     * @param content 发言内容
+     */
+    public void onSpeech(Long speakerId, String content) {
+        if (speakerId == null || content == null || speakerId.equals(selfId) || !content.contains(SEER_CLAIM)) {
+            return;
+        }
+        if (seatToId.isEmpty()) {
+            pendingSpeeches.add(Map.entry(speakerId, content));
+            return;
+        }
+        Claim claim = ClaimExtractor.extract(speakerId, content, seatToId::get);
+        if (claim != null && claim.getClaimedRole() == RoleType.SEER) {
+            seerClaims.computeIfAbsent(speakerId, id -> new LinkedHashMap<>()).putAll(claim.getCheckResults());
+        }
+    }
+
+    /**
+     * 记录自己的查验结果
+     *
+     * @param targetId 查验目标
+     * @param isWerewolf 是否狼人
+     */
+    public void recordCheck(Long targetId, boolean isWerewolf) {
+        ownChecks.put(targetId, isWerewolf);
+        if (isWerewolf) {
+            knownWerewolves.add(targetId);
+        } else {
+            knownGood.add(targetId);
+        }
+    }
+
+    /**
+     * 估计玩家是狼人的嫌疑（0~1）
+     *
+     * @param playerId 玩家ID
+     * @return 嫌疑值
+     */
+    public double suspicion(Long playerId) {
+        if (knownWerewolves.contains(playerId)) {
+            return 1.0;
+        }
+        if (knownGood.contains(playerId)) {
+            return 0.0;
+        }
+        double score = BASE_SUSPICION;
+        if (killedAtNight.contains(playerId)) {
+            score -= 0.3;
+        }
+        for (Map.Entry<Long, Map<Long, Boolean>> claim : seerClaims.entrySet()) {
+            // 声明者本身可信度越低，其声明的权重越低
+            double weight = knownWerewolves.contains(claim.getKey()) ? -0.5 : 1.0;
+            Boolean claimedWerewolf = claim.getValue().get(playerId);
+            if (claimedWerewolf != null) {
+                score += weight * (claimedWerewolf ? 0.35 : -0.25);
+            }
+        }
+        if (seerClaims.containsKey(playerId)) {
+            // 多人声明预言家时至少有一人说谎
+            score += seerClaims.size() > 1 ? 0.15 : -0.2;
+        }
+        return Math.max(0.0, Math.min(1.0, score));
+    }
+
+    public boolean isWerewolf() {
+        return werewolf;
+    }
+
+    public boolean isKnownWerewolf(Long playerId) {
+        return knownWerewolves.contains(playerId);
+    }
+
+    public boolean isSeerClaimant(Long playerId) {
+        return seerClaims.containsKey(playerId);
+    }
+
+    public Map<Long, Boolean> getOwnChecks() {
+        return ownChecks;
+    }
+
+    public Map<Long, Map<Long, Boolean>> getSeerClaims() {
+        return seerClaims;
+    }
+
+    /**
+     * 获取玩家座位号
+     *
+     * @param playerId 玩家ID
+     * @return 座位号，未知时返回0
+     */
+    public int seatOf(Long playerId) {
+        return idToSeat.getOrDefault(playerId, 0);
+    }
+}
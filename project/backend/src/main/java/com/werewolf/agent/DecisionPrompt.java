@@ -0,0 +1,29 @@
+package com.werewolf.agent;
+
+import java.util.List;
+
+/**
+ * 推送给玩家的决策提示
+ * 提交行动时带上 version，版本不符的提交不会生效
+ *
+ * @param playerId 玩家ID
+ * @param version 决策版本（同一座位单调递增）
+ * @param type 决策类型
+ * @param legalTargets 合法目标
+ * @param killedPlayerId 今晚被击杀的玩家（女巫用药时）
+ * @param antidoteAllowed 是否可以使用解药
+ * @param poisonAllowed 是否可以使用毒药
+ * @param abstainAllowed 是否可以弃票或放弃
+ * @param timeout 提交期限（毫秒），超过后按默认行动处理
+ * @author Claude & User
+ */
+public record DecisionPrompt(Long playerId, long version, DecisionType type, List<Long> legalTargets,
+                             Long killedPlayerId, boolean antidoteAllowed, boolean poisonAllowed,
+                             boolean abstainAllowed, long timeout) {
+
+    static DecisionPrompt of(DecisionRequest request, long version, long timeout) {
+        return new DecisionPrompt(request.getPlayer().getId(), version, request.getType(),
+                List.copyOf(request.getLegalTargets()), request.getKilledPlayerId(),
+                request.isAntidoteAllowed(), request.isPoisonAllowed(), request.isAbstainAllowed(), timeout);
+    }
+}
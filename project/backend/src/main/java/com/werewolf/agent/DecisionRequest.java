@@ -0,0 +1,89 @@
+package com.werewolf.agent;
+
+import com.werewolf.digest.RoundDigest;
+import com.werewolf.domain.model.GameState;
+import com.werewolf.domain.model.Player;
+import com.werewolf.view.PlayerView;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AI决策请求
+ * 由 {@link LegalActions} 根据游戏规则生成，包含当前可选的合法目标
+ *
+ * @author Claude & User
+ */
+@Data
+@Builder
+public class DecisionRequest {
+
+    /**
+     * 决策类型
+     */
+    private DecisionType type;
+
+    /**
+     * 游戏状态
+     */
+    private GameState gameState;
+
+    /**
+     * 做决策的玩家
+     */
+    private Player player;
+
+    /**
+     * 合法目标玩家ID（按座位号排序）
+     */
+    @Builder.Default
+    private List<Long> legalTargets = new ArrayList<>();
+
+    /**
+     * 存活的狼队成员ID（仅狼队联合决策，按座位号排序）
+     */
+    @Builder.Default
+    private List<Long> werewolfTeam = new ArrayList<>();
+
+    /**
+     * 今晚被狼人击杀的玩家ID（仅女巫决策）
+     */
+    private Long killedPlayerId;
+
+    /**
+     * 今晚是否可以使用解药（仅女巫决策）
+     */
+    private boolean antidoteAllowed;
+
+    /**
+     * 今晚是否可以使用毒药（仅女巫决策）
+     */
+    private boolean poisonAllowed;
+
+    /**
+     * 是否允许弃票（仅投票决策）
+     */
+    private boolean abstainAllowed;
+
+    /**
+     * 本轮白天已完成的发言（玩家ID -> 发言内容，按发言顺序）
+     * 白天发言要到整轮结束后才写入事件历史，轮到发言或投票的玩家通过该字段获取前面的发言
+     */
+    @Builder.Default
+    private Map<Long, String> daySpeeches = new LinkedHashMap<>();
+
+    /**
+     * 已完成回合的公开摘要（按回合排序，房间内所有座位共享）
+     */
+    @Builder.Default
+    private List<RoundDigest> digests = new ArrayList<>();
+
+    /**
+     * 做决策玩家的信息集视图（由驱动器增量维护，可能为空）
+     */
+    private PlayerView view;
+}
@@ -0,0 +1,118 @@
+package com.werewolf.agent;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 座位的待提交决策
+ * 同一座位同时最多一个待提交的决策，每次打开决策版本加一；提交必须带上该版本和客户端生成的幂等键。
+ * 同一幂等键的重复提交直接返回第一次的结果，不会再次生效（保留最近 {@value #KEY_CAPACITY} 个键）。
+ * 只锁当前座位；提交与期限到达后的默认行动通过决策 Future 的一次性完成裁决，
+ * 先完成的一方生效，另一方返回 {@link SubmissionResult#STALE}，投票和用药不会重复生效
+ *
+ * @author Claude & User
+ */
+@Slf4j
+public class DecisionSlot {
+
+    static final int KEY_CAPACITY = 256;
+
+    private final Long playerId;
+    private long version;
+    private Open open;
+
+    // 幂等键 -> 第一次提交的结果，按插入顺序淘汰
+    private final Map<String, SubmissionResult> outcomes = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, SubmissionResult> eldest) {
+            return size() > KEY_CAPACITY;
+        }
+    };
+
+    public DecisionSlot(Long playerId) {
+        this.playerId = playerId;
+    }
+
+    /**
+     * 打开新的决策，之前未完成的决策不再接受提交
+     *
+     * @param request 决策请求
+     * @param result 决策结果，提交或默认行动完成它
+     * @param timeout 提交期限（毫秒）
+     * @return 推送给玩家的提示
+     */
+    public synchronized DecisionPrompt open(DecisionRequest request, CompletableFuture<AgentDecision> result,
+                                            long timeout) {
+        if (!playerId.equals(request.getPlayer().getId())) {
+            throw new IllegalArgumentException("决策请求不属于玩家 " + playerId);
+        }
+        Open opened = new Open(DecisionPrompt.of(request, ++version, timeout), request, result);
+        open = opened;
+        result.whenComplete((decision, ex) -> close(opened));
+        return opened.prompt();
+    }
+
+    /**
+     * 提交行动
+     *
+     * @param submission 行动
+     * @return 提交结果
+     */
+    public synchronized SubmissionResult submit(ActionSubmission submission) {
+        String key = submission.getIdempotencyKey();
+        if (key == null || key.isBlank()) {
+            return SubmissionResult.REJECTED;
+        }
+        SubmissionResult seen = outcomes.get(key);
+        if (seen != null) {
+            log.debug("玩家 {} 的重复提交 {}，返回 {}", playerId, key, seen);
+            return seen;
+        }
+        SubmissionResult result = apply(submission);
+        outcomes.put(key, result);
+        return result;
+    }
+
+    private SubmissionResult apply(ActionSubmission submission) {
+        Open current = open;
+        if (current == null || current.prompt().version() != submission.getVersion()) {
+            return SubmissionResult.STALE;
+        }
+        DecisionRequest request = current.request();
+        AgentDecision decision = submission.toDecision("human");
+        if (submission.getType() != request.getType() || !LegalActions.sanitize(request, decision).equals(decision)) {
+            return SubmissionResult.REJECTED;
+        }
+        if (request.getType() == DecisionType.VOTE && decision.getTargetPlayerId() == null
+                && !request.isAbstainAllowed()) {
+            return SubmissionResult.REJECTED;
+        }
+        // 期限到达的默认行动可能已抢先完成
+        return current.result().complete(decision) ? SubmissionResult.ACCEPTED : SubmissionResult.STALE;
+    }
+
+    /**
+     * 当前待提交决策的提示（玩家重连时重新推送）
+     *
+     * @return 提示，没有待提交的决策时返回null
+     */
+    public synchronized DecisionPrompt current() {
+        return open == null ? null : open.prompt();
+    }
+
+    private synchronized void close(Open opened) {
+        if (open == opened) {
+            open = null;
+        }
+    }
+
+    public Long getPlayerId() {
+        return playerId;
+    }
+
+    private record Open(DecisionPrompt prompt, DecisionRequest request, CompletableFuture<AgentDecision> result) {
+    }
+}
@@ -0,0 +1,52 @@
+package com.werewolf.agent;
+
+/**
+ * AI决策类型
+ *
+ * @author Claude & User
+ */
+public enum DecisionType {
+    /**
+     * 狼人选择击杀目标
+     */
+    WEREWOLF_KILL,
+
+    /**
+     * 狼队联合选择击杀目标（一次决策代表全体狼人，附带狼队讨论）
+     */
+    WEREWOLF_TEAM_KILL,
+
+    /**
+     * 预言家选择查验目标
+     */
+    SEER_CHECK,
+
+    /**
+     * 女巫决定是否用药
+     */
+    WITCH_ACTION,
+
+    /**
+     * 白天发言
+     */
+    DAY_SPEECH,
+
+    /**
+     * 遗言
+     */
+    LAST_WORDS,
+
+    /**
+     * 白天投票
+     */
+    VOTE;
+
+    /**
+     * 是否为发言类决策
+     *
+     * @return true表示需要生成文本
+     */
+    public boolean isSpeech() {
+        return this == DAY_SPEECH || this == LAST_WORDS;
+    }
+}
@@ -0,0 +1,35 @@
+package com.werewolf.agent;
+
+import com.werewolf.domain.model.GameEvent;
+import com.werewolf.domain.model.Player;
+import com.werewolf.domain.role.Werewolf;
+import com.werewolf.view.Visibility;
+
+/**
+ * 事件可见性判断
+ * AI只能基于自己可见的事件做决策，避免通过私有事件获得额外信息
+ *
+ * @author Claude & User
+ */
+public final class EventVisibility {
+
+    private EventVisibility() {
+    }
+
+    /**
+     * 判断事件对玩家是否可见
+     * 公开事件所有人可见；私有事件只有当事人可见；狼人击杀结果狼队共享
+     *
+     * @param event 游戏事件
+     * @param player 玩家
+     * @return true表示可见
+     */
+    public static boolean isVisibleTo(GameEvent event, Player player) {
+        return switch (Visibility.of(event)) {
+            case PUBLIC -> true;
+            case WEREWOLF_TEAM -> player.getRole() instanceof Werewolf;
+            case PRIVATE -> player.getId().equals(event.getPlayerId());
+            case SYSTEM -> false;
+        };
+    }
+}
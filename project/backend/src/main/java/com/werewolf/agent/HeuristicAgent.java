@@ -0,0 +1,228 @@
+package com.werewolf.agent;
+
+import com.werewolf.domain.model.GameEvent;
+import com.werewolf.domain.model.Player;
+import com.werewolf.domain.role.Seer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+/**
+ * 规则AI
+ * 不调用任何模型，根据 {@link BeliefState} 在微秒级给出合法决策。
+ * 用于填补空座位、模型熔断或超时时的降级，以及批量模拟的默认策略
+ *
+ * @author Claude & User
+ */
+public class HeuristicAgent implements PlayerAgent {
+
+    public static final String SOURCE = "heuristic";
+
+    /**
+     * 嫌疑值达到该值时女巫使用毒药
+     */
+    private static final double POISON_THRESHOLD = 0.8;
+
+    private final Long playerId;
+    private final Random random;
+    private final BeliefState belief;
+
+    public HeuristicAgent(Long playerId) {
+        this(playerId, new Random(playerId));
+    }
+
+    public HeuristicAgent(Long playerId, Random random) {
+        this.playerId = playerId;
+        this.random = random;
+        this.belief = new BeliefState(playerId);
+    }
+
+    @Override
+    public Long getPlayerId() {
+        return playerId;
+    }
+
+    @Override
+    public void onEvent(GameEvent event) {
+        belief.onEvent(event);
+    }
+
+    @Override
+    public CompletableFuture<AgentDecision> decide(DecisionRequest request) {
+        return CompletableFuture.completedFuture(decideNow(request));
+    }
+
+    /**
+     * 同步做出决策
+     *
+     * @param request 决策请求
+     * @return 决策
+     */
+    public synchronized AgentDecision decideNow(DecisionRequest request) {
+        belief.initialize(request.getGameState(), request.getPlayer());
+        request.getDaySpeeches().forEach(belief::onSpeech);
+
+        AgentDecision decision = switch (request.getType()) {
+            case WEREWOLF_KILL -> AgentDecision.target(request.getType(), chooseKill(request.getLegalTargets()));
+            case WEREWOLF_TEAM_KILL -> teamKill(request);
+            case SEER_CHECK -> AgentDecision.target(request.getType(), chooseCheck(request.getLegalTargets()));
+            case WITCH_ACTION -> chooseWitchAction(request);
+            case VOTE -> AgentDecision.target(request.getType(), chooseVote(request.getLegalTargets()));
+            case DAY_SPEECH -> AgentDecision.speech(request.getType(), daySpeech(request));
+            case LAST_WORDS -> AgentDecision.speech(request.getType(), lastWords(request));
+        };
+        return LegalActions.sanitize(request, decision.toBuilder().source(SOURCE).build());
+    }
+
+    public BeliefState getBelief() {
+        return belief;
+    }
+
+    /**
+     * 狼人：优先击杀跳出的预言家，其次击杀最被信任的玩家
+     */
+    private Long chooseKill(List<Long> legalTargets) {
+        List<Long> claimants = legalTargets.stream().filter(belief::isSeerClaimant).toList();
+        if (!claimants.isEmpty()) {
+            return pick(claimants);
+        }
+        return pickBest(legalTargets, id -> -belief.suspicion(id));
+    }
+
+    /**
+     * 狼队联合击杀：与单独击杀的规则相同，附带一句说明理由的讨论
+     */
+    private AgentDecision teamKill(DecisionRequest request) {
+        Long target = chooseKill(request.getLegalTargets());
+        if (target == null) {
+            return AgentDecision.target(request.getType(), null);
+        }
+        String reason = belief.isSeerClaimant(target) ? "跳了预言家，必须先刀" : "最被好人信任，先刀掉";
+        return AgentDecision.target(request.getType(), target).toBuilder()
+                .content(belief.seatOf(target) + "号" + reason + "。")
+                .build();
+    }
+
+    /**
+     * 预言家：查验尚未查验过的嫌疑最高的玩家
+     */
+    private Long chooseCheck(List<Long> legalTargets) {
+        List<Long> unchecked = legalTargets.stream()
+                .filter(id -> !belief.getOwnChecks().containsKey(id))
+                .toList();
+        return pickBest(unchecked.isEmpty() ? legalTargets : unchecked, belief::suspicion);
+    }
+
+    /**
+     * 女巫：首夜或跳出的预言家被杀时救人；不救人时毒高嫌疑玩家
+     */
+    private AgentDecision chooseWitchAction(DecisionRequest request) {
+        Long killed = request.getKilledPlayerId();
+        boolean save = request.isAntidoteAllowed()
+                && (request.getGameState().getCurrentRound() == 1
+                || belief.isSeerClaimant(killed)
+                || belief.suspicion(killed) < BeliefState.BASE_SUSPICION);
+        if (save) {
+            return AgentDecision.witch(true, null);
+        }
+        if (request.isPoisonAllowed()) {
+            Long suspect = pickBest(request.getLegalTargets(), belief::suspicion);
+            if (suspect != null && belief.suspicion(suspect) >= POISON_THRESHOLD) {
+                return AgentDecision.witch(false, suspect);
+            }
+        }
+        return AgentDecision.witch(false, null);
+    }
+
+    /**
+     * 投票：好人投嫌疑最高的玩家；狼人避开队友，跟随好人视角下嫌疑最高的玩家
+     */
+    private Long chooseVote(List<Long> legalTargets) {
+        if (belief.isWerewolf()) {
+            List<Long> candidates = legalTargets.stream()
+                    .filter(id -> !belief.isKnownWerewolf(id))
+                    .toList();
+            List<Long> claimants = candidates.stream().filter(belief::isSeerClaimant).toList();
+            return claimants.isEmpty() ? pickBest(candidates, this::publicSuspicion) : pick(claimants);
+        }
+        return pickBest(legalTargets, belief::suspicion);
+    }
+
+    private String daySpeech(DecisionRequest request) {
+        Player self = request.getPlayer();
+        String prefix = self.getSeatNumber() + "号玩家发言：";
+        if (self.getRole() instanceof Seer && !belief.getOwnChecks().isEmpty()) {
+            return prefix + "我是预言家，" + checkReport() + "请大家跟我投票。";
+        }
+        List<Long> others = request.getGameState().getAlivePlayers().stream()
+                .map(Player::getId)
+                .filter(id -> !id.equals(playerId))
+                .filter(id -> !belief.isWerewolf() || !belief.isKnownWerewolf(id))
+                .collect(Collectors.toList());
+        Long suspect = pickBest(others, belief.isWerewolf() ? this::publicSuspicion : belief::suspicion);
+        if (suspect == null) {
+            return prefix + "我是好人，过。";
+        }
+        return prefix + "我是好人，目前我觉得" + belief.seatOf(suspect) + "号比较可疑，建议重点关注。";
+    }
+
+    private String lastWords(DecisionRequest request) {
+        Player self = request.getPlayer();
+        String prefix = self.getSeatNumber() + "号玩家遗言：";
+        if (self.getRole() instanceof Seer && !belief.getOwnChecks().isEmpty()) {
+            return prefix + "我是预言家，" + checkReport() + "请好人相信我的查验。";
+        }
+        return prefix + "我是好人，希望大家仔细分析，找出狼人。";
+    }
+
+    private String checkReport() {
+        StringBuilder report = new StringBuilder("查验结果：");
+        for (Map.Entry<Long, Boolean> check : belief.getOwnChecks().entrySet()) {
+            report.append(belief.seatOf(check.getKey())).append("号是")
+                    .append(check.getValue() ? "狼人" : "好人").append("，");
+        }
+        return report.toString();
+    }
+
+    /**
+     * 狼人估计的“好人视角”嫌疑：忽略自己知道的队友身份
+     */
+    private double publicSuspicion(Long id) {
+        double score = BeliefState.BASE_SUSPICION;
+        for (Map<Long, Boolean> claims : belief.getSeerClaims().values()) {
+            Boolean claimedWerewolf = claims.get(id);
+            if (claimedWerewolf != null) {
+                score += claimedWerewolf ? 0.35 : -0.25;
+            }
+        }
+        return score;
+    }
+
+    /**
+     * 选择评分最高的目标，并列时随机
+     */
+    private Long pickBest(List<Long> candidates, ToDoubleFunction<Long> score) {
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        double best = candidates.stream().mapToDouble(score).max().getAsDouble();
+        List<Long> top = new ArrayList<>();
+        for (Long id : candidates) {
+            if (score.applyAsDouble(id) >= best - 1e-9) {
+                top.add(id);
+            }
+        }
+        top.sort(Comparator.naturalOrder());
+        return pick(top);
+    }
+
+    private Long pick(List<Long> candidates) {
+        return candidates.isEmpty() ? null : candidates.get(random.nextInt(candidates.size()));
+    }
+}
@@ -0,0 +1,116 @@
+package com.werewolf.agent;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 真人玩家座位
+ * 每次决策打开座位的 {@link DecisionSlot} 并把提示推送给客户端，客户端带版本和幂等键提交行动；
+ * 超过期限仍未提交时提交降级AI的默认决策。提交和默认决策谁先完成谁生效，同一决策不会生效两次
+ *
+ * @author Claude & User
+ */
+@Slf4j
+public class HumanAgent implements PlayerAgent {
+
+    private final Long playerId;
+    private final PlayerAgent fallback;
+    private final ScheduledExecutorService scheduler;
+    private final long timeout;
+    private final Consumer<DecisionPrompt> prompter;
+    private final DecisionSlot slot;
+
+    // 尚未完成的决策 -> 决策请求
+    private final Map<CompletableFuture<AgentDecision>, DecisionRequest> pending = new ConcurrentHashMap<>();
+
+    /**
+     * @param playerId 玩家ID
+     * @param fallback 超时未提交时使用的降级AI
+     * @param scheduler 期限定时器
+     * @param timeout 提交期限（毫秒）
+     * @param prompter 把决策提示推送给玩家的客户端
+     */
+    public HumanAgent(Long playerId, PlayerAgent fallback, ScheduledExecutorService scheduler, long timeout,
+                      Consumer<DecisionPrompt> prompter) {
+        if (timeout <= 0) {
+            throw new IllegalArgumentException("提交期限必须大于0");
+        }
+        this.playerId = playerId;
+        this.fallback = fallback;
+        this.scheduler = scheduler;
+        this.timeout = timeout;
+        this.prompter = prompter;
+        this.slot = new DecisionSlot(playerId);
+    }
+
+    @Override
+    public Long getPlayerId() {
+        return playerId;
+    }
+
+    @Override
+    public CompletableFuture<AgentDecision> decide(DecisionRequest request) {
+        CompletableFuture<AgentDecision> result = new CompletableFuture<>();
+        DecisionPrompt prompt = slot.open(request, result, timeout);
+        ScheduledFuture<?> timer = scheduler.schedule(() -> {
+            if (!result.isDone()) {
+                log.info("玩家 {} 未在 {}ms 内提交 {}，使用默认决策", playerId, timeout, request.getType());
+                submitDefault(request, result);
+            }
+        }, timeout, TimeUnit.MILLISECONDS);
+        pending.put(result, request);
+        result.whenComplete((decision, ex) -> {
+            pending.remove(result);
+            timer.cancel(false);
+        });
+        prompter.accept(prompt);
+        return result;
+    }
+
+    /**
+     * 提交行动
+     *
+     * @param submission 行动
+     * @return 提交结果
+     */
+    public SubmissionResult submit(ActionSubmission submission) {
+        return slot.submit(submission);
+    }
+
+    /**
+     * 当前待提交决策的提示
+     *
+     * @return 提示，没有待提交的决策时返回null
+     */
+    public DecisionPrompt currentPrompt() {
+        return slot.current();
+    }
+
+    /**
+     * 不再等待期限，立即为等待中的决策提交默认决策（玩家掉线时使用）
+     */
+    public void expire() {
+        pending.forEach((result, request) -> submitDefault(request, result));
+    }
+
+    /**
+     * 取消该座位仍在等待提交的决策
+     */
+    @Override
+    public void close() {
+        for (CompletableFuture<AgentDecision> decision : pending.keySet()) {
+            decision.cancel(true);
+        }
+    }
+
+    private void submitDefault(DecisionRequest request, CompletableFuture<AgentDecision> result) {
+        fallback.decide(request).thenAccept(decision -> result.complete(decision.toBuilder().fallback(true).build()));
+    }
+}
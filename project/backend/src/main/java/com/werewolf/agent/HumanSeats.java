@@ -0,0 +1,77 @@
+package com.werewolf.agent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 在线对局的真人座位登记
+ * 连接层按（对局, 玩家）找到座位提交行动，不经过引擎线程
+ *
+ * @author Claude & User
+ */
+public class HumanSeats {
+
+    private final Map<Long, Map<Long, HumanAgent>> games = new ConcurrentHashMap<>();
+
+    /**
+     * 登记真人座位
+     *
+     * @param gameId 对局ID
+     * @param agent 座位
+     */
+    public void register(Long gameId, HumanAgent agent) {
+        games.computeIfAbsent(gameId, id -> new ConcurrentHashMap<>()).put(agent.getPlayerId(), agent);
+    }
+
+    /**
+     * 对局结束或房间关闭时移除该局的所有座位
+     *
+     * @param gameId 对局ID
+     */
+    public void release(Long gameId) {
+        games.remove(gameId);
+    }
+
+    /**
+     * 提交行动
+     *
+     * @param gameId 对局ID
+     * @param playerId 玩家ID
+     * @param submission 行动
+     * @return 提交结果，座位不存在时为 {@link SubmissionResult#REJECTED}
+     */
+    public SubmissionResult submit(Long gameId, Long playerId, ActionSubmission submission) {
+        HumanAgent agent = find(gameId, playerId);
+        return agent == null ? SubmissionResult.REJECTED : agent.submit(submission);
+    }
+
+    /**
+     * 玩家掉线，等待中的决策立即使用默认决策
+     *
+     * @param gameId 对局ID
+     * @param playerId 玩家ID
+     */
+    public void expire(Long gameId, Long playerId) {
+        HumanAgent agent = find(gameId, playerId);
+        if (agent != null) {
+            agent.expire();
+        }
+    }
+
+    /**
+     * 座位当前待提交决策的提示
+     *
+     * @param gameId 对局ID
+     * @param playerId 玩家ID
+     * @return 提示，没有待提交的决策时返回null
+     */
+    public DecisionPrompt currentPrompt(Long gameId, Long playerId) {
+        HumanAgent agent = find(gameId, playerId);
+        return agent == null ? null : agent.currentPrompt();
+    }
+
+    private HumanAgent find(Long gameId, Long playerId) {
+        Map<Long, HumanAgent> seats = games.get(gameId);
+        return seats == null ? null : seats.get(playerId);
+    }
+}
@@ -0,0 +1,534 @@
+package com.werewolf.agent;
+
+import com.werewolf.agent.output.DecisionDecoder;
+import com.werewolf.agent.output.DecisionSchema;
+import com.werewolf.agent.prompt.PromptBuilder;
+import com.werewolf.agent.prompt.TokenEstimator;
+import com.werewolf.domain.model.GameEvent;
+import com.werewolf.domain.model.GameSnapshot;
+import com.werewolf.domain.model.GameState;
+import com.werewolf.llm.ChatMessage;
+import com.werewolf.llm.LLMClient;
+import com.werewolf.llm.LLMRequest;
+import com.werewolf.llm.LLMResponse;
+import com.werewolf.llm.scheduling.LoadShedder;
+import com.werewolf.llm.session.ConversationSession;
+import com.werewolf.llm.session.SessionExpiredException;
+import com.werewolf.view.PlayerView;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * LLM智能体
+ * 通过 {@link LLMClient} 调用模型做决策；模型熔断时直接使用降级AI。
+ * 每次决策开始时预先计算降级AI的默认决策，调用失败、回复无法解析或超过按模型延迟计算的期限时
+ * 立即提交该决策，保证每次决策都能按时返回合法结果。
+ * 没有真人玩家的房间在过载时按降级阶梯换用较小的模型或直接使用降级AI，座位的降级和恢复记录为游戏事件。
+ * 回复按 {@link DecisionSchema} 请求结构化输出，先由 {@link DecisionDecoder} 宽松解码和修复，
+ * 再尝试从自由文本中识别，都失败时才重新询问模型一次。
+ * 模型支持服务端会话时，每局保持一个会话，每次决策只发送新增的事件
+ *
+ * @author Claude & User
+ */
+@Slf4j
+public class LLMAgent implements PlayerAgent {
+
+    private static final Pattern SEAT_PATTERN = Pattern.compile("(\\d+)\\s*号");
+    private static final Pattern NUMBER_PATTERN = Pattern.compile("\\d+");
+    private static final Pattern POISON_PATTERN = Pattern.compile("毒\\D{0,4}?(\\d+)");
+    private static final Pattern TEAM_KILL_PATTERN = Pattern.compile("击杀\\s*[:：]?\\s*(\\d+)\\s*号?");
+
+    private final Long playerId;
+    private final String modelId;
+    private final LLMClient llmClient;
+    private final PlayerAgent fallback;
+    private final PromptBuilder promptBuilder;
+
+    // 过载降级到的模型（未降级时为null）
+    private volatile String degradedTo;
+
+    // 尚未完成的决策
+    private final Set<CompletableFuture<AgentDecision>> pending = ConcurrentHashMap.newKeySet();
+
+    // 从玩家视图增量读取的可见事件
+    private final List<GameEvent> history = new ArrayList<>();
+    private PlayerView view;
+    private PlayerView.Cursor cursor;
+
+    // 服务端会话：已发送到的历史位置、已发送的白天发言、会话中已有内容的估算 token 数
+    private final ConversationSession session;
+    private final Set<String> sentSpeeches = new HashSet<>();
+    private int sessionSent = 0;
+    private long contextTokens = 0;
+
+    /**
+     * @param playerId 玩家ID
+     * @param modelId 使用的模型
+     * @param llmClient LLM 客户端
+     * @param fallback 降级AI
+     * @param properties AI 玩家配置（提示词历史预算）
+     */
+    public LLMAgent(Long playerId, String modelId, LLMClient llmClient, PlayerAgent fallback,
+                    AIProperties properties) {
+        this(playerId, modelId, llmClient, fallback, new PromptBuilder(properties));
+    }
+
+    public LLMAgent(Long playerId, String modelId, LLMClient llmClient, PlayerAgent fallback,
+                    PromptBuilder promptBuilder) {
+        this.playerId = playerId;
+        this.modelId = modelId;
+        this.llmClient = llmClient;
+        this.fallback = fallback;
+        this.promptBuilder = promptBuilder;
+        this.session = new ConversationSession(llmClient.getProperties().getSession().getIdleTimeout());
+    }
+
+    @Override
+    public Long getPlayerId() {
+        return playerId;
+    }
+
+    public String getModelId() {
+        return modelId;
+    }
+
+    @Override
+    public CompletableFuture<AgentDecision> decide(DecisionRequest request) {
+        Long gameId = request.getGameState().getGameId();
+        // 每次决策只解析一次降级级别，记录的降级事件和实际调用的模型按同一级别计算
+        // 回放录制时调用不经过模型，固定为不降级且不检查熔断，回放结果不受当前负载影响
+        boolean replaying = llmClient.getCassettes().isReplaying(gameId);
+        boolean allowDowngrade = !request.getGameState().hasHumanPlayers();
+        int downgradeLevel = allowDowngrade && !replaying ? llmClient.getLoadShedder().resolveLevel() : 0;
+        if (LoadShedder.HEURISTIC.equals(trackDowngrade(request, downgradeLevel))) {
+            log.debug("玩家 {} 已降级为规则AI", playerId);
+            return fallback(request);
+        }
+        if (!replaying && !llmClient.isAvailable(gameId, playerId, modelId)) {
+            log.debug("玩家 {} 的模型不可用，使用降级决策", playerId);
+            return fallback(request);
+        }
+
+        // 回合开始时先算好规则AI的默认决策，模型失败或超过期限时直接提交
+        CompletableFuture<AgentDecision> precomputed = fallback(request);
+        long deadline = llmClient.deadlineFor(gameId, playerId, modelId);
+
+        PlayerView playerView = request.getView() != null
+                ? request.getView() : PlayerView.snapshot(request.getGameState(), request.getPlayer());
+        List<GameEvent> visible = syncHistory(playerView);
+        // 重新询问和会话重建在模型回调线程进行，用到的游戏状态和完整提示词在此处（引擎线程）算好
+        DecisionContext context = new DecisionContext(gameId, request.getGameState().getCurrentRound(),
+                allowDowngrade, downgradeLevel, promptBuilder.build(request, playerView, visible));
+        // 降级期间不使用会话（会话固定在原模型上），恢复后从上次同步的位置继续
+        boolean useSession = degradedTo == null && llmClient.supportsSessions(gameId, playerId, modelId);
+        CompletableFuture<LLMResponse> call = useSession
+                ? sessionCall(request, playerView, visible, context)
+                : llmClient.complete(baseRequest(request, context).messages(context.prompt()).build());
+        AtomicReference<CompletableFuture<LLMResponse>> current = new AtomicReference<>(call);
+        CompletableFuture<AgentDecision> modelDecision = call
+                .thenCompose(response -> {
+                    AgentDecision decision = parse(request, response);
+                    if (decision != null) {
+                        return CompletableFuture.completedFuture(decision);
+                    }
+                    log.info("玩家 {} 的回复无法解析，重新询问一次", playerId);
+                    CompletableFuture<LLMResponse> reask =
+                            llmClient.complete(reaskRequest(request, response, context));
+                    current.set(reask);
+                    return reask.thenApply(retried -> parse(request, retried));
+                })
+                .exceptionally(ex -> null);
+
+        CompletableFuture<AgentDecision> result = new CompletableFuture<>();
+        modelDecision.thenAccept(decision -> {
+            if (result.isDone()) {
+                return;
+            }
+            if (decision == null) {
+                log.warn("玩家 {} 的模型决策失败，使用降级决策", playerId);
+                precomputed.thenAccept(result::complete);
+            } else {
+                result.complete(LegalActions.sanitize(request, decision));
+            }
+        });
+        ScheduledFuture<?> timer = llmClient.getScheduler().schedule(() -> {
+            if (!result.isDone()) {
+                log.warn("玩家 {} 的模型决策超过期限 {}ms，提交默认决策", playerId, deadline);
+                precomputed.thenAccept(result::complete);
+            }
+        }, deadline, TimeUnit.MILLISECONDS);
+        pending.add(result);
+        // 超时提交、对局结束或外部取消后中断仍在进行的调用
+        result.whenComplete((decision, ex) -> {
+            pending.remove(result);
+            timer.cancel(false);
+            current.get().cancel(true);
+        });
+        return result;
+    }
+
+    /**
+     * 取消该座位仍在进行的决策，进行中的模型调用随之中断
+     */
+    @Override
+    public void close() {
+        for (CompletableFuture<AgentDecision> decision : pending) {
+            decision.cancel(true);
+        }
+    }
+
+    /**
+     * 当前降级到的模型（未降级时为null）
+     *
+     * @return 模型ID或 {@link LoadShedder#HEURISTIC}
+     */
+    public String getDegradedTo() {
+        return degradedTo;
+    }
+
+    /**
+     * 计算座位本次实际使用的模型，降级状态变化时记录事件
+     *
+     * @param downgradeLevel 本次决策的降级级别
+     * @return 实际使用的模型ID或 {@link LoadShedder#HEURISTIC}
+     */
+    private synchronized String trackDowngrade(DecisionRequest request, int downgradeLevel) {
+        GameState gameState = request.getGameState();
+        String routed = llmClient.effectiveModel(gameState.getGameId(), playerId, modelId, false);
+        String effective = llmClient.getLoadShedder().downgrade(routed, downgradeLevel);
+        String degraded = effective.equals(routed) ? null : effective;
+        if (Objects.equals(degraded, degradedTo)) {
+            return effective;
+        }
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("from", degradedTo == null ? routed : degradedTo);
+        data.put("to", effective);
+        data.put("level", downgradeLevel);
+        int seat = request.getPlayer().getSeatNumber();
+        GameEvent event = GameEvent.builder()
+                .type(degraded != null ? GameEvent.EventType.MODEL_DEGRADED : GameEvent.EventType.MODEL_RESTORED)
+                .playerId(playerId)
+                .description(degraded != null
+                        ? String.format("%d号座位因负载过高由 %s 降级为 %s", seat, data.get("from"), effective)
+                        : String.format("%d号座位恢复使用 %s", seat, effective))
+                .data(data)
+                .timestamp(LocalDateTime.now())
+                .isPublic(false)
+                .build();
+        gameState.addEvent(event);
+        log.info("游戏 {}: {}", gameState.getGameId(), event.getDescription());
+        degradedTo = degraded;
+        return effective;
+    }
+
+    /**
+     * 座位的服务端会话（仅在模型支持会话时使用）
+     *
+     * @return 会话状态
+     */
+    public ConversationSession getSession() {
+        return session;
+    }
+
+    /**
+     * 解析模型回复
+     *
+     * @param request 决策请求
+     * @param response 模型响应
+     * @return 决策，无法解析时返回null
+     */
+    AgentDecision parse(DecisionRequest request, LLMResponse response) {
+        String content = response.getContent() == null ? "" : response.getContent().trim();
+        String source = "llm:" + response.getModelId();
+        AgentDecision decoded = DecisionDecoder.decode(request, content);
+        if (decoded != null) {
+            return decoded.toBuilder().source(source).build();
+        }
+        return parseText(request, content, source);
+    }
+
+    /**
+     * 从自由文本中识别决策（模型没有按格式回复时使用）
+     */
+    private AgentDecision parseText(DecisionRequest request, String content, String source) {
+        // 在模型回调线程解析，只读取已发布的快照
+        GameSnapshot gameState = request.getGameState().getSnapshot();
+
+        switch (request.getType()) {
+            case DAY_SPEECH:
+            case LAST_WORDS:
+                if (content.isEmpty()) {
+                    return null;
+                }
+                return AgentDecision.speech(request.getType(), content).toBuilder().source(source).build();
+            case WITCH_ACTION: {
+                boolean useAntidote = request.isAntidoteAllowed() && content.contains("救") && !content.contains("不救");
+                Long poisonTarget = null;
+                Matcher matcher = POISON_PATTERN.matcher(content);
+                if (matcher.find() && !content.contains("不毒")) {
+                    poisonTarget = seatToPlayerId(gameState, matcher.group(1), request.getLegalTargets());
+                }
+                return AgentDecision.witch(useAntidote, poisonTarget).toBuilder().source(source).build();
+            }
+            case WEREWOLF_TEAM_KILL: {
+                // 最后一处“击杀：X号”为目标，之前的内容作为狼队讨论
+                Matcher matcher = TEAM_KILL_PATTERN.matcher(content);
+                Long target = null;
+                int discussionEnd = content.length();
+                while (matcher.find()) {
+                    Long id = seatToPlayerId(gameState, matcher.group(1), request.getLegalTargets());
+                    if (id != null) {
+                        target = id;
+                        discussionEnd = matcher.start();
+                    }
+                }
+                if (target == null) {
+                    target = findTarget(gameState, content, request.getLegalTargets());
+                }
+                if (target == null) {
+                    return null;
+                }
+                return AgentDecision.target(request.getType(), target).toBuilder()
+                        .content(content.substring(0, discussionEnd).trim())
+                        .source(source)
+                        .build();
+            }
+            default: {
+                if (request.isAbstainAllowed() && content.contains("弃票")) {
+                    return AgentDecision.target(request.getType(), null).toBuilder().source(source).build();
+                }
+                Long target = findTarget(gameState, content, request.getLegalTargets());
+                if (target == null) {
+                    return null;
+                }
+                return AgentDecision.target(request.getType(), target).toBuilder().source(source).build();
+            }
+        }
+    }
+
+    private CompletableFuture<AgentDecision> fallback(DecisionRequest request) {
+        return fallback.decide(request)
+                .thenApply(decision -> decision.toBuilder().fallback(true).build());
+    }
+
+    private Long findTarget(GameSnapshot gameState, String content, List<Long> legalTargets) {
+        Matcher seat = SEAT_PATTERN.matcher(content);
+        while (seat.find()) {
+            Long id = seatToPlayerId(gameState, seat.group(1), legalTargets);
+            if (id != null) {
+                return id;
+            }
+        }
+        Matcher number = NUMBER_PATTERN.matcher(content);
+        while (number.find()) {
+            Long id = seatToPlayerId(gameState, number.group(), legalTargets);
+            if (id != null) {
+                return id;
+            }
+        }
+        return null;
+    }
+
+    private Long seatToPlayerId(GameSnapshot gameState, String seatText, List<Long> legalTargets) {
+        try {
+            GameSnapshot.PlayerSnapshot player = gameState.playerBySeat(Integer.parseInt(seatText));
+            return player != null && legalTargets.contains(player.id()) ? player.id() : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 只读取视图中上次之后新增的事件；视图更换时（如请求未携带视图）重新开始。
+     * 同一玩家的任何视图事件顺序相同，会话已发送的位置不受影响
+     */
+    private synchronized List<GameEvent> syncHistory(PlayerView playerView) {
+        if (playerView != view) {
+            view = playerView;
+            cursor = playerView.newCursor();
+            history.clear();
+        }
+        history.addAll(cursor.fetch());
+        return List.copyOf(history);
+    }
+
+    private LLMRequest.LLMRequestBuilder baseRequest(DecisionRequest request, DecisionContext context) {
+        return LLMRequest.builder()
+                .modelId(modelId)
+                .gameId(context.gameId())
+                .playerId(playerId)
+                .responseSchema(DecisionSchema.of(request.getType()))
+                .responseSchemaName(DecisionSchema.name(request.getType()))
+                .allowDowngrade(context.allowDowngrade())
+                .downgradeLevel(context.downgradeLevel());
+    }
+
+    /**
+     * 重新询问：响应在服务端会话中时只追加一条纠正消息，否则带上原消息和上一次回复。
+     * 纠正轮次不计入座位会话，下一次决策仍从原回复继续。在模型回调线程调用，不读取游戏状态
+     */
+    private LLMRequest reaskRequest(DecisionRequest request, LLMResponse response, DecisionContext context) {
+        ChatMessage correction = ChatMessage.user("上面的回复格式不正确，无法识别。"
+                + DecisionSchema.formatHint(request.getType()) + "，不要输出其他内容。");
+        if (response.getResponseId() != null) {
+            return baseRequest(request, context)
+                    .modelId(response.getModelId())
+                    .session(true)
+                    .previousResponseId(response.getResponseId())
+                    .messages(List.of(correction))
+                    .build();
+        }
+        List<ChatMessage> messages = new ArrayList<>(context.prompt());
+        messages.add(ChatMessage.assistant(response.getContent() == null ? "" : response.getContent()));
+        messages.add(correction);
+        return baseRequest(request, context).messages(messages).build();
+    }
+
+    /**
+     * 会话模式调用：会话有效时只发送增量，服务端报告会话过期时用预先算好的完整上下文重建一次
+     */
+    private CompletableFuture<LLMResponse> sessionCall(DecisionRequest request, PlayerView playerView,
+                                                       List<GameEvent> visible, DecisionContext context) {
+        CompletableFuture<LLMResponse> result = new CompletableFuture<>();
+        SessionTurn turn = prepareTurn(request, playerView, visible, false, context);
+        CompletableFuture<LLMResponse> first = llmClient.complete(turn.llmRequest());
+        AtomicReference<CompletableFuture<LLMResponse>> current = new AtomicReference<>(first);
+
+        first.whenComplete((response, error) -> {
+            if (error == null) {
+                commitTurn(turn, response);
+                result.complete(response);
+                return;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (!(cause instanceof SessionExpiredException) || result.isDone()) {
+                result.completeExceptionally(cause);
+                return;
+            }
+            log.info("玩家 {} 的会话已过期，根据玩家视图重建", playerId);
+            session.invalidate();
+            SessionTurn rebuild = prepareTurn(request, playerView, visible, true, context);
+            CompletableFuture<LLMResponse> retry = llmClient.complete(rebuild.llmRequest());
+            current.set(retry);
+            retry.whenComplete((retried, retryError) -> {
+                if (retryError == null) {
+                    commitTurn(rebuild, retried);
+                    result.complete(retried);
+                } else {
+                    result.completeExceptionally(retryError);
+                }
+            });
+        });
+        result.whenComplete((response, error) -> {
+            if (result.isCancelled()) {
+                current.get().cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 准备一轮会话调用；重建时在模型回调线程调用，只使用决策开始时算好的内容
+     */
+    private synchronized SessionTurn prepareTurn(DecisionRequest request, PlayerView playerView,
+                                                 List<GameEvent> visible, boolean rebuild, DecisionContext context) {
+        boolean continued = !rebuild && session.isActive(System.currentTimeMillis());
+        int round = context.round();
+        Set<String> speechKeys = new HashSet<>();
+        request.getDaySpeeches().keySet().forEach(speakerId -> speechKeys.add(speechKey(round, speakerId)));
+
+        List<ChatMessage> messages;
+        if (continued) {
+            // 白天发言先通过 daySpeeches 发送，整轮结束后写入事件时不再重复发送
+            List<GameEvent> newEvents = visible.subList(sessionSent, visible.size()).stream()
+                    .filter(event -> event.getType() != GameEvent.EventType.PLAYER_SPEECH
+                            || !sentSpeeches.contains(speechKey(event.getRound(), event.getPlayerId())))
+                    .toList();
+            Map<Long, String> newSpeeches = new LinkedHashMap<>();
+            request.getDaySpeeches().forEach((speakerId, speech) -> {
+                if (!sentSpeeches.contains(speechKey(round, speakerId))) {
+                    newSpeeches.put(speakerId, speech);
+                }
+            });
+            messages = promptBuilder.buildDelta(request, playerView, newEvents, newSpeeches);
+        } else {
+            messages = context.prompt();
+        }
+
+        long sentTokens = messages.stream().mapToLong(message -> TokenEstimator.estimate(message.getContent())).sum();
+        LLMRequest llmRequest = baseRequest(request, context)
+                .modelId(continued ? session.getModelId() : modelId)
+                .session(true)
+                .previousResponseId(continued ? session.getResponseId() : null)
+                .messages(messages)
+                .build();
+        return new SessionTurn(llmRequest, visible.size(), speechKeys, sentTokens,
+                continued, continued ? contextTokens : 0);
+    }
+
+    private synchronized void commitTurn(SessionTurn turn, LLMResponse response) {
+        if (response.getResponseId() == null) {
+            // 对冲到不支持会话的模型时没有响应ID，下一轮重新建立会话
+            session.invalidate();
+            return;
+        }
+        if (!turn.continued()) {
+            sentSpeeches.clear();
+            contextTokens = 0;
+        }
+        sentSpeeches.addAll(turn.speechKeys());
+        sessionSent = turn.historyIndex();
+        contextTokens += turn.sentTokens() + response.getCompletionTokens();
+        session.advance(response.getModelId(), response.getResponseId(), System.currentTimeMillis(), turn.savedTokens());
+        log.debug("玩家 {} 会话第{}轮：发送约 {} token，节省约 {} token（累计 {}）", playerId, session.getTurns(),
+                turn.sentTokens(), turn.savedTokens(), session.getTokensSaved());
+    }
+
+    private static String speechKey(int round, Long speakerId) {
+        return round + ":" + speakerId;
+    }
+
+    /**
+     * 决策开始时在引擎线程算好的内容，模型回调线程（重新询问、会话重建）只读取这里而不读取游戏状态
+     *
+     * @param gameId 游戏ID
+     * @param round 当前回合
+     * @param allowDowngrade 是否允许过载降级（房间没有真人玩家）
+     * @param downgradeLevel 本次决策的降级级别
+     * @param prompt 完整上下文的提示词
+     */
+    private record DecisionContext(Long gameId, int round, boolean allowDowngrade, int downgradeLevel,
+                                   List<ChatMessage> prompt) {
+    }
+
+    /**
+     * 一轮会话调用的待提交状态
+     *
+     * @param llmRequest 发送的请求
+     * @param historyIndex 发送后已同步到的历史位置
+     * @param speechKeys 本轮已发送的白天发言
+     * @param sentTokens 本轮发送的估算 token 数
+     * @param continued 是否在已有会话上继续
+     * @param savedTokens 本轮没有重复发送的估算 token 数
+     */
+    private record SessionTurn(LLMRequest llmRequest, int historyIndex, Set<String> speechKeys,
+                               long sentTokens, boolean continued, long savedTokens) {
+    }
+}
@@ -0,0 +1,179 @@
+package com.werewolf.agent;
+
+import com.werewolf.domain.model.GameState;
+import com.werewolf.domain.model.Player;
+import com.werewolf.domain.role.Werewolf;
+import com.werewolf.domain.role.Witch;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * 合法行动生成器
+ * 按照 NightActionProcessor 和 VoteManager 的校验规则生成决策请求，
+ * 保证任何AI（包括规则AI）给出的目标都能被引擎接受
+ *
+ * @author Claude & User
+ */
+public final class LegalActions {
+
+    private LegalActions() {
+    }
+
+    /**
+     * 狼人击杀：存活的非狼人玩家
+     *
+     * @param gameState 游戏状态
+     * @param werewolf 狼人玩家
+     * @return 决策请求
+     */
+    public static DecisionRequest werewolfKill(GameState gameState, Player werewolf) {
+        return DecisionRequest.builder()
+                .type(DecisionType.WEREWOLF_KILL)
+                .gameState(gameState)
+                .player(werewolf)
+                .legalTargets(aliveTargets(gameState, p -> !(p.getRole() instanceof Werewolf)))
+                .build();
+    }
+
+    /**
+     * 狼队联合击杀：由一名狼人代表全体存活狼人决策，目标范围与单独击杀相同
+     *
+     * @param gameState 游戏状态
+     * @param leader 代表狼队决策的狼人
+     * @return 决策请求
+     */
+    public static DecisionRequest werewolfTeamKill(GameState gameState, Player leader) {
+        return DecisionRequest.builder()
+                .type(DecisionType.WEREWOLF_TEAM_KILL)
+                .gameState(gameState)
+                .player(leader)
+                .legalTargets(aliveTargets(gameState, p -> !(p.getRole() instanceof Werewolf)))
+                .werewolfTeam(aliveTargets(gameState, p -> p.getRole() instanceof Werewolf))
+                .build();
+    }
+
+    /**
+     * 预言家查验：存活且不是自己的玩家
+     *
+     * @param gameState 游戏状态
+     * @param seer 预言家玩家
+     * @return 决策请求
+     */
+    public static DecisionRequest seerCheck(GameState gameState, Player seer) {
+        return DecisionRequest.builder()
+                .type(DecisionType.SEER_CHECK)
+                .gameState(gameState)
+                .player(seer)
+                .legalTargets(aliveTargets(gameState, p -> !p.getId().equals(seer.getId())))
+                .build();
+    }
+
+    /**
+     * 女巫用药：解药需有剩余、当晚有人被杀且不是首夜自救；毒药需有剩余，目标为存活的其他玩家
+     *
+     * @param gameState 游戏状态
+     * @param witch 女巫玩家
+     * @param killedPlayerId 当晚被狼人击杀的玩家ID（可为null）
+     * @return 决策请求
+     */
+    public static DecisionRequest witchAction(GameState gameState, Player witch, Long killedPlayerId) {
+        Witch witchRole = (Witch) witch.getRole();
+        boolean selfSave = witch.getId().equals(killedPlayerId);
+        boolean antidoteAllowed = killedPlayerId != null
+                && witchRole.getAntidoteSkill().isAvailable()
+                && !(selfSave && witchRole.isFirstNight());
+
+        return DecisionRequest.builder()
+                .type(DecisionType.WITCH_ACTION)
+                .gameState(gameState)
+                .player(witch)
+                .killedPlayerId(killedPlayerId)
+                .antidoteAllowed(antidoteAllowed)
+                .poisonAllowed(witchRole.getPoisonSkill().isAvailable())
+                .legalTargets(aliveTargets(gameState, p -> !p.getId().equals(witch.getId())))
+                .build();
+    }
+
+    /**
+     * 白天投票：存活的其他玩家，可以弃票
+     *
+     * @param gameState 游戏状态
+     * @param voter 投票玩家
+     * @return 决策请求
+     */
+    public static DecisionRequest vote(GameState gameState, Player voter) {
+        return DecisionRequest.builder()
+                .type(DecisionType.VOTE)
+                .gameState(gameState)
+                .player(voter)
+                .legalTargets(aliveTargets(gameState, p -> !p.getId().equals(voter.getId())))
+                .abstainAllowed(true)
+                .build();
+    }
+
+    /**
+     * 白天发言
+     *
+     * @param gameState 游戏状态
+     * @param speaker 发言玩家
+     * @return 决策请求
+     */
+    public static DecisionRequest daySpeech(GameState gameState, Player speaker) {
+        return DecisionRequest.builder()
+                .type(DecisionType.DAY_SPEECH)
+                .gameState(gameState)
+                .player(speaker)
+                .build();
+    }
+
+    /**
+     * 遗言
+     *
+     * @param gameState 游戏状态
+     * @param deadPlayer 死亡玩家
+     * @return 决策请求
+     */
+    public static DecisionRequest lastWords(GameState gameState, Player deadPlayer) {
+        return DecisionRequest.builder()
+                .type(DecisionType.LAST_WORDS)
+                .gameState(gameState)
+                .player(deadPlayer)
+                .build();
+    }
+
+    /**
+     * 校验决策是否合法，不合法的部分按“放弃行动”处理
+     *
+     * @param request 决策请求
+     * @param decision 决策
+     * @return 合法的决策
+     */
+    public static AgentDecision sanitize(DecisionRequest request, AgentDecision decision) {
+        List<Long> legal = request.getLegalTargets();
+        switch (request.getType()) {
+            case WITCH_ACTION: {
+                boolean useAntidote = decision.isUseAntidote() && request.isAntidoteAllowed();
+                Long poison = request.isPoisonAllowed() && !useAntidote && legal.contains(decision.getPoisonTargetId())
+                        ? decision.getPoisonTargetId() : null;
+                return decision.toBuilder().useAntidote(useAntidote).poisonTargetId(poison).build();
+            }
+            case DAY_SPEECH:
+            case LAST_WORDS:
+                return decision;
+            default:
+                return legal.contains(decision.getTargetPlayerId())
+                        ? decision
+                        : decision.toBuilder().targetPlayerId(null).build();
+        }
+    }
+
+    private static List<Long> aliveTargets(GameState gameState, Predicate<Player> filter) {
+        return gameState.getAlivePlayers().stream()
+                .filter(filter)
+                .sorted(Comparator.comparingInt(Player::getSeatNumber))
+                .map(Player::getId)
+                .toList();
+    }
+}
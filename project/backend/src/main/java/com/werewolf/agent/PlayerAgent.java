@@ -0,0 +1,43 @@
+package com.werewolf.agent;
+
+import com.werewolf.domain.model.GameEvent;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * AI玩家接口
+ * LLM智能体和规则AI实现同一接口，引擎只依赖该接口收集行动
+ *
+ * @author Claude & User
+ */
+public interface PlayerAgent {
+
+    /**
+     * 获取所控制的玩家ID
+     *
+     * @return 玩家ID
+     */
+    Long getPlayerId();
+
+    /**
+     * 做出决策
+     *
+     * @param request 决策请求
+     * @return 决策 Future
+     */
+    CompletableFuture<AgentDecision> decide(DecisionRequest request);
+
+    /**
+     * 接收该玩家可见的游戏事件
+     *
+     * @param event 游戏事件
+     */
+    default void onEvent(GameEvent event) {
+    }
+
+    /**
+     * 对局结束或房间关闭时调用，取消仍在进行的决策
+     */
+    default void close() {
+    }
+}
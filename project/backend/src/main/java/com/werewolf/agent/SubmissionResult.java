@@ -0,0 +1,24 @@
+package com.werewolf.agent;
+
+/**
+ * 行动提交结果
+ * 同一幂等键的重复提交返回第一次的结果
+ *
+ * @author Claude & User
+ */
+public enum SubmissionResult {
+    /**
+     * 已采纳，决策生效
+     */
+    ACCEPTED,
+
+    /**
+     * 基于过期的版本：没有待提交的决策、版本不符，或决策已被默认行动提交
+     */
+    STALE,
+
+    /**
+     * 不合法：缺少幂等键、决策类型不符或目标不在合法范围内
+     */
+    REJECTED
+}
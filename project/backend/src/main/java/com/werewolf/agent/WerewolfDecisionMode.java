@@ -0,0 +1,18 @@
+package com.werewolf.agent;
+
+/**
+ * 狼人夜间决策方式
+ *
+ * @author Claude & User
+ */
+public enum WerewolfDecisionMode {
+    /**
+     * 狼队联合决策：每晚由一名狼人代表全队决策一次，附带狼队讨论
+     */
+    JOINT,
+
+    /**
+     * 每名狼人单独决策，票数由引擎汇总（用于模型对抗评估）
+     */
+    PER_WOLF
+}
@@ -0,0 +1,173 @@
+package com.werewolf.agent.output;
+
+import com.werewolf.agent.AgentDecision;
+import com.werewolf.agent.DecisionRequest;
+import com.werewolf.domain.model.GameSnapshot;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 结构化输出解码器
+ * 用 {@link TolerantJsonReader} 读出 {@link DecisionSchema} 格式的对象并修复常见偏差：
+ * 目标写成“3号”或玩家ID而不是座位号、写成玩家名字、布尔值写成“是/否”等。
+ * 修复后的目标仍需在合法目标内，否则视为无法解码
+ *
+ * @author Claude & User
+ */
+public final class DecisionDecoder {
+
+    private static final Pattern NUMBER_PATTERN = Pattern.compile("\\d+");
+    private static final Pattern SEAT_ONLY_PATTERN = Pattern.compile("\\s*(\\d+)\\s*号?(玩家)?\\s*");
+
+    private DecisionDecoder() {
+    }
+
+    /**
+     * 解码模型回复
+     *
+     * @param request 决策请求
+     * @param content 模型回复
+     * @return 决策，回复中没有可用的对象时返回null
+     */
+    public static AgentDecision decode(DecisionRequest request, String content) {
+        Map<String, Object> json = TolerantJsonReader.parse(content);
+        if (json == null) {
+            return null;
+        }
+        // 在模型回调线程解码，只读取已发布的快照
+        GameSnapshot gameState = request.getGameState().getSnapshot();
+        List<Long> legalTargets = request.getLegalTargets();
+
+        switch (request.getType()) {
+            case DAY_SPEECH:
+            case LAST_WORDS: {
+                // 字段名写错时取第一个文本字段
+                Object speech = json.containsKey(DecisionSchema.SPEECH) ? json.get(DecisionSchema.SPEECH)
+                        : json.values().stream().filter(String.class::isInstance).findFirst().orElse(null);
+                if (!(speech instanceof String text) || text.isBlank()) {
+                    return null;
+                }
+                return AgentDecision.speech(request.getType(), text.trim());
+            }
+            case WITCH_ACTION: {
+                if (!json.containsKey(DecisionSchema.ANTIDOTE) && !json.containsKey(DecisionSchema.POISON)) {
+                    return null;
+                }
+                boolean useAntidote = request.isAntidoteAllowed() && isTrue(json.get(DecisionSchema.ANTIDOTE));
+                Long poisonTarget = request.isPoisonAllowed()
+                        ? resolveTarget(gameState, legalTargets, json.get(DecisionSchema.POISON)) : null;
+                return AgentDecision.witch(useAntidote, poisonTarget);
+            }
+            case WEREWOLF_TEAM_KILL: {
+                Long target = resolveTarget(gameState, legalTargets, json.get(DecisionSchema.TARGET));
+                if (target == null) {
+                    return null;
+                }
+                Object discussion = json.get(DecisionSchema.DISCUSSION);
+                return AgentDecision.target(request.getType(), target).toBuilder()
+                        .content(discussion == null ? "" : discussion.toString().trim())
+                        .build();
+            }
+            case VOTE: {
+                Object value = json.get(DecisionSchema.TARGET);
+                if (request.isAbstainAllowed() && isAbstain(value)) {
+                    return json.containsKey(DecisionSchema.TARGET) ? AgentDecision.target(request.getType(), null) : null;
+                }
+                Long target = resolveTarget(gameState, legalTargets, value);
+                return target == null ? null : AgentDecision.target(request.getType(), target);
+            }
+            default: {
+                Long target = resolveTarget(gameState, legalTargets, json.get(DecisionSchema.TARGET));
+                return target == null ? null : AgentDecision.target(request.getType(), target);
+            }
+        }
+    }
+
+    /**
+     * 把模型给出的目标修复为合法目标的玩家ID
+     * 依次尝试：座位号（含“3号”写法）、玩家ID、玩家名字、文本中的第一个合法座位号
+     *
+     * @param gameState 游戏快照
+     * @param legalTargets 合法目标
+     * @param value 模型给出的值
+     * @return 玩家ID，无法修复时返回null
+     */
+    public static Long resolveTarget(GameSnapshot gameState, List<Long> legalTargets, Object value) {
+        if (value instanceof Number number) {
+            return byNumber(gameState, legalTargets, number.longValue());
+        }
+        if (!(value instanceof String text) || text.isBlank()) {
+            return null;
+        }
+        Matcher seatOnly = SEAT_ONLY_PATTERN.matcher(text);
+        if (seatOnly.matches()) {
+            return byNumber(gameState, legalTargets, Long.parseLong(seatOnly.group(1)));
+        }
+        Long named = byName(gameState, legalTargets, text);
+        if (named != null) {
+            return named;
+        }
+        Matcher number = NUMBER_PATTERN.matcher(text);
+        while (number.find()) {
+            Long id = bySeat(gameState, legalTargets, Long.parseLong(number.group()));
+            if (id != null) {
+                return id;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 座位号优先；不是合法座位时再按玩家ID解释
+     */
+    private static Long byNumber(GameSnapshot gameState, List<Long> legalTargets, long number) {
+        Long id = bySeat(gameState, legalTargets, number);
+        if (id != null) {
+            return id;
+        }
+        return legalTargets.contains(number) ? number : null;
+    }
+
+    private static Long bySeat(GameSnapshot gameState, List<Long> legalTargets, long seat) {
+        if (seat <= 0 || seat > Integer.MAX_VALUE) {
+            return null;
+        }
+        GameSnapshot.PlayerSnapshot player = gameState.playerBySeat((int) seat);
+        return player != null && legalTargets.contains(player.id()) ? player.id() : null;
+    }
+
+    /**
+     * 按名字匹配，较长的名字优先，避免“玩家1”误匹配“玩家10”
+     */
+    private static Long byName(GameSnapshot gameState, List<Long> legalTargets, String text) {
+        return legalTargets.stream()
+                .map(gameState::player)
+                .filter(player -> player != null && player.name() != null && !player.name().isBlank())
+                .sorted(Comparator.comparingInt((GameSnapshot.PlayerSnapshot player) -> player.name().length())
+                        .reversed())
+                .filter(player -> text.contains(player.name()))
+                .map(GameSnapshot.PlayerSnapshot::id)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static boolean isAbstain(Object value) {
+        return value == null || (value instanceof String text && (text.isBlank() || text.contains("弃票")));
+    }
+
+    private static boolean isTrue(Object value) {
+        if (value instanceof Boolean flag) {
+            return flag;
+        }
+        if (value instanceof String text) {
+            String normalized = text.trim().toLowerCase();
+            return normalized.equals("true") || normalized.equals("yes") || normalized.equals("是")
+                    || normalized.equals("救");
+        }
+        return false;
+    }
+}
@@ -0,0 +1,87 @@
+package com.werewolf.agent.output;
+
+import com.werewolf.agent.DecisionType;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 各决策类型的结构化输出格式
+ * 同一份定义既作为支持结构化输出的模型的 JSON Schema，也作为 prompt 中的格式说明，
+ * 目标一律使用座位号
+ *
+ * @author Claude & User
+ */
+public final class DecisionSchema {
+
+    public static final String TARGET = "target";
+    public static final String DISCUSSION = "discussion";
+    public static final String ANTIDOTE = "antidote";
+    public static final String POISON = "poison";
+    public static final String SPEECH = "speech";
+
+    private DecisionSchema() {
+    }
+
+    /**
+     * 决策类型的 JSON Schema（严格模式：字段全部必填，不允许额外字段）
+     *
+     * @param type 决策类型
+     * @return Schema
+     */
+    public static Map<String, Object> of(DecisionType type) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        switch (type) {
+            case WEREWOLF_TEAM_KILL -> {
+                properties.put(DISCUSSION, property("string"));
+                properties.put(TARGET, property("integer"));
+            }
+            case WITCH_ACTION -> {
+                properties.put(ANTIDOTE, property("boolean"));
+                properties.put(POISON, property(List.of("integer", "null")));
+            }
+            case VOTE -> properties.put(TARGET, property(List.of("integer", "null")));
+            case DAY_SPEECH, LAST_WORDS -> properties.put(SPEECH, property("string"));
+            default -> properties.put(TARGET, property("integer"));
+        }
+        Map<String, Object> schema = new LinkedHashMap<>();
+        schema.put("type", "object");
+        schema.put("properties", properties);
+        schema.put("required", List.copyOf(properties.keySet()));
+        schema.put("additionalProperties", false);
+        return schema;
+    }
+
+    /**
+     * Schema 名称（接口要求只含字母、数字和下划线）
+     *
+     * @param type 决策类型
+     * @return 名称
+     */
+    public static String name(DecisionType type) {
+        return type.name().toLowerCase();
+    }
+
+    /**
+     * prompt 中的格式说明
+     *
+     * @param type 决策类型
+     * @return 格式说明
+     */
+    public static String formatHint(DecisionType type) {
+        return switch (type) {
+            case WEREWOLF_TEAM_KILL -> "只回复JSON：{\"discussion\": \"狼队讨论\", \"target\": 座位号}";
+            case WITCH_ACTION -> "只回复JSON：{\"antidote\": 是否使用解药true/false, \"poison\": 毒药目标座位号，不用毒药为null}";
+            case VOTE -> "只回复JSON：{\"target\": 座位号}，弃票时target为null";
+            case DAY_SPEECH, LAST_WORDS -> "只回复JSON：{\"speech\": \"发言内容\"}";
+            default -> "只回复JSON：{\"target\": 座位号}";
+        };
+    }
+
+    private static Map<String, Object> property(Object type) {
+        Map<String, Object> property = new LinkedHashMap<>();
+        property.put("type", type);
+        return property;
+    }
+}
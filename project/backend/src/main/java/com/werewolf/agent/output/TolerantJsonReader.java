@@ -0,0 +1,256 @@
+package com.werewolf.agent.output;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 宽松的增量 JSON 解码器
+ * 模型输出可以分块喂入，读取时从第一个“{”开始解析，容忍常见缺陷：
+ * 代码块标记和前后多余文字、单引号或中文引号、未加引号的键和值、
+ * 中文冒号和逗号、多余的逗号，以及输出被截断时缺少的右括号
+ *
+ * @author Claude & User
+ */
+public class TolerantJsonReader {
+
+    private final StringBuilder buffer = new StringBuilder();
+
+    // 解析状态（每次读取时从头解析，缓冲区只追加）
+    private int pos;
+    private boolean truncated;
+
+    /**
+     * 追加一段输出
+     *
+     * @param chunk 输出片段
+     */
+    public void feed(CharSequence chunk) {
+        buffer.append(chunk);
+    }
+
+    /**
+     * 第一个顶层对象是否已经完整（流式输出时可以据此提前结束等待）
+     *
+     * @return true表示对象的右括号已到达
+     */
+    public boolean isComplete() {
+        return readObject() != null && !truncated;
+    }
+
+    /**
+     * 读取第一个顶层对象，缺少的右括号自动补齐
+     *
+     * @return 对象（键 -> String/Long/Double/Boolean/List/Map/null），没有对象时返回null
+     */
+    public Map<String, Object> readObject() {
+        int start = buffer.indexOf("{");
+        if (start < 0) {
+            return null;
+        }
+        pos = start;
+        truncated = false;
+        return parseObject();
+    }
+
+    /**
+     * 解析一段完整输出中的第一个对象
+     *
+     * @param text 输出文本
+     * @return 对象，没有对象时返回null
+     */
+    public static Map<String, Object> parse(String text) {
+        if (text == null) {
+            return null;
+        }
+        TolerantJsonReader reader = new TolerantJsonReader();
+        reader.feed(text);
+        return reader.readObject();
+    }
+
+    private Map<String, Object> parseObject() {
+        Map<String, Object> object = new LinkedHashMap<>();
+        pos++;
+        while (true) {
+            skipSeparators();
+            if (eof()) {
+                truncated = true;
+                return object;
+            }
+            char c = peek();
+            if (c == '}') {
+                pos++;
+                return object;
+            }
+            String key = parseKey();
+            skipWhitespace();
+            if (!eof() && (peek() == ':' || peek() == '：')) {
+                pos++;
+            }
+            skipWhitespace();
+            if (eof()) {
+                truncated = true;
+                object.put(key, null);
+                return object;
+            }
+            object.put(key, parseValue('}'));
+        }
+    }
+
+    private List<Object> parseArray() {
+        List<Object> array = new ArrayList<>();
+        pos++;
+        while (true) {
+            skipSeparators();
+            if (eof()) {
+                truncated = true;
+                return array;
+            }
+            if (peek() == ']') {
+                pos++;
+                return array;
+            }
+            array.add(parseValue(']'));
+        }
+    }
+
+    private Object parseValue(char closer) {
+        char c = peek();
+        if (c == '{') {
+            return parseObject();
+        }
+        if (c == '[') {
+            return parseArray();
+        }
+        if (isQuote(c)) {
+            return parseString();
+        }
+        String word = parseBareWord(closer);
+        return literal(word);
+    }
+
+    private String parseKey() {
+        if (isQuote(peek())) {
+            return parseString();
+        }
+        StringBuilder key = new StringBuilder();
+        while (!eof()) {
+            char c = peek();
+            if (c == ':' || c == '：' || c == '}' || Character.isWhitespace(c)) {
+                break;
+            }
+            key.append(c);
+            pos++;
+        }
+        return key.toString();
+    }
+
+    private String parseString() {
+        char open = buffer.charAt(pos++);
+        char close = closingQuote(open);
+        StringBuilder text = new StringBuilder();
+        while (!eof()) {
+            char c = buffer.charAt(pos++);
+            if (c == close) {
+                return text.toString();
+            }
+            if (c == '\\' && !eof()) {
+                char escaped = buffer.charAt(pos++);
+                switch (escaped) {
+                    case 'n' -> text.append('\n');
+                    case 't' -> text.append('\t');
+                    case 'r' -> text.append('\r');
+                    case 'u' -> {
+                        if (pos + 4 <= buffer.length()) {
+                            try {
+                                text.append((char) Integer.parseInt(buffer.substring(pos, pos + 4), 16));
+                                pos += 4;
+                            } catch (NumberFormatException e) {
+                                text.append('u');
+                            }
+                        }
+                    }
+                    default -> text.append(escaped);
+                }
+                continue;
+            }
+            text.append(c);
+        }
+        truncated = true;
+        return text.toString();
+    }
+
+    /**
+     * 未加引号的值读到分隔符、右括号或换行为止
+     */
+    private String parseBareWord(char closer) {
+        StringBuilder word = new StringBuilder();
+        while (!eof()) {
+            char c = peek();
+            if (c == ',' || c == '，' || c == closer || c == '\n') {
+                break;
+            }
+            word.append(c);
+            pos++;
+        }
+        return word.toString().trim();
+    }
+
+    private Object literal(String word) {
+        switch (word) {
+            case "true":
+                return Boolean.TRUE;
+            case "false":
+                return Boolean.FALSE;
+            case "null":
+            case "":
+                return null;
+            default:
+                break;
+        }
+        try {
+            return Long.parseLong(word);
+        } catch (NumberFormatException ignored) {
+            // 不是整数
+        }
+        try {
+            return Double.parseDouble(word);
+        } catch (NumberFormatException ignored) {
+            return word;
+        }
+    }
+
+    private void skipSeparators() {
+        while (!eof()) {
+            char c = peek();
+            if (c == ',' || c == '，' || Character.isWhitespace(c)) {
+                pos++;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void skipWhitespace() {
+        while (!eof() && Character.isWhitespace(peek())) {
+            pos++;
+        }
+    }
+
+    private boolean isQuote(char c) {
+        return c == '"' || c == '\'' || c == '“';
+    }
+
+    private char closingQuote(char open) {
+        return open == '“' ? '”' : open;
+    }
+
+    private char peek() {
+        return buffer.charAt(pos);
+    }
+
+    private boolean eof() {
+        return pos >= buffer.length();
+    }
+}
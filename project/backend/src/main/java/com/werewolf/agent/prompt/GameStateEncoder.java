@@ -0,0 +1,133 @@
+package com.werewolf.agent.prompt;
+
+import com.werewolf.digest.Claim;
+import com.werewolf.digest.RoundDigest;
+import com.werewolf.domain.model.GameState;
+import com.werewolf.domain.model.Player;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 紧凑局面编码
+ * 用表格化的短格式代替事件描述中的长句，全部使用座位号：
+ * <pre>
+ * 座位 1 2 3 4 5 6
+ * 存活 1 1 0 1 1 1
+ * 声明 3=平民 5=预言家(2狼,4好)
+ * R1 夜亡:3 声明:3=平民 5=预言家(2狼) 票:1>5 2>5 4>2 5>2 6>2 弃:- 逐:2
+ * </pre>
+ * 回合行只由已完成回合的摘要生成，内容不再变化，可以放在提示词的稳定前缀中
+ *
+ * @author Claude & User
+ */
+public final class GameStateEncoder {
+
+    private static final String NONE = "-";
+
+    private GameStateEncoder() {
+    }
+
+    /**
+     * 编码座位表和存活掩码
+     *
+     * @param gameState 游戏状态
+     * @return 两行文本
+     */
+    public static String encodeBoard(GameState gameState) {
+        List<Player> players = gameState.getPlayers().stream()
+                .sorted(Comparator.comparingInt(Player::getSeatNumber))
+                .toList();
+        return "座位 " + players.stream().map(p -> String.valueOf(p.getSeatNumber())).collect(Collectors.joining(" "))
+                + "\n存活 " + players.stream().map(p -> p.isAlive() ? "1" : "0").collect(Collectors.joining(" "));
+    }
+
+    /**
+     * 编码所有回合中的身份声明（同一玩家以最近一次声明为准，查验结果累计）
+     *
+     * @param gameState 游戏状态
+     * @param digests 回合摘要
+     * @return 声明行，没有声明时返回null
+     */
+    public static String encodeClaims(GameState gameState, List<RoundDigest> digests) {
+        Map<Long, Claim> latest = new LinkedHashMap<>();
+        for (RoundDigest digest : digests) {
+            for (Claim claim : digest.getClaims()) {
+                Claim previous = latest.get(claim.getPlayerId());
+                Claim merged = Claim.builder()
+                        .playerId(claim.getPlayerId())
+                        .claimedRole(claim.getClaimedRole())
+                        .build();
+                if (previous != null && previous.getClaimedRole() == claim.getClaimedRole()) {
+                    merged.getCheckResults().putAll(previous.getCheckResults());
+                }
+                merged.getCheckResults().putAll(claim.getCheckResults());
+                latest.put(claim.getPlayerId(), merged);
+            }
+        }
+        if (latest.isEmpty()) {
+            return null;
+        }
+        return "声明 " + claims(gameState, latest.values().stream()
+                .sorted(Comparator.comparingInt(claim -> seat(gameState, claim.getPlayerId())))
+                .toList());
+    }
+
+    /**
+     * 编码单个回合：夜晚死亡、身份声明、投票矩阵和放逐结果
+     *
+     * @param gameState 游戏状态
+     * @param digest 回合摘要
+     * @return 一行文本
+     */
+    public static String encodeRound(GameState gameState, RoundDigest digest) {
+        StringBuilder line = new StringBuilder("R").append(digest.getRound());
+        line.append(" 夜亡:").append(digest.getNightDeaths().isEmpty() ? NONE : seats(gameState, digest.getNightDeaths()));
+        if (!digest.getClaims().isEmpty()) {
+            line.append(" 声明:").append(claims(gameState, digest.getClaims()));
+        }
+        line.append(" 票:").append(digest.getVotes().isEmpty() ? NONE : digest.getVotes().entrySet().stream()
+                .map(vote -> seat(gameState, vote.getKey()) + ">" + seat(gameState, vote.getValue()))
+                .collect(Collectors.joining(" ")));
+        line.append(" 弃:").append(digest.getAbstained().isEmpty() ? NONE : digest.getAbstained().stream()
+                .map(id -> seat(gameState, id))
+                .sorted()
+                .map(String::valueOf)
+                .collect(Collectors.joining(",")));
+        line.append(" 逐:");
+        if (digest.getExiledPlayerId() != null) {
+            line.append(seat(gameState, digest.getExiledPlayerId()));
+        } else {
+            line.append(digest.isTie() ? "平票" : NONE);
+        }
+        return line.toString();
+    }
+
+    private static String claims(GameState gameState, List<Claim> claims) {
+        return claims.stream()
+                .map(claim -> {
+                    String text = seat(gameState, claim.getPlayerId()) + "=" + claim.getClaimedRole().getChineseName();
+                    if (claim.getCheckResults().isEmpty()) {
+                        return text;
+                    }
+                    return text + "(" + claim.getCheckResults().entrySet().stream()
+                            .map(check -> seat(gameState, check.getKey()) + (check.getValue() ? "狼" : "好"))
+                            .collect(Collectors.joining(",")) + ")";
+                })
+                .collect(Collectors.joining(" "));
+    }
+
+    private static String seats(GameState gameState, List<Long> playerIds) {
+        return playerIds.stream()
+                .map(id -> String.valueOf(seat(gameState, id)))
+                .collect(Collectors.joining(","));
+    }
+
+    private static int seat(GameState gameState, Long playerId) {
+        Player player = gameState.getPlayerById(playerId);
+        return player == null ? 0 : player.getSeatNumber();
+    }
+}
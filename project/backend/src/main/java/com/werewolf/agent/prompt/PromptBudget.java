@@ -0,0 +1,96 @@
+package com.werewolf.agent.prompt;
+
+import com.werewolf.agent.AIProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 提示词历史预算
+ * 历史条目超过条目数上限或 token 预算时，从最早的条目开始丢弃，保留最近的信息。
+ * 丢弃按半个预算成块进行：裁剪点只在超出量跨过半个预算的整数倍时后移，
+ * 历史只追加时相邻多次调用的裁剪点相同，历史消息的前缀保持不变，提示词缓存可以持续命中
+ *
+ * @author Claude & User
+ */
+public class PromptBudget {
+
+    /**
+     * 不限制
+     */
+    public static final PromptBudget UNLIMITED = new PromptBudget(0, 0);
+
+    private final int maxEntries;
+    private final int maxTokens;
+
+    /**
+     * @param maxEntries 最多保留的条目数（0 表示不限制）
+     * @param maxTokens 历史部分的 token 预算（0 表示不限制）
+     */
+    public PromptBudget(int maxEntries, int maxTokens) {
+        if (maxEntries < 0 || maxTokens < 0) {
+            throw new IllegalArgumentException("提示词预算不能为负数");
+        }
+        this.maxEntries = maxEntries;
+        this.maxTokens = maxTokens;
+    }
+
+    /**
+     * 根据 game.ai 配置创建预算
+     *
+     * @param properties AI 配置
+     * @return 预算
+     */
+    public static PromptBudget from(AIProperties properties) {
+        return new PromptBudget(properties.getMemoryLimit(), properties.getPromptTokenBudget());
+    }
+
+    /**
+     * 裁剪历史条目
+     *
+     * @param entries 历史条目（按时间顺序）
+     * @return 预算内的条目，有丢弃时第一条为省略说明（裁剪后至少留出半个预算供之后追加）
+     */
+    public List<String> fit(List<String> entries) {
+        int dropped = 0;
+        if (maxEntries > 0 && entries.size() > maxEntries) {
+            dropped = roundUp(entries.size() - maxEntries, Math.max(1, maxEntries / 2));
+        }
+        if (maxTokens > 0) {
+            int[] prefix = new int[entries.size() + 1];
+            for (int i = 0; i < entries.size(); i++) {
+                prefix[i + 1] = prefix[i] + TokenEstimator.estimate(entries.get(i));
+            }
+            int excess = prefix[entries.size()] - maxTokens;
+            if (excess > 0) {
+                // 裁剪到最早的 token 累计量达到半个预算整数倍的条目之后
+                int target = roundUp(excess, Math.max(1, maxTokens / 2));
+                int cut = 0;
+                while (cut < entries.size() && prefix[cut] < target) {
+                    cut++;
+                }
+                dropped = Math.max(dropped, cut);
+            }
+        }
+        dropped = Math.min(dropped, entries.size());
+        if (dropped == 0) {
+            return entries;
+        }
+        List<String> result = new ArrayList<>(entries.size() - dropped + 1);
+        result.add("（更早的" + dropped + "条记录已省略）");
+        result.addAll(entries.subList(dropped, entries.size()));
+        return result;
+    }
+
+    private static int roundUp(int value, int step) {
+        return (value + step - 1) / step * step;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public int getMaxTokens() {
+        return maxTokens;
+    }
+}
@@ -0,0 +1,186 @@
+package com.werewolf.agent.prompt;
+
+import com.werewolf.agent.AIProperties;
+import com.werewolf.agent.DecisionRequest;
+import com.werewolf.agent.output.DecisionSchema;
+import com.werewolf.digest.RoundDigest;
+import com.werewolf.domain.model.GameEvent;
+import com.werewolf.domain.model.GameState;
+import com.werewolf.domain.model.Player;
+import com.werewolf.llm.ChatMessage;
+import com.werewolf.view.PlayerView;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Prompt 构建器
+ * 消息严格按从稳定到易变的顺序排列，使同一座位相邻两次调用的前缀尽量相同：
+ * <ol>
+ *     <li>板子规则（所有座位共享）</li>
+ *     <li>角色提示词和座位号（整局不变）</li>
+ *     <li>历史信息（往轮摘要 + 之后的可见事件 + 本轮已有发言，只追加）</li>
+ *     <li>当前状态、私有信息和当前任务（每次调用都不同）</li>
+ * </ol>
+ * 前三条消息后设置缓存断点。局面和往轮信息使用 {@link GameStateEncoder} 的紧凑格式，
+ * 历史部分按 {@link PromptBudget} 裁剪，当前任务要求按 {@link DecisionSchema} 回复 JSON
+ *
+ * @author Claude & User
+ */
+public class PromptBuilder {
+
+    private final PromptBudget budget;
+
+    /**
+     * @param properties AI 玩家配置（历史部分的条目和 token 预算）
+     */
+    public PromptBuilder(AIProperties properties) {
+        this(PromptBudget.from(properties));
+    }
+
+    public PromptBuilder(PromptBudget budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * 构建决策消息
+     *
+     * @param request 决策请求
+     * @param view 决策玩家的信息集视图
+     * @param history 该玩家可见的事件（按发生顺序）
+     * @return 对话消息
+     */
+    public List<ChatMessage> build(DecisionRequest request, PlayerView view, List<GameEvent> history) {
+        List<ChatMessage> messages = new ArrayList<>();
+        messages.add(ChatMessage.system(RolePrompts.RULES).withCacheBreakpoint());
+        messages.add(ChatMessage.system(rolePrompt(request.getPlayer())).withCacheBreakpoint());
+        messages.add(ChatMessage.user(historyPrompt(request, history)).withCacheBreakpoint());
+        messages.add(ChatMessage.user(questionPrompt(request, view)));
+        return messages;
+    }
+
+    /**
+     * 构建会话模式下的增量消息
+     * 服务端会话已包含之前发送的全部内容，只发送新事件、新发言和当前任务
+     *
+     * @param request 决策请求
+     * @param view 决策玩家的信息集视图
+     * @param newEvents 上一轮之后新增的可见事件
+     * @param newSpeeches 上一轮之后新增的本轮发言
+     * @return 对话消息
+     */
+    public List<ChatMessage> buildDelta(DecisionRequest request, PlayerView view,
+                                        List<GameEvent> newEvents, Map<Long, String> newSpeeches) {
+        StringBuilder prompt = new StringBuilder();
+        if (!newEvents.isEmpty() || !newSpeeches.isEmpty()) {
+            prompt.append("【新信息】\n");
+            newEvents.forEach(event -> prompt.append("- ").append(event.getDescription()).append("\n"));
+            newSpeeches.forEach((speakerId, speech) -> prompt.append("- ")
+                    .append(speechEntry(request.getGameState(), speakerId, speech)).append("\n"));
+            prompt.append("\n");
+        }
+        prompt.append(questionPrompt(request, view));
+        return List.of(ChatMessage.user(prompt.toString()));
+    }
+
+    private String rolePrompt(Player self) {
+        return RolePrompts.of(self.getRole().getRoleType()) + "\n\n你是" + self.getSeatNumber() + "号玩家。";
+    }
+
+    private String historyPrompt(DecisionRequest request, List<GameEvent> history) {
+        GameState gameState = request.getGameState();
+        List<String> entries = new ArrayList<>();
+        // 已有摘要的回合只放紧凑的回合行，原始公开事件只保留摘要之后的部分
+        int digestedRound = 0;
+        for (RoundDigest digest : request.getDigests()) {
+            entries.add(GameStateEncoder.encodeRound(gameState, digest));
+            digestedRound = Math.max(digestedRound, digest.getRound());
+        }
+        for (GameEvent event : history) {
+            boolean digested = event.isPublic() && event.getRound() <= digestedRound;
+            if (!digested) {
+                entries.add(event.getDescription());
+            }
+        }
+        request.getDaySpeeches().forEach((speakerId, speech) -> entries.add(speechEntry(gameState, speakerId, speech)));
+
+        StringBuilder prompt = new StringBuilder("【历史信息】\n");
+        budget.fit(entries).forEach(entry -> prompt.append("- ").append(entry).append("\n"));
+        return prompt.toString();
+    }
+
+    private String speechEntry(GameState gameState, Long speakerId, String speech) {
+        return gameState.getPlayerById(speakerId).getSeatNumber() + "号发言：" + speech;
+    }
+
+    private String questionPrompt(DecisionRequest request, PlayerView view) {
+        GameState gameState = request.getGameState();
+        StringBuilder prompt = new StringBuilder("【游戏状态】\n");
+        prompt.append("- 当前回合：第").append(gameState.getCurrentRound()).append("回合\n");
+        prompt.append(GameStateEncoder.encodeBoard(gameState)).append("\n");
+        String claims = GameStateEncoder.encodeClaims(gameState, request.getDigests());
+        if (claims != null) {
+            prompt.append(claims).append("\n");
+        }
+        appendPrivateFacts(prompt, gameState, view);
+        prompt.append("\n【当前任务】\n").append(instruction(request));
+        return prompt.toString();
+    }
+
+    private void appendPrivateFacts(StringBuilder prompt, GameState gameState, PlayerView view) {
+        if (!view.getWerewolfTeammates().isEmpty()) {
+            prompt.append("- 你的狼队友：").append(seats(gameState, List.copyOf(view.getWerewolfTeammates())))
+                    .append("\n");
+        }
+        Map<Long, Boolean> seerResults = view.getSeerResults();
+        if (!seerResults.isEmpty()) {
+            prompt.append("- 已验身份：");
+            gameState.getPlayers().stream()
+                    .filter(player -> seerResults.containsKey(player.getId()))
+                    .forEach(player -> prompt.append(player.getSeatNumber()).append("号是")
+                            .append(seerResults.get(player.getId()) ? "狼人" : "好人").append("；"));
+            prompt.append("\n");
+        }
+    }
+
+    private String instruction(DecisionRequest request) {
+        String targets = seats(request.getGameState(), request.getLegalTargets());
+        String task = switch (request.getType()) {
+            case WEREWOLF_KILL -> "请选择今晚要击杀的玩家，可选：" + targets + "。";
+            case WEREWOLF_TEAM_KILL -> "你代表狼队（" + seats(request.getGameState(), request.getWerewolfTeam())
+                    + "）决定今晚的击杀目标，可选：" + targets + "。discussion 用一两句话写出狼队内部讨论。";
+            case SEER_CHECK -> "请选择今晚要查验的玩家，可选：" + targets + "。";
+            case WITCH_ACTION -> witchInstruction(request, targets);
+            case VOTE -> "请投票放逐一名玩家，可选：" + targets + (request.isAbstainAllowed() ? "，也可以弃票。" : "。");
+            case DAY_SPEECH -> "请发表你的白天发言，100字以内。";
+            case LAST_WORDS -> "你已出局，请发表遗言，100字以内。";
+        };
+        return task + DecisionSchema.formatHint(request.getType()) + "。";
+    }
+
+    private String witchInstruction(DecisionRequest request, String targets) {
+        StringBuilder text = new StringBuilder();
+        if (request.isAntidoteAllowed()) {
+            Player killed = request.getGameState().getPlayerById(request.getKilledPlayerId());
+            text.append("今晚").append(killed.getSeatNumber()).append("号玩家被杀，可以使用解药。");
+        } else {
+            text.append("今晚不能使用解药。");
+        }
+        if (request.isPoisonAllowed()) {
+            text.append("可以对一名玩家使用毒药，可选：").append(targets).append("。");
+        } else {
+            text.append("今晚不能使用毒药。");
+        }
+        text.append("解药和毒药不能同一晚使用。");
+        return text.toString();
+    }
+
+    private String seats(GameState gameState, List<Long> playerIds) {
+        return playerIds.stream()
+                .map(gameState::getPlayerById)
+                .map(player -> player.getSeatNumber() + "号")
+                .collect(Collectors.joining("、"));
+    }
+}
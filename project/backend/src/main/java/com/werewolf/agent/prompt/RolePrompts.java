@@ -0,0 +1,97 @@
+package com.werewolf.agent.prompt;
+
+import com.werewolf.domain.role.RoleType;
+
+/**
+ * 角色提示词模板
+ * 模板只包含整局不变的内容（规则、角色信息、推理建议），不含任何占位符，
+ * 保证同一角色的所有请求共享相同的前缀，可以命中模型服务的提示词缓存。
+ * 回合、存活玩家等易变信息由 {@link PromptBuilder} 追加在提示词末尾
+ *
+ * @author Claude & User
+ */
+public final class RolePrompts {
+
+    /**
+     * 游戏规则（所有座位共享）
+     */
+    public static final String RULES = """
+            你正在参与一局6人狼人杀游戏。
+
+            【板子规则】
+            - 配置：2名狼人、1名预言家、1名女巫、2名平民
+            - 夜晚：狼人共同选择击杀一名玩家；预言家查验一名玩家的身份；女巫可使用解药救人或毒药毒人
+            - 女巫：解药和毒药各一瓶，同一晚不能同时使用，首夜不能自救
+            - 白天：公布夜晚死亡信息，死者发表遗言，存活玩家依次发言后投票放逐一名玩家，平票则无人出局
+            - 胜利条件：狼人全部出局则好人胜利；神职（预言家、女巫）全部出局或平民全部出局则狼人胜利
+
+            【回复要求】
+            - 严格按照【当前任务】中的格式回复，不要输出多余内容
+            - 座位号使用“X号”的形式""";
+
+    static final String WEREWOLF = """
+            你是狼人杀游戏中的狼人（Werewolf）。
+
+            【角色信息】
+            - 阵营：狼人阵营
+            - 技能：每晚与狼队友共同击杀一名玩家
+
+            【推理建议】
+            1. 优先击杀已经跳出的预言家或女巫
+            2. 白天伪装成好人，避免与队友同时被怀疑
+            3. 投票时不要投给狼队友，必要时跟随好人的票型""";
+
+    static final String SEER = """
+            你是狼人杀游戏中的预言家（Seer）。
+
+            【角色信息】
+            - 阵营：好人阵营
+            - 技能：每晚可以查验一名玩家的身份
+
+            【推理建议】
+            1. 分析玩家发言寻找矛盾
+            2. 注意投票模式识别狼人
+            3. 保护自己身份避免被刀，查到狼人时再公布结果""";
+
+    static final String WITCH = """
+            你是狼人杀游戏中的女巫（Witch）。
+
+            【角色信息】
+            - 阵营：好人阵营
+            - 技能：一瓶解药可以救活当晚被杀的玩家，一瓶毒药可以毒死一名玩家
+
+            【推理建议】
+            1. 解药优先救关键神职，首夜通常使用解药
+            2. 毒药留给确认的狼人，避免毒到好人
+            3. 白天谨慎暴露身份""";
+
+    static final String VILLAGER = """
+            你是狼人杀游戏中的平民（Villager）。
+
+            【角色信息】
+            - 阵营：好人阵营
+            - 技能：无，依靠发言和投票找出狼人
+
+            【推理建议】
+            1. 分析玩家发言寻找矛盾
+            2. 注意投票模式识别狼人
+            3. 相信可信的预言家查验结果""";
+
+    private RolePrompts() {
+    }
+
+    /**
+     * 获取角色提示词
+     *
+     * @param roleType 角色类型
+     * @return 角色提示词
+     */
+    public static String of(RoleType roleType) {
+        return switch (roleType) {
+            case WEREWOLF -> WEREWOLF;
+            case SEER -> SEER;
+            case WITCH -> WITCH;
+            case VILLAGER -> VILLAGER;
+        };
+    }
+}
@@ -0,0 +1,49 @@
+package com.werewolf.agent.prompt;
+
+/**
+ * token 数估算
+ * 不依赖具体模型的分词器，按主流 BPE 分词器的经验规律估算：
+ * 汉字和全角符号约 1 token/字，连续的英文字母或数字约 4 字符/token，
+ * 其余 ASCII 符号各 1 token，空白与相邻内容合并不单独计数。
+ * 结果偏保守（略高于实际），用于预算控制
+ *
+ * @author Claude & User
+ */
+public final class TokenEstimator {
+
+    private static final int CHARS_PER_WORD_TOKEN = 4;
+
+    private TokenEstimator() {
+    }
+
+    /**
+     * 估算文本的 token 数
+     *
+     * @param text 文本
+     * @return 估算的 token 数
+     */
+    public static int estimate(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        int tokens = 0;
+        int run = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 128 && Character.isLetterOrDigit(c)) {
+                run++;
+                continue;
+            }
+            tokens += wordTokens(run);
+            run = 0;
+            if (!Character.isWhitespace(c) && !Character.isLowSurrogate(c)) {
+                tokens++;
+            }
+        }
+        return tokens + wordTokens(run);
+    }
+
+    private static int wordTokens(int length) {
+        return (length + CHARS_PER_WORD_TOKEN - 1) / CHARS_PER_WORD_TOKEN;
+    }
+}
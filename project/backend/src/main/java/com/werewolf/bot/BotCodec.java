@@ -0,0 +1,163 @@
+package com.werewolf.bot;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.werewolf.agent.ActionSubmission;
+import com.werewolf.agent.DecisionPrompt;
+import com.werewolf.agent.DecisionType;
+import com.werewolf.agent.SubmissionResult;
+import com.werewolf.domain.model.GameEvent;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 外部智能体协议的帧编解码
+ * 帧为 4 字节大端长度 + UTF-8 JSON，每条消息都带 game 和 player，同一连接上的多个座位按此区分
+ *
+ * @author Claude & User
+ */
+final class BotCodec {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .disable(SerializationFeature.INDENT_OUTPUT)
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    private BotCodec() {
+    }
+
+    static byte[] event(Long gameId, Long playerId, GameEvent event) {
+        ObjectNode frame = seatFrame("event", gameId, playerId)
+                .put("eventType", event.getType().name())
+                .put("round", event.getRound());
+        if (event.getPhase() != null) {
+            frame.put("phase", event.getPhase().name());
+        }
+        if (event.getPlayerId() != null) {
+            frame.put("playerId", event.getPlayerId());
+        }
+        if (event.getTargetPlayerId() != null) {
+            frame.put("targetPlayerId", event.getTargetPlayerId());
+        }
+        if (event.getDescription() != null) {
+            frame.put("description", event.getDescription());
+        }
+        if (event.getData() != null) {
+            frame.set("data", OBJECT_MAPPER.valueToTree(event.getData()));
+        }
+        return write(frame);
+    }
+
+    static byte[] prompt(Long gameId, DecisionPrompt prompt) {
+        ObjectNode frame = seatFrame("prompt", gameId, prompt.playerId())
+                .put("version", prompt.version())
+                .put("decision", prompt.type().name());
+        ArrayNode targets = frame.putArray("targets");
+        prompt.legalTargets().forEach(targets::add);
+        if (prompt.killedPlayerId() != null) {
+            frame.put("killed", prompt.killedPlayerId());
+        }
+        return write(frame.put("antidote", prompt.antidoteAllowed())
+                .put("poison", prompt.poisonAllowed())
+                .put("abstain", prompt.abstainAllowed())
+                .put("timeout", prompt.timeout()));
+    }
+
+    static byte[] actionResult(Long gameId, Long playerId, String key, long version, SubmissionResult result) {
+        return write(seatFrame("action_result", gameId, playerId)
+                .put("key", key)
+                .put("version", version)
+                .put("result", result.name()));
+    }
+
+    static byte[] seatClosed(Long gameId, Long playerId) {
+        return write(seatFrame("seat_closed", gameId, playerId));
+    }
+
+    static byte[] error(String message) {
+        return write(OBJECT_MAPPER.createObjectNode()
+                .put("type", "error")
+                .put("message", message));
+    }
+
+    static JsonNode read(byte[] body) {
+        try {
+            return OBJECT_MAPPER.readTree(body);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("帧内容不是合法的JSON", e);
+        }
+    }
+
+    /**
+     * 解析行动消息
+     *
+     * @throws IllegalArgumentException 决策类型未知
+     */
+    static ActionSubmission action(JsonNode frame) {
+        return ActionSubmission.builder()
+                .version(frame.path("version").asLong())
+                .idempotencyKey(frame.path("key").asText(""))
+                .type(DecisionType.valueOf(frame.path("decision").asText()))
+                .targetPlayerId(optionalId(frame.path("target")))
+                .useAntidote(frame.path("antidote").asBoolean(false))
+                .poisonTargetId(optionalId(frame.path("poison")))
+                .content(frame.hasNonNull("content") ? frame.get("content").asText() : null)
+                .build();
+    }
+
+    /**
+     * 读取一帧
+     *
+     * @return 帧内容，对端正常关闭时返回null
+     * @throws IllegalArgumentException 帧长度非法
+     */
+    static byte[] readFrame(DataInputStream in, int maxFrameSize) throws IOException {
+        int length;
+        try {
+            length = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (length < 0 || length > maxFrameSize) {
+            throw new IllegalArgumentException("帧长度非法: " + length);
+        }
+        byte[] body = new byte[length];
+        in.readFully(body);
+        return body;
+    }
+
+    static void writeFrame(OutputStream out, byte[] body) throws IOException {
+        int length = body.length;
+        out.write(length >>> 24);
+        out.write(length >>> 16);
+        out.write(length >>> 8);
+        out.write(length);
+        out.write(body);
+    }
+
+    private static ObjectNode seatFrame(String type, Long gameId, Long playerId) {
+        return OBJECT_MAPPER.createObjectNode()
+                .put("type", type)
+                .put("game", gameId)
+                .put("player", playerId);
+    }
+
+    private static Long optionalId(JsonNode node) {
+        return node.isNumber() ? node.asLong() : null;
+    }
+
+    private static byte[] write(ObjectNode frame) {
+        try {
+            return OBJECT_MAPPER.writeValueAsBytes(frame);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("帧编码失败", e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.werewolf.bot;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 外部智能体协议装配
+ * 仅在 bot.enabled=true 时随应用启动
+ *
+ * @author Claude & User
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "bot", name = "enabled", havingValue = "true")
+public class BotConfiguration {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public BotServer botServer(BotProperties properties) {
+        return new BotServer(properties);
+    }
+}
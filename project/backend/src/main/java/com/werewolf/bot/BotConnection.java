@@ -0,0 +1,227 @@
+package com.werewolf.bot;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.werewolf.agent.ActionSubmission;
+import com.werewolf.agent.SubmissionResult;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 一个外部智能体进程的连接
+ * 连接上可以同时承载多个对局的多个座位。读线程解析行动并直接提交到座位的决策槽，不经过引擎线程；
+ * 写线程批量写出发送队列中的帧，队列为空时才刷新，事件密集时多帧合并为一次系统调用。
+ * 发送队列满（智能体读取过慢）时断开连接，之后的决策由降级AI完成
+ *
+ * @author Claude & User
+ */
+@Slf4j
+public class BotConnection {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // 写线程写到该标记时刷新并关闭连接，用于先写出错误帧再断开
+    private static final byte[] END = new byte[0];
+
+    private final Socket socket;
+    private final BotServer server;
+    private final int maxFrameSize;
+    private final BlockingQueue<byte[]> outbound;
+    private final Map<SeatKey, RemoteBotAgent> seats = new ConcurrentHashMap<>();
+
+    private volatile String name;
+    private volatile boolean closed;
+    private volatile String endReason;
+    private Thread reader;
+    private Thread writer;
+
+    BotConnection(Socket socket, BotServer server, BotProperties properties) {
+        this.socket = socket;
+        this.server = server;
+        this.maxFrameSize = properties.getMaxFrameSize();
+        this.outbound = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+    }
+
+    void start() {
+        String address = String.valueOf(socket.getRemoteSocketAddress());
+        reader = daemon(this::readLoop, "bot-read " + address);
+        writer = daemon(this::writeLoop, "bot-write " + address);
+        reader.start();
+        writer.start();
+    }
+
+    /**
+     * 入队一帧，不阻塞
+     *
+     * @param body 帧内容
+     * @return false 表示连接已关闭
+     */
+    boolean send(byte[] body) {
+        if (closed) {
+            return false;
+        }
+        if (!outbound.offer(body)) {
+            close("发送队列已满");
+            return false;
+        }
+        return true;
+    }
+
+    void bind(RemoteBotAgent agent) {
+        seats.put(new SeatKey(agent.getGameId(), agent.getPlayerId()), agent);
+    }
+
+    void unbind(RemoteBotAgent agent) {
+        if (seats.remove(new SeatKey(agent.getGameId(), agent.getPlayerId()), agent)) {
+            send(BotCodec.seatClosed(agent.getGameId(), agent.getPlayerId()));
+        }
+    }
+
+    /**
+     * 关闭连接，未发送的帧被丢弃
+     *
+     * @param reason 原因
+     */
+    public void close(String reason) {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        log.info("外部智能体 {} 断开: {}", name, reason);
+        try {
+            socket.close();
+        } catch (IOException e) {
+            log.debug("关闭连接失败: {}", e.getMessage());
+        }
+        if (writer != null) {
+            writer.interrupt();
+        }
+        outbound.clear();
+        server.unregister(this);
+        seats.values().forEach(RemoteBotAgent::expire);
+    }
+
+    public boolean isOpen() {
+        return !closed;
+    }
+
+    /**
+     * 连接在握手时声明的名称
+     *
+     * @return 名称，握手前为null
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 连接上的座位数
+     *
+     * @return 座位数
+     */
+    public int seatCount() {
+        return seats.size();
+    }
+
+    private void readLoop() {
+        // 不关闭输入流：关闭会同时关闭连接，错误帧来不及写出，连接统一由 close 关闭
+        try {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), BUFFER_SIZE));
+            byte[] body;
+            while ((body = BotCodec.readFrame(in, maxFrameSize)) != null) {
+                handle(BotCodec.read(body));
+            }
+            close("对端关闭");
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            // 协议错误：写出错误帧后断开
+            endReason = e.getMessage();
+            if (!send(BotCodec.error(e.getMessage())) || !send(END)) {
+                close(e.getMessage());
+            }
+        } catch (IOException e) {
+            close(closed ? "已关闭" : "读取失败: " + e.getMessage());
+        }
+    }
+
+    private void handle(JsonNode frame) {
+        String type = frame.path("type").asText();
+        if (name == null) {
+            String bot = frame.path("bot").asText("");
+            if (!"hello".equals(type) || bot.isBlank()) {
+                throw new IllegalArgumentException("第一帧必须是带 bot 名称的 hello");
+            }
+            if (!server.register(bot, this)) {
+                throw new IllegalStateException("名称 " + bot + " 已被其他连接使用");
+            }
+            name = bot;
+            return;
+        }
+        if ("action".equals(type)) {
+            submit(frame);
+        } else {
+            log.debug("忽略外部智能体 {} 的消息: {}", name, type);
+        }
+    }
+
+    private void submit(JsonNode frame) {
+        Long gameId = frame.path("game").asLong();
+        Long playerId = frame.path("player").asLong();
+        String key = frame.path("key").asText("");
+        long version = frame.path("version").asLong();
+        RemoteBotAgent agent = seats.get(new SeatKey(gameId, playerId));
+        SubmissionResult result;
+        if (agent == null) {
+            result = SubmissionResult.REJECTED;
+        } else {
+            try {
+                ActionSubmission submission = BotCodec.action(frame);
+                result = agent.submit(submission);
+            } catch (IllegalArgumentException e) {
+                // 未知的决策类型
+                result = SubmissionResult.REJECTED;
+            }
+        }
+        send(BotCodec.actionResult(gameId, playerId, key, version, result));
+    }
+
+    private void writeLoop() {
+        try {
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream(), BUFFER_SIZE);
+            while (!closed) {
+                byte[] body = outbound.take();
+                while (body != null && body != END) {
+                    BotCodec.writeFrame(out, body);
+                    body = outbound.poll();
+                }
+                out.flush();
+                if (body == END) {
+                    close(endReason);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            close("发送失败: " + e.getMessage());
+        }
+    }
+
+    private static Thread daemon(Runnable task, String name) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private record SeatKey(Long gameId, Long playerId) {
+    }
+}
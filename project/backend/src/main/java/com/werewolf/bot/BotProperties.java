@@ -0,0 +1,45 @@
+package com.werewolf.bot;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 外部智能体协议配置
+ * 绑定 application.yml 中的 bot.* 配置项
+ *
+ * @author Claude & User
+ */
+@Data
+@ConfigurationProperties(prefix = "bot")
+public class BotProperties {
+
+    /**
+     * 是否启动协议服务
+     */
+    private boolean enabled = false;
+
+    /**
+     * 监听地址
+     */
+    private String host = "127.0.0.1";
+
+    /**
+     * 监听端口（0 表示随机端口）
+     */
+    private int port = 7022;
+
+    /**
+     * 单帧最大字节数，超过时断开连接
+     */
+    private int maxFrameSize = 1024 * 1024;
+
+    /**
+     * 每个连接的发送队列上限（帧数），队列满时断开连接
+     */
+    private int queueCapacity = 65536;
+
+    /**
+     * 决策提交期限（毫秒），超过后按降级AI的默认决策处理
+     */
+    private long actionTimeout = 30000;
+}
@@ -0,0 +1,170 @@
+package com.werewolf.bot;
+
+import com.werewolf.agent.PlayerAgent;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * 外部智能体协议服务
+ * 外部进程（强化学习智能体、其他团队的机器人）通过一条 TCP 长连接接入，同一连接可以同时控制大量对局的座位。
+ * 帧为 4 字节大端长度 + UTF-8 JSON，消息如下：
+ * <pre>
+ * 智能体 -> 服务  {"type":"hello","bot":名称}                      连接后的第一帧，名称在服务内唯一
+ * 智能体 -> 服务  {"type":"action","game","player","version","key","decision","target","antidote","poison","content"}
+ * 服务 -> 智能体  {"type":"event","game","player","eventType","round",...}      座位可见的事件
+ * 服务 -> 智能体  {"type":"prompt","game","player","version","decision","targets",...}  决策提示和合法行动
+ * 服务 -> 智能体  {"type":"action_result","game","player","key","version","result"}
+ * 服务 -> 智能体  {"type":"seat_closed","game","player"}               对局结束或房间关闭
+ * 服务 -> 智能体  {"type":"error","message"}                           协议错误，随后断开
+ * </pre>
+ * 行动的版本和幂等键规则与真人座位相同（见 {@link com.werewolf.agent.DecisionSlot}）。
+ * 对局通过 {@link #agent} 把座位交给已连接的智能体
+ *
+ * @author Claude & User
+ */
+@Slf4j
+public class BotServer {
+
+    private final BotProperties properties;
+    private final Map<String, BotConnection> bots = new ConcurrentHashMap<>();
+    // 包括尚未握手的连接
+    private final Set<BotConnection> connections = ConcurrentHashMap.newKeySet();
+
+    private ServerSocket serverSocket;
+    private ScheduledThreadPoolExecutor scheduler;
+
+    public BotServer(BotProperties properties) {
+        if (properties.getMaxFrameSize() <= 0 || properties.getQueueCapacity() <= 0) {
+            throw new IllegalArgumentException("单帧上限和发送队列上限必须大于0");
+        }
+        if (properties.getActionTimeout() <= 0) {
+            throw new IllegalArgumentException("决策提交期限必须大于0");
+        }
+        this.properties = properties;
+    }
+
+    /**
+     * 启动服务
+     *
+     * @throws IOException 端口被占用等
+     */
+    public synchronized void start() throws IOException {
+        if (serverSocket != null) {
+            throw new IllegalStateException("协议服务已启动");
+        }
+        serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(properties.getHost(), properties.getPort()));
+        // 所有座位的提交期限共用一个定时线程，决策完成后定时任务立即移除
+        scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "bot-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        ServerSocket listening = serverSocket;
+        Thread acceptor = new Thread(() -> accept(listening), "bot-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        log.info("外部智能体协议已启动: {}:{}", properties.getHost(), getPort());
+    }
+
+    /**
+     * 停止服务并断开所有连接
+     */
+    public synchronized void stop() {
+        if (serverSocket == null) {
+            return;
+        }
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            log.debug("关闭监听失败: {}", e.getMessage());
+        }
+        connections.forEach(connection -> connection.close("服务关闭"));
+        scheduler.shutdownNow();
+        serverSocket = null;
+        scheduler = null;
+    }
+
+    public synchronized int getPort() {
+        if (serverSocket == null) {
+            throw new IllegalStateException("协议服务未启动");
+        }
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * 把座位交给已连接的外部智能体
+     *
+     * @param bot 智能体名称
+     * @param gameId 对局ID
+     * @param playerId 玩家ID
+     * @param fallback 超时或断线时使用的降级AI
+     * @return 座位智能体，交给 {@link com.werewolf.runtime.GameRunner}
+     */
+    public RemoteBotAgent agent(String bot, Long gameId, Long playerId, PlayerAgent fallback) {
+        BotConnection connection = connection(bot);
+        if (connection == null) {
+            throw new IllegalStateException("外部智能体 " + bot + " 未连接");
+        }
+        ScheduledThreadPoolExecutor timer;
+        synchronized (this) {
+            timer = scheduler;
+        }
+        if (timer == null) {
+            throw new IllegalStateException("协议服务未启动");
+        }
+        RemoteBotAgent agent = new RemoteBotAgent(gameId, playerId, connection, fallback, timer,
+                properties.getActionTimeout());
+        connection.bind(agent);
+        return agent;
+    }
+
+    /**
+     * 已完成握手的智能体名称
+     *
+     * @return 名称
+     */
+    public Set<String> connectedBots() {
+        return Set.copyOf(bots.keySet());
+    }
+
+    BotConnection connection(String bot) {
+        return bots.get(bot);
+    }
+
+    boolean register(String bot, BotConnection connection) {
+        return bots.putIfAbsent(bot, connection) == null;
+    }
+
+    void unregister(BotConnection connection) {
+        connections.remove(connection);
+        if (connection.getName() != null) {
+            bots.remove(connection.getName(), connection);
+        }
+    }
+
+    private void accept(ServerSocket listening) {
+        while (!listening.isClosed()) {
+            try {
+                Socket socket = listening.accept();
+                socket.setTcpNoDelay(true);
+                BotConnection connection = new BotConnection(socket, this, properties);
+                connections.add(connection);
+                connection.start();
+            } catch (IOException e) {
+                if (!listening.isClosed()) {
+                    log.warn("接受外部智能体连接失败: {}", e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.werewolf.bot;
+
+import com.werewolf.agent.ActionSubmission;
+import com.werewolf.agent.AgentDecision;
+import com.werewolf.agent.DecisionRequest;
+import com.werewolf.agent.HumanAgent;
+import com.werewolf.agent.PlayerAgent;
+import com.werewolf.agent.SubmissionResult;
+import com.werewolf.domain.model.GameEvent;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * 由外部进程控制的座位
+ * 可见事件和决策提示（含合法行动）推送到外部智能体的连接，行动按真人座位的规则提交：
+ * 带决策版本和幂等键，超过期限或连接断开时使用降级AI的默认决策
+ *
+ * @author Claude & User
+ */
+public class RemoteBotAgent implements PlayerAgent {
+
+    private final Long gameId;
+    private final BotConnection connection;
+    private final PlayerAgent fallback;
+    private final HumanAgent seat;
+
+    RemoteBotAgent(Long gameId, Long playerId, BotConnection connection, PlayerAgent fallback,
+                   ScheduledExecutorService scheduler, long timeout) {
+        this.gameId = gameId;
+        this.connection = connection;
+        this.fallback = fallback;
+        this.seat = new HumanAgent(playerId, fallback, scheduler, timeout,
+                prompt -> connection.send(BotCodec.prompt(gameId, prompt)));
+    }
+
+    @Override
+    public Long getPlayerId() {
+        return seat.getPlayerId();
+    }
+
+    public Long getGameId() {
+        return gameId;
+    }
+
+    @Override
+    public CompletableFuture<AgentDecision> decide(DecisionRequest request) {
+        if (!connection.isOpen()) {
+            return fallback.decide(request).thenApply(decision -> decision.toBuilder().fallback(true).build());
+        }
+        return seat.decide(request);
+    }
+
+    @Override
+    public void onEvent(GameEvent event) {
+        connection.send(BotCodec.event(gameId, getPlayerId(), event));
+    }
+
+    /**
+     * 提交行动
+     *
+     * @param submission 行动
+     * @return 提交结果
+     */
+    SubmissionResult submit(ActionSubmission submission) {
+        return seat.submit(submission);
+    }
+
+    /**
+     * 连接断开时立即为等待中的决策提交默认决策
+     */
+    void expire() {
+        seat.expire();
+    }
+
+    /**
+     * 取消等待中的决策并通知外部智能体座位已关闭
+     */
+    @Override
+    public void close() {
+        seat.close();
+        connection.unbind(this);
+    }
+}
@@ -0,0 +1,34 @@
+package com.werewolf.digest;
+
+import com.werewolf.domain.role.RoleType;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 发言中的身份声明
+ *
+ * @author Claude & User
+ */
+@Data
+@Builder
+public class Claim {
+
+    /**
+     * 声明者ID
+     */
+    private Long playerId;
+
+    /**
+     * 声明的身份
+     */
+    private RoleType claimedRole;
+
+    /**
+     * 声明的查验结果（目标ID -> 是否狼人）
+     */
+    @Builder.Default
+    private Map<Long, Boolean> checkResults = new LinkedHashMap<>();
+}
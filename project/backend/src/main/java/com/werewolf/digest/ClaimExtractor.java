@@ -0,0 +1,63 @@
+package com.werewolf.digest;
+
+import com.werewolf.domain.role.RoleType;
+
+import java.util.function.IntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 从发言文本中识别身份声明
+ * 只识别“我是预言家”“X号是狼人”这类明确表述，识别不到时返回null
+ *
+ * @author Claude & User
+ */
+public final class ClaimExtractor {
+
+    private static final Pattern ROLE_PATTERN = Pattern.compile("我是(预言家|女巫|平民|村民)");
+    private static final Pattern CHECK_PATTERN = Pattern.compile("(\\d+)号是(狼人|好人)");
+
+    private ClaimExtractor() {
+    }
+
+    /**
+     * 识别发言中的身份声明
+     *
+     * @param speakerId 发言玩家ID
+     * @param text 发言内容
+     * @param seatToId 座位号到玩家ID的映射（未知座位返回null）
+     * @return 身份声明，没有声明时返回null
+     */
+    public static Claim extract(Long speakerId, String text, IntFunction<Long> seatToId) {
+        if (speakerId == null || text == null) {
+            return null;
+        }
+        Matcher role = ROLE_PATTERN.matcher(text);
+        if (!role.find()) {
+            return null;
+        }
+
+        Claim claim = Claim.builder()
+                .playerId(speakerId)
+                .claimedRole(toRoleType(role.group(1)))
+                .build();
+        if (claim.getClaimedRole() == RoleType.SEER) {
+            Matcher check = CHECK_PATTERN.matcher(text);
+            while (check.find()) {
+                Long target = seatToId.apply(Integer.parseInt(check.group(1)));
+                if (target != null && !target.equals(speakerId)) {
+                    claim.getCheckResults().put(target, "狼人".equals(check.group(2)));
+                }
+            }
+        }
+        return claim;
+    }
+
+    private static RoleType toRoleType(String name) {
+        return switch (name) {
+            case "预言家" -> RoleType.SEER;
+            case "女巫" -> RoleType.WITCH;
+            default -> RoleType.VILLAGER;
+        };
+    }
+}
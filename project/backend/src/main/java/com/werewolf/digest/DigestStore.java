@@ -0,0 +1,53 @@
+package com.werewolf.digest;
+
+import com.werewolf.domain.model.GameState;
+import com.werewolf.engine.GameController;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * 房间回合摘要存储
+ * 同一房间同一回合的摘要只计算一次，之后所有AI座位复用
+ *
+ * @author Claude & User
+ */
+public class DigestStore {
+
+    private final Map<Long, NavigableMap<Integer, RoundDigest>> digests = new ConcurrentHashMap<>();
+
+    /**
+     * 获取回合摘要，不存在时计算并保存
+     *
+     * @param gameState 游戏状态
+     * @param roundResult 已完成白天的回合结果
+     * @return 回合摘要
+     */
+    public RoundDigest getOrCompute(GameState gameState, GameController.RoundResult roundResult) {
+        return digests.computeIfAbsent(gameState.getGameId(), id -> new ConcurrentSkipListMap<>())
+                .computeIfAbsent(roundResult.getRound(), round -> RoundDigestFactory.create(gameState, roundResult));
+    }
+
+    /**
+     * 获取房间已完成回合的摘要（按回合排序）
+     *
+     * @param gameId 游戏ID
+     * @return 摘要列表
+     */
+    public List<RoundDigest> getDigests(Long gameId) {
+        NavigableMap<Integer, RoundDigest> rounds = digests.get(gameId);
+        return rounds == null ? List.of() : List.copyOf(rounds.values());
+    }
+
+    /**
+     * 游戏结束后释放房间摘要
+     *
+     * @param gameId 游戏ID
+     */
+    public void release(Long gameId) {
+        digests.remove(gameId);
+    }
+}
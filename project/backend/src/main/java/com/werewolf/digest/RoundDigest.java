@@ -0,0 +1,67 @@
+package com.werewolf.digest;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 回合公开摘要
+ * 每个房间每回合白天结束后计算一次，所有AI座位共享，
+ * 代替原始的发言、遗言和投票事件放入提示词
+ *
+ * @author Claude & User
+ */
+@Data
+@Builder
+public class RoundDigest {
+
+    /**
+     * 回合数
+     */
+    private int round;
+
+    /**
+     * 当晚死亡的玩家ID（公布的死讯，不含死因）
+     */
+    @Builder.Default
+    private List<Long> nightDeaths = new ArrayList<>();
+
+    /**
+     * 发言和遗言中的身份声明
+     */
+    @Builder.Default
+    private List<Claim> claims = new ArrayList<>();
+
+    /**
+     * 投票详情（投票者ID -> 目标ID）
+     */
+    @Builder.Default
+    private Map<Long, Long> votes = new LinkedHashMap<>();
+
+    /**
+     * 弃票的玩家ID
+     */
+    @Builder.Default
+    private Set<Long> abstained = new HashSet<>();
+
+    /**
+     * 被放逐的玩家ID（null表示无人出局）
+     */
+    private Long exiledPlayerId;
+
+    /**
+     * 是否平票
+     */
+    private boolean tie;
+
+    /**
+     * 文字摘要
+     */
+    private String summary;
+}
@@ -0,0 +1,134 @@
+package com.werewolf.digest;
+
+import com.werewolf.domain.model.GameState;
+import com.werewolf.domain.model.Player;
+import com.werewolf.engine.GameController;
+import com.werewolf.engine.day.DayPhaseEngine;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 回合摘要生成器
+ * 只使用白天公开的信息：死讯、遗言、发言、投票和放逐结果
+ *
+ * @author Claude & User
+ */
+public final class RoundDigestFactory {
+
+    private RoundDigestFactory() {
+    }
+
+    /**
+     * 根据回合结果生成摘要
+     *
+     * @param gameState 游戏状态
+     * @param roundResult 已完成白天的回合结果
+     * @return 回合摘要
+     */
+    public static RoundDigest create(GameState gameState, GameController.RoundResult roundResult) {
+        DayPhaseEngine.DayPhaseResult day = roundResult.getDayResult();
+        if (day == null) {
+            throw new IllegalArgumentException("回合白天尚未执行");
+        }
+
+        List<Long> nightDeaths = day.getLastNightDeaths() != null ? day.getLastNightDeaths() : List.of();
+
+        // 先遗言后发言，同一玩家只保留最后一次声明
+        Map<Long, Claim> claims = new LinkedHashMap<>();
+        collectClaims(gameState, day.getLastWordsRecords(), claims);
+        collectClaims(gameState, day.getSpeechRecords(), claims);
+
+        Map<Long, Long> votes = new LinkedHashMap<>();
+        if (day.getVoteDetails() != null) {
+            day.getVoteDetails().entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey(Comparator.comparingInt(id -> seat(gameState, id))))
+                    .forEach(vote -> votes.put(vote.getKey(), vote.getValue()));
+        }
+
+        boolean tie = day.getVoteResult() != null && day.getVoteResult().isTie();
+        RoundDigest digest = RoundDigest.builder()
+                .round(roundResult.getRound())
+                .nightDeaths(new ArrayList<>(nightDeaths))
+                .claims(new ArrayList<>(claims.values()))
+                .votes(votes)
+                .abstained(day.getAbstainedPlayers() != null ? new HashSet<>(day.getAbstainedPlayers()) : new HashSet<>())
+                .exiledPlayerId(day.getExiledPlayerId())
+                .tie(tie)
+                .build();
+        digest.setSummary(summarize(gameState, digest));
+        return digest;
+    }
+
+    private static void collectClaims(GameState gameState, Map<Long, String> texts, Map<Long, Claim> claims) {
+        if (texts == null) {
+            return;
+        }
+        texts.forEach((playerId, text) -> {
+            Claim claim = ClaimExtractor.extract(playerId, text, seatNumber -> {
+                Player player = gameState.getPlayerBySeat(seatNumber);
+                return player != null ? player.getId() : null;
+            });
+            if (claim != null) {
+                claims.put(playerId, claim);
+            }
+        });
+    }
+
+    private static String summarize(GameState gameState, RoundDigest digest) {
+        StringBuilder summary = new StringBuilder();
+        summary.append("第").append(digest.getRound()).append("轮：");
+        if (digest.getNightDeaths().isEmpty()) {
+            summary.append("平安夜");
+        } else {
+            summary.append("夜晚").append(seats(gameState, digest.getNightDeaths())).append("死亡");
+        }
+
+        for (Claim claim : digest.getClaims()) {
+            summary.append("；").append(seatLabel(gameState, claim.getPlayerId()))
+                    .append("声称").append(claim.getClaimedRole().getChineseName());
+            if (!claim.getCheckResults().isEmpty()) {
+                summary.append("，查验").append(claim.getCheckResults().entrySet().stream()
+                        .map(check -> seatLabel(gameState, check.getKey()) + (check.getValue() ? "是狼人" : "是好人"))
+                        .collect(Collectors.joining("、")));
+            }
+        }
+
+        if (!digest.getVotes().isEmpty()) {
+            summary.append("；投票：").append(digest.getVotes().entrySet().stream()
+                    .map(vote -> seat(gameState, vote.getKey()) + "→" + seat(gameState, vote.getValue()))
+                    .collect(Collectors.joining(" ")));
+        }
+        if (!digest.getAbstained().isEmpty()) {
+            summary.append("；弃票：").append(seats(gameState, new ArrayList<>(digest.getAbstained())));
+        }
+
+        if (digest.getExiledPlayerId() != null) {
+            summary.append("；").append(seatLabel(gameState, digest.getExiledPlayerId())).append("被放逐");
+        } else {
+            summary.append(digest.isTie() ? "；平票无人出局" : "；无人出局");
+        }
+        return summary.append("。").toString();
+    }
+
+    private static String seats(GameState gameState, List<Long> playerIds) {
+        return playerIds.stream()
+                .sorted(Comparator.comparingInt(id -> seat(gameState, id)))
+                .map(id -> seatLabel(gameState, id))
+                .collect(Collectors.joining("、"));
+    }
+
+    private static String seatLabel(GameState gameState, Long playerId) {
+        return seat(gameState, playerId) + "号";
+    }
+
+    private static int seat(GameState gameState, Long playerId) {
+        Player player = gameState.getPlayerById(playerId);
+        return player != null ? player.getSeatNumber() : 0;
+    }
+}
@@ -0,0 +1,84 @@
+package com.werewolf.domain.model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * 只追加的事件日志，供快照共享
+ * 事件按固定大小分段存放，分段写满后不再移动，追加不会复制已有事件。
+ * 快照持有发布时的分段目录和长度。之后的追加只写入视图长度以外的位置：当前分段的空位、
+ * 同一目录的空槽位（新分段）或扩容后的新目录，视图长度以内的内容不再改变，
+ * 因此发布一份快照只需要 O(1)，整局的发布开销与事件数成线性关系。
+ * 只由引擎线程追加；其他线程经快照（volatile 发布）读取
+ *
+ * @author Claude & User
+ */
+final class EventLog {
+
+    static final int SEGMENT_SIZE = 256;
+
+    private GameEvent[][] segments = new GameEvent[4][];
+    private int size;
+
+    /**
+     * 追加事件
+     *
+     * @param event 事件
+     */
+    void append(GameEvent event) {
+        int segment = size / SEGMENT_SIZE;
+        if (segment == segments.length) {
+            // 换新目录，之后的分段只登记在新目录中
+            segments = Arrays.copyOf(segments, segments.length * 2);
+        }
+        if (segments[segment] == null) {
+            segments[segment] = new GameEvent[SEGMENT_SIZE];
+        }
+        segments[segment][size % SEGMENT_SIZE] = event;
+        size++;
+    }
+
+    /**
+     * 已追加的事件数
+     *
+     * @return 事件数
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * 当前内容的只读视图，之后的追加不会出现在视图中
+     *
+     * @return 视图
+     */
+    List<GameEvent> view() {
+        return new View(segments, size);
+    }
+
+    private static final class View extends AbstractList<GameEvent> implements RandomAccess {
+
+        private final GameEvent[][] segments;
+        private final int size;
+
+        private View(GameEvent[][] segments, int size) {
+            this.segments = segments;
+            this.size = size;
+        }
+
+        @Override
+        public GameEvent get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("事件下标越界: " + index);
+            }
+            return segments[index / SEGMENT_SIZE][index % SEGMENT_SIZE];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
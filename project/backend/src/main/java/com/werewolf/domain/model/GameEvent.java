@@ -98,6 +98,11 @@ public class GameEvent {
          */
         WEREWOLF_KILL,
 
+        /**
+         * 狼队内部讨论（仅狼人可见）
+         */
+        WEREWOLF_DISCUSSION,
+
         /**
          * 预言家查验
          */
@@ -166,7 +171,17 @@ public class GameEvent {
         /**
          * 系统消息
          */
-        SYSTEM_MESSAGE
+        SYSTEM_MESSAGE,
+
+        /**
+         * AI座位因过载降级到较小的模型或规则AI（不对玩家展示，评估时据此排除降级对局）
+         */
+        MODEL_DEGRADED,
+
+        /**
+         * AI座位从降级中恢复
+         */
+        MODEL_RESTORED
     }
 
     /**
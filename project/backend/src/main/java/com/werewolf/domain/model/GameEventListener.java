@@ -0,0 +1,19 @@
+package com.werewolf.domain.model;
+
+/**
+ * 游戏事件监听器
+ * 事件写入 {@link GameState} 后同步回调，用于增量维护派生数据
+ *
+ * @author Claude & User
+ */
+@FunctionalInterface
+public interface GameEventListener {
+
+    /**
+     * 事件已追加到游戏事件历史
+     *
+     * @param gameState 游戏状态
+     * @param event 新事件（gameId、回合、阶段已填充）
+     */
+    void onEvent(GameState gameState, GameEvent event);
+}
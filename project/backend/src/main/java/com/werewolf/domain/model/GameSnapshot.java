@@ -0,0 +1,94 @@
+package com.werewolf.domain.model;
+
+import com.werewolf.domain.role.RoleType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 游戏状态的只读快照
+ * 引擎在每个子阶段结束时发布一份（见 {@link GameState#publishSnapshot()}），
+ * 引擎线程之外的读取方（观战、指标、模型回调等）读取快照而不是可变的 GameState，无需加锁。
+ * 快照创建后不再改变；事件列表是只追加日志在发布时刻的视图，不逐份复制，
+ * 其中的事件对象与 GameState 共享，写入事件流之后引擎不再修改它们
+ *
+ * @author Claude & User
+ */
+public record GameSnapshot(long version, Long gameId, Phase phase, int round, GameState.GameStatus status,
+                           String winningCamp, List<PlayerSnapshot> players, List<Long> lastNightDeaths,
+                           List<GameEvent> events) {
+
+    /**
+     * 复制游戏状态
+     *
+     * @param gameState 游戏状态
+     * @param version 快照版本
+     * @param events 事件列表，调用方保证之后不再改变
+     * @return 快照
+     */
+    static GameSnapshot of(GameState gameState, long version, List<GameEvent> events) {
+        List<Player> source = gameState.getPlayers() == null ? List.of() : gameState.getPlayers();
+        List<PlayerSnapshot> players = new ArrayList<>(source.size());
+        for (Player player : source) {
+            players.add(new PlayerSnapshot(player.getId(), player.getName(), player.getSeatNumber(),
+                    player.getType(), player.getRole() == null ? null : player.getRole().getRoleType(),
+                    player.isAlive(), player.isHasSpoken(), player.isHasVoted(), player.getDeathReason()));
+        }
+        return new GameSnapshot(version, gameState.getGameId(), gameState.getCurrentPhase(),
+                gameState.getCurrentRound(), gameState.getStatus(), gameState.getWinningCamp(),
+                List.copyOf(players),
+                gameState.getLastNightDeaths() == null ? List.of() : List.copyOf(gameState.getLastNightDeaths()),
+                events);
+    }
+
+    /**
+     * 根据ID获取玩家
+     *
+     * @param playerId 玩家ID
+     * @return 玩家，不存在时返回null
+     */
+    public PlayerSnapshot player(Long playerId) {
+        return players.stream()
+                .filter(player -> player.id().equals(playerId))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * 根据座位号获取玩家
+     *
+     * @param seatNumber 座位号
+     * @return 玩家，不存在时返回null
+     */
+    public PlayerSnapshot playerBySeat(int seatNumber) {
+        return players.stream()
+                .filter(player -> player.seatNumber() == seatNumber)
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * 存活玩家
+     *
+     * @return 按座位顺序的存活玩家
+     */
+    public List<PlayerSnapshot> alivePlayers() {
+        return players.stream().filter(PlayerSnapshot::alive).toList();
+    }
+
+    /**
+     * 是否已结束
+     *
+     * @return true表示已结束
+     */
+    public boolean isFinished() {
+        return status == GameState.GameStatus.FINISHED;
+    }
+
+    /**
+     * 玩家的只读快照，角色只保留类型
+     */
+    public record PlayerSnapshot(Long id, String name, int seatNumber, Player.PlayerType type, RoleType role,
+                                 boolean alive, boolean spoken, boolean voted, Player.DeathReason deathReason) {
+    }
+}
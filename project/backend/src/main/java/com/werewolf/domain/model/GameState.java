@@ -1,19 +1,27 @@
 package com.werewolf.domain.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
 /**
  * 游戏状态
- * 表示完整的游戏状态信息
+ * 表示完整的游戏状态信息。
+ * 只由引擎线程修改；其他线程读取 {@link #getSnapshot()} 返回的只读快照
  *
  * @author Claude & User
  */
@@ -34,6 +42,11 @@ public class GameState {
      */
     private Long roomId;
 
+    /**
+     * 随机种子（决定角色分配），相同种子和相同的智能体行为可以复现整局游戏
+     */
+    private Long seed;
+
     /**
      * 当前阶段
      */
@@ -91,6 +104,35 @@ public class GameState {
      */
     private Map<String, Object> metadata;
 
+    /**
+     * 事件监听器（不序列化，不参与比较）
+     */
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @Builder.Default
+    private transient List<GameEventListener> eventListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * 最近发布的只读快照（不序列化，不参与比较）
+     */
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @Setter(AccessLevel.NONE)
+    private transient volatile GameSnapshot snapshot;
+
+    /**
+     * 快照共享的只追加事件日志，发布快照时补上新增的事件（不序列化，不参与比较）
+     */
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @Setter(AccessLevel.NONE)
+    @Getter(AccessLevel.NONE)
+    @Builder.Default
+    private transient EventLog eventLog = new EventLog();
+
     /**
      * 游戏状态枚举
      */
@@ -151,6 +193,24 @@ public class GameState {
                 .orElse(null);
     }
 
+    /**
+     * 是否有真人玩家
+     *
+     * @return true表示至少一名玩家是真人
+     */
+    public boolean hasHumanPlayers() {
+        return players.stream().anyMatch(Player::isHuman);
+    }
+
+    /**
+     * 对局中是否有AI座位因过载降级过，评估模型表现时应排除此类对局
+     *
+     * @return true表示出现过降级
+     */
+    public boolean isModelDegraded() {
+        return events.stream().anyMatch(event -> event.getType() == GameEvent.EventType.MODEL_DEGRADED);
+    }
+
     /**
      * 根据座位号获取玩家
      *
@@ -174,6 +234,70 @@ public class GameState {
         event.setRound(this.currentRound);
         event.setPhase(this.currentPhase);
         this.events.add(event);
+        for (GameEventListener listener : eventListeners) {
+            listener.onEvent(this, event);
+        }
+    }
+
+    /**
+     * 注册事件监听器
+     *
+     * @param listener 监听器
+     */
+    public void addEventListener(GameEventListener listener) {
+        eventListeners.add(listener);
+    }
+
+    /**
+     * 移除事件监听器
+     *
+     * @param listener 监听器
+     */
+    public void removeEventListener(GameEventListener listener) {
+        eventListeners.remove(listener);
+    }
+
+    /**
+     * 发布当前状态的只读快照，只能在引擎线程调用
+     * 引擎在子阶段结束（夜晚各角色行动、白天各环节、回合切换、终局）时调用，
+     * 之后其他线程读取到的都是这一时刻的完整状态
+     *
+     * @return 新快照
+     */
+    public GameSnapshot publishSnapshot() {
+        GameSnapshot current = snapshot;
+        GameSnapshot published = GameSnapshot.of(this, current == null ? 1 : current.version() + 1,
+                publishedEvents());
+        snapshot = published;
+        return published;
+    }
+
+    /**
+     * 截至当前的事件只读视图，供快照使用，只能在引擎线程调用
+     * 事件流只追加，每次只把上次之后新增的事件补进日志；事件列表被整体替换变短时重建日志
+     *
+     * @return 之后的追加不会出现在其中的只读视图
+     */
+    List<GameEvent> publishedEvents() {
+        if (events.size() < eventLog.size()) {
+            eventLog = new EventLog();
+        }
+        for (int i = eventLog.size(); i < events.size(); i++) {
+            eventLog.append(events.get(i));
+        }
+        return eventLog.view();
+    }
+
+    /**
+     * 最近发布的只读快照，任何线程都可以无锁读取
+     * 对局交给其他线程之前（初始化、组装对局、接入推送时）会先发布一份；
+     * 尚未发布过时只读地现场复制一份版本为0的快照，不修改事件日志
+     *
+     * @return 快照
+     */
+    public GameSnapshot getSnapshot() {
+        GameSnapshot current = snapshot;
+        return current != null ? current : GameSnapshot.of(this, 0, List.copyOf(events));
     }
 
     /**
@@ -27,15 +27,27 @@ public class GameController {
     private final DayPhaseEngine dayPhaseEngine;
     private final WinConditionChecker winConditionChecker;
 
+    // 为没有指定种子的游戏生成种子
+    private final Random seedSource;
+
     public GameController() {
+        this(new Random());
+    }
+
+    /**
+     * @param seedSource 种子来源，游戏没有指定种子时从中取一个并记录到游戏状态
+     */
+    public GameController(Random seedSource) {
         this.nightPhaseEngine = new NightPhaseEngine();
         this.dayPhaseEngine = new DayPhaseEngine();
         this.winConditionChecker = new WinConditionChecker();
+        this.seedSource = seedSource;
     }
 
     /**
      * 初始化游戏（角色分配）
-     * 按照标准6人局配置：2狼2民1预1女
+     * 按照标准6人局配置：2狼2民1预1女。
+     * 角色按游戏种子打乱，未指定种子时生成一个并写回游戏状态，便于离线复现
      *
      * @param gameState 游戏状态
      */
@@ -50,7 +62,10 @@ public class GameController {
         }
 
         log.info("=== 开始初始化游戏 ===");
-        log.info("游戏ID: {}, 房间ID: {}", gameState.getGameId(), gameState.getRoomId());
+        if (gameState.getSeed() == null) {
+            gameState.setSeed(seedSource.nextLong());
+        }
+        log.info("游戏ID: {}, 房间ID: {}, 种子: {}", gameState.getGameId(), gameState.getRoomId(), gameState.getSeed());
 
         // 创建角色列表：2狼2民1预1女
         List<Role> roles = new ArrayList<>();
@@ -62,7 +77,7 @@ public class GameController {
         roles.add(new Villager());  // 平民2
 
         // 打乱角色顺序
-        Collections.shuffle(roles);
+        Collections.shuffle(roles, new Random(gameState.getSeed()));
 
         // 分配角色给玩家
         for (int i = 0; i < players.size(); i++) {
@@ -86,6 +101,7 @@ public class GameController {
                 .timestamp(LocalDateTime.now())
                 .build();
         gameState.addEvent(startEvent);
+        gameState.publishSnapshot();
 
         log.info("游戏初始化完成，当前阶段: {}, 回合: {}", gameState.getCurrentPhase(), gameState.getCurrentRound());
     }
@@ -98,6 +114,22 @@ public class GameController {
      * @return 回合结果
      */
     public RoundResult executeRound(GameState gameState, RoundActions roundActions) {
+        RoundResult result = executeNight(gameState, roundActions);
+        if (result.isGameEnded()) {
+            return result;
+        }
+        return executeDay(gameState, result, roundActions);
+    }
+
+    /**
+     * 执行回合的夜晚部分
+     * 夜晚和白天分开执行时，调用方可以在白天开始前根据夜晚结果收集发言和投票
+     *
+     * @param gameState 游戏状态
+     * @param roundActions 回合行动数据（只使用夜晚行动）
+     * @return 回合结果（游戏在夜晚结束时 gameEnded 为 true）
+     */
+    public RoundResult executeNight(GameState gameState, RoundActions roundActions) {
         if (gameState == null) {
             throw new IllegalArgumentException("游戏状态不能为空");
         }
@@ -127,10 +159,35 @@ public class GameController {
             return result;
         }
 
+        result.setGameEnded(false);
+        return result;
+    }
+
+    /**
+     * 执行回合的白天部分，结束后进入下一回合
+     *
+     * @param gameState 游戏状态
+     * @param result 同一回合 executeNight 返回的结果
+     * @param roundActions 回合行动数据（只使用白天行动）
+     * @return 回合结果
+     */
+    public RoundResult executeDay(GameState gameState, RoundResult result, RoundActions roundActions) {
+        if (gameState == null) {
+            throw new IllegalArgumentException("游戏状态不能为空");
+        }
+
+        if (gameState.isFinished()) {
+            throw new IllegalStateException("游戏已结束");
+        }
+
+        if (result == null || result.getNightResult() == null || result.getRound() != gameState.getCurrentRound()) {
+            throw new IllegalStateException("当前回合的夜晚尚未执行");
+        }
+
         // 阶段2: 执行白天流程
         log.info("--- 执行白天阶段 ---");
         gameState.changePhase(Phase.DAY);
-        DayPhaseEngine.DayPhaseResult dayResult = executeDayPhase(gameState, nightResult, roundActions);
+        DayPhaseEngine.DayPhaseResult dayResult = executeDayPhase(gameState, result.getNightResult(), roundActions);
         result.setDayResult(dayResult);
 
         // 检查白天后的胜利条件
@@ -145,6 +202,7 @@ public class GameController {
 
         // 回合结束，进入下一回合
         gameState.nextRound();
+        gameState.publishSnapshot();
         log.info("回合 {} 完成，进入回合 {}", result.getRound(), gameState.getCurrentRound());
 
         result.setGameEnded(false);
@@ -168,6 +226,15 @@ public class GameController {
                 .build();
         gameState.addEvent(nightStartEvent);
 
+        if (roundActions.getWerewolfDiscussion() != null && !roundActions.getWerewolfDiscussion().isBlank()) {
+            gameState.addEvent(GameEvent.builder()
+                    .type(GameEvent.EventType.WEREWOLF_DISCUSSION)
+                    .isPublic(false)
+                    .description("狼队讨论：" + roundActions.getWerewolfDiscussion())
+                    .timestamp(LocalDateTime.now())
+                    .build());
+        }
+
         // 执行夜晚流程
         NightPhaseEngine.NightResult nightResult = nightPhaseEngine.executeNightPhase(
                 gameState,
@@ -236,6 +303,7 @@ public class GameController {
                 .timestamp(LocalDateTime.now())
                 .build();
         gameState.addEvent(endEvent);
+        gameState.publishSnapshot();
 
         log.info("=== 游戏结束 ===");
         log.info("胜利阵营: {}", winningCamp);
@@ -255,6 +323,11 @@ public class GameController {
          */
         private Map<Long, Long> werewolfVotes;
 
+        /**
+         * 狼队联合决策时的内部讨论（写入仅狼人可见的事件）
+         */
+        private String werewolfDiscussion;
+
         /**
          * 预言家查验目标
          */
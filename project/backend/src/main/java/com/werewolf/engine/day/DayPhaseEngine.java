@@ -44,22 +44,28 @@ public class DayPhaseEngine {
         // 1. 公布死讯
         log.info("--- 阶段1: 公布死讯 ---");
         announceDeaths(gameState, lastNightDeaths, result);
+        // 每个环节结束时发布快照，引擎线程之外的读取方看到的是环节之间的完整状态
+        gameState.publishSnapshot();
 
         // 2. 遗言环节
         log.info("--- 阶段2: 遗言环节 ---");
         processLastWords(gameState, lastNightDeaths, lastWords, result);
+        gameState.publishSnapshot();
 
         // 3. 发言环节
         log.info("--- 阶段3: 发言环节 ---");
         processSpeeches(gameState, speeches, result);
+        gameState.publishSnapshot();
 
         // 4. 投票环节
         log.info("--- 阶段4: 投票环节 ---");
         VoteManager voteManager = processVoting(gameState, votes, result);
+        gameState.publishSnapshot();
 
         // 5. 放逐结果处理
         log.info("--- 阶段5: 放逐结果处理 ---");
         processExileResult(gameState, voteManager, result);
+        gameState.publishSnapshot();
 
         log.info("=== 白天流程执行完毕，放逐人数: {} ===",
                 result.getExiledPlayerId() != null ? 1 : 0);
@@ -256,6 +262,8 @@ public class DayPhaseEngine {
         // 统计投票结果
         VoteManager.VoteResult voteResult = voteManager.countVotes();
         result.setVoteResult(voteResult);
+        result.setVoteDetails(voteManager.getVoteDetails());
+        result.setAbstainedPlayers(voteManager.getAbstainedPlayers());
 
         // 记录投票结果事件
         StringBuilder voteInfo = new StringBuilder("投票结果：\n");
@@ -353,6 +361,12 @@ public class DayPhaseEngine {
         // 投票结果
         private VoteManager.VoteResult voteResult;
 
+        // 投票详情（投票者ID -> 目标ID，不含弃票）
+        private java.util.Map<Long, Long> voteDetails;
+
+        // 弃票的玩家ID
+        private java.util.Set<Long> abstainedPlayers;
+
         // 被放逐的玩家ID（null表示无人被放逐）
         private Long exiledPlayerId;
     }
@@ -63,6 +63,8 @@ public class NightPhaseEngine {
             );
             gameState.addEvent(killEvent);
         }
+        // 每个角色行动结束时发布快照，引擎线程之外的读取方看到的是行动之间的完整状态
+        gameState.publishSnapshot();
 
         // 阶段2: 预言家查验
         log.info("--- 阶段2: 预言家行动 ---");
@@ -82,11 +84,13 @@ public class NightPhaseEngine {
                                 checkResult.getResult())
                 );
                 checkEvent.setTargetPlayerId(seerCheckTarget);
+                checkEvent.setData(Map.of("werewolf", checkResult.isWerewolf()));
                 gameState.addEvent(checkEvent);
             }
         } else {
             log.info("预言家未行动");
         }
+        gameState.publishSnapshot();
 
         // 阶段3: 女巫用药
         log.info("--- 阶段3: 女巫行动 ---");
@@ -112,6 +116,7 @@ public class NightPhaseEngine {
                             witchPlayer.getId(),
                             String.format("女巫使用解药救活了%d号玩家", witchResult.getSavedPlayerId())
                     );
+                    antidoteEvent.setTargetPlayerId(witchResult.getSavedPlayerId());
                     gameState.addEvent(antidoteEvent);
                 }
 
@@ -121,12 +126,14 @@ public class NightPhaseEngine {
                             witchPlayer.getId(),
                             String.format("女巫使用毒药毒死了%d号玩家", witchResult.getPoisonedPlayerId())
                     );
+                    poisonEvent.setTargetPlayerId(witchResult.getPoisonedPlayerId());
                     gameState.addEvent(poisonEvent);
                 }
             }
         } else {
             log.info("女巫未行动");
         }
+        gameState.publishSnapshot();
 
         // 阶段4: 计算最终死亡名单
         log.info("--- 阶段4: 计算死亡名单 ---");
@@ -171,6 +178,7 @@ public class NightPhaseEngine {
                 String.format("夜晚结束，共有%d名玩家死亡", deaths.size())
         );
         gameState.addEvent(nightEndEvent);
+        gameState.publishSnapshot();
 
         log.info("=== 夜晚流程执行完毕，死亡人数: {} ===", deaths.size());
 
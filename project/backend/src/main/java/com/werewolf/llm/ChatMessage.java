@@ -0,0 +1,57 @@
+package com.werewolf.llm;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 对话消息
+ *
+ * @author Claude & User
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatMessage {
+
+    /**
+     * 消息角色（system / user / assistant）
+     */
+    private String role;
+
+    /**
+     * 消息内容
+     */
+    private String content;
+
+    /**
+     * 是否在该消息后设置缓存断点
+     * 断点之前的内容视为稳定前缀，支持显式缓存控制的模型服务会缓存该前缀
+     */
+    private boolean cacheBreakpoint;
+
+    public ChatMessage(String role, String content) {
+        this(role, content, false);
+    }
+
+    public static ChatMessage system(String content) {
+        return new ChatMessage("system", content);
+    }
+
+    public static ChatMessage user(String content) {
+        return new ChatMessage("user", content);
+    }
+
+    public static ChatMessage assistant(String content) {
+        return new ChatMessage("assistant", content);
+    }
+
+    /**
+     * 返回在该消息后设置缓存断点的副本
+     *
+     * @return 新消息
+     */
+    public ChatMessage withCacheBreakpoint() {
+        return new ChatMessage(role, content, true);
+    }
+}
@@ -0,0 +1,472 @@
+package com.werewolf.llm;
+
+import com.werewolf.llm.adapter.LLMModelAdapter;
+import com.werewolf.llm.cassette.CassetteDeck;
+import com.werewolf.llm.resilience.CircuitBreaker;
+import com.werewolf.llm.resilience.CircuitBreakerRegistry;
+import com.werewolf.llm.resilience.CircuitOpenException;
+import com.werewolf.llm.routing.LatencyHistogram;
+import com.werewolf.llm.routing.ModelRouter;
+import com.werewolf.llm.scheduling.CallScheduler;
+import com.werewolf.llm.scheduling.LoadShedException;
+import com.werewolf.llm.scheduling.LoadShedder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * LLM 调用入口
+ * 负责模型路由、熔断、对冲请求和失败重试，AI玩家只通过该类访问模型。
+ * 在途调用按游戏登记，房间关闭时可以一次取消该房间的全部调用。
+ * 调用经 {@link CallScheduler} 按 provider 排队，排队过久时由 {@link LoadShedder} 降级允许降级的座位。
+ * 装入录制的游戏由 {@link CassetteDeck} 录制调用结果，或直接从录制返回而不访问网络
+ *
+ * @author Claude & User
+ */
+@Slf4j
+public class LLMClient {
+
+    private final LLMProperties properties;
+    private final Map<String, LLMModelAdapter> adapters;
+    private final ModelRouter router;
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final ScheduledExecutorService scheduler;
+    private final CallScheduler callScheduler;
+    private final LoadShedder loadShedder;
+    private final CassetteDeck cassettes;
+
+    // 各游戏的在途调用
+    private final Map<Long, Set<CompletableFuture<LLMResponse>>> inFlight = new ConcurrentHashMap<>();
+
+    // 模型ID -> token 用量
+    private final Map<String, TokenUsage> usage = new ConcurrentHashMap<>();
+
+    public LLMClient(LLMProperties properties,
+                     Map<String, LLMModelAdapter> adapters,
+                     ModelRouter router,
+                     CircuitBreakerRegistry circuitBreakers,
+                     ScheduledExecutorService scheduler) {
+        this(properties, adapters, router, circuitBreakers, scheduler,
+                new CallScheduler(properties.getScheduling().getMaxConcurrentPerProvider()));
+    }
+
+    public LLMClient(LLMProperties properties,
+                     Map<String, LLMModelAdapter> adapters,
+                     ModelRouter router,
+                     CircuitBreakerRegistry circuitBreakers,
+                     ScheduledExecutorService scheduler,
+                     CallScheduler callScheduler) {
+        this(properties, adapters, router, circuitBreakers, scheduler, callScheduler,
+                new LoadShedder(properties.getLoadShedding(), properties.getModels(), callScheduler::drainQueueWait));
+    }
+
+    public LLMClient(LLMProperties properties,
+                     Map<String, LLMModelAdapter> adapters,
+                     ModelRouter router,
+                     CircuitBreakerRegistry circuitBreakers,
+                     ScheduledExecutorService scheduler,
+                     CallScheduler callScheduler,
+                     LoadShedder loadShedder) {
+        this.properties = properties;
+        this.adapters = Map.copyOf(adapters);
+        this.router = router;
+        this.circuitBreakers = circuitBreakers;
+        this.scheduler = scheduler;
+        this.callScheduler = callScheduler;
+        this.loadShedder = loadShedder;
+        this.cassettes = new CassetteDeck(properties.getCassette());
+    }
+
+    /**
+     * 发起一次模型调用
+     * 请求中的 modelId 作为座位偏好，实际模型由路由器决定
+     *
+     * @param request 调用请求
+     * @return 响应 Future，取消时会中断所有在途请求
+     */
+    public CompletableFuture<LLMResponse> complete(LLMRequest request) {
+        Long gameId = request.getGameId();
+        if (cassettes.isReplaying(gameId)) {
+            return cassettes.replay(request);
+        }
+        CompletableFuture<LLMResponse> result = new CompletableFuture<>();
+        cassettes.record(request, result);
+        if (gameId != null) {
+            Set<CompletableFuture<LLMResponse>> calls =
+                    inFlight.computeIfAbsent(gameId, id -> ConcurrentHashMap.newKeySet());
+            calls.add(result);
+            result.whenComplete((response, error) -> calls.remove(result));
+        }
+        attempt(request, 1, result);
+        return result;
+    }
+
+    /**
+     * 取消某局游戏的全部在途调用并释放座位的模型分配，录制模式下同时写入录制文件
+     * 取消会传递到对冲请求、排队中的重试和 HTTP 请求，用于对局结束或房间关闭
+     *
+     * @param gameId 游戏ID
+     * @return 被取消的调用数
+     */
+    public int cancelGame(Long gameId) {
+        Set<CompletableFuture<LLMResponse>> calls = inFlight.remove(gameId);
+        int cancelled = 0;
+        if (calls != null) {
+            for (CompletableFuture<LLMResponse> call : calls) {
+                if (call.cancel(true)) {
+                    cancelled++;
+                }
+            }
+        }
+        router.releaseGame(gameId);
+        cassettes.eject(gameId);
+        if (cancelled > 0) {
+            log.info("游戏 {} 已结束，取消 {} 个在途模型调用", gameId, cancelled);
+        }
+        return cancelled;
+    }
+
+    /**
+     * 某局游戏的在途调用数
+     *
+     * @param gameId 游戏ID
+     * @return 调用数
+     */
+    public int inFlightCount(Long gameId) {
+        Set<CompletableFuture<LLMResponse>> calls = inFlight.get(gameId);
+        return calls == null ? 0 : calls.size();
+    }
+
+    /**
+     * 检查座位当前路由到的模型是否可以调用
+     * 熔断期间返回 false，调用方应直接使用降级策略而不是等待超时
+     *
+     * @param gameId 游戏ID
+     * @param playerId 玩家ID
+     * @param preferredModelId 座位偏好的模型
+     * @return true表示可以调用
+     */
+    public boolean isAvailable(Long gameId, Long playerId, String preferredModelId) {
+        String modelId = router.route(ModelRouter.seatKey(gameId, playerId), preferredModelId);
+        return adapters.containsKey(modelId) && !circuitBreakers.isOpen(modelId);
+    }
+
+    /**
+     * 座位当前实际使用的模型：路由结果按过载级别沿降级阶梯降级
+     *
+     * @param gameId 游戏ID
+     * @param playerId 玩家ID
+     * @param preferredModelId 座位偏好的模型
+     * @param allowDowngrade 是否允许降级（有真人玩家的房间不降级）
+     * @return 模型ID，降级到底时为 {@link LoadShedder#HEURISTIC}
+     */
+    public String effectiveModel(Long gameId, Long playerId, String preferredModelId, boolean allowDowngrade) {
+        String modelId = router.route(ModelRouter.seatKey(gameId, playerId), preferredModelId);
+        return allowDowngrade ? loadShedder.downgrade(modelId) : modelId;
+    }
+
+    private String effectiveModel(LLMRequest request) {
+        String modelId = router.route(ModelRouter.seatKey(request.getGameId(), request.getPlayerId()),
+                request.getModelId());
+        if (!request.isAllowDowngrade()) {
+            return modelId;
+        }
+        return request.getDowngradeLevel() != null
+                ? loadShedder.downgrade(modelId, request.getDowngradeLevel())
+                : loadShedder.downgrade(modelId);
+    }
+
+    /**
+     * 检查座位当前路由到的模型是否支持服务端会话
+     *
+     * @param gameId 游戏ID
+     * @param playerId 玩家ID
+     * @param preferredModelId 座位偏好的模型
+     * @return true表示可以使用会话
+     */
+    public boolean supportsSessions(Long gameId, Long playerId, String preferredModelId) {
+        if (!properties.getSession().isEnabled()) {
+            return false;
+        }
+        LLMModelAdapter adapter = adapters.get(router.route(ModelRouter.seatKey(gameId, playerId), preferredModelId));
+        return adapter != null && adapter.supportsSessions();
+    }
+
+    /**
+     * 座位本次决策的期限：取路由到的模型成功调用的延迟分位数乘以系数，限制在配置的上下限之间。
+     * 样本不足时使用上限
+     *
+     * @param gameId 游戏ID
+     * @param playerId 玩家ID
+     * @param preferredModelId 座位偏好的模型
+     * @return 期限（毫秒）
+     */
+    public long deadlineFor(Long gameId, Long playerId, String preferredModelId) {
+        LLMProperties.Deadline deadline = properties.getDeadline();
+        if (!deadline.isEnabled()) {
+            return deadline.getMaxDeadline();
+        }
+        String modelId = router.route(ModelRouter.seatKey(gameId, playerId), preferredModelId);
+        LatencyHistogram histogram = router.getHistogram(modelId);
+        if (histogram.sampleCount() < deadline.getMinSamples()) {
+            return deadline.getMaxDeadline();
+        }
+        long latency = histogram.percentile(deadline.getPercentile());
+        if (latency < 0) {
+            return deadline.getMaxDeadline();
+        }
+        long adaptive = (long) Math.ceil(latency * deadline.getMultiplier());
+        return Math.max(deadline.getMinDeadline(), Math.min(adaptive, deadline.getMaxDeadline()));
+    }
+
+    public LLMProperties getProperties() {
+        return properties;
+    }
+
+    public ModelRouter getRouter() {
+        return router;
+    }
+
+    public CallScheduler getCallScheduler() {
+        return callScheduler;
+    }
+
+    public LoadShedder getLoadShedder() {
+        return loadShedder;
+    }
+
+    /**
+     * 模型的 token 用量和提示词缓存命中统计
+     *
+     * @param modelId 模型ID
+     * @return 用量统计
+     */
+    public TokenUsage tokenUsage(String modelId) {
+        return usage.computeIfAbsent(modelId, id -> new TokenUsage());
+    }
+
+    /**
+     * 录制/回放：对局开始时按游戏种子装入，结束时由 {@link #cancelGame} 退出
+     *
+     * @return 录制管理
+     */
+    public CassetteDeck getCassettes() {
+        return cassettes;
+    }
+
+    /**
+     * 调用相关定时任务（对冲、重试、决策期限）共用的调度器
+     *
+     * @return 调度器
+     */
+    public ScheduledExecutorService getScheduler() {
+        return scheduler;
+    }
+
+    private void attempt(LLMRequest request, int attemptNumber, CompletableFuture<LLMResponse> result) {
+        if (result.isDone()) {
+            return;
+        }
+
+        CompletableFuture<LLMResponse> call;
+        String modelId;
+        if (request.getPreviousResponseId() != null) {
+            // 会话上下文保存在原模型的服务端，不能路由或对冲到其他模型
+            modelId = request.getModelId();
+            call = invoke(modelId, request, false);
+        } else {
+            modelId = effectiveModel(request);
+            call = LoadShedder.HEURISTIC.equals(modelId)
+                    ? CompletableFuture.failedFuture(new LoadShedException(request.getModelId()))
+                    : hedgedCall(modelId, request);
+        }
+
+        // 外部取消时向下传递
+        result.whenComplete((response, error) -> {
+            if (result.isCancelled()) {
+                call.cancel(true);
+            }
+        });
+
+        call.whenComplete((response, error) -> {
+            if (error == null) {
+                result.complete(response);
+                return;
+            }
+            Throwable cause = unwrap(error);
+            if (cause instanceof CancellationException) {
+                return;
+            }
+            if (attemptNumber >= properties.getRetry().getMaxAttempts() || !isRetryable(cause)) {
+                log.warn("模型调用失败，放弃重试（第{}次）: {}", attemptNumber, cause.getMessage());
+                result.completeExceptionally(cause);
+                return;
+            }
+            long delay = retryDelay(attemptNumber);
+            log.info("模型 {} 调用失败，{}ms 后第{}次重试: {}", modelId, delay, attemptNumber + 1, cause.getMessage());
+            ScheduledFuture<?> retry = scheduler.schedule(
+                    () -> attempt(request, attemptNumber + 1, result), delay, TimeUnit.MILLISECONDS);
+            // 等待重试期间被取消时从调度队列中移除
+            result.whenComplete((ignored, cancelled) -> retry.cancel(false));
+        });
+    }
+
+    /**
+     * 对冲调用：原请求超过该模型的延迟分位数仍未返回时，向备用模型发出重复请求，取先返回者
+     */
+    private CompletableFuture<LLMResponse> hedgedCall(String modelId, LLMRequest request) {
+        CompletableFuture<LLMResponse> primary = invoke(modelId, request, false);
+        if (!properties.getHedge().isEnabled()) {
+            return primary;
+        }
+
+        CompletableFuture<LLMResponse> result = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        CompletableFuture<?>[] hedge = new CompletableFuture<?>[1];
+        // 胜出后先取消落败方再完成结果，避免占用并发名额
+        Runnable cancelAll = () -> {
+            primary.cancel(true);
+            if (hedge[0] != null) {
+                hedge[0].cancel(true);
+            }
+        };
+
+        ScheduledFuture<?> hedgeTimer = scheduler.schedule(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            String alternate = router.alternateFor(modelId);
+            log.debug("模型 {} 超过对冲阈值，向 {} 发出对冲请求", modelId, alternate);
+            pending.incrementAndGet();
+            CompletableFuture<LLMResponse> hedgeCall = invoke(alternate, request, true);
+            hedge[0] = hedgeCall;
+            race(hedgeCall, result, pending, cancelAll);
+            if (result.isDone()) {
+                hedgeCall.cancel(true);
+            }
+        }, hedgeDelay(modelId), TimeUnit.MILLISECONDS);
+
+        race(primary, result, pending, cancelAll);
+
+        result.whenComplete((response, error) -> {
+            hedgeTimer.cancel(false);
+            cancelAll.run();
+        });
+        return result;
+    }
+
+    private void race(CompletableFuture<LLMResponse> call,
+                      CompletableFuture<LLMResponse> result,
+                      AtomicInteger pending,
+                      Runnable cancelAll) {
+        call.whenComplete((response, error) -> {
+            if (error == null) {
+                cancelAll.run();
+                result.complete(response);
+            } else if (pending.decrementAndGet() == 0) {
+                result.completeExceptionally(unwrap(error));
+            }
+        });
+    }
+
+    private CompletableFuture<LLMResponse> invoke(String modelId, LLMRequest request, boolean hedged) {
+        LLMModelAdapter adapter = adapters.get(modelId);
+        if (adapter == null) {
+            return CompletableFuture.failedFuture(new LLMException("未配置的模型: " + modelId, 400));
+        }
+
+        CircuitBreaker breaker = circuitBreakers.isEnabled() ? circuitBreakers.forModel(modelId) : null;
+        CircuitBreaker.Permit permit = breaker == null ? null : breaker.tryAcquire();
+        if (breaker != null && permit == null) {
+            return CompletableFuture.failedFuture(new CircuitOpenException(modelId));
+        }
+
+        // 耗时从获得 provider 名额开始计算，排队时间不计入模型延迟
+        long[] start = new long[1];
+        CompletableFuture<LLMResponse> call = callScheduler.submit(providerOf(modelId), () -> {
+            start[0] = System.nanoTime();
+            return adapter.generateAsync(request.toBuilder().modelId(modelId).build());
+        });
+        CompletableFuture<LLMResponse> result = call.handle((response, error) -> {
+            long latencyMs = (System.nanoTime() - start[0]) / 1_000_000;
+            if (error == null) {
+                router.recordCall(modelId, latencyMs, true);
+                if (breaker != null) {
+                    breaker.onSuccess(permit, latencyMs);
+                }
+                tokenUsage(modelId).record(response);
+                log.debug("模型 {} 调用完成: {}ms，输入 {} token（缓存命中 {}），输出 {} token",
+                        modelId, latencyMs, response.getPromptTokens(), response.getCachedTokens(),
+                        response.getCompletionTokens());
+                return response.toBuilder().latencyMs(latencyMs).hedged(hedged).build();
+            }
+            Throwable cause = unwrap(error);
+            if (cause instanceof CancellationException) {
+                if (breaker != null) {
+                    breaker.onCancel(permit);
+                }
+            } else {
+                router.recordCall(modelId, latencyMs, false);
+                if (breaker != null) {
+                    breaker.onFailure(permit);
+                }
+            }
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new CompletionException(cause);
+        });
+        result.whenComplete((response, error) -> {
+            if (result.isCancelled()) {
+                call.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private String providerOf(String modelId) {
+        return properties.findModel(modelId)
+                .map(ModelConfig::getProvider)
+                .filter(provider -> !provider.isBlank())
+                .orElse(modelId);
+    }
+
+    /**
+     * 对冲延迟：取模型成功调用的指定分位数，并限制在配置的上下限之间
+     */
+    long hedgeDelay(String modelId) {
+        LLMProperties.Hedge hedge = properties.getHedge();
+        LatencyHistogram histogram = router.getHistogram(modelId);
+        if (histogram.sampleCount() < hedge.getMinSamples()) {
+            return hedge.getMaxDelay();
+        }
+        long threshold = histogram.percentile(hedge.getPercentile());
+        if (threshold < 0) {
+            return hedge.getMaxDelay();
+        }
+        return Math.max(hedge.getMinDelay(), Math.min(threshold, hedge.getMaxDelay()));
+    }
+
+    /**
+     * 重试延迟：initial-delay 起按2倍指数退避，不超过 max-delay
+     */
+    long retryDelay(int attemptNumber) {
+        LLMProperties.Retry retry = properties.getRetry();
+        long delay = retry.getInitialDelay() << Math.min(attemptNumber - 1, 20);
+        return Math.min(delay, retry.getMaxDelay());
+    }
+
+    private boolean isRetryable(Throwable error) {
+        return !(error instanceof LLMException) || ((LLMException) error).isRetryable();
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
@@ -0,0 +1,72 @@
+package com.werewolf.llm;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.werewolf.llm.adapter.LLMModelAdapter;
+import com.werewolf.llm.adapter.OpenAICompatibleAdapter;
+import com.werewolf.llm.resilience.CircuitBreakerRegistry;
+import com.werewolf.llm.routing.ModelRouter;
+import okhttp3.OkHttpClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * LLM 组件装配
+ *
+ * @author Claude & User
+ */
+@Configuration
+public class LLMConfiguration {
+
+    @Bean
+    public OkHttpClient llmHttpClient(LLMProperties properties) {
+        return new OkHttpClient.Builder()
+                .callTimeout(Duration.ofMillis(properties.getProxy().getTimeout()))
+                // 重试由 LLMClient 统一控制
+                .retryOnConnectionFailure(false)
+                .build();
+    }
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService llmScheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(2, runnable -> {
+            Thread thread = new Thread(runnable, "llm-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // 对局结束后取消的对冲、重试和期限任务立即出队
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    @Bean
+    public ModelRouter modelRouter(LLMProperties properties) {
+        return new ModelRouter(
+                properties.getRouting(),
+                properties.getEnabledModels().stream().map(ModelConfig::getId).toList());
+    }
+
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry(LLMProperties properties) {
+        return new CircuitBreakerRegistry(properties.getCircuitBreaker());
+    }
+
+    @Bean
+    public LLMClient llmClient(LLMProperties properties,
+                               OkHttpClient llmHttpClient,
+                               ModelRouter modelRouter,
+                               CircuitBreakerRegistry circuitBreakerRegistry,
+                               ScheduledExecutorService llmScheduler) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, LLMModelAdapter> adapters = new LinkedHashMap<>();
+        for (ModelConfig model : properties.getEnabledModels()) {
+            adapters.put(model.getId(), new OpenAICompatibleAdapter(model, llmHttpClient, objectMapper));
+        }
+        return new LLMClient(properties, adapters, modelRouter, circuitBreakerRegistry, llmScheduler);
+    }
+}
@@ -0,0 +1,37 @@
+package com.werewolf.llm;
+
+/**
+ * LLM 调用异常
+ *
+ * @author Claude & User
+ */
+public class LLMException extends RuntimeException {
+
+    /**
+     * HTTP 状态码（网络异常时为0）
+     */
+    private final int statusCode;
+
+    public LLMException(String message, int statusCode) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    public LLMException(String message, Throwable cause) {
+        super(message, cause);
+        this.statusCode = 0;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * 是否值得重试（网络异常、限流、服务端错误）
+     *
+     * @return true表示可以重试
+     */
+    public boolean isRetryable() {
+        return statusCode == 0 || statusCode == 429 || statusCode >= 500;
+    }
+}
@@ -0,0 +1,277 @@
+package com.werewolf.llm;
+
+import com.werewolf.llm.cassette.CassetteDeck;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * LLM 配置
+ * 绑定 application.yml 中的 llm.* 配置项
+ *
+ * @author Claude & User
+ */
+@Data
+@ConfigurationProperties(prefix = "llm")
+public class LLMProperties {
+
+    /**
+     * API中转站配置
+     */
+    private Proxy proxy = new Proxy();
+
+    /**
+     * 重试配置
+     */
+    private Retry retry = new Retry();
+
+    /**
+     * 对冲请求配置
+     */
+    private Hedge hedge = new Hedge();
+
+    /**
+     * 模型路由配置
+     */
+    private Routing routing = new Routing();
+
+    /**
+     * 熔断配置
+     */
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    /**
+     * 服务端会话配置
+     */
+    private Session session = new Session();
+
+    /**
+     * AI决策期限配置
+     */
+    private Deadline deadline = new Deadline();
+
+    /**
+     * 调用调度配置
+     */
+    private Scheduling scheduling = new Scheduling();
+
+    /**
+     * 过载降级配置
+     */
+    private LoadShedding loadShedding = new LoadShedding();
+
+    /**
+     * 录制/回放配置
+     */
+    private Cassette cassette = new Cassette();
+
+    /**
+     * 支持的模型列表
+     */
+    private List<ModelConfig> models = new ArrayList<>();
+
+    /**
+     * 获取所有已启用的模型
+     *
+     * @return 已启用的模型列表
+     */
+    public List<ModelConfig> getEnabledModels() {
+        return models.stream()
+                .filter(ModelConfig::isEnabled)
+                .toList();
+    }
+
+    /**
+     * 根据ID查找模型配置
+     *
+     * @param modelId 模型ID
+     * @return 模型配置
+     */
+    public Optional<ModelConfig> findModel(String modelId) {
+        return models.stream()
+                .filter(model -> model.getId().equals(modelId))
+                .findFirst();
+    }
+
+    @Data
+    public static class Proxy {
+        private boolean enabled = true;
+        private String baseUrl;
+        private String apiKey;
+        /**
+         * 单次调用超时（毫秒）
+         */
+        private long timeout = 30000;
+    }
+
+    @Data
+    public static class Retry {
+        private int maxAttempts = 3;
+        /**
+         * 首次重试延迟（毫秒），之后按指数退避
+         */
+        private long initialDelay = 1000;
+        /**
+         * 最大重试延迟（毫秒）
+         */
+        private long maxDelay = 5000;
+    }
+
+    @Data
+    public static class Hedge {
+        private boolean enabled = true;
+        /**
+         * 原请求耗时超过该分位数后发出对冲请求
+         */
+        private double percentile = 0.95;
+        /**
+         * 对冲延迟下限（毫秒）
+         */
+        private long minDelay = 2000;
+        /**
+         * 对冲延迟上限（毫秒），样本不足时也使用该值
+         */
+        private long maxDelay = 15000;
+        /**
+         * 使用分位数前要求的最少样本数
+         */
+        private int minSamples = 20;
+    }
+
+    @Data
+    public static class Routing {
+        /**
+         * 每个模型保留的滑动窗口样本数
+         */
+        private int windowSize = 200;
+        /**
+         * 错误率超过该值的模型不再被路由
+         */
+        private double maxErrorRate = 0.3;
+        /**
+         * 窗口内至少多少个样本后才按错误率判定不健康
+         */
+        private int minSamples = 5;
+        /**
+         * 不健康的模型距最近一次失败超过该时间（毫秒）后重新放行试探流量
+         */
+        private long probeInterval = 30000;
+        /**
+         * 评分时错误率的惩罚系数
+         */
+        private double errorPenalty = 4.0;
+    }
+
+    @Data
+    public static class CircuitBreaker {
+        private boolean enabled = true;
+        /**
+         * 滑动窗口调用数
+         */
+        private int windowSize = 20;
+        /**
+         * 窗口内至少多少次调用后才计算熔断
+         */
+        private int minCalls = 5;
+        /**
+         * 错误率阈值
+         */
+        private double failureRateThreshold = 0.5;
+        /**
+         * 慢调用阈值（毫秒）
+         */
+        private long slowCallThreshold = 20000;
+        /**
+         * 慢调用率阈值
+         */
+        private double slowCallRateThreshold = 0.8;
+        /**
+         * 熔断持续时间（毫秒），之后进入半开状态
+         */
+        private long openDuration = 30000;
+        /**
+         * 半开状态放行的试探调用数
+         */
+        private int halfOpenPermits = 2;
+    }
+
+    @Data
+    public static class Session {
+        /**
+         * 是否为支持服务端会话的模型启用会话
+         */
+        private boolean enabled = true;
+        /**
+         * 会话空闲超过该时间（毫秒）后视为过期，下次调用重建会话
+         */
+        private long idleTimeout = 600000;
+    }
+
+    @Data
+    public static class Deadline {
+        /**
+         * 是否按模型延迟计算期限，关闭时始终使用上限
+         */
+        private boolean enabled = true;
+        /**
+         * 参考的延迟分位数
+         */
+        private double percentile = 0.99;
+        /**
+         * 期限 = 分位数延迟 × 该系数（为解析失败后的重新询问留出余量）
+         */
+        private double multiplier = 1.5;
+        /**
+         * 期限下限（毫秒）
+         */
+        private long minDeadline = 5000;
+        /**
+         * 期限硬上限（毫秒），样本不足时也使用该值
+         */
+        private long maxDeadline = 30000;
+        /**
+         * 使用分位数前要求的最少样本数
+         */
+        private int minSamples = 20;
+    }
+
+    @Data
+    public static class Scheduling {
+        /**
+         * 每个 provider 同时在途的调用数上限，超出时排队
+         */
+        private int maxConcurrentPerProvider = 8;
+    }
+
+    @Data
+    public static class LoadShedding {
+        private boolean enabled = true;
+        /**
+         * 排队等待 SLO（毫秒），超过时降级一级
+         */
+        private long queueWaitSlo = 3000;
+        /**
+         * 排队等待低于 SLO × 该比例时恢复一级
+         */
+        private double recoveryRatio = 0.5;
+        /**
+         * 评估周期（毫秒），每个周期最多调整一级
+         */
+        private long evaluationInterval = 5000;
+    }
+
+    @Data
+    public static class Cassette {
+        /**
+         * 模式：OFF 不录制，RECORD 录制真实调用，REPLAY 从录制文件返回响应、不访问网络
+         */
+        private CassetteDeck.Mode mode = CassetteDeck.Mode.OFF;
+        /**
+         * 录制文件目录
+         */
+        private String directory = "cassettes";
+    }
+}
@@ -0,0 +1,79 @@
+package com.werewolf.llm;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LLM 调用请求
+ *
+ * @author Claude & User
+ */
+@Data
+@Builder(toBuilder = true)
+public class LLMRequest {
+
+    /**
+     * 模型ID（为空时由路由器选择）
+     */
+    private String modelId;
+
+    /**
+     * 游戏ID
+     */
+    private Long gameId;
+
+    /**
+     * 发起请求的玩家ID（AI座位）
+     */
+    private Long playerId;
+
+    /**
+     * 对话消息
+     */
+    @Builder.Default
+    private List<ChatMessage> messages = new ArrayList<>();
+
+    /**
+     * 是否使用服务端会话（仅支持会话的模型有效）
+     */
+    private boolean session;
+
+    /**
+     * 会话中上一轮响应的ID，为空时开始新会话
+     * 设置后请求固定发往 modelId 指定的模型，不经过路由和对冲
+     */
+    private String previousResponseId;
+
+    /**
+     * 期望的回复格式（JSON Schema），为空时不约束
+     * 支持结构化输出的 provider 按 Schema 约束输出，支持 JSON 模式的只保证输出 JSON
+     */
+    private Map<String, Object> responseSchema;
+
+    /**
+     * 回复格式名称
+     */
+    private String responseSchemaName;
+
+    /**
+     * 过载时是否允许按降级阶梯换用较小的模型（仅没有真人玩家的房间）
+     */
+    private boolean allowDowngrade;
+
+    /**
+     * 调用方已解析的降级级别（为空时每次尝试按当前级别降级）
+     * 同一决策的所有尝试按该级别降级，与座位记录的降级事件一致
+     */
+    private Integer downgradeLevel;
+
+    /**
+     * 覆盖模型默认参数
+     */
+    @Builder.Default
+    private Map<String, Object> parameters = new HashMap<>();
+}
@@ -0,0 +1,54 @@
+package com.werewolf.llm;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * LLM 调用响应
+ *
+ * @author Claude & User
+ */
+@Data
+@Builder(toBuilder = true)
+public class LLMResponse {
+
+    /**
+     * 生成内容
+     */
+    private String content;
+
+    /**
+     * 服务端响应ID（会话模式下用于串联下一轮）
+     */
+    private String responseId;
+
+    /**
+     * 实际应答的模型ID
+     */
+    private String modelId;
+
+    /**
+     * 调用耗时（毫秒）
+     */
+    private long latencyMs;
+
+    /**
+     * 输入 token 数
+     */
+    private int promptTokens;
+
+    /**
+     * 输入中命中提示词缓存的 token 数
+     */
+    private int cachedTokens;
+
+    /**
+     * 输出 token 数
+     */
+    private int completionTokens;
+
+    /**
+     * 是否由对冲请求返回
+     */
+    private boolean hedged;
+}
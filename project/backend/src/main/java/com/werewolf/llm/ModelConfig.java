@@ -0,0 +1,63 @@
+package com.werewolf.llm;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 模型配置
+ * 对应 application.yml 中 llm.models 列表的单个条目
+ *
+ * @author Claude & User
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModelConfig {
+
+    /**
+     * 模型ID（同时作为请求中的 model 字段）
+     */
+    private String id;
+
+    /**
+     * 模型显示名称
+     */
+    private String name;
+
+    /**
+     * 模型提供方（openai / qwen / anthropic / gemini）
+     */
+    private String provider;
+
+    /**
+     * 接口地址（通常为中转站地址）
+     */
+    private String endpoint;
+
+    /**
+     * API Key
+     */
+    private String apiKey;
+
+    /**
+     * 是否启用
+     */
+    private boolean enabled;
+
+    /**
+     * 过载时降级到的模型ID（heuristic 表示改用规则AI，为空表示不降级）
+     */
+    private String downgradeTo;
+
+    /**
+     * 模型参数（temperature、max-tokens、top-p 等）
+     */
+    @Builder.Default
+    private Map<String, Object> parameters = new HashMap<>();
+}
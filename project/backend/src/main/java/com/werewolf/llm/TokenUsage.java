@@ -0,0 +1,55 @@
+package com.werewolf.llm;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 模型的 token 用量统计
+ * 累计成功调用的输入、缓存命中和输出 token 数，用于衡量提示词缓存的效果
+ *
+ * @author Claude & User
+ */
+public class TokenUsage {
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder promptTokens = new LongAdder();
+    private final LongAdder cachedTokens = new LongAdder();
+    private final LongAdder completionTokens = new LongAdder();
+
+    /**
+     * 记录一次成功调用
+     *
+     * @param response 响应
+     */
+    public void record(LLMResponse response) {
+        calls.increment();
+        promptTokens.add(response.getPromptTokens());
+        cachedTokens.add(response.getCachedTokens());
+        completionTokens.add(response.getCompletionTokens());
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getPromptTokens() {
+        return promptTokens.sum();
+    }
+
+    public long getCachedTokens() {
+        return cachedTokens.sum();
+    }
+
+    public long getCompletionTokens() {
+        return completionTokens.sum();
+    }
+
+    /**
+     * 缓存命中率：缓存命中的输入 token 占全部输入 token 的比例
+     *
+     * @return 0~1，尚无输入时返回0
+     */
+    public double getCacheHitRate() {
+        long prompt = getPromptTokens();
+        return prompt == 0 ? 0 : (double) getCachedTokens() / prompt;
+    }
+}
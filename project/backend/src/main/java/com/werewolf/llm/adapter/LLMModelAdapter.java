@@ -0,0 +1,74 @@
+package com.werewolf.llm.adapter;
+
+import com.werewolf.llm.ChatMessage;
+import com.werewolf.llm.LLMRequest;
+import com.werewolf.llm.LLMResponse;
+import com.werewolf.llm.ModelConfig;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 统一的 LLM 适配器接口（REQ-019）
+ *
+ * @author Claude & User
+ */
+public interface LLMModelAdapter {
+
+    /**
+     * 获取模型名称（模型ID）
+     *
+     * @return 模型ID
+     */
+    String getModelName();
+
+    /**
+     * 异步生成响应
+     * 取消返回的 Future 会中断底层 HTTP 调用
+     *
+     * @param request 调用请求
+     * @return 响应 Future
+     */
+    CompletableFuture<LLMResponse> generateAsync(LLMRequest request);
+
+    /**
+     * 同步生成响应
+     *
+     * @param prompt 提示词
+     * @param config 模型配置
+     * @return 生成内容
+     */
+    default String generateResponse(String prompt, ModelConfig config) {
+        LLMRequest request = LLMRequest.builder()
+                .modelId(config.getId())
+                .messages(List.of(ChatMessage.user(prompt)))
+                .parameters(new HashMap<>(config.getParameters()))
+                .build();
+        return generateAsync(request).join().getContent();
+    }
+
+    /**
+     * 是否支持服务端会话（通过上一轮响应ID串联上下文）
+     *
+     * @return true表示支持
+     */
+    default boolean supportsSessions() {
+        return false;
+    }
+
+    /**
+     * 检查模型是否可用
+     *
+     * @return true表示可用
+     */
+    boolean isAvailable();
+
+    /**
+     * 更新适配器设置
+     *
+     * @param settings 设置项
+     */
+    void configure(Map<String, String> settings);
+}
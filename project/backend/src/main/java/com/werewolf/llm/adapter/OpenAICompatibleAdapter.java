@@ -0,0 +1,312 @@
+package com.werewolf.llm.adapter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.werewolf.llm.ChatMessage;
+import com.werewolf.llm.LLMException;
+import com.werewolf.llm.LLMRequest;
+import com.werewolf.llm.LLMResponse;
+import com.werewolf.llm.ModelConfig;
+import com.werewolf.llm.session.SessionExpiredException;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+
+/**
+ * OpenAI 兼容接口适配器
+ * 中转站统一暴露 /chat/completions，Qwen、Claude 等模型均通过该接口访问。
+ * OpenAI、Qwen 等服务自动缓存相同前缀；anthropic 需要在消息中显式标注 cache_control 断点。
+ * 会话请求走 /responses，用 previous_response_id 串联上一轮。
+ * 请求指定回复格式时，openai 使用 json_schema 结构化输出，qwen、deepseek 使用 JSON 模式，
+ * 其余 provider 只依靠 prompt 中的格式说明
+ *
+ * @author Claude & User
+ */
+@Slf4j
+public class OpenAICompatibleAdapter implements LLMModelAdapter {
+
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    private static final String EXPLICIT_CACHE_PROVIDER = "anthropic";
+
+    private static final Set<String> SESSION_PROVIDERS = Set.of("openai");
+
+    private static final Set<String> SCHEMA_PROVIDERS = Set.of("openai");
+
+    private static final Set<String> JSON_MODE_PROVIDERS = Set.of("qwen", "deepseek");
+
+    private final ModelConfig modelConfig;
+    private final OkHttpClient httpClient;
+    private final ObjectMapper objectMapper;
+
+    private volatile String endpoint;
+    private volatile String apiKey;
+    private volatile boolean enabled;
+
+    public OpenAICompatibleAdapter(ModelConfig modelConfig, OkHttpClient httpClient, ObjectMapper objectMapper) {
+        this.modelConfig = modelConfig;
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.endpoint = modelConfig.getEndpoint();
+        this.apiKey = modelConfig.getApiKey();
+        this.enabled = modelConfig.isEnabled();
+    }
+
+    @Override
+    public String getModelName() {
+        return modelConfig.getId();
+    }
+
+    @Override
+    public CompletableFuture<LLMResponse> generateAsync(LLMRequest request) {
+        if (request.isSession() && supportsSessions()) {
+            return send("/responses", () -> buildResponsesBody(request),
+                    (code, body) -> sessionError(request, code, body), this::parseResponsesResponse);
+        }
+        return send("/chat/completions", () -> buildRequestBody(request), (code, body) -> null, this::parseResponse);
+    }
+
+    /**
+     * 支持会话的 provider 通过 Responses API 的 previous_response_id 串联上下文
+     */
+    @Override
+    public boolean supportsSessions() {
+        return isProvider(SESSION_PROVIDERS);
+    }
+
+    private boolean isProvider(Set<String> providers) {
+        return modelConfig.getProvider() != null && providers.contains(modelConfig.getProvider().toLowerCase());
+    }
+
+    private CompletableFuture<LLMResponse> send(String path,
+                                                BodyWriter bodyWriter,
+                                                BiFunction<Integer, String, LLMException> errorMapper,
+                                                ResponseParser parser) {
+        CompletableFuture<LLMResponse> future = new CompletableFuture<>();
+        Request httpRequest;
+        try {
+            httpRequest = new Request.Builder()
+                    .url(endpoint + path)
+                    .header("Authorization", "Bearer " + apiKey)
+                    .post(RequestBody.create(bodyWriter.write(), JSON))
+                    .build();
+        } catch (IOException e) {
+            future.completeExceptionally(new LLMException("请求序列化失败", e));
+            return future;
+        }
+
+        long start = System.nanoTime();
+        Call call = httpClient.newCall(httpRequest);
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                future.completeExceptionally(new LLMException("模型调用失败: " + getModelName(), e));
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    if (!response.isSuccessful()) {
+                        LLMException mapped = errorMapper.apply(response.code(), response.body().string());
+                        future.completeExceptionally(mapped != null ? mapped : new LLMException(
+                                String.format("模型 %s 返回错误: %d %s", getModelName(), response.code(), response.message()),
+                                response.code()));
+                        return;
+                    }
+                    long latencyMs = (System.nanoTime() - start) / 1_000_000;
+                    future.complete(parser.parse(response.body().string(), latencyMs));
+                } catch (Exception e) {
+                    future.completeExceptionally(new LLMException("解析模型响应失败: " + getModelName(), e));
+                }
+            }
+        });
+
+        // 调用方取消 Future 时同步中断 HTTP 请求，避免浪费 token
+        future.whenComplete((response, error) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+        return future;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return enabled && endpoint != null && apiKey != null;
+    }
+
+    @Override
+    public void configure(Map<String, String> settings) {
+        if (settings.containsKey("endpoint")) {
+            this.endpoint = settings.get("endpoint");
+        }
+        if (settings.containsKey("api-key")) {
+            this.apiKey = settings.get("api-key");
+        }
+        if (settings.containsKey("enabled")) {
+            this.enabled = Boolean.parseBoolean(settings.get("enabled"));
+        }
+    }
+
+    private String buildRequestBody(LLMRequest request) throws IOException {
+        ObjectNode body = objectMapper.createObjectNode();
+        body.put("model", getModelName());
+
+        boolean explicitCache = EXPLICIT_CACHE_PROVIDER.equalsIgnoreCase(modelConfig.getProvider());
+        ArrayNode messages = body.putArray("messages");
+        for (ChatMessage message : request.getMessages()) {
+            ObjectNode node = messages.addObject().put("role", message.getRole());
+            if (explicitCache && message.isCacheBreakpoint()) {
+                ObjectNode part = node.putArray("content").addObject()
+                        .put("type", "text")
+                        .put("text", message.getContent());
+                part.putObject("cache_control").put("type", "ephemeral");
+            } else {
+                node.put("content", message.getContent());
+            }
+        }
+
+        if (request.getResponseSchema() != null) {
+            if (isProvider(SCHEMA_PROVIDERS)) {
+                ObjectNode format = body.putObject("response_format").put("type", "json_schema");
+                format.putObject("json_schema")
+                        .put("name", request.getResponseSchemaName())
+                        .put("strict", true)
+                        .set("schema", objectMapper.valueToTree(request.getResponseSchema()));
+            } else if (isProvider(JSON_MODE_PROVIDERS)) {
+                body.putObject("response_format").put("type", "json_object");
+            }
+        }
+
+        // 配置文件中使用 max-tokens 形式，接口要求 max_tokens
+        parameters(request).forEach((key, value) -> body.set(key, objectMapper.valueToTree(value)));
+
+        return objectMapper.writeValueAsString(body);
+    }
+
+    /**
+     * Responses API 请求体：服务端保存本轮响应，后续轮次只发送新消息
+     */
+    private String buildResponsesBody(LLMRequest request) throws IOException {
+        ObjectNode body = objectMapper.createObjectNode();
+        body.put("model", getModelName());
+        body.put("store", true);
+        if (request.getPreviousResponseId() != null) {
+            body.put("previous_response_id", request.getPreviousResponseId());
+        }
+
+        ArrayNode input = body.putArray("input");
+        for (ChatMessage message : request.getMessages()) {
+            input.addObject()
+                    .put("role", message.getRole())
+                    .put("content", message.getContent());
+        }
+
+        if (request.getResponseSchema() != null) {
+            body.putObject("text").putObject("format")
+                    .put("type", "json_schema")
+                    .put("name", request.getResponseSchemaName())
+                    .put("strict", true)
+                    .set("schema", objectMapper.valueToTree(request.getResponseSchema()));
+        }
+
+        // Responses API 使用 max_output_tokens
+        parameters(request).forEach((key, value) -> body.set(
+                "max_tokens".equals(key) ? "max_output_tokens" : key, objectMapper.valueToTree(value)));
+
+        return objectMapper.writeValueAsString(body);
+    }
+
+    private Map<String, Object> parameters(LLMRequest request) {
+        Map<String, Object> merged = new HashMap<>(modelConfig.getParameters());
+        merged.putAll(request.getParameters());
+        Map<String, Object> parameters = new HashMap<>();
+        merged.forEach((key, value) -> parameters.put(key.replace('-', '_'), value));
+        return parameters;
+    }
+
+    /**
+     * 上一轮响应不存在时服务端返回 400/404，错误信息中包含 previous_response
+     */
+    private LLMException sessionError(LLMRequest request, int code, String body) {
+        if (request.getPreviousResponseId() != null && (code == 400 || code == 404)
+                && body != null && body.contains("previous_response")) {
+            return new SessionExpiredException(getModelName(), request.getPreviousResponseId(), code);
+        }
+        return null;
+    }
+
+    private LLMResponse parseResponse(String json, long latencyMs) throws IOException {
+        JsonNode root = objectMapper.readTree(json);
+        JsonNode usage = root.path("usage");
+        return LLMResponse.builder()
+                .content(root.path("choices").path(0).path("message").path("content").asText(""))
+                .modelId(getModelName())
+                .latencyMs(latencyMs)
+                .promptTokens(usage.path("prompt_tokens").asInt())
+                .cachedTokens(cachedTokens(usage))
+                .completionTokens(usage.path("completion_tokens").asInt())
+                .build();
+    }
+
+    private LLMResponse parseResponsesResponse(String json, long latencyMs) throws IOException {
+        JsonNode root = objectMapper.readTree(json);
+        StringBuilder content = new StringBuilder();
+        for (JsonNode item : root.path("output")) {
+            if (!"message".equals(item.path("type").asText())) {
+                continue;
+            }
+            for (JsonNode part : item.path("content")) {
+                if ("output_text".equals(part.path("type").asText())) {
+                    content.append(part.path("text").asText(""));
+                }
+            }
+        }
+        JsonNode usage = root.path("usage");
+        return LLMResponse.builder()
+                .content(content.toString())
+                .responseId(root.path("id").asText(null))
+                .modelId(getModelName())
+                .latencyMs(latencyMs)
+                .promptTokens(usage.path("input_tokens").asInt())
+                .cachedTokens(usage.path("input_tokens_details").path("cached_tokens").asInt())
+                .completionTokens(usage.path("output_tokens").asInt())
+                .build();
+    }
+
+    /**
+     * 解析缓存命中 token 数
+     * OpenAI 格式为 prompt_tokens_details.cached_tokens，anthropic 中转通常返回 cache_read_input_tokens
+     */
+    private int cachedTokens(JsonNode usage) {
+        JsonNode cached = usage.path("prompt_tokens_details").path("cached_tokens");
+        if (cached.isMissingNode() || cached.isNull()) {
+            cached = usage.path("cache_read_input_tokens");
+        }
+        return cached.asInt(0);
+    }
+
+    @FunctionalInterface
+    private interface BodyWriter {
+        String write() throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface ResponseParser {
+        LLMResponse parse(String json, long latencyMs) throws IOException;
+    }
+}
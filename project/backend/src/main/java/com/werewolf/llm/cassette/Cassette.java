@@ -0,0 +1,231 @@
+package com.werewolf.llm.cassette;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.werewolf.llm.ChatMessage;
+import com.werewolf.llm.LLMException;
+import com.werewolf.llm.LLMRequest;
+import com.werewolf.llm.LLMResponse;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 一局游戏的模型调用录制
+ * 调用按“座位 + 请求指纹 + 第几次出现”定位，座位之间的调用交错或某次调用因熔断被跳过都不影响其他调用的匹配。
+ * 文件为 gzip 压缩的 JSON Lines：首行为游戏种子，之后每行一次调用
+ *
+ * @author Claude & User
+ */
+public class Cassette {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final long seed;
+    private final List<CassetteEntry> entries = new ArrayList<>();
+
+    // 回放索引：座位 -> (指纹#次数 -> 调用)
+    private final Map<String, CassetteEntry> index = new HashMap<>();
+
+    // 各座位各指纹已出现的次数（录制和回放分别计数）
+    private final Map<String, Integer> recorded = new HashMap<>();
+    private final Map<String, Integer> replayed = new HashMap<>();
+
+    private int misses;
+
+    public Cassette(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * 登记一次调用，调用结束（成功、失败或取消）时记录结果。
+     * 被取消的调用（如超过决策期限）按失败记录，回放时立即失败，智能体同样提交预先算好的默认决策
+     *
+     * @param request 请求
+     * @param result 调用结果
+     */
+    public synchronized void record(LLMRequest request, CompletableFuture<LLMResponse> result) {
+        String fingerprint = fingerprint(request);
+        // 次数在发出请求时确定，与完成顺序无关
+        int occurrence = nextOccurrence(recorded, request.getPlayerId(), fingerprint);
+        result.whenComplete((response, error) -> {
+            synchronized (this) {
+                add(entry(request.getPlayerId(), fingerprint, occurrence, response, error));
+            }
+        });
+    }
+
+    private CassetteEntry entry(Long playerId, String fingerprint, int occurrence,
+                                LLMResponse response, Throwable error) {
+        CassetteEntry entry = CassetteEntry.builder()
+                .sequence(entries.size())
+                .playerId(playerId)
+                .fingerprint(fingerprint)
+                .occurrence(occurrence)
+                .build();
+        if (error == null) {
+            entry.setModelId(response.getModelId());
+            entry.setContent(response.getContent());
+            entry.setResponseId(response.getResponseId());
+            entry.setPromptTokens(response.getPromptTokens());
+            entry.setCachedTokens(response.getCachedTokens());
+            entry.setCompletionTokens(response.getCompletionTokens());
+            entry.setLatencyMs(response.getLatencyMs());
+        } else {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            entry.setError(cause instanceof CancellationException ? "已取消" : String.valueOf(cause.getMessage()));
+            entry.setStatusCode(cause instanceof LLMException llm ? llm.getStatusCode() : 0);
+        }
+        return entry;
+    }
+
+    /**
+     * 回放一次调用
+     *
+     * @param request 请求
+     * @return 录制的响应
+     * @throws LLMException 录制中该调用失败，或没有匹配的录制
+     */
+    public synchronized LLMResponse replay(LLMRequest request) {
+        String fingerprint = fingerprint(request);
+        int occurrence = nextOccurrence(replayed, request.getPlayerId(), fingerprint);
+        CassetteEntry entry = index.get(key(request.getPlayerId(), fingerprint, occurrence));
+        if (entry == null) {
+            misses++;
+            throw new LLMException("录制中没有玩家 " + request.getPlayerId() + " 的该次调用", 404);
+        }
+        if (entry.getError() != null) {
+            throw new LLMException("录制的调用失败: " + entry.getError(), entry.getStatusCode());
+        }
+        return LLMResponse.builder()
+                .content(entry.getContent())
+                .responseId(entry.getResponseId())
+                .modelId(entry.getModelId())
+                .latencyMs(entry.getLatencyMs())
+                .promptTokens(entry.getPromptTokens())
+                .cachedTokens(entry.getCachedTokens())
+                .completionTokens(entry.getCompletionTokens())
+                .build();
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public synchronized List<CassetteEntry> getEntries() {
+        return List.copyOf(entries);
+    }
+
+    /**
+     * 回放时没有匹配录制的调用数（提示词改动后通常不为0）
+     *
+     * @return 调用数
+     */
+    public synchronized int getMisses() {
+        return misses;
+    }
+
+    /**
+     * 写入文件
+     *
+     * @param file 文件路径
+     */
+    public synchronized void write(Path file) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(file)), StandardCharsets.UTF_8))) {
+                writer.write(OBJECT_MAPPER.writeValueAsString(Map.of("seed", seed)));
+                writer.newLine();
+                for (CassetteEntry entry : entries) {
+                    writer.write(OBJECT_MAPPER.writeValueAsString(entry));
+                    writer.newLine();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("写入录制文件失败: " + file, e);
+        }
+    }
+
+    /**
+     * 从文件读取
+     *
+     * @param file 文件路径
+     * @return 录制
+     */
+    public static Cassette read(Path file) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            if (header == null) {
+                throw new IllegalArgumentException("录制文件为空: " + file);
+            }
+            Cassette cassette = new Cassette(OBJECT_MAPPER.readTree(header).path("seed").asLong());
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    cassette.add(OBJECT_MAPPER.readValue(line, CassetteEntry.class));
+                }
+            }
+            return cassette;
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取录制文件失败: " + file, e);
+        }
+    }
+
+    private void add(CassetteEntry entry) {
+        entries.add(entry);
+        index.put(key(entry.getPlayerId(), entry.getFingerprint(), entry.getOccurrence()), entry);
+    }
+
+    private static int nextOccurrence(Map<String, Integer> occurrences, Long playerId, String fingerprint) {
+        return occurrences.merge(playerId + "#" + fingerprint, 1, Integer::sum) - 1;
+    }
+
+    private static String key(Long playerId, String fingerprint, int occurrence) {
+        return playerId + "#" + fingerprint + "#" + occurrence;
+    }
+
+    /**
+     * 请求指纹：不包含模型ID，路由或降级到其他模型时仍能匹配
+     */
+    static String fingerprint(LLMRequest request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (ChatMessage message : request.getMessages()) {
+                update(digest, message.getRole());
+                update(digest, message.getContent());
+            }
+            update(digest, request.getResponseSchemaName());
+            update(digest, request.getPreviousResponseId());
+            return HexFormat.of().formatHex(digest.digest(), 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+}
@@ -0,0 +1,131 @@
+package com.werewolf.llm.cassette;
+
+import com.werewolf.llm.LLMProperties;
+import com.werewolf.llm.LLMRequest;
+import com.werewolf.llm.LLMResponse;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按游戏管理录制文件
+ * 录制文件以游戏种子命名；对局开始时装入，结束时退出（录制模式下此时写入文件）。
+ * 配合引擎的种子，回放模式可以不访问网络、以引擎速度复现整局游戏
+ *
+ * @author Claude & User
+ */
+@Slf4j
+public class CassetteDeck {
+
+    /**
+     * 录制模式
+     */
+    public enum Mode {
+        OFF,
+        RECORD,
+        REPLAY
+    }
+
+    private final Mode mode;
+    private final Path directory;
+    private final Map<Long, Cassette> loaded = new ConcurrentHashMap<>();
+
+    public CassetteDeck(LLMProperties.Cassette config) {
+        this.mode = config.getMode();
+        this.directory = Path.of(config.getDirectory());
+    }
+
+    /**
+     * 对局开始时装入录制
+     * 录制模式下新建空录制；回放模式下读取该种子的录制文件
+     *
+     * @param gameId 游戏ID
+     * @param seed 游戏种子
+     */
+    public void insert(Long gameId, long seed) {
+        if (mode == Mode.OFF) {
+            return;
+        }
+        if (mode == Mode.RECORD) {
+            loaded.put(gameId, new Cassette(seed));
+            return;
+        }
+        Path file = fileFor(seed);
+        if (!Files.exists(file)) {
+            throw new IllegalArgumentException("种子 " + seed + " 没有录制文件: " + file);
+        }
+        loaded.put(gameId, Cassette.read(file));
+        log.info("游戏 {} 回放录制 {}", gameId, file);
+    }
+
+    /**
+     * 对局结束时退出录制，录制模式下写入文件
+     *
+     * @param gameId 游戏ID
+     * @return 退出的录制，没有装入时为null
+     */
+    public Cassette eject(Long gameId) {
+        Cassette cassette = gameId == null ? null : loaded.remove(gameId);
+        if (cassette != null && mode == Mode.RECORD) {
+            Path file = fileFor(cassette.getSeed());
+            cassette.write(file);
+            log.info("游戏 {} 的 {} 次模型调用已录制到 {}", gameId, cassette.getEntries().size(), file);
+        } else if (cassette != null && cassette.getMisses() > 0) {
+            log.warn("游戏 {} 回放时有 {} 次调用没有匹配的录制", gameId, cassette.getMisses());
+        }
+        return cassette;
+    }
+
+    /**
+     * 该游戏的调用是否从录制返回
+     *
+     * @param gameId 游戏ID
+     * @return true表示回放
+     */
+    public boolean isReplaying(Long gameId) {
+        return mode == Mode.REPLAY && gameId != null && loaded.containsKey(gameId);
+    }
+
+    /**
+     * 从录制返回响应，录制中失败或缺失的调用以失败的 Future 返回
+     *
+     * @param request 请求
+     * @return 已完成的 Future
+     */
+    public CompletableFuture<LLMResponse> replay(LLMRequest request) {
+        Cassette cassette = loaded.get(request.getGameId());
+        if (cassette == null) {
+            throw new IllegalStateException("游戏 " + request.getGameId() + " 没有装入录制");
+        }
+        try {
+            return CompletableFuture.completedFuture(cassette.replay(request));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * 录制模式下登记调用，调用结束（成功、失败或取消）时记录
+     *
+     * @param request 请求
+     * @param result 调用结果
+     */
+    public void record(LLMRequest request, CompletableFuture<LLMResponse> result) {
+        Cassette cassette = mode == Mode.RECORD && request.getGameId() != null ? loaded.get(request.getGameId()) : null;
+        if (cassette != null) {
+            cassette.record(request, result);
+        }
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public Path fileFor(long seed) {
+        return directory.resolve("game-" + seed + ".cassette.gz");
+    }
+}
@@ -0,0 +1,65 @@
+package com.werewolf.llm.cassette;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 录制的一次模型调用
+ *
+ * @author Claude & User
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CassetteEntry {
+
+    /**
+     * 全局调用序号（录制顺序）
+     */
+    private int sequence;
+
+    /**
+     * 发起调用的玩家ID
+     */
+    private Long playerId;
+
+    /**
+     * 请求指纹（消息、回复格式和会话链）
+     */
+    private String fingerprint;
+
+    /**
+     * 该座位第几次发出相同指纹的请求（从0开始）
+     */
+    private int occurrence;
+
+    /**
+     * 应答的模型ID
+     */
+    private String modelId;
+
+    private String content;
+
+    private String responseId;
+
+    private int promptTokens;
+
+    private int cachedTokens;
+
+    private int completionTokens;
+
+    private long latencyMs;
+
+    /**
+     * 调用失败时的错误信息，为空表示成功
+     */
+    private String error;
+
+    /**
+     * 调用失败时的 HTTP 状态码
+     */
+    private int statusCode;
+}
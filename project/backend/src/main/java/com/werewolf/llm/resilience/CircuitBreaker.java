@@ -0,0 +1,229 @@
+package com.werewolf.llm.resilience;
+
+import com.werewolf.llm.LLMProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 模型熔断器
+ * 滑动窗口内错误率或慢调用率超过阈值时熔断，熔断期间的调用立即失败；
+ * 熔断时长结束后进入半开状态，放行少量试探调用决定恢复还是继续熔断。
+ * 每次状态变化开始一个新的阶段，许可记录申请时的阶段，调用结果只计入申请它的阶段：
+ * 关闭时放行、半开后才结束的调用不会被当作试探，过期的结果直接忽略
+ *
+ * @author Claude & User
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    /**
+     * 熔断器状态
+     */
+    public enum State {
+        /**
+         * 正常放行
+         */
+        CLOSED,
+
+        /**
+         * 熔断中，拒绝调用
+         */
+        OPEN,
+
+        /**
+         * 半开，放行试探调用
+         */
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final LLMProperties.CircuitBreaker config;
+    private final LongSupplier clock;
+
+    // 滑动窗口：最近 N 次调用是否失败、是否慢调用
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int cursor = 0;
+    private int size = 0;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    // 状态每变化一次加一
+    private long generation = 0;
+
+    // 半开状态下已放行和已成功的试探调用数
+    private int halfOpenInFlight = 0;
+    private int halfOpenSucceeded = 0;
+
+    public CircuitBreaker(String name, LLMProperties.CircuitBreaker config) {
+        this(name, config, System::currentTimeMillis);
+    }
+
+    public CircuitBreaker(String name, LLMProperties.CircuitBreaker config, LongSupplier clock) {
+        this.name = name;
+        this.config = config;
+        this.clock = clock;
+        this.failed = new boolean[config.getWindowSize()];
+        this.slow = new boolean[config.getWindowSize()];
+    }
+
+    /**
+     * 申请一次调用许可
+     *
+     * @return 许可，拒绝时返回null；调用结束后必须带上许可调用 onSuccess/onFailure/onCancel 之一
+     */
+    public synchronized Permit tryAcquire() {
+        switch (currentState()) {
+            case CLOSED:
+                return new Permit(generation, false);
+            case HALF_OPEN:
+                if (halfOpenInFlight + halfOpenSucceeded < config.getHalfOpenPermits()) {
+                    halfOpenInFlight++;
+                    return new Permit(generation, true);
+                }
+                return null;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 检查当前是否处于熔断状态（不占用许可）
+     *
+     * @return true表示调用会被立即拒绝
+     */
+    public synchronized boolean isOpen() {
+        return currentState() == State.OPEN;
+    }
+
+    public synchronized State getState() {
+        return currentState();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 记录一次成功调用
+     *
+     * @param permit 调用的许可
+     * @param latencyMs 耗时（毫秒）
+     */
+    public synchronized void onSuccess(Permit permit, long latencyMs) {
+        if (!isCurrent(permit)) {
+            return;
+        }
+        boolean slowCall = latencyMs >= config.getSlowCallThreshold();
+        if (permit.probe()) {
+            halfOpenInFlight--;
+            if (slowCall) {
+                transitionToOpen("半开试探调用过慢");
+                return;
+            }
+            halfOpenSucceeded++;
+            if (halfOpenSucceeded >= config.getHalfOpenPermits()) {
+                transitionToClosed();
+            }
+            return;
+        }
+        recordInWindow(false, slowCall);
+    }
+
+    /**
+     * 记录一次失败调用
+     *
+     * @param permit 调用的许可
+     */
+    public synchronized void onFailure(Permit permit) {
+        if (!isCurrent(permit)) {
+            return;
+        }
+        if (permit.probe()) {
+            halfOpenInFlight--;
+            transitionToOpen("半开试探调用失败");
+            return;
+        }
+        recordInWindow(true, false);
+    }
+
+    /**
+     * 调用被取消（不计入统计，只归还许可）
+     *
+     * @param permit 调用的许可
+     */
+    public synchronized void onCancel(Permit permit) {
+        if (isCurrent(permit) && permit.probe()) {
+            halfOpenInFlight--;
+        }
+    }
+
+    /**
+     * 许可是否属于当前阶段（之后状态没有变化）
+     */
+    private boolean isCurrent(Permit permit) {
+        return permit.generation() == generation;
+    }
+
+    private void recordInWindow(boolean failure, boolean slowCall) {
+        failed[cursor] = failure;
+        slow[cursor] = slowCall;
+        cursor = (cursor + 1) % failed.length;
+        size = Math.min(size + 1, failed.length);
+        if (size < config.getMinCalls()) {
+            return;
+        }
+
+        int failures = 0;
+        int slowCalls = 0;
+        for (int i = 0; i < size; i++) {
+            if (failed[i]) {
+                failures++;
+            }
+            if (slow[i]) {
+                slowCalls++;
+            }
+        }
+        if ((double) failures / size >= config.getFailureRateThreshold()) {
+            transitionToOpen(String.format("错误率 %d/%d", failures, size));
+        } else if ((double) slowCalls / size >= config.getSlowCallRateThreshold()) {
+            transitionToOpen(String.format("慢调用率 %d/%d", slowCalls, size));
+        }
+    }
+
+    private State currentState() {
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= config.getOpenDuration()) {
+            state = State.HALF_OPEN;
+            generation++;
+            halfOpenInFlight = 0;
+            halfOpenSucceeded = 0;
+            log.info("熔断器 {} 进入半开状态", name);
+        }
+        return state;
+    }
+
+    private void transitionToOpen(String reason) {
+        state = State.OPEN;
+        generation++;
+        openedAt = clock.getAsLong();
+        log.warn("熔断器 {} 打开（{}），{}ms 内调用将直接降级", name, reason, config.getOpenDuration());
+    }
+
+    private void transitionToClosed() {
+        state = State.CLOSED;
+        generation++;
+        cursor = 0;
+        size = 0;
+        log.info("熔断器 {} 恢复关闭", name);
+    }
+
+    /**
+     * 调用许可
+     *
+     * @param generation 申请时的阶段
+     * @param probe 是否为半开状态的试探调用
+     */
+    public record Permit(long generation, boolean probe) {
+    }
+}
@@ -0,0 +1,46 @@
+package com.werewolf.llm.resilience;
+
+import com.werewolf.llm.LLMProperties;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 熔断器注册表
+ * 每个模型一个熔断器
+ *
+ * @author Claude & User
+ */
+public class CircuitBreakerRegistry {
+
+    private final LLMProperties.CircuitBreaker config;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public CircuitBreakerRegistry(LLMProperties.CircuitBreaker config) {
+        this.config = config;
+    }
+
+    /**
+     * 获取模型对应的熔断器
+     *
+     * @param modelId 模型ID
+     * @return 熔断器
+     */
+    public CircuitBreaker forModel(String modelId) {
+        return breakers.computeIfAbsent(modelId, id -> new CircuitBreaker(id, config));
+    }
+
+    /**
+     * 检查模型是否处于熔断状态
+     *
+     * @param modelId 模型ID
+     * @return true表示熔断中
+     */
+    public boolean isOpen(String modelId) {
+        return config.isEnabled() && forModel(modelId).isOpen();
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+}
@@ -0,0 +1,21 @@
+package com.werewolf.llm.resilience;
+
+import com.werewolf.llm.LLMException;
+
+/**
+ * 熔断拒绝异常
+ * 熔断期间的调用不会发出网络请求，也不应重试
+ *
+ * @author Claude & User
+ */
+public class CircuitOpenException extends LLMException {
+
+    public CircuitOpenException(String modelId) {
+        super("模型 " + modelId + " 已熔断", 503);
+    }
+
+    @Override
+    public boolean isRetryable() {
+        return false;
+    }
+}
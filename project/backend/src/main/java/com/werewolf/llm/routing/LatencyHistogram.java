@@ -0,0 +1,91 @@
+package com.werewolf.llm.routing;
+
+import java.util.Arrays;
+
+/**
+ * 滑动窗口延迟直方图
+ * 保留最近 N 次调用的耗时和成败，用于计算延迟分位数和错误率
+ *
+ * @author Claude & User
+ */
+public class LatencyHistogram {
+
+    private final long[] latencies;
+    private final boolean[] failures;
+
+    // 下一个写入位置
+    private int cursor = 0;
+
+    // 当前样本数（不超过窗口大小）
+    private int size = 0;
+
+    // 窗口内失败次数
+    private int failureCount = 0;
+
+    public LatencyHistogram(int windowSize) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("窗口大小必须大于0");
+        }
+        this.latencies = new long[windowSize];
+        this.failures = new boolean[windowSize];
+    }
+
+    /**
+     * 记录一次调用
+     *
+     * @param latencyMs 耗时（毫秒）
+     * @param success 是否成功
+     */
+    public synchronized void record(long latencyMs, boolean success) {
+        if (size == latencies.length && failures[cursor]) {
+            failureCount--;
+        }
+        latencies[cursor] = latencyMs;
+        failures[cursor] = !success;
+        if (!success) {
+            failureCount++;
+        }
+        cursor = (cursor + 1) % latencies.length;
+        size = Math.min(size + 1, latencies.length);
+    }
+
+    /**
+     * 计算成功调用的延迟分位数
+     *
+     * @param quantile 分位数（0-1）
+     * @return 延迟（毫秒），无成功样本时返回-1
+     */
+    public synchronized long percentile(double quantile) {
+        long[] successful = new long[size - failureCount];
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            if (!failures[i]) {
+                successful[n++] = latencies[i];
+            }
+        }
+        if (n == 0) {
+            return -1;
+        }
+        Arrays.sort(successful);
+        int index = (int) Math.ceil(quantile * n) - 1;
+        return successful[Math.max(0, Math.min(index, n - 1))];
+    }
+
+    /**
+     * 窗口内错误率
+     *
+     * @return 错误率（0-1），无样本时返回0
+     */
+    public synchronized double errorRate() {
+        return size == 0 ? 0.0 : (double) failureCount / size;
+    }
+
+    /**
+     * 窗口内样本数
+     *
+     * @return 样本数
+     */
+    public synchronized int sampleCount() {
+        return size;
+    }
+}
@@ -0,0 +1,223 @@
+package com.werewolf.llm.routing;
+
+import com.werewolf.llm.LLMProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * 延迟感知的模型路由器
+ * 根据每个模型的滑动窗口延迟和错误率，为每个AI座位选择模型。
+ * 样本数不足 min-samples 时不按错误率排除模型；被排除的模型收不到流量、窗口不会更新，
+ * 因此距最近一次失败超过 probe-interval 后放行试探。同一时刻只有一个座位持有试探（CAS 抢占），
+ * 其他座位仍避开该模型；试探成功后下一个座位可以立即接着试探，试探失败则再排除一个周期，
+ * 持有者超过 probe-interval 没有结果时试探作废，由其他座位重新抢占
+ *
+ * @author Claude & User
+ */
+@Slf4j
+public class ModelRouter {
+
+    private final LLMProperties.Routing config;
+
+    // 候选模型（按配置顺序，评分相同时靠前者优先）
+    private final List<String> candidates;
+
+    // 模型ID -> 延迟直方图
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    // 座位 -> 当前使用的模型ID
+    private final Map<String, String> seatAssignments = new ConcurrentHashMap<>();
+
+    // 模型ID -> 最近一次失败的时间
+    private final Map<String, Long> lastFailures = new ConcurrentHashMap<>();
+
+    // 模型ID -> 进行中的试探
+    private final Map<String, Probe> probes = new ConcurrentHashMap<>();
+
+    private final LongSupplier clock;
+
+    public ModelRouter(LLMProperties.Routing config, List<String> candidates) {
+        this(config, candidates, System::currentTimeMillis);
+    }
+
+    ModelRouter(LLMProperties.Routing config, List<String> candidates, LongSupplier clock) {
+        if (candidates == null || candidates.isEmpty()) {
+            throw new IllegalArgumentException("候选模型列表不能为空");
+        }
+        this.config = config;
+        this.clock = clock;
+        this.candidates = List.copyOf(candidates);
+        this.candidates.forEach(modelId -> histograms.put(modelId, new LatencyHistogram(config.getWindowSize())));
+    }
+
+    /**
+     * 生成座位键
+     *
+     * @param gameId 游戏ID
+     * @param playerId 玩家ID
+     * @return 座位键
+     */
+    public static String seatKey(Long gameId, Long playerId) {
+        return gameId + ":" + playerId;
+    }
+
+    /**
+     * 为座位选择模型
+     * 座位已有模型且健康时保持不变，否则切换到评分最优的健康模型
+     *
+     * @param seatKey 座位键
+     * @param preferredModelId 座位偏好的模型（null表示由路由器决定）
+     * @return 模型ID
+     */
+    public String route(String seatKey, String preferredModelId) {
+        String current = seatAssignments.get(seatKey);
+        if (current == null) {
+            current = preferredModelId != null && histograms.containsKey(preferredModelId)
+                    ? preferredModelId
+                    : bestModel(null);
+        }
+
+        if (!admit(seatKey, current)) {
+            String replacement = bestModel(current);
+            log.info("座位 {} 的模型 {} 不健康（错误率 {}），切换到 {}",
+                    seatKey, current, getHistogram(current).errorRate(), replacement);
+            current = replacement;
+        }
+
+        seatAssignments.put(seatKey, current);
+        return current;
+    }
+
+    /**
+     * 为对冲请求选择备用模型
+     *
+     * @param modelId 原请求的模型ID
+     * @return 备用模型ID，没有其他健康模型时返回原模型（同模型重复请求）
+     */
+    public String alternateFor(String modelId) {
+        String alternate = bestModel(modelId);
+        return alternate.equals(modelId) || !withinErrorRate(alternate) ? modelId : alternate;
+    }
+
+    /**
+     * 记录一次模型调用
+     *
+     * @param modelId 模型ID
+     * @param latencyMs 耗时（毫秒）
+     * @param success 是否成功
+     */
+    public void recordCall(String modelId, long latencyMs, boolean success) {
+        getHistogram(modelId).record(latencyMs, success);
+        if (!success) {
+            lastFailures.put(modelId, clock.getAsLong());
+        }
+        // 试探有了结果，成功时下一个座位可以接着试探，失败时从本次失败起再等一个周期
+        probes.remove(modelId);
+    }
+
+    /**
+     * 获取模型的延迟直方图
+     *
+     * @param modelId 模型ID
+     * @return 延迟直方图
+     */
+    public LatencyHistogram getHistogram(String modelId) {
+        return histograms.computeIfAbsent(modelId, id -> new LatencyHistogram(config.getWindowSize()));
+    }
+
+    /**
+     * 释放某局游戏的所有座位分配
+     *
+     * @param gameId 游戏ID
+     */
+    public void releaseGame(Long gameId) {
+        seatAssignments.keySet().removeIf(key -> key.startsWith(gameId + ":"));
+    }
+
+    /**
+     * 检查模型是否健康
+     *
+     * @param modelId 模型ID
+     * @return true表示样本不足、错误率未超过阈值，或可以开始试探（距最近一次失败已超过试探间隔且没有进行中的试探）
+     */
+    public boolean isHealthy(String modelId) {
+        if (withinErrorRate(modelId)) {
+            return true;
+        }
+        long now = clock.getAsLong();
+        Probe probe = probes.get(modelId);
+        return probeDue(modelId, now) && (probe == null || probe.expired(now, config.getProbeInterval()));
+    }
+
+    /**
+     * 座位是否可以使用模型：错误率正常，或该座位持有（或抢占到）模型的试探
+     */
+    private boolean admit(String seatKey, String modelId) {
+        if (withinErrorRate(modelId)) {
+            return true;
+        }
+        long now = clock.getAsLong();
+        Probe probe = probes.get(modelId);
+        if (probe != null && !probe.expired(now, config.getProbeInterval())) {
+            return probe.seatKey().equals(seatKey);
+        }
+        if (!probeDue(modelId, now)) {
+            return false;
+        }
+        Probe claimed = new Probe(seatKey, now);
+        boolean won = probe == null ? probes.putIfAbsent(modelId, claimed) == null : probes.replace(modelId, probe, claimed);
+        if (won) {
+            log.info("座位 {} 试探不健康的模型 {}", seatKey, modelId);
+        }
+        return won;
+    }
+
+    private boolean withinErrorRate(String modelId) {
+        LatencyHistogram histogram = getHistogram(modelId);
+        return histogram.sampleCount() < config.getMinSamples() || histogram.errorRate() <= config.getMaxErrorRate();
+    }
+
+    private boolean probeDue(String modelId, long now) {
+        Long lastFailure = lastFailures.get(modelId);
+        return lastFailure == null || now - lastFailure >= config.getProbeInterval();
+    }
+
+    /**
+     * 模型评分（越低越好）：中位延迟 × (1 + 惩罚系数 × 错误率)
+     * 尚无成功样本的模型排在有数据的模型之后
+     */
+    double score(String modelId) {
+        LatencyHistogram histogram = getHistogram(modelId);
+        long median = histogram.percentile(0.5);
+        if (median < 0) {
+            return Double.MAX_VALUE;
+        }
+        return median * (1 + config.getErrorPenalty() * histogram.errorRate());
+    }
+
+    private String bestModel(String excluded) {
+        return candidates.stream()
+                .filter(modelId -> !modelId.equals(excluded))
+                .filter(this::withinErrorRate)
+                .min(Comparator.comparingDouble(this::score))
+                .orElse(excluded != null ? excluded : candidates.get(0));
+    }
+
+    /**
+     * 进行中的试探
+     *
+     * @param seatKey 持有试探的座位
+     * @param startedAt 开始时间
+     */
+    private record Probe(String seatKey, long startedAt) {
+
+        boolean expired(long now, long probeInterval) {
+            return now - startedAt >= probeInterval;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.werewolf.llm.scheduling;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 模型调用调度器
+ * 每个 provider 一个FIFO队列，限制同时在途的调用数；超出时排队等待。
+ * 排队中的调用被取消时直接出队，不占用 provider 的并发名额。
+ * 记录排队等待时间，供 {@link LoadShedder} 判断过载
+ *
+ * @author Claude & User
+ */
+public class CallScheduler {
+
+    private final int maxConcurrent;
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+
+    // 上次读取后观察到的最大排队等待（毫秒）
+    private long maxObservedWait = 0;
+
+    /**
+     * @param maxConcurrent 每个 provider 同时在途的调用数上限
+     */
+    public CallScheduler(int maxConcurrent) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("并发上限必须大于0");
+        }
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    /**
+     * 提交一次调用
+     *
+     * @param provider 调用所属的 provider
+     * @param task 发起调用的任务（获得名额后才执行）
+     * @param <T> 结果类型
+     * @return 调用结果，取消时若仍在排队则直接出队，否则向下传递取消
+     */
+    public <T> CompletableFuture<T> submit(String provider, Supplier<CompletableFuture<T>> task) {
+        Lane lane = lanes.computeIfAbsent(provider, key -> new Lane());
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Pending<T> pending = new Pending<>(task, result, System.nanoTime());
+        synchronized (lane) {
+            if (lane.running < maxConcurrent) {
+                lane.running++;
+            } else {
+                lane.queue.addLast(pending);
+                result.whenComplete((value, error) -> {
+                    if (result.isCancelled()) {
+                        synchronized (lane) {
+                            lane.queue.remove(pending);
+                        }
+                    }
+                });
+                return result;
+            }
+        }
+        start(lane, pending);
+        return result;
+    }
+
+    /**
+     * 读取并重置当前的过载指标：上次读取以来观察到的最大排队等待，以及各队列队首已经等待的时间
+     *
+     * @return 排队等待（毫秒）
+     */
+    public long drainQueueWait() {
+        long now = System.nanoTime();
+        long wait;
+        synchronized (this) {
+            wait = maxObservedWait;
+            maxObservedWait = 0;
+        }
+        for (Lane lane : lanes.values()) {
+            synchronized (lane) {
+                Pending<?> head = lane.queue.peekFirst();
+                if (head != null) {
+                    wait = Math.max(wait, (now - head.enqueuedAt) / 1_000_000);
+                }
+            }
+        }
+        return wait;
+    }
+
+    /**
+     * provider 队列中等待的调用数
+     *
+     * @param provider provider
+     * @return 排队数
+     */
+    public int queued(String provider) {
+        Lane lane = lanes.get(provider);
+        if (lane == null) {
+            return 0;
+        }
+        synchronized (lane) {
+            return lane.queue.size();
+        }
+    }
+
+    /**
+     * provider 正在进行的调用数
+     *
+     * @param provider provider
+     * @return 在途数
+     */
+    public int running(String provider) {
+        Lane lane = lanes.get(provider);
+        if (lane == null) {
+            return 0;
+        }
+        synchronized (lane) {
+            return lane.running;
+        }
+    }
+
+    private <T> void start(Lane lane, Pending<T> pending) {
+        long waitMs = (System.nanoTime() - pending.enqueuedAt) / 1_000_000;
+        synchronized (this) {
+            maxObservedWait = Math.max(maxObservedWait, waitMs);
+        }
+
+        CompletableFuture<T> call;
+        try {
+            call = pending.task.get();
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<T> started = call;
+        pending.result.whenComplete((value, error) -> {
+            if (pending.result.isCancelled()) {
+                started.cancel(true);
+            }
+        });
+        started.whenComplete((value, error) -> {
+            if (error == null) {
+                pending.result.complete(value);
+            } else {
+                pending.result.completeExceptionally(error);
+            }
+            release(lane);
+        });
+    }
+
+    /**
+     * 释放名额并启动队首仍有效的调用
+     */
+    private void release(Lane lane) {
+        Pending<?> next;
+        synchronized (lane) {
+            do {
+                next = lane.queue.pollFirst();
+            } while (next != null && next.result.isDone());
+            if (next == null) {
+                lane.running--;
+                return;
+            }
+        }
+        start(lane, next);
+    }
+
+    private static class Lane {
+        private final Deque<Pending<?>> queue = new ArrayDeque<>();
+        private int running;
+    }
+
+    private record Pending<T>(Supplier<CompletableFuture<T>> task, CompletableFuture<T> result, long enqueuedAt) {
+    }
+}
@@ -0,0 +1,21 @@
+package com.werewolf.llm.scheduling;
+
+import com.werewolf.llm.LLMException;
+
+/**
+ * 过载降级拒绝异常
+ * 降级阶梯已到规则AI时调用不会发出，也不应重试
+ *
+ * @author Claude & User
+ */
+public class LoadShedException extends LLMException {
+
+    public LoadShedException(String modelId) {
+        super("负载过高，模型 " + modelId + " 的调用已降级为规则AI", 503);
+    }
+
+    @Override
+    public boolean isRetryable() {
+        return false;
+    }
+}
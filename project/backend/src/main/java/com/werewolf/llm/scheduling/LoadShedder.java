@@ -0,0 +1,139 @@
+package com.werewolf.llm.scheduling;
+
+import com.werewolf.llm.LLMProperties;
+import com.werewolf.llm.ModelConfig;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * 过载降级
+ * 调度队列的排队等待超过 SLO 时提升降级级别，没有真人玩家的房间中的AI座位按
+ * llm.models 中配置的 downgrade-to 阶梯逐级降级（如 gpt-4 → gpt-3.5-turbo → heuristic）；
+ * 等待回落到 SLO × recovery-ratio 以下时逐级恢复。每个评估周期最多调整一级
+ *
+ * @author Claude & User
+ */
+@Slf4j
+public class LoadShedder {
+
+    /**
+     * 阶梯末端：不再调用模型，直接使用规则AI
+     */
+    public static final String HEURISTIC = "heuristic";
+
+    private final LLMProperties.LoadShedding config;
+    private final LongSupplier queueWait;
+    private final Map<String, String> ladder = new HashMap<>();
+    private final int maxLevel;
+
+    private volatile int level = 0;
+    private long lastEvaluation = Long.MIN_VALUE;
+
+    /**
+     * @param config 降级配置
+     * @param models 模型配置（读取 downgrade-to）
+     * @param queueWait 读取并重置排队等待（毫秒），通常为 {@link CallScheduler#drainQueueWait()}
+     */
+    public LoadShedder(LLMProperties.LoadShedding config, List<ModelConfig> models, LongSupplier queueWait) {
+        this.config = config;
+        this.queueWait = queueWait;
+        for (ModelConfig model : models) {
+            if (model.getDowngradeTo() != null && !model.getDowngradeTo().isBlank()) {
+                ladder.put(model.getId(), model.getDowngradeTo());
+            }
+        }
+        int longest = 0;
+        for (String modelId : ladder.keySet()) {
+            longest = Math.max(longest, steps(modelId));
+        }
+        this.maxLevel = longest;
+    }
+
+    /**
+     * 按当前级别降级模型
+     *
+     * @param modelId 座位原本使用的模型
+     * @return 降级后的模型ID，或 {@link #HEURISTIC}
+     */
+    public String downgrade(String modelId) {
+        return downgrade(modelId, resolveLevel());
+    }
+
+    /**
+     * 评估并返回当前降级级别。一次决策只解析一次级别，之后按该级别降级，
+     * 使记录的降级事件和实际调用的模型一致
+     *
+     * @return 降级级别
+     */
+    public int resolveLevel() {
+        evaluate(System.currentTimeMillis());
+        return level;
+    }
+
+    /**
+     * 按给定级别降级模型
+     *
+     * @param modelId 座位原本使用的模型
+     * @param level 降级级别（通常来自 {@link #resolveLevel()}）
+     * @return 降级后的模型ID，或 {@link #HEURISTIC}
+     */
+    public String downgrade(String modelId, int level) {
+        String current = modelId;
+        for (int i = 0; i < level; i++) {
+            String next = ladder.get(current);
+            if (next == null) {
+                break;
+            }
+            current = next;
+        }
+        return current;
+    }
+
+    /**
+     * 根据排队等待调整降级级别，距上次评估不足一个周期时不调整
+     *
+     * @param now 当前时间（毫秒）
+     */
+    public synchronized void evaluate(long now) {
+        if (!config.isEnabled() || maxLevel == 0) {
+            return;
+        }
+        if (lastEvaluation != Long.MIN_VALUE && now - lastEvaluation < config.getEvaluationInterval()) {
+            return;
+        }
+        lastEvaluation = now;
+        long wait = queueWait.getAsLong();
+        if (wait > config.getQueueWaitSlo() && level < maxLevel) {
+            level++;
+            log.warn("模型调用排队等待 {}ms 超过 SLO {}ms，降级到第{}级", wait, config.getQueueWaitSlo(), level);
+        } else if (wait < config.getQueueWaitSlo() * config.getRecoveryRatio() && level > 0) {
+            level--;
+            log.info("模型调用排队等待回落到 {}ms，恢复到第{}级", wait, level);
+        }
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public int getMaxLevel() {
+        return maxLevel;
+    }
+
+    /**
+     * 从模型出发沿阶梯能降级的步数（遇到环时停止）
+     */
+    private int steps(String modelId) {
+        int steps = 0;
+        String current = modelId;
+        while (ladder.containsKey(current) && steps <= ladder.size()) {
+            current = ladder.get(current);
+            steps++;
+        }
+        return steps;
+    }
+}
@@ -0,0 +1,82 @@
+package com.werewolf.llm.session;
+
+/**
+ * 服务端会话状态
+ * 一个AI座位在一局游戏中持有一个会话，记录最新响应ID和节省的 token 数
+ *
+ * @author Claude & User
+ */
+public class ConversationSession {
+
+    private final long idleTimeoutMs;
+
+    private String modelId;
+    private String responseId;
+    private long lastUsedAt;
+    private int turns;
+    private int rebuilds;
+    private long tokensSaved;
+
+    /**
+     * @param idleTimeoutMs 空闲超时（毫秒）
+     */
+    public ConversationSession(long idleTimeoutMs) {
+        this.idleTimeoutMs = idleTimeoutMs;
+    }
+
+    /**
+     * 会话是否可以继续使用
+     *
+     * @param now 当前时间（毫秒）
+     * @return true表示已建立且未空闲超时
+     */
+    public synchronized boolean isActive(long now) {
+        return responseId != null && now - lastUsedAt <= idleTimeoutMs;
+    }
+
+    /**
+     * 记录一轮成功的调用
+     *
+     * @param modelId 应答的模型（会话绑定在该模型上）
+     * @param responseId 本轮响应ID
+     * @param now 当前时间（毫秒）
+     * @param saved 本轮没有重复发送的估算 token 数
+     */
+    public synchronized void advance(String modelId, String responseId, long now, long saved) {
+        this.modelId = modelId;
+        this.responseId = responseId;
+        this.lastUsedAt = now;
+        this.turns++;
+        this.tokensSaved += Math.max(0, saved);
+    }
+
+    /**
+     * 会话失效，下一轮需要重建
+     */
+    public synchronized void invalidate() {
+        if (responseId != null) {
+            rebuilds++;
+        }
+        responseId = null;
+    }
+
+    public synchronized String getModelId() {
+        return modelId;
+    }
+
+    public synchronized String getResponseId() {
+        return responseId;
+    }
+
+    public synchronized int getTurns() {
+        return turns;
+    }
+
+    public synchronized int getRebuilds() {
+        return rebuilds;
+    }
+
+    public synchronized long getTokensSaved() {
+        return tokensSaved;
+    }
+}
@@ -0,0 +1,21 @@
+package com.werewolf.llm.session;
+
+import com.werewolf.llm.LLMException;
+
+/**
+ * 会话过期异常
+ * 服务端找不到上一轮响应（已过期或被清理）时抛出，调用方应重建会话而不是重试
+ *
+ * @author Claude & User
+ */
+public class SessionExpiredException extends LLMException {
+
+    public SessionExpiredException(String modelId, String previousResponseId, int statusCode) {
+        super("模型 " + modelId + " 的会话已过期: " + previousResponseId, statusCode);
+    }
+
+    @Override
+    public boolean isRetryable() {
+        return false;
+    }
+}
@@ -0,0 +1,63 @@
+package com.werewolf.llm.stub;
+
+import java.util.Random;
+
+/**
+ * 替身服务的延迟分布
+ *
+ * @author Claude & User
+ */
+public class LatencyModel {
+
+    /**
+     * 延迟分布类型
+     */
+    public enum Distribution {
+        /**
+         * 固定为中位数
+         */
+        FIXED,
+
+        /**
+         * 对数正态：median × e^(sigma × N(0,1))
+         */
+        LOG_NORMAL,
+
+        /**
+         * 重尾（Pareto）：中位数处与其他分布一致，尾部按 tail-alpha 衰减
+         */
+        HEAVY_TAIL
+    }
+
+    private final StubLLMProperties.Latency config;
+
+    public LatencyModel(StubLLMProperties.Latency config) {
+        if (config.getMedian() < 0 || config.getMax() < config.getMedian()) {
+            throw new IllegalArgumentException("延迟中位数不能为负且不能超过上限");
+        }
+        if (config.getTailAlpha() <= 0) {
+            throw new IllegalArgumentException("重尾分布的形状参数必须大于0");
+        }
+        this.config = config;
+    }
+
+    /**
+     * 采样一次首 token 延迟
+     *
+     * @param random 随机源
+     * @return 延迟（毫秒）
+     */
+    public long sample(Random random) {
+        double latency = switch (config.getDistribution()) {
+            case FIXED -> config.getMedian();
+            case LOG_NORMAL -> config.getMedian() * Math.exp(config.getSigma() * random.nextGaussian());
+            case HEAVY_TAIL -> {
+                // Pareto 的中位数为 scale × 2^(1/alpha)，据此反推 scale
+                double alpha = config.getTailAlpha();
+                double scale = config.getMedian() / Math.pow(2, 1 / alpha);
+                yield scale * Math.pow(1 - random.nextDouble(), -1 / alpha);
+            }
+        };
+        return Math.min(config.getMax(), Math.max(0, Math.round(latency)));
+    }
+}
@@ -0,0 +1,21 @@
+package com.werewolf.llm.stub;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 本地模型替身装配
+ * 仅在 llm.stub.enabled=true 时随应用启动，需同时把 llm.proxy.base-url 指向替身地址
+ *
+ * @author Claude & User
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "llm.stub", name = "enabled", havingValue = "true")
+public class StubLLMConfiguration {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public StubLLMServer stubLLMServer(StubLLMProperties properties) {
+        return new StubLLMServer(properties);
+    }
+}
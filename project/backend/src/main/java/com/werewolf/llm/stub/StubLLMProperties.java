@@ -0,0 +1,87 @@
+package com.werewolf.llm.stub;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 本地模型替身配置
+ * 绑定 application.yml 中的 llm.stub.* 配置项
+ *
+ * @author Claude & User
+ */
+@Data
+@ConfigurationProperties(prefix = "llm.stub")
+public class StubLLMProperties {
+
+    /**
+     * 是否启动替身服务
+     */
+    private boolean enabled = false;
+
+    /**
+     * 监听端口（0 表示随机端口）
+     */
+    private int port = 18080;
+
+    /**
+     * 随机种子，相同种子和相同请求得到相同的延迟、故障和回复
+     */
+    private long seed = 42;
+
+    /**
+     * 延迟分布
+     */
+    private Latency latency = new Latency();
+
+    /**
+     * 生成速度（token/秒），0 表示不模拟生成耗时；流式请求按该速度逐个推送
+     */
+    private double tokensPerSecond = 50;
+
+    /**
+     * 返回 500 错误的概率
+     */
+    private double errorRate = 0.0;
+
+    /**
+     * 返回 429 限流的概率
+     */
+    private double rateLimitRate = 0.0;
+
+    /**
+     * 限流响应的 Retry-After（秒）
+     */
+    private int retryAfterSeconds = 1;
+
+    /**
+     * 固定回复（按顺序循环），为空时根据请求的格式说明生成合法回复
+     */
+    private List<String> scriptedReplies = new ArrayList<>();
+
+    @Data
+    public static class Latency {
+        /**
+         * 分布类型
+         */
+        private LatencyModel.Distribution distribution = LatencyModel.Distribution.LOG_NORMAL;
+        /**
+         * 首 token 延迟中位数（毫秒）
+         */
+        private long median = 800;
+        /**
+         * 对数正态分布的 sigma
+         */
+        private double sigma = 0.5;
+        /**
+         * 重尾分布（Pareto）的形状参数，越小尾部越重
+         */
+        private double tailAlpha = 1.5;
+        /**
+         * 延迟上限（毫秒）
+         */
+        private long max = 60000;
+    }
+}
@@ -0,0 +1,312 @@
+package com.werewolf.llm.stub;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 本地模型替身服务
+ * 在本机回环地址上提供 OpenAI 兼容的 /v1/chat/completions 和 /v1/responses 接口，
+ * 把 llm.proxy.base-url 指向它即可在离线环境下跑完整的对局和压测。
+ * 延迟、限流、错误和回复都由种子和请求内容决定，同一请求序列可以完整复现
+ *
+ * @author Claude & User
+ */
+@Slf4j
+public class StubLLMServer {
+
+    private static final String CHAT_PATH = "/chat/completions";
+    private static final String RESPONSES_PATH = "/responses";
+
+    /**
+     * 估算 token 数时每个 token 对应的字符数（中文约 1~2 字一个 token）
+     */
+    private static final int CHARS_PER_TOKEN = 2;
+
+    private final StubLLMProperties properties;
+    private final LatencyModel latencyModel;
+    private final StubReplyGenerator replyGenerator;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong rateLimitedCount = new AtomicLong();
+    private final AtomicLong errorCount = new AtomicLong();
+    private final AtomicLong responseSequence = new AtomicLong();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public StubLLMServer(StubLLMProperties properties) {
+        if (properties.getErrorRate() < 0 || properties.getRateLimitRate() < 0
+                || properties.getErrorRate() + properties.getRateLimitRate() > 1) {
+            throw new IllegalArgumentException("错误率和限流率必须在0~1之间且合计不超过1");
+        }
+        this.properties = properties;
+        this.latencyModel = new LatencyModel(properties.getLatency());
+        this.replyGenerator = new StubReplyGenerator(properties.getScriptedReplies());
+    }
+
+    /**
+     * 启动服务
+     *
+     * @throws IOException 端口被占用等
+     */
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("替身服务已启动");
+        }
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), properties.getPort()), 0);
+        // 每个请求在 sleep 中等待，用独立线程保证并发请求的延迟互不叠加
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "llm-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        log.info("本地模型替身已启动: {}", getBaseUrl());
+    }
+
+    /**
+     * 停止服务
+     */
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        executor.shutdownNow();
+        server = null;
+        executor = null;
+    }
+
+    public int getPort() {
+        if (server == null) {
+            throw new IllegalStateException("替身服务未启动");
+        }
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * 可直接用作 llm.proxy.base-url 的地址
+     *
+     * @return 如 http://127.0.0.1:18080/v1
+     */
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + getPort() + "/v1";
+    }
+
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    public long getRateLimitedCount() {
+        return rateLimitedCount.get();
+    }
+
+    public long getErrorCount() {
+        return errorCount.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            boolean responsesApi = path.endsWith(RESPONSES_PATH);
+            if (!"POST".equals(exchange.getRequestMethod()) || !(responsesApi || path.endsWith(CHAT_PATH))) {
+                sendError(exchange, 404, "not_found", "未知接口: " + path);
+                return;
+            }
+            requestCount.incrementAndGet();
+
+            byte[] raw = exchange.getRequestBody().readAllBytes();
+            JsonNode body;
+            try {
+                body = objectMapper.readTree(raw);
+            } catch (JsonProcessingException e) {
+                sendError(exchange, 400, "invalid_request_error", "请求体不是合法的JSON");
+                return;
+            }
+            // 随机源由种子和请求内容共同决定，与请求到达的先后和并发无关
+            Random random = new Random(properties.getSeed() * 31 + Arrays.hashCode(raw));
+
+            double fault = random.nextDouble();
+            if (fault < properties.getRateLimitRate()) {
+                rateLimitedCount.incrementAndGet();
+                exchange.getResponseHeaders().set("Retry-After", String.valueOf(properties.getRetryAfterSeconds()));
+                sendError(exchange, 429, "rate_limit_exceeded", "请求过于频繁");
+                return;
+            }
+            long latency = latencyModel.sample(random);
+            if (fault < properties.getRateLimitRate() + properties.getErrorRate()) {
+                errorCount.incrementAndGet();
+                pause(latency);
+                sendError(exchange, 500, "server_error", "模型服务内部错误");
+                return;
+            }
+
+            String prompt = lastUserMessage(body.path(responsesApi ? "input" : "messages"));
+            String reply = replyGenerator.generate(prompt, random);
+            int promptTokens = tokens(raw.length);
+            List<String> chunks = chunks(reply);
+            pause(latency);
+
+            if (body.path("stream").asBoolean(false)) {
+                stream(exchange, body, chunks);
+                return;
+            }
+            pause(generationMillis(chunks.size()));
+            ObjectNode response = responsesApi
+                    ? responsesBody(body, reply, promptTokens, chunks.size())
+                    : chatBody(body, reply, promptTokens, chunks.size());
+            send(exchange, 200, "application/json", objectMapper.writeValueAsBytes(response));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * 流式输出：按 tokens-per-second 逐个推送 chat.completion.chunk
+     */
+    private void stream(HttpExchange exchange, JsonNode body, List<String> chunks)
+            throws IOException, InterruptedException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        String id = "chatcmpl-" + responseSequence.incrementAndGet();
+        long interval = generationMillis(1);
+        for (String chunk : chunks) {
+            ObjectNode event = objectMapper.createObjectNode()
+                    .put("id", id)
+                    .put("object", "chat.completion.chunk")
+                    .put("model", body.path("model").asText(""));
+            event.putArray("choices").addObject().put("index", 0)
+                    .putObject("delta").put("content", chunk);
+            out.write(("data: " + objectMapper.writeValueAsString(event) + "\n\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            pause(interval);
+        }
+        out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private ObjectNode chatBody(JsonNode request, String reply, int promptTokens, int completionTokens) {
+        ObjectNode response = objectMapper.createObjectNode()
+                .put("id", "chatcmpl-" + responseSequence.incrementAndGet())
+                .put("object", "chat.completion")
+                .put("model", request.path("model").asText(""));
+        ObjectNode choice = response.putArray("choices").addObject();
+        choice.put("index", 0).put("finish_reason", "stop");
+        choice.putObject("message").put("role", "assistant").put("content", reply);
+        ObjectNode usage = response.putObject("usage")
+                .put("prompt_tokens", promptTokens)
+                .put("completion_tokens", completionTokens)
+                .put("total_tokens", promptTokens + completionTokens);
+        usage.putObject("prompt_tokens_details").put("cached_tokens", 0);
+        return response;
+    }
+
+    private ObjectNode responsesBody(JsonNode request, String reply, int promptTokens, int completionTokens) {
+        ObjectNode response = objectMapper.createObjectNode()
+                .put("id", "resp-" + responseSequence.incrementAndGet())
+                .put("object", "response")
+                .put("status", "completed")
+                .put("model", request.path("model").asText(""));
+        ObjectNode message = response.putArray("output").addObject()
+                .put("type", "message")
+                .put("role", "assistant");
+        message.putArray("content").addObject().put("type", "output_text").put("text", reply);
+        ObjectNode usage = response.putObject("usage")
+                .put("input_tokens", promptTokens)
+                .put("output_tokens", completionTokens)
+                .put("total_tokens", promptTokens + completionTokens);
+        usage.putObject("input_tokens_details").put("cached_tokens", 0);
+        return response;
+    }
+
+    private String lastUserMessage(JsonNode messages) {
+        String last = null;
+        for (JsonNode message : messages) {
+            if ("user".equals(message.path("role").asText())) {
+                JsonNode content = message.path("content");
+                if (content.isArray()) {
+                    // 显式缓存格式：content 为 [{type: text, text: ...}]
+                    StringBuilder text = new StringBuilder();
+                    content.forEach(part -> text.append(part.path("text").asText("")));
+                    last = text.toString();
+                } else {
+                    last = content.asText("");
+                }
+            }
+        }
+        return last;
+    }
+
+    private List<String> chunks(String reply) {
+        List<String> chunks = new ArrayList<>();
+        for (int i = 0; i < reply.length(); i += CHARS_PER_TOKEN) {
+            chunks.add(reply.substring(i, Math.min(reply.length(), i + CHARS_PER_TOKEN)));
+        }
+        return chunks;
+    }
+
+    private int tokens(int length) {
+        return Math.max(1, length / CHARS_PER_TOKEN);
+    }
+
+    private long generationMillis(int tokens) {
+        double rate = properties.getTokensPerSecond();
+        return rate <= 0 ? 0 : Math.round(tokens * 1000 / rate);
+    }
+
+    private void pause(long millis) throws InterruptedException {
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+
+    private void sendError(HttpExchange exchange, int code, String type, String message) throws IOException {
+        ObjectNode body = objectMapper.createObjectNode();
+        body.putObject("error").put("type", type).put("message", message);
+        send(exchange, code, "application/json", objectMapper.writeValueAsBytes(body));
+    }
+
+    private void send(HttpExchange exchange, int code, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(code, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    /**
+     * 独立运行：java ... StubLLMServer [端口] [种子]
+     */
+    public static void main(String[] args) throws IOException {
+        StubLLMProperties properties = new StubLLMProperties();
+        if (args.length > 0) {
+            properties.setPort(Integer.parseInt(args[0]));
+        }
+        if (args.length > 1) {
+            properties.setSeed(Long.parseLong(args[1]));
+        }
+        new StubLLMServer(properties).start();
+    }
+}
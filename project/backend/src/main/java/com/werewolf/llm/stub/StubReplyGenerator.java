@@ -0,0 +1,77 @@
+package com.werewolf.llm.stub;
+
+import com.werewolf.agent.output.DecisionSchema;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 替身服务的回复生成器
+ * 配置了固定回复时按顺序循环返回；否则根据 prompt 中的格式说明和可选座位生成合法的 JSON 回复
+ *
+ * @author Claude & User
+ */
+public class StubReplyGenerator {
+
+    private static final Pattern OPTIONS_PATTERN = Pattern.compile("可选：([0-9号、]+)");
+    private static final Pattern SEAT_PATTERN = Pattern.compile("(\\d+)号");
+
+    private static final String[] SPEECHES = {
+            "我是好人，%d号的发言有些前后矛盾，建议重点关注。",
+            "我这轮没有太多信息，先听听%d号怎么解释。",
+            "%d号刚才的投票很奇怪，我倾向于出他。"
+    };
+
+    private final List<String> scriptedReplies;
+    private final AtomicInteger scriptIndex = new AtomicInteger();
+
+    public StubReplyGenerator(List<String> scriptedReplies) {
+        this.scriptedReplies = List.copyOf(scriptedReplies);
+    }
+
+    /**
+     * 生成回复
+     *
+     * @param prompt 最后一条用户消息
+     * @param random 随机源
+     * @return 回复内容
+     */
+    public String generate(String prompt, Random random) {
+        if (!scriptedReplies.isEmpty()) {
+            return scriptedReplies.get(Math.floorMod(scriptIndex.getAndIncrement(), scriptedReplies.size()));
+        }
+        String text = prompt == null ? "" : prompt;
+        List<Integer> options = options(text);
+        Integer seat = options.isEmpty() ? null : options.get(random.nextInt(options.size()));
+
+        if (text.contains("\"" + DecisionSchema.SPEECH + "\"")) {
+            int mentioned = seat != null ? seat : 1 + random.nextInt(6);
+            return "{\"speech\": \"" + String.format(SPEECHES[random.nextInt(SPEECHES.length)], mentioned) + "\"}";
+        }
+        if (text.contains("\"" + DecisionSchema.ANTIDOTE + "\"")) {
+            boolean antidote = text.contains("可以使用解药") && random.nextBoolean();
+            String poison = !antidote && seat != null && random.nextInt(4) == 0 ? seat.toString() : "null";
+            return "{\"antidote\": " + antidote + ", \"poison\": " + poison + "}";
+        }
+        if (text.contains("\"" + DecisionSchema.DISCUSSION + "\"")) {
+            return "{\"discussion\": \"" + seat + "号像神职，今晚先刀他。\", \"target\": " + seat + "}";
+        }
+        return "{\"target\": " + (seat == null ? "null" : seat) + "}";
+    }
+
+    private List<Integer> options(String text) {
+        List<Integer> seats = new ArrayList<>();
+        Matcher options = OPTIONS_PATTERN.matcher(text);
+        if (options.find()) {
+            Matcher seat = SEAT_PATTERN.matcher(options.group(1));
+            while (seat.find()) {
+                seats.add(Integer.parseInt(seat.group(1)));
+            }
+        }
+        return seats;
+    }
+}
@@ -0,0 +1,118 @@
+package com.werewolf.runtime;
+
+import com.werewolf.agent.AIProperties;
+import com.werewolf.agent.HeuristicAgent;
+import com.werewolf.agent.HumanAgent;
+import com.werewolf.agent.HumanSeats;
+import com.werewolf.agent.LLMAgent;
+import com.werewolf.agent.PlayerAgent;
+import com.werewolf.digest.DigestStore;
+import com.werewolf.domain.model.GameState;
+import com.werewolf.domain.model.Player;
+import com.werewolf.engine.GameController;
+import com.werewolf.llm.LLMClient;
+import com.werewolf.llm.cassette.CassetteDeck;
+import com.werewolf.view.PlayerViewRegistry;
+import com.werewolf.web.websocket.GameGateway;
+
+import java.util.Map;
+
+/**
+ * 在线对局装配
+ * 按配置为每个座位创建智能体并组装 {@link GameRunner}：
+ * 真人座位使用 {@link HumanAgent}，登记到 {@link HumanSeats} 并经 {@link GameGateway} 推送决策提示；
+ * 配置了默认模型时AI座位使用 {@link LLMAgent}，否则使用规则AI；狼人决策方式取自配置。
+ * 开启录制或回放时按游戏种子装入录制。对局结束或关闭时注销真人座位、取消该局的模型调用，
+ * 并在观战延迟的帧全部放出后释放房间
+ *
+ * @author Claude & User
+ */
+public class GameAssembler {
+
+    private final AIProperties aiProperties;
+    private final GameTimeoutProperties timeoutProperties;
+    private final LLMClient llmClient;
+    private final HumanSeats humanSeats;
+    private final GameGateway gateway;
+    private final GameController gameController = new GameController();
+    private final DigestStore digestStore = new DigestStore();
+    private final PlayerViewRegistry viewRegistry = new PlayerViewRegistry();
+
+    /**
+     * @param aiProperties AI 玩家配置
+     * @param timeoutProperties 超时配置
+     * @param llmClient LLM 客户端
+     * @param humanSeats 真人座位登记
+     * @param gateway 房间推送
+     */
+    public GameAssembler(AIProperties aiProperties, GameTimeoutProperties timeoutProperties, LLMClient llmClient,
+                         HumanSeats humanSeats, GameGateway gateway) {
+        if (timeoutProperties.getHumanAction() <= 0) {
+            throw new IllegalArgumentException("人类玩家操作超时必须大于0");
+        }
+        this.aiProperties = aiProperties;
+        this.timeoutProperties = timeoutProperties;
+        this.llmClient = llmClient;
+        this.humanSeats = humanSeats;
+        this.gateway = gateway;
+    }
+
+    /**
+     * 为所有座位按配置创建智能体
+     *
+     * @param gameState 游戏状态（需要已分配角色）
+     * @return 对局驱动器
+     */
+    public GameRunner assemble(GameState gameState) {
+        return assemble(gameState, Map.of());
+    }
+
+    /**
+     * 组装对局，调用方提供的智能体（如外部程序接入的座位）优先，其余座位按配置创建
+     *
+     * @param gameState 游戏状态（需要已分配角色）
+     * @param agents 调用方提供的智能体（玩家ID -> 智能体）
+     * @return 对局驱动器
+     */
+    public GameRunner assemble(GameState gameState, Map<Long, PlayerAgent> agents) {
+        if (gameState == null) {
+            throw new IllegalArgumentException("游戏状态不能为空");
+        }
+        Long gameId = gameState.getGameId();
+        CassetteDeck cassettes = llmClient.getCassettes();
+        if (cassettes.getMode() != CassetteDeck.Mode.OFF) {
+            if (gameState.getSeed() == null) {
+                throw new IllegalArgumentException("录制回放需要游戏种子");
+            }
+            cassettes.insert(gameId, gameState.getSeed());
+        }
+        // 模型回调和连接线程只读取已发布的快照，对局交给它们之前先发布一份
+        gameState.publishSnapshot();
+        // 真人座位的提示经房间推送，房间需要在创建座位前就绪
+        gateway.attach(gameState);
+        Map<Long, PlayerAgent> seats = GameRunner.fillEmptySeats(gameState, agents,
+                player -> createAgent(gameId, player));
+        GameRunner runner = new GameRunner(gameState, seats, gameController, digestStore, viewRegistry);
+        runner.setWerewolfDecisionMode(aiProperties.getWerewolfDecisionMode());
+        runner.onRelease(() -> humanSeats.release(gameId));
+        // 对局结束或关闭时取消该局的在途调用、释放路由器的座位分配并退出录制（录制模式写入文件）
+        runner.onRelease(() -> llmClient.cancelGame(gameId));
+        runner.onRelease(() -> gateway.releaseWhenDrained(gameState));
+        return runner;
+    }
+
+    private PlayerAgent createAgent(Long gameId, Player player) {
+        HeuristicAgent heuristic = new HeuristicAgent(player.getId());
+        if (player.isHuman()) {
+            HumanAgent human = new HumanAgent(player.getId(), heuristic, llmClient.getScheduler(),
+                    timeoutProperties.getHumanAction() * 1000L, prompt -> gateway.publishPrompt(gameId, prompt));
+            humanSeats.register(gameId, human);
+            return human;
+        }
+        String model = aiProperties.getDefaultModel();
+        if (model == null || model.isBlank()) {
+            return heuristic;
+        }
+        return new LLMAgent(player.getId(), model, llmClient, heuristic, aiProperties);
+    }
+}
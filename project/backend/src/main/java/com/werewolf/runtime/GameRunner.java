@@ -0,0 +1,330 @@
+package com.werewolf.runtime;
+
+import com.werewolf.agent.AgentDecision;
+import com.werewolf.agent.DecisionRequest;
+import com.werewolf.agent.HeuristicAgent;
+import com.werewolf.agent.LegalActions;
+import com.werewolf.agent.PlayerAgent;
+import com.werewolf.agent.WerewolfDecisionMode;
+import com.werewolf.digest.DigestStore;
+import com.werewolf.domain.model.GameEvent;
+import com.werewolf.domain.model.GameState;
+import com.werewolf.domain.model.Player;
+import com.werewolf.domain.role.Seer;
+import com.werewolf.domain.role.Werewolf;
+import com.werewolf.domain.role.Witch;
+import com.werewolf.engine.GameController;
+import com.werewolf.engine.night.NightActionProcessor;
+import com.werewolf.view.PlayerView;
+import com.werewolf.view.PlayerViewRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * 游戏驱动器
+ * 按阶段向各座位的 {@link PlayerAgent} 收集行动并交给 {@link GameController} 执行，
+ * 每个阶段结束后通过各座位的信息集视图把新产生的可见事件分发给智能体。
+ * 对局结束或房间关闭时关闭全部智能体，取消仍在进行的决策，并执行登记的清理动作
+ *
+ * @author Claude & User
+ */
+@Slf4j
+public class GameRunner {
+
+    private final GameState gameState;
+    private final Map<Long, PlayerAgent> agents;
+    private final GameController gameController;
+    private final DigestStore digestStore;
+    private final PlayerViewRegistry viewRegistry;
+    private final NightActionProcessor nightActionProcessor = new NightActionProcessor();
+    private WerewolfDecisionMode werewolfDecisionMode = WerewolfDecisionMode.JOINT;
+    private final List<Runnable> releaseHooks = new CopyOnWriteArrayList<>();
+    private volatile boolean closed;
+
+    // 各座位智能体的视图读取游标
+    private final Map<Long, PlayerView.Cursor> cursors = new HashMap<>();
+
+    public GameRunner(GameState gameState, Map<Long, PlayerAgent> agents) {
+        this(gameState, agents, new GameController(), new DigestStore());
+    }
+
+    public GameRunner(GameState gameState, Map<Long, PlayerAgent> agents,
+                      GameController gameController, DigestStore digestStore) {
+        this(gameState, agents, gameController, digestStore, new PlayerViewRegistry());
+    }
+
+    /**
+     * @param gameState 游戏状态（需要已分配角色）
+     * @param agents 各座位的智能体
+     * @param gameController 游戏控制器
+     * @param digestStore 回合摘要存储
+     * @param viewRegistry 玩家视图注册表
+     */
+    public GameRunner(GameState gameState, Map<Long, PlayerAgent> agents,
+                      GameController gameController, DigestStore digestStore,
+                      PlayerViewRegistry viewRegistry) {
+        if (gameState == null) {
+            throw new IllegalArgumentException("游戏状态不能为空");
+        }
+        this.gameState = gameState;
+        this.agents = new HashMap<>(agents);
+        this.gameController = gameController;
+        this.digestStore = digestStore;
+        this.viewRegistry = viewRegistry;
+        viewRegistry.attach(gameState);
+        for (Player player : gameState.getPlayers()) {
+            cursors.put(player.getId(), viewRegistry.getView(gameState.getGameId(), player.getId()).newCursor());
+        }
+    }
+
+    /**
+     * 为没有智能体的座位补上规则AI
+     * 人类玩家需要由调用方提供对应的代理
+     *
+     * @param gameState 游戏状态
+     * @param agents 已有的智能体（玩家ID -> 智能体）
+     * @param factory 空座位的智能体工厂
+     * @return 覆盖所有座位的智能体
+     */
+    public static Map<Long, PlayerAgent> fillEmptySeats(GameState gameState,
+                                                        Map<Long, PlayerAgent> agents,
+                                                        Function<Player, PlayerAgent> factory) {
+        Map<Long, PlayerAgent> filled = new HashMap<>(agents);
+        for (Player player : gameState.getPlayers()) {
+            filled.computeIfAbsent(player.getId(), id -> factory.apply(player));
+        }
+        return filled;
+    }
+
+    /**
+     * 为没有智能体的座位补上默认规则AI
+     *
+     * @param gameState 游戏状态
+     * @param agents 已有的智能体
+     * @return 覆盖所有座位的智能体
+     */
+    public static Map<Long, PlayerAgent> fillEmptySeats(GameState gameState, Map<Long, PlayerAgent> agents) {
+        return fillEmptySeats(gameState, agents, player -> new HeuristicAgent(player.getId()));
+    }
+
+    /**
+     * 连续执行回合直到游戏结束
+     *
+     * @param maxRounds 最大回合数，防止异常策略导致死循环
+     * @return 每回合的结果
+     */
+    public List<GameController.RoundResult> playToEnd(int maxRounds) {
+        List<GameController.RoundResult> results = new ArrayList<>();
+        while (!gameState.isFinished() && !closed && results.size() < maxRounds) {
+            results.add(playRound());
+        }
+        return results;
+    }
+
+    /**
+     * 执行一个完整回合
+     *
+     * @return 回合结果
+     */
+    public GameController.RoundResult playRound() {
+        if (closed) {
+            throw new IllegalStateException("对局已关闭");
+        }
+        dispatchEvents();
+
+        GameController.RoundActions nightActions = collectNightActions();
+        GameController.RoundResult result = gameController.executeNight(gameState, nightActions);
+        dispatchEvents();
+        if (result.isGameEnded()) {
+            release();
+            return result;
+        }
+
+        GameController.RoundActions dayActions = collectDayActions(result.getNightResult().getDeaths());
+        result = gameController.executeDay(gameState, result, dayActions);
+        // 白天结束后为整个房间计算一次公开摘要
+        digestStore.getOrCompute(gameState, result);
+        dispatchEvents();
+        if (result.isGameEnded()) {
+            release();
+        }
+        return result;
+    }
+
+    private GameController.RoundActions collectNightActions() {
+        Map<Long, Long> werewolfVotes = new LinkedHashMap<>();
+        String werewolfDiscussion = null;
+        List<Player> werewolves = alivePlayers(Werewolf.class);
+        if (werewolfDecisionMode == WerewolfDecisionMode.JOINT && !werewolves.isEmpty()) {
+            // 座位号最小的存活狼人代表狼队，全队按同一目标投票
+            Player leader = werewolves.stream().min(Comparator.comparingInt(Player::getSeatNumber)).orElseThrow();
+            AgentDecision decision = decide(LegalActions.werewolfTeamKill(gameState, leader));
+            if (decision.getTargetPlayerId() != null) {
+                werewolves.forEach(werewolf -> werewolfVotes.put(werewolf.getId(), decision.getTargetPlayerId()));
+            }
+            werewolfDiscussion = decision.getContent();
+        } else {
+            for (Player werewolf : werewolves) {
+                Long target = decide(LegalActions.werewolfKill(gameState, werewolf)).getTargetPlayerId();
+                if (target != null) {
+                    werewolfVotes.put(werewolf.getId(), target);
+                }
+            }
+        }
+
+        Long seerCheckTarget = null;
+        for (Player seer : alivePlayers(Seer.class)) {
+            seerCheckTarget = decide(LegalActions.seerCheck(gameState, seer)).getTargetPlayerId();
+        }
+
+        // 女巫需要知道今晚被杀的玩家，这里按引擎的规则预先计算击杀结果（不修改状态）
+        NightActionProcessor.WerewolfKillResult kill =
+                nightActionProcessor.processWerewolfKill(gameState, werewolfVotes);
+        Long killedPlayerId = kill.isSuccess() ? kill.getTargetPlayerId() : null;
+
+        boolean useAntidote = false;
+        Long poisonTarget = null;
+        for (Player witch : alivePlayers(Witch.class)) {
+            AgentDecision decision = decide(LegalActions.witchAction(gameState, witch, killedPlayerId));
+            useAntidote = decision.isUseAntidote();
+            poisonTarget = decision.getPoisonTargetId();
+        }
+
+        return GameController.RoundActions.builder()
+                .werewolfVotes(werewolfVotes)
+                .werewolfDiscussion(werewolfDiscussion)
+                .seerCheckTarget(seerCheckTarget)
+                .witchUseAntidote(useAntidote)
+                .witchPoisonTarget(poisonTarget)
+                .build();
+    }
+
+    private GameController.RoundActions collectDayActions(List<Long> nightDeaths) {
+        Map<Long, String> lastWords = new HashMap<>();
+        for (Long deadPlayerId : nightDeaths) {
+            Player dead = gameState.getPlayerById(deadPlayerId);
+            lastWords.put(deadPlayerId, decide(LegalActions.lastWords(gameState, dead)).getContent());
+        }
+
+        // 按引擎的发言顺序依次发言，后发言者可以看到前面的发言
+        Map<Long, String> speeches = new LinkedHashMap<>();
+        for (Player speaker : gameState.getAlivePlayers()) {
+            DecisionRequest request = LegalActions.daySpeech(gameState, speaker);
+            request.setDaySpeeches(new LinkedHashMap<>(speeches));
+            speeches.put(speaker.getId(), decide(request).getContent());
+        }
+
+        Map<Long, Long> votes = new LinkedHashMap<>();
+        for (Player voter : gameState.getAlivePlayers()) {
+            DecisionRequest request = LegalActions.vote(gameState, voter);
+            request.setDaySpeeches(new LinkedHashMap<>(speeches));
+            votes.put(voter.getId(), decide(request).getTargetPlayerId());
+        }
+
+        return GameController.RoundActions.builder()
+                .lastWords(lastWords)
+                .speeches(speeches)
+                .votes(votes)
+                .build();
+    }
+
+    private AgentDecision decide(DecisionRequest request) {
+        PlayerAgent agent = agents.get(request.getPlayer().getId());
+        if (agent == null) {
+            throw new IllegalStateException("玩家 " + request.getPlayer().getId() + " 没有对应的智能体");
+        }
+        request.setDigests(digestStore.getDigests(gameState.getGameId()));
+        request.setView(viewRegistry.getView(gameState.getGameId(), request.getPlayer().getId()));
+        AgentDecision decision;
+        try {
+            decision = agent.decide(request).join();
+        } catch (CancellationException e) {
+            throw new IllegalStateException("对局已关闭", e);
+        }
+        return LegalActions.sanitize(request, decision);
+    }
+
+    private List<Player> alivePlayers(Class<?> roleClass) {
+        return gameState.getAlivePlayers().stream()
+                .filter(player -> roleClass.isInstance(player.getRole()))
+                .toList();
+    }
+
+    private void dispatchEvents() {
+        for (Map.Entry<Long, PlayerView.Cursor> entry : cursors.entrySet()) {
+            PlayerAgent agent = agents.get(entry.getKey());
+            List<GameEvent> delta = entry.getValue().fetch();
+            if (agent != null) {
+                delta.forEach(agent::onEvent);
+            }
+        }
+    }
+
+    /**
+     * 关闭对局（如房间关闭）：取消各座位仍在进行的决策，正在等待决策的回合以异常结束
+     */
+    public void close() {
+        if (!closed) {
+            release();
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * 登记对局结束或关闭时执行的清理（如取消该局的模型调用、释放座位），只执行一次
+     *
+     * @param hook 清理动作
+     */
+    public void onRelease(Runnable hook) {
+        releaseHooks.add(hook);
+    }
+
+    private synchronized void release() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        agents.values().forEach(PlayerAgent::close);
+        digestStore.release(gameState.getGameId());
+        viewRegistry.release(gameState);
+        for (Runnable hook : releaseHooks) {
+            try {
+                hook.run();
+            } catch (RuntimeException e) {
+                log.warn("游戏 {} 的清理动作失败", gameState.getGameId(), e);
+            }
+        }
+    }
+
+    public WerewolfDecisionMode getWerewolfDecisionMode() {
+        return werewolfDecisionMode;
+    }
+
+    /**
+     * 设置狼人夜间决策方式，默认狼队联合决策
+     *
+     * @param werewolfDecisionMode 决策方式
+     */
+    public void setWerewolfDecisionMode(WerewolfDecisionMode werewolfDecisionMode) {
+        if (werewolfDecisionMode == null) {
+            throw new IllegalArgumentException("狼人决策方式不能为空");
+        }
+        this.werewolfDecisionMode = werewolfDecisionMode;
+    }
+
+    public GameState getGameState() {
+        return gameState;
+    }
+}
@@ -0,0 +1,199 @@
+package com.werewolf.runtime;
+
+import com.werewolf.agent.AIProperties;
+import com.werewolf.agent.HeuristicAgent;
+import com.werewolf.agent.PlayerAgent;
+import com.werewolf.agent.WerewolfDecisionMode;
+import com.werewolf.digest.DigestStore;
+import com.werewolf.domain.model.GameState;
+import com.werewolf.domain.model.Player;
+import com.werewolf.domain.role.Camp;
+import com.werewolf.engine.GameController;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+/**
+ * 批量对局模拟器
+ * 不经过网络和模型，以引擎速度跑完大量对局，用于评估策略和回归测试。
+ * 默认所有座位使用规则AI
+ *
+ * @author Claude & User
+ */
+@Slf4j
+public class GameSimulator {
+
+    /**
+     * 单局最大回合数，超过视为未结束
+     */
+    private static final int MAX_ROUNDS = 20;
+
+    private static final int PLAYER_COUNT = 6;
+
+    private final BiFunction<Player, Random, PlayerAgent> policy;
+    private WerewolfDecisionMode werewolfDecisionMode;
+
+    public GameSimulator() {
+        this(new AIProperties());
+    }
+
+    /**
+     * @param properties AI 玩家配置（狼人决策方式）
+     */
+    public GameSimulator(AIProperties properties) {
+        this((player, random) -> new HeuristicAgent(player.getId(), random), properties);
+    }
+
+    /**
+     * @param policy 座位策略工厂（玩家, 该座位的随机源 -> 智能体）
+     */
+    public GameSimulator(BiFunction<Player, Random, PlayerAgent> policy) {
+        this(policy, new AIProperties());
+    }
+
+    /**
+     * @param policy 座位策略工厂（玩家, 该座位的随机源 -> 智能体）
+     * @param properties AI 玩家配置（狼人决策方式）
+     */
+    public GameSimulator(BiFunction<Player, Random, PlayerAgent> policy, AIProperties properties) {
+        this.policy = policy;
+        this.werewolfDecisionMode = properties.getWerewolfDecisionMode();
+    }
+
+    /**
+     * 运行多局模拟
+     *
+     * @param games 对局数
+     * @param seed 随机种子（决定各局的角色分配和各座位策略的随机源，相同种子结果相同）
+     * @return 模拟报告
+     */
+    public SimulationReport run(int games, long seed) {
+        if (games <= 0) {
+            throw new IllegalArgumentException("对局数必须大于0");
+        }
+
+        Random random = new Random(seed);
+        GameController gameController = new GameController();
+        DigestStore digestStore = new DigestStore();
+        int goodWins = 0;
+        int werewolfWins = 0;
+        int unfinished = 0;
+        int degraded = 0;
+        long totalRounds = 0;
+
+        for (int game = 1; game <= games; game++) {
+            GameState gameState = createGame(game, random.nextLong());
+            gameController.initializeGame(gameState);
+
+            Map<Long, PlayerAgent> agents = GameRunner.fillEmptySeats(gameState, Map.of(),
+                    player -> policy.apply(player, new Random(random.nextLong())));
+            GameRunner runner = new GameRunner(gameState, agents, gameController, digestStore);
+            runner.setWerewolfDecisionMode(werewolfDecisionMode);
+            List<GameController.RoundResult> rounds = runner.playToEnd(MAX_ROUNDS);
+            totalRounds += rounds.size();
+
+            if (gameState.isModelDegraded()) {
+                // 过载降级的对局不反映座位模型的真实水平，不计入胜负
+                degraded++;
+            } else if (!gameState.isFinished()) {
+                unfinished++;
+            } else if (Camp.GOOD.name().equals(gameState.getWinningCamp())) {
+                goodWins++;
+            } else if (Camp.WEREWOLF.name().equals(gameState.getWinningCamp())) {
+                werewolfWins++;
+            }
+        }
+
+        SimulationReport report = SimulationReport.builder()
+                .games(games)
+                .goodWins(goodWins)
+                .werewolfWins(werewolfWins)
+                .unfinished(unfinished)
+                .degraded(degraded)
+                .averageRounds((double) totalRounds / games)
+                .build();
+        log.info("模拟完成: {}", report);
+        return report;
+    }
+
+    /**
+     * 设置狼人夜间决策方式，默认取自配置；评估不同模型的狼人时使用单独决策
+     *
+     * @param werewolfDecisionMode 决策方式
+     */
+    public void setWerewolfDecisionMode(WerewolfDecisionMode werewolfDecisionMode) {
+        this.werewolfDecisionMode = werewolfDecisionMode;
+    }
+
+    private GameState createGame(long gameId, long seed) {
+        List<Player> players = new ArrayList<>();
+        for (int seat = 1; seat <= PLAYER_COUNT; seat++) {
+            players.add(Player.builder()
+                    .id((long) seat)
+                    .name("AI玩家" + seat)
+                    .type(Player.PlayerType.AI)
+                    .alive(true)
+                    .seatNumber(seat)
+                    .build());
+        }
+        return GameState.builder()
+                .gameId(gameId)
+                .seed(seed)
+                .players(players)
+                .status(GameState.GameStatus.WAITING)
+                .build();
+    }
+
+    /**
+     * 模拟报告
+     */
+    @Data
+    @Builder
+    public static class SimulationReport {
+        /**
+         * 对局数
+         */
+        private int games;
+
+        /**
+         * 好人阵营胜利局数
+         */
+        private int goodWins;
+
+        /**
+         * 狼人阵营胜利局数
+         */
+        private int werewolfWins;
+
+        /**
+         * 达到最大回合数仍未结束的局数
+         */
+        private int unfinished;
+
+        /**
+         * 出现过载降级、不计入胜负的局数
+         */
+        private int degraded;
+
+        /**
+         * 平均回合数
+         */
+        private double averageRounds;
+
+        /**
+         * 好人胜率（不含降级对局）
+         *
+         * @return 0~1
+         */
+        public double getGoodWinRate() {
+            int counted = games - degraded;
+            return counted == 0 ? 0 : (double) goodWins / counted;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.werewolf.runtime;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 对局超时配置
+ * 绑定 application.yml 中的 game.timeout.* 配置项
+ *
+ * @author Claude & User
+ */
+@Data
+@ConfigurationProperties(prefix = "game.timeout")
+public class GameTimeoutProperties {
+
+    /**
+     * 人类玩家操作超时（秒），超时按降级AI的默认决策处理
+     */
+    private int humanAction = 60;
+}
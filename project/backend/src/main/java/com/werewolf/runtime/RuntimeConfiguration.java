@@ -0,0 +1,23 @@
+package com.werewolf.runtime;
+
+import com.werewolf.agent.AIProperties;
+import com.werewolf.agent.HumanSeats;
+import com.werewolf.llm.LLMClient;
+import com.werewolf.web.websocket.GameGateway;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 对局运行组件装配
+ *
+ * @author Claude & User
+ */
+@Configuration
+public class RuntimeConfiguration {
+
+    @Bean
+    public GameAssembler gameAssembler(AIProperties aiProperties, GameTimeoutProperties timeoutProperties,
+                                       LLMClient llmClient, HumanSeats humanSeats, GameGateway gameGateway) {
+        return new GameAssembler(aiProperties, timeoutProperties, llmClient, humanSeats, gameGateway);
+    }
+}
@@ -0,0 +1,195 @@
+package com.werewolf.view;
+
+import com.werewolf.domain.model.GameEvent;
+import com.werewolf.domain.model.GameState;
+import com.werewolf.domain.model.Player;
+import com.werewolf.domain.role.Werewolf;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 玩家信息集视图
+ * 事件写入时增量追加该玩家可见的事件，并维护只有该玩家知道的私有信息；
+ * 使用方通过 {@link Cursor} 只读取上次之后的新事件，不需要扫描全量事件历史
+ *
+ * @author Claude & User
+ */
+public class PlayerView {
+
+    private final Long playerId;
+    private final boolean werewolf;
+
+    // 该玩家可见的事件（只追加）
+    private final List<GameEvent> visibleEvents = new ArrayList<>();
+
+    // 私有信息
+    private final Set<Long> werewolfTeammates = new LinkedHashSet<>();
+    private final Map<Long, Boolean> seerResults = new LinkedHashMap<>();
+    private final Map<Integer, Long> werewolfKills = new LinkedHashMap<>();
+    private Long antidoteSavedPlayerId;
+    private Long poisonedPlayerId;
+
+    PlayerView(Player player, GameState gameState) {
+        this.playerId = player.getId();
+        this.werewolf = player.getRole() instanceof Werewolf;
+        if (werewolf) {
+            for (Player other : gameState.getPlayers()) {
+                if (!other.getId().equals(playerId) && other.getRole() instanceof Werewolf) {
+                    werewolfTeammates.add(other.getId());
+                }
+            }
+        }
+    }
+
+    /**
+     * 从游戏状态一次性构建视图（不注册监听，用于没有视图注册表的场景）
+     *
+     * @param gameState 游戏状态
+     * @param player 玩家
+     * @return 视图
+     */
+    public static PlayerView snapshot(GameState gameState, Player player) {
+        PlayerView view = new PlayerView(player, gameState);
+        for (GameEvent event : gameState.getEvents()) {
+            view.offer(event);
+        }
+        return view;
+    }
+
+    /**
+     * 事件写入时调用，可见则追加并更新私有信息
+     *
+     * @param event 游戏事件
+     * @return true表示事件对该玩家可见
+     */
+    synchronized boolean offer(GameEvent event) {
+        if (!isVisible(event)) {
+            return false;
+        }
+        visibleEvents.add(event);
+        updatePrivateFacts(event);
+        return true;
+    }
+
+    private boolean isVisible(GameEvent event) {
+        return switch (Visibility.of(event)) {
+            case PUBLIC -> true;
+            case WEREWOLF_TEAM -> werewolf;
+            case PRIVATE -> playerId.equals(event.getPlayerId());
+            case SYSTEM -> false;
+        };
+    }
+
+    private void updatePrivateFacts(GameEvent event) {
+        if (event.getType() == null) {
+            return;
+        }
+        switch (event.getType()) {
+            case SEER_CHECK:
+                if (event.getTargetPlayerId() != null && event.getData() != null
+                        && event.getData().get("werewolf") instanceof Boolean result) {
+                    seerResults.put(event.getTargetPlayerId(), result);
+                }
+                break;
+            case WEREWOLF_KILL:
+                if (werewolf) {
+                    werewolfKills.put(event.getRound(), event.getPlayerId());
+                }
+                break;
+            case WITCH_ANTIDOTE:
+                antidoteSavedPlayerId = event.getTargetPlayerId();
+                break;
+            case WITCH_POISON:
+                poisonedPlayerId = event.getTargetPlayerId();
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * 创建新的读取游标，从第一条可见事件开始
+     *
+     * @return 游标
+     */
+    public Cursor newCursor() {
+        return new Cursor();
+    }
+
+    public Long getPlayerId() {
+        return playerId;
+    }
+
+    public synchronized int size() {
+        return visibleEvents.size();
+    }
+
+    /**
+     * 获取全部可见事件的只读快照
+     *
+     * @return 可见事件
+     */
+    public synchronized List<GameEvent> getVisibleEvents() {
+        return List.copyOf(visibleEvents);
+    }
+
+    public synchronized Set<Long> getWerewolfTeammates() {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(werewolfTeammates));
+    }
+
+    /**
+     * 预言家查验结果（目标ID -> 是否狼人）
+     */
+    public synchronized Map<Long, Boolean> getSeerResults() {
+        return Map.copyOf(seerResults);
+    }
+
+    /**
+     * 狼队每晚的击杀目标（回合 -> 玩家ID）
+     */
+    public synchronized Map<Integer, Long> getWerewolfKills() {
+        return Map.copyOf(werewolfKills);
+    }
+
+    public synchronized Long getAntidoteSavedPlayerId() {
+        return antidoteSavedPlayerId;
+    }
+
+    public synchronized Long getPoisonedPlayerId() {
+        return poisonedPlayerId;
+    }
+
+    private synchronized List<GameEvent> eventsFrom(int from) {
+        return from >= visibleEvents.size() ? List.of() : List.copyOf(visibleEvents.subList(from, visibleEvents.size()));
+    }
+
+    /**
+     * 视图读取游标
+     * 每个使用方持有自己的游标，互不影响
+     */
+    public class Cursor {
+
+        private int position = 0;
+
+        /**
+         * 读取上次之后新增的可见事件并前移游标
+         *
+         * @return 新事件（没有时为空列表）
+         */
+        public synchronized List<GameEvent> fetch() {
+            List<GameEvent> delta = eventsFrom(position);
+            position += delta.size();
+            return delta;
+        }
+
+        public synchronized int getPosition() {
+            return position;
+        }
+    }
+}
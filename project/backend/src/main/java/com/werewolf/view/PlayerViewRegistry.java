@@ -0,0 +1,83 @@
+package com.werewolf.view;
+
+import com.werewolf.domain.model.GameEvent;
+import com.werewolf.domain.model.GameEventListener;
+import com.werewolf.domain.model.GameState;
+import com.werewolf.domain.model.Player;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 玩家视图注册表
+ * 每个房间挂一个事件监听器，事件写入时一次性分发到该房间所有玩家的视图
+ *
+ * @author Claude & User
+ */
+public class PlayerViewRegistry {
+
+    private final Map<Long, RoomViews> rooms = new ConcurrentHashMap<>();
+
+    /**
+     * 为房间创建玩家视图并开始监听事件，已有的事件会先补充进视图
+     * 需要在角色分配之后调用
+     *
+     * @param gameState 游戏状态
+     */
+    public void attach(GameState gameState) {
+        rooms.computeIfAbsent(gameState.getGameId(), id -> {
+            RoomViews room = new RoomViews(gameState);
+            gameState.addEventListener(room);
+            return room;
+        });
+    }
+
+    /**
+     * 获取玩家视图
+     *
+     * @param gameId 游戏ID
+     * @param playerId 玩家ID
+     * @return 玩家视图，房间未注册时返回null
+     */
+    public PlayerView getView(Long gameId, Long playerId) {
+        RoomViews room = rooms.get(gameId);
+        return room == null ? null : room.views.get(playerId);
+    }
+
+    /**
+     * 游戏结束后停止监听并释放视图
+     *
+     * @param gameState 游戏状态
+     */
+    public void release(GameState gameState) {
+        RoomViews room = rooms.remove(gameState.getGameId());
+        if (room != null) {
+            gameState.removeEventListener(room);
+        }
+    }
+
+    /**
+     * 单个房间的全部视图
+     */
+    private static class RoomViews implements GameEventListener {
+
+        private final Map<Long, PlayerView> views = new LinkedHashMap<>();
+
+        RoomViews(GameState gameState) {
+            for (Player player : gameState.getPlayers()) {
+                views.put(player.getId(), new PlayerView(player, gameState));
+            }
+            for (GameEvent event : gameState.getEvents()) {
+                onEvent(gameState, event);
+            }
+        }
+
+        @Override
+        public void onEvent(GameState gameState, GameEvent event) {
+            for (PlayerView view : views.values()) {
+                view.offer(event);
+            }
+        }
+    }
+}
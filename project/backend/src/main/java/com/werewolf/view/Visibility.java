@@ -0,0 +1,51 @@
+package com.werewolf.view;
+
+import com.werewolf.domain.model.GameEvent;
+
+/**
+ * 事件可见范围
+ *
+ * @author Claude & User
+ */
+public enum Visibility {
+    /**
+     * 所有玩家可见
+     */
+    PUBLIC,
+
+    /**
+     * 狼队共享（狼人击杀、狼队讨论）
+     */
+    WEREWOLF_TEAM,
+
+    /**
+     * 仅事件当事人可见
+     */
+    PRIVATE,
+
+    /**
+     * 运行记录（模型降级等），不对任何玩家展示
+     */
+    SYSTEM;
+
+    /**
+     * 判断事件的可见范围
+     *
+     * @param event 游戏事件
+     * @return 可见范围
+     */
+    public static Visibility of(GameEvent event) {
+        if (event.getType() == GameEvent.EventType.MODEL_DEGRADED
+                || event.getType() == GameEvent.EventType.MODEL_RESTORED) {
+            return SYSTEM;
+        }
+        if (event.isPublic()) {
+            return PUBLIC;
+        }
+        if (event.getType() == GameEvent.EventType.WEREWOLF_KILL
+                || event.getType() == GameEvent.EventType.WEREWOLF_DISCUSSION) {
+            return WEREWOLF_TEAM;
+        }
+        return PRIVATE;
+    }
+}
@@ -0,0 +1,213 @@
+package com.werewolf.web.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.werewolf.agent.DecisionType;
+import com.werewolf.agent.SubmissionResult;
+import com.werewolf.domain.model.GameEvent;
+import com.werewolf.domain.model.GameState;
+import com.werewolf.domain.model.Phase;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static com.werewolf.web.websocket.BinaryFrameEncoder.*;
+
+/**
+ * 二进制帧解码（Java 客户端和测试使用）
+ * 解码结果与同一帧的 JSON 格式字段一致
+ *
+ * @author Claude & User
+ */
+public class BinaryFrameDecoder {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * 解码一帧
+     *
+     * @param frame 帧内容
+     * @return 与 JSON 帧字段一致的对象
+     */
+    public ObjectNode decode(ByteBuffer frame) {
+        ByteBuffer in = frame.duplicate();
+        try {
+            byte type = in.get();
+            return switch (type) {
+                case TYPE_EVENT -> decodeEvent(in);
+                case TYPE_DELTA -> decodeDelta(in);
+                case TYPE_SNAPSHOT -> decodeSnapshot(in);
+                case TYPE_SPEECH_PARTIAL -> objectMapper.createObjectNode()
+                        .put("type", "speech_partial")
+                        .put("playerId", readVarint(in))
+                        .put("text", readString(in));
+                case TYPE_PROMPT -> decodePrompt(in);
+                case TYPE_ACTION_RESULT -> objectMapper.createObjectNode()
+                        .put("type", "action_result")
+                        .put("key", readString(in))
+                        .put("version", readVarint(in))
+                        .put("result", SubmissionResult.values()[in.get()].name());
+                default -> throw new IllegalArgumentException("未知的帧类型: " + type);
+            };
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("帧不完整", e);
+        }
+    }
+
+    private ObjectNode decodeEvent(ByteBuffer in) {
+        ObjectNode frame = objectMapper.createObjectNode()
+                .put("type", "event")
+                .put("seq", readInt(in))
+                .put("eventType", GameEvent.EventType.values()[in.get()].name())
+                .put("round", readInt(in));
+        int flags = in.get();
+        if ((flags & EVENT_PHASE) != 0) {
+            frame.put("phase", Phase.values()[in.get()].name());
+        }
+        if ((flags & EVENT_PLAYER) != 0) {
+            frame.put("playerId", readVarint(in));
+        }
+        if ((flags & EVENT_TARGET) != 0) {
+            frame.put("targetPlayerId", readVarint(in));
+        }
+        if ((flags & EVENT_DESCRIPTION) != 0) {
+            frame.put("description", readString(in));
+        }
+        if ((flags & EVENT_DATA) != 0) {
+            try {
+                frame.set("data", objectMapper.readTree(readString(in)));
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("事件数据不是合法的JSON", e);
+            }
+        }
+        if ((flags & EVENT_TIMESTAMP) != 0) {
+            Instant timestamp = Instant.ofEpochMilli(readVarint(in));
+            frame.put("timestamp", LocalDateTime.ofInstant(timestamp, ZoneOffset.UTC).toString());
+        }
+        return frame;
+    }
+
+    private ObjectNode decodeDelta(ByteBuffer in) {
+        ObjectNode frame = objectMapper.createObjectNode()
+                .put("type", "delta")
+                .put("base", readVarint(in))
+                .put("version", readVarint(in))
+                .put("seq", readInt(in));
+        int flags = in.get();
+        if ((flags & STATE_PHASE) != 0) {
+            frame.put("phase", Phase.values()[in.get()].name());
+        }
+        if ((flags & STATE_ROUND) != 0) {
+            frame.put("round", readInt(in));
+        }
+        if ((flags & STATE_STATUS) != 0) {
+            frame.put("status", GameState.GameStatus.values()[in.get()].name());
+        }
+        if ((flags & STATE_WINNING_CAMP) != 0) {
+            frame.put("winningCamp", readString(in));
+        }
+        long count = readVarint(in);
+        if (count > 0) {
+            ArrayNode seats = frame.putArray("seats");
+            for (long i = 0; i < count; i++) {
+                ObjectNode seat = seats.addObject().put("id", readVarint(in));
+                int mask = in.get();
+                putFlag(seat, "alive", mask);
+                putFlag(seat, "spoken", mask >> 2);
+                putFlag(seat, "voted", mask >> 4);
+            }
+        }
+        return frame;
+    }
+
+    private ObjectNode decodeSnapshot(ByteBuffer in) {
+        ObjectNode frame = objectMapper.createObjectNode()
+                .put("type", "snapshot")
+                .put("gameId", readVarint(in))
+                .put("version", readVarint(in))
+                .put("eventSeq", readInt(in))
+                .put("round", readInt(in));
+        int flags = in.get();
+        if ((flags & STATE_PHASE) != 0) {
+            frame.put("phase", Phase.values()[in.get()].name());
+        }
+        if ((flags & STATE_STATUS) != 0) {
+            frame.put("status", GameState.GameStatus.values()[in.get()].name());
+        }
+        if ((flags & STATE_WINNING_CAMP) != 0) {
+            frame.put("winningCamp", readString(in));
+        }
+        ArrayNode seats = frame.putArray("seats");
+        long count = readVarint(in);
+        for (long i = 0; i < count; i++) {
+            ObjectNode seat = seats.addObject()
+                    .put("id", readVarint(in))
+                    .put("seat", Byte.toUnsignedInt(in.get()))
+                    .put("name", readString(in));
+            int seatFlags = in.get();
+            seat.put("alive", (seatFlags & SEAT_ALIVE) != 0)
+                    .put("spoken", (seatFlags & SEAT_SPOKEN) != 0)
+                    .put("voted", (seatFlags & SEAT_VOTED) != 0);
+        }
+        return frame;
+    }
+
+    private ObjectNode decodePrompt(ByteBuffer in) {
+        ObjectNode frame = objectMapper.createObjectNode()
+                .put("type", "prompt")
+                .put("playerId", readVarint(in))
+                .put("version", readVarint(in))
+                .put("decision", DecisionType.values()[in.get()].name());
+        ArrayNode targets = frame.putArray("targets");
+        long count = readVarint(in);
+        for (long i = 0; i < count; i++) {
+            targets.add(readVarint(in));
+        }
+        int flags = in.get();
+        if ((flags & PROMPT_KILLED) != 0) {
+            frame.put("killed", readVarint(in));
+        }
+        return frame.put("antidote", (flags & PROMPT_ANTIDOTE) != 0)
+                .put("poison", (flags & PROMPT_POISON) != 0)
+                .put("abstain", (flags & PROMPT_ABSTAIN) != 0)
+                .put("timeout", readVarint(in));
+    }
+
+    private static void putFlag(ObjectNode seat, String name, int bits) {
+        if ((bits & 1) != 0) {
+            seat.put(name, (bits & 2) != 0);
+        }
+    }
+
+    static long readVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("varint 过长");
+    }
+
+    private static int readInt(ByteBuffer in) {
+        return Math.toIntExact(readVarint(in));
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = readInt(in);
+        if (length > in.remaining()) {
+            throw new IllegalArgumentException("帧不完整");
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,277 @@
+package com.werewolf.web.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.werewolf.agent.DecisionPrompt;
+import com.werewolf.agent.SubmissionResult;
+import com.werewolf.domain.model.GameEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 紧凑二进制帧编码
+ * 整数使用无符号变长编码（varint，每字节7位，高位表示后续还有字节），字符串为 varint 长度 + UTF-8，
+ * 枚举写为单字节序号（新增枚举值只能追加在末尾），可选字段由标志字节标记是否存在。
+ * 帧格式（首字节为帧类型）：
+ * <pre>
+ * 事件   1 | seq | eventType | round | flags | [phase] [playerId] [targetPlayerId] [description] [data(JSON)] [timestamp(UTC毫秒)]
+ * 差量   2 | base | version | seq | flags | [phase] [round] [status] [winningCamp] | n | n × (playerId | mask)
+ * 快照   3 | gameId | version | eventSeq | round | flags | [phase] [status] [winningCamp] | n | n × (playerId | seat | name | flags)
+ * 片段   4 | playerId | text
+ * 提示   5 | playerId | version | decision | n | n × target | flags | [killed] | timeout
+ * 结果   6 | key | version | result
+ * </pre>
+ * 差量中座位 mask 每两位表示一个标记（存在, 值），依次为 alive、spoken、voted。
+ * 提示的 flags 依次为 killed 是否存在、antidote、poison、abstain。
+ * 事件的 data 是任意结构，仍以紧凑 JSON 字符串携带
+ *
+ * @author Claude & User
+ */
+public class BinaryFrameEncoder implements FrameEncoder {
+
+    static final byte TYPE_EVENT = 1;
+    static final byte TYPE_DELTA = 2;
+    static final byte TYPE_SNAPSHOT = 3;
+    static final byte TYPE_SPEECH_PARTIAL = 4;
+    static final byte TYPE_PROMPT = 5;
+    static final byte TYPE_ACTION_RESULT = 6;
+
+    static final int EVENT_PHASE = 1;
+    static final int EVENT_PLAYER = 1 << 1;
+    static final int EVENT_TARGET = 1 << 2;
+    static final int EVENT_DESCRIPTION = 1 << 3;
+    static final int EVENT_DATA = 1 << 4;
+    static final int EVENT_TIMESTAMP = 1 << 5;
+
+    static final int STATE_PHASE = 1;
+    static final int STATE_ROUND = 1 << 1;
+    static final int STATE_STATUS = 1 << 2;
+    static final int STATE_WINNING_CAMP = 1 << 3;
+
+    static final int SEAT_ALIVE = 1;
+    static final int SEAT_SPOKEN = 1 << 1;
+    static final int SEAT_VOTED = 1 << 2;
+
+    static final int PROMPT_KILLED = 1;
+    static final int PROMPT_ANTIDOTE = 1 << 1;
+    static final int PROMPT_POISON = 1 << 2;
+    static final int PROMPT_ABSTAIN = 1 << 3;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong encoded = new AtomicLong();
+
+    @Override
+    public byte[] encode(GameEvent event, int seq) {
+        int flags = (event.getPhase() != null ? EVENT_PHASE : 0)
+                | (event.getPlayerId() != null ? EVENT_PLAYER : 0)
+                | (event.getTargetPlayerId() != null ? EVENT_TARGET : 0)
+                | (event.getDescription() != null ? EVENT_DESCRIPTION : 0)
+                | (event.getData() != null ? EVENT_DATA : 0)
+                | (event.getTimestamp() != null ? EVENT_TIMESTAMP : 0);
+        Writer out = new Writer(64)
+                .writeByte(TYPE_EVENT)
+                .writeVarint(seq)
+                .writeByte(event.getType().ordinal())
+                .writeVarint(event.getRound())
+                .writeByte(flags);
+        if (event.getPhase() != null) {
+            out.writeByte(event.getPhase().ordinal());
+        }
+        if (event.getPlayerId() != null) {
+            out.writeVarint(event.getPlayerId());
+        }
+        if (event.getTargetPlayerId() != null) {
+            out.writeVarint(event.getTargetPlayerId());
+        }
+        if (event.getDescription() != null) {
+            out.writeString(event.getDescription());
+        }
+        if (event.getData() != null) {
+            try {
+                out.writeString(objectMapper.writeValueAsString(event.getData()));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("帧编码失败", e);
+            }
+        }
+        if (event.getTimestamp() != null) {
+            out.writeVarint(event.getTimestamp().toInstant(ZoneOffset.UTC).toEpochMilli());
+        }
+        return finish(out);
+    }
+
+    @Override
+    public byte[] encodeDelta(StateTracker.Delta delta) {
+        int flags = (delta.phase() != null ? STATE_PHASE : 0)
+                | (delta.round() != null ? STATE_ROUND : 0)
+                | (delta.status() != null ? STATE_STATUS : 0)
+                | (delta.winningCamp() != null ? STATE_WINNING_CAMP : 0);
+        Writer out = new Writer(16 + delta.seats().size() * 2)
+                .writeByte(TYPE_DELTA)
+                .writeVarint(delta.baseVersion())
+                .writeVarint(delta.version())
+                .writeVarint(delta.seq())
+                .writeByte(flags);
+        if (delta.phase() != null) {
+            out.writeByte(delta.phase().ordinal());
+        }
+        if (delta.round() != null) {
+            out.writeVarint(delta.round());
+        }
+        if (delta.status() != null) {
+            out.writeByte(delta.status().ordinal());
+        }
+        if (delta.winningCamp() != null) {
+            out.writeString(delta.winningCamp());
+        }
+        out.writeVarint(delta.seats().size());
+        for (StateTracker.SeatChange change : delta.seats()) {
+            out.writeVarint(change.playerId())
+                    .writeByte(mask(change.alive(), 0) | mask(change.spoken(), 2) | mask(change.voted(), 4));
+        }
+        return finish(out);
+    }
+
+    @Override
+    public byte[] encodeSnapshot(Long gameId, StateTracker.Snapshot snapshot) {
+        int flags = (snapshot.phase() != null ? STATE_PHASE : 0)
+                | (snapshot.status() != null ? STATE_STATUS : 0)
+                | (snapshot.winningCamp() != null ? STATE_WINNING_CAMP : 0);
+        Writer out = new Writer(32 + snapshot.seats().size() * 16)
+                .writeByte(TYPE_SNAPSHOT)
+                .writeVarint(gameId)
+                .writeVarint(snapshot.version())
+                .writeVarint(snapshot.eventSeq())
+                .writeVarint(snapshot.round())
+                .writeByte(flags);
+        if (snapshot.phase() != null) {
+            out.writeByte(snapshot.phase().ordinal());
+        }
+        if (snapshot.status() != null) {
+            out.writeByte(snapshot.status().ordinal());
+        }
+        if (snapshot.winningCamp() != null) {
+            out.writeString(snapshot.winningCamp());
+        }
+        out.writeVarint(snapshot.seats().size());
+        for (StateTracker.Seat seat : snapshot.seats()) {
+            out.writeVarint(seat.playerId())
+                    .writeByte(seat.seatNumber())
+                    .writeString(seat.name() == null ? "" : seat.name())
+                    .writeByte((seat.alive() ? SEAT_ALIVE : 0)
+                            | (seat.spoken() ? SEAT_SPOKEN : 0)
+                            | (seat.voted() ? SEAT_VOTED : 0));
+        }
+        return finish(out);
+    }
+
+    @Override
+    public byte[] encodePartialSpeech(Long playerId, String text) {
+        return finish(new Writer(8 + text.length() * 3)
+                .writeByte(TYPE_SPEECH_PARTIAL)
+                .writeVarint(playerId)
+                .writeString(text));
+    }
+
+    @Override
+    public byte[] encodePrompt(DecisionPrompt prompt) {
+        Writer out = new Writer(16 + prompt.legalTargets().size() * 2)
+                .writeByte(TYPE_PROMPT)
+                .writeVarint(prompt.playerId())
+                .writeVarint(prompt.version())
+                .writeByte(prompt.type().ordinal())
+                .writeVarint(prompt.legalTargets().size());
+        for (Long target : prompt.legalTargets()) {
+            out.writeVarint(target);
+        }
+        out.writeByte((prompt.killedPlayerId() != null ? PROMPT_KILLED : 0)
+                | (prompt.antidoteAllowed() ? PROMPT_ANTIDOTE : 0)
+                | (prompt.poisonAllowed() ? PROMPT_POISON : 0)
+                | (prompt.abstainAllowed() ? PROMPT_ABSTAIN : 0));
+        if (prompt.killedPlayerId() != null) {
+            out.writeVarint(prompt.killedPlayerId());
+        }
+        return finish(out.writeVarint(prompt.timeout()));
+    }
+
+    @Override
+    public byte[] encodeActionResult(String idempotencyKey, long version, SubmissionResult result) {
+        return finish(new Writer(16 + idempotencyKey.length() * 3)
+                .writeByte(TYPE_ACTION_RESULT)
+                .writeString(idempotencyKey)
+                .writeVarint(version)
+                .writeByte(result.ordinal()));
+    }
+
+    @Override
+    public WireFormat format() {
+        return WireFormat.BINARY;
+    }
+
+    @Override
+    public long getEncodedCount() {
+        return encoded.get();
+    }
+
+    private static int mask(Boolean flag, int shift) {
+        if (flag == null) {
+            return 0;
+        }
+        return (1 | (flag ? 2 : 0)) << shift;
+    }
+
+    private byte[] finish(Writer out) {
+        encoded.incrementAndGet();
+        return out.toByteArray();
+    }
+
+    /**
+     * 可增长的字节写入器
+     */
+    private static final class Writer {
+
+        private byte[] buffer;
+        private int size;
+
+        Writer(int initialCapacity) {
+            this.buffer = new byte[initialCapacity];
+        }
+
+        Writer writeByte(int value) {
+            ensure(1);
+            buffer[size++] = (byte) value;
+            return this;
+        }
+
+        Writer writeVarint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+            return this;
+        }
+
+        Writer writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+            return this;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+    }
+}
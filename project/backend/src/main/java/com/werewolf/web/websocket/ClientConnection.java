@@ -0,0 +1,43 @@
+package com.werewolf.web.websocket;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * 客户端连接
+ * 由 {@link SessionOutbox} 单线程写入，实现不需要处理并发发送
+ *
+ * @author Claude & User
+ */
+public interface ClientConnection {
+
+    /**
+     * 连接ID
+     *
+     * @return ID
+     */
+    String getId();
+
+    /**
+     * 发送一帧（可能阻塞直到写出）
+     * 内容为共享帧的只读视图，实现不能修改或保留到发送结束之后
+     *
+     * @param payload 帧内容
+     * @throws IOException 连接已断开等
+     */
+    void send(ByteBuffer payload) throws IOException;
+
+    /**
+     * 关闭连接
+     *
+     * @param reason 原因
+     */
+    void close(String reason);
+
+    /**
+     * 连接是否仍然打开
+     *
+     * @return true表示打开
+     */
+    boolean isOpen();
+}
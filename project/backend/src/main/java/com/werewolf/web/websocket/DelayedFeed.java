@@ -0,0 +1,125 @@
+package com.werewolf.web.websocket;
+
+import java.util.function.Consumer;
+
+/**
+ * 延迟放出的环形缓冲
+ * 写入的条目延迟 lag 毫秒后按写入顺序放出；已放出的条目继续保留，直到被新条目覆盖，供重连补发。
+ * 新条目优先覆盖最早的已放出条目，内存与对局长度无关；延迟期间未放出的条目占满缓冲时扩容，
+ * 任何条目都不会提前放出，容量最终取决于延迟内的事件数
+ *
+ * @author Claude & User
+ */
+class DelayedFeed<T> {
+
+    private Object[] items;
+    private long[] times;
+    private final long lag;
+
+    // 最早仍保留的条目位置、累计写入数和累计放出数，下标对容量取模
+    private long first;
+    private long appended;
+    private long released;
+
+    DelayedFeed(int capacity, long lag) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("延迟缓冲容量必须大于0");
+        }
+        this.items = new Object[capacity];
+        this.times = new long[capacity];
+        this.lag = Math.max(0, lag);
+    }
+
+    /**
+     * 写入条目
+     *
+     * @param time 写入时间（毫秒）
+     * @param item 条目
+     */
+    void append(long time, T item) {
+        if (appended - released == items.length) {
+            grow();
+        } else if (appended - first == items.length) {
+            // 覆盖最早的已放出条目
+            first++;
+        }
+        int index = (int) (appended % items.length);
+        items[index] = item;
+        times[index] = time;
+        appended++;
+    }
+
+    /**
+     * 容量翻倍，保留的条目按新容量重新取模放置
+     */
+    private void grow() {
+        int capacity = items.length * 2;
+        if (capacity <= 0) {
+            throw new IllegalStateException("延迟缓冲已达容量上限");
+        }
+        Object[] grownItems = new Object[capacity];
+        long[] grownTimes = new long[capacity];
+        for (long i = first; i < appended; i++) {
+            grownItems[(int) (i % capacity)] = items[(int) (i % items.length)];
+            grownTimes[(int) (i % capacity)] = times[(int) (i % items.length)];
+        }
+        items = grownItems;
+        times = grownTimes;
+    }
+
+    int capacity() {
+        return items.length;
+    }
+
+    /**
+     * 按顺序放出到期的条目
+     *
+     * @param now 当前时间（毫秒）
+     * @param action 放出处理
+     */
+    void releaseDue(long now, Consumer<T> action) {
+        while (released < appended && times[(int) (released % items.length)] + lag <= now) {
+            T item = itemAt(released);
+            released++;
+            action.accept(item);
+        }
+    }
+
+    /**
+     * 下一个条目的到期时间
+     *
+     * @return 毫秒，没有待放出的条目时返回 -1
+     */
+    long nextDue() {
+        return released < appended ? times[(int) (released % items.length)] + lag : -1;
+    }
+
+    /**
+     * 依次处理仍保留的已放出条目
+     *
+     * @param action 处理
+     */
+    void forEachReleased(Consumer<T> action) {
+        for (long i = first; i < released; i++) {
+            action.accept(itemAt(i));
+        }
+    }
+
+    /**
+     * 最早仍保留的已放出条目
+     *
+     * @return 条目，没有时返回null
+     */
+    T firstReleased() {
+        return first < released ? itemAt(first) : null;
+    }
+
+    long getReleasedCount() {
+        return released;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T itemAt(long position) {
+        return (T) items[(int) (position % items.length)];
+    }
+}
@@ -0,0 +1,81 @@
+package com.werewolf.web.websocket;
+
+import com.werewolf.agent.DecisionPrompt;
+import com.werewolf.agent.SubmissionResult;
+import com.werewolf.domain.model.GameEvent;
+
+/**
+ * 帧编码
+ * 每种线上格式一个实现，同一帧在同格式的连接之间共享
+ *
+ * @author Claude & User
+ */
+public interface FrameEncoder {
+
+    /**
+     * 编码游戏事件
+     *
+     * @param event 游戏事件
+     * @param seq 事件在房间内的序号（从1开始，不可见的事件也占序号）
+     * @return 帧内容
+     */
+    byte[] encode(GameEvent event, int seq);
+
+    /**
+     * 编码状态差量，只包含变化的字段
+     *
+     * @param delta 差量
+     * @return 帧内容
+     */
+    byte[] encodeDelta(StateTracker.Delta delta);
+
+    /**
+     * 编码完整快照
+     *
+     * @param gameId 游戏ID
+     * @param snapshot 快照
+     * @return 帧内容
+     */
+    byte[] encodeSnapshot(Long gameId, StateTracker.Snapshot snapshot);
+
+    /**
+     * 编码发言片段
+     *
+     * @param playerId 发言玩家ID
+     * @param text 截至目前的发言文本
+     * @return 帧内容
+     */
+    byte[] encodePartialSpeech(Long playerId, String text);
+
+    /**
+     * 编码决策提示（只发给做决策的玩家）
+     *
+     * @param prompt 决策提示
+     * @return 帧内容
+     */
+    byte[] encodePrompt(DecisionPrompt prompt);
+
+    /**
+     * 编码行动提交结果
+     *
+     * @param idempotencyKey 行动的幂等键
+     * @param version 行动所基于的决策版本
+     * @param result 提交结果
+     * @return 帧内容
+     */
+    byte[] encodeActionResult(String idempotencyKey, long version, SubmissionResult result);
+
+    /**
+     * 编码格式
+     *
+     * @return 格式
+     */
+    WireFormat format();
+
+    /**
+     * 已编码的帧数
+     *
+     * @return 帧数
+     */
+    long getEncodedCount();
+}
@@ -0,0 +1,630 @@
+package com.werewolf.web.websocket;
+
+import com.werewolf.agent.DecisionPrompt;
+import com.werewolf.agent.SubmissionResult;
+import com.werewolf.domain.model.GameEvent;
+import com.werewolf.domain.model.GameEventListener;
+import com.werewolf.domain.model.GameSnapshot;
+import com.werewolf.domain.model.GameState;
+import com.werewolf.domain.role.RoleType;
+import com.werewolf.view.Visibility;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 游戏事件网关
+ * 每个房间挂一个事件监听器，事件写入时按可见性分发到该房间玩家和观战者的连接。
+ * 分发只把帧放入各连接的 {@link SessionOutbox}，发送在执行器上异步进行，引擎线程不会被慢速客户端阻塞。
+ * 每个事件只属于一种可见范围（公开、狼队、个人），只在有接收者时编码一次，同一帧共享给该范围内的全部连接。
+ * 连接加入时先收到房间状态的完整快照，之后状态变化只以差量推送（见 {@link StateTracker}）。
+ * 每个连接各自协商线上格式（{@link WireFormat}），同一内容每种格式最多编码一次。
+ * 房间保留最近的事件和差量帧（websocket.resume-window），断线重连时带上最后收到的序号即可只补发缺失的帧。
+ * 差量与其后的事件共用一个序号，只收到差量就断线的客户端会带上该序号重连，因此有差量的条目会重发该序号的事件，
+ * 客户端丢弃已收到过的序号的事件帧。
+ * 观战者读取房间的延迟缓冲（websocket.spectator），比玩家晚 delay 毫秒看到同样的帧；
+ * 狼队和个人事件对观战者隐藏，只记下序号，终局帧放出后再补发（开启上帝视角时直接可见）。
+ * 连接线程只读取游戏状态的已发布快照（{@link GameState#getSnapshot()}），不读取引擎正在修改的状态。
+ * 真人座位的决策提示只发给该玩家的连接，不占事件序号，重连后由连接层重新推送
+ *
+ * @author Claude & User
+ */
+@Slf4j
+public class GameGateway {
+
+    private final WebSocketProperties properties;
+    private final Executor sendExecutor;
+    private final ScheduledExecutorService scheduler;
+    private final Map<WireFormat, FrameEncoder> encoders = new EnumMap<>(WireFormat.class);
+    private final Map<Long, Room> rooms = new ConcurrentHashMap<>();
+
+    // 连接ID -> 所在房间
+    private final Map<String, Room> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * @param properties 配置
+     * @param sendExecutor 发送执行器
+     * @param scheduler 观战延迟的定时器
+     */
+    public GameGateway(WebSocketProperties properties, Executor sendExecutor, ScheduledExecutorService scheduler) {
+        this(properties, sendExecutor, scheduler, new JsonFrameEncoder(), new BinaryFrameEncoder());
+    }
+
+    GameGateway(WebSocketProperties properties, Executor sendExecutor, ScheduledExecutorService scheduler,
+                FrameEncoder... encoders) {
+        if (properties.getSpectator().getBufferSize() <= 0) {
+            throw new IllegalArgumentException("观战延迟缓冲容量必须大于0");
+        }
+        this.properties = properties;
+        this.sendExecutor = sendExecutor;
+        this.scheduler = scheduler;
+        for (FrameEncoder encoder : encoders) {
+            this.encoders.put(encoder.format(), encoder);
+        }
+    }
+
+    /**
+     * 开始推送房间的事件，需要在角色分配之后、对局开始之前调用
+     * 先发布一份快照，连接线程之后只读取已发布的快照
+     *
+     * @param gameState 游戏状态
+     */
+    public void attach(GameState gameState) {
+        rooms.computeIfAbsent(gameState.getGameId(), id -> {
+            gameState.publishSnapshot();
+            Room room = new Room(gameState);
+            gameState.addEventListener(room);
+            return room;
+        });
+    }
+
+    /**
+     * 停止推送房间的事件，已入队的帧继续发送
+     *
+     * @param gameState 游戏状态
+     */
+    public void release(GameState gameState) {
+        Room room = rooms.remove(gameState.getGameId());
+        if (room != null) {
+            gameState.removeEventListener(room);
+            room.subscribers.keySet().forEach(sessions::remove);
+        }
+    }
+
+    /**
+     * 对局结束后释放房间：观战延迟缓冲中的帧全部放出后再停止推送
+     *
+     * @param gameState 游戏状态
+     */
+    public void releaseWhenDrained(GameState gameState) {
+        Room room = rooms.get(gameState.getGameId());
+        if (room != null) {
+            room.releaseWhenDrained();
+        }
+    }
+
+    /**
+     * 玩家加入房间，之后接收自己可见的事件
+     *
+     * @param gameId 游戏ID
+     * @param playerId 玩家ID
+     * @param connection 连接
+     */
+    public void join(Long gameId, Long playerId, ClientConnection connection) {
+        join(gameId, playerId, connection, WireFormat.JSON, null);
+    }
+
+    /**
+     * 玩家以指定格式加入或重连房间
+     *
+     * @param gameId 游戏ID
+     * @param playerId 玩家ID
+     * @param connection 连接
+     * @param format 线上格式
+     * @param lastSeq 重连时最后收到的帧序号，首次加入为null
+     */
+    public void join(Long gameId, Long playerId, ClientConnection connection, WireFormat format, Integer lastSeq) {
+        Room room = room(gameId);
+        GameSnapshot.PlayerSnapshot player = room.gameState.getSnapshot().player(playerId);
+        if (player == null) {
+            throw new IllegalArgumentException("玩家 " + playerId + " 不在游戏 " + gameId + " 中");
+        }
+        subscribe(room, connection, player, format, lastSeq);
+    }
+
+    /**
+     * 观战者加入房间，之后按观战延迟接收公开事件
+     *
+     * @param gameId 游戏ID
+     * @param connection 连接
+     */
+    public void spectate(Long gameId, ClientConnection connection) {
+        spectate(gameId, connection, WireFormat.JSON, null);
+    }
+
+    /**
+     * 观战者以指定格式加入或重连房间
+     *
+     * @param gameId 游戏ID
+     * @param connection 连接
+     * @param format 线上格式
+     * @param lastSeq 重连时最后收到的帧序号，首次加入为null
+     */
+    public void spectate(Long gameId, ClientConnection connection, WireFormat format, Integer lastSeq) {
+        subscribe(room(gameId), connection, null, format, lastSeq);
+    }
+
+    /**
+     * 连接断开时移除
+     *
+     * @param connectionId 连接ID
+     */
+    public void leave(String connectionId) {
+        Room room = sessions.remove(connectionId);
+        if (room != null) {
+            Subscriber subscriber = room.subscribers.remove(connectionId);
+            if (subscriber != null) {
+                subscriber.outbox.close();
+            }
+        }
+    }
+
+    /**
+     * 重新发送完整快照，客户端发现差量的基准版本与本地不一致时请求
+     *
+     * @param connectionId 连接ID
+     */
+    public void resync(String connectionId) {
+        Room room = sessions.get(connectionId);
+        if (room == null) {
+            return;
+        }
+        synchronized (room) {
+            Subscriber subscriber = room.subscribers.get(connectionId);
+            if (subscriber != null) {
+                deliver(subscriber, room.snapshotFrame(subscriber));
+            }
+        }
+    }
+
+    /**
+     * 推送发言片段（模型流式输出时使用）
+     * 片段包含截至目前的完整文本，客户端过慢时可以合并或丢弃，完整发言随发言事件送达。
+     * 有观战延迟时片段不发给观战者，观战者只在延迟后收到完整发言
+     *
+     * @param gameId 游戏ID
+     * @param playerId 发言玩家ID
+     * @param text 截至目前的发言文本
+     */
+    public void publishPartialSpeech(Long gameId, Long playerId, String text) {
+        Room room = rooms.get(gameId);
+        if (room == null) {
+            return;
+        }
+        LazyFrame partial = new LazyFrame(encoder -> encoder.encodePartialSpeech(playerId, text),
+                "speech:" + playerId);
+        boolean delayed = properties.getSpectator().getDelay() > 0;
+        for (Subscriber subscriber : room.subscribers.values()) {
+            if (!delayed || subscriber.player() != null) {
+                deliver(subscriber, partial.get(subscriber.format()));
+            }
+        }
+    }
+
+    /**
+     * 推送决策提示，只发给该玩家的连接
+     *
+     * @param gameId 游戏ID
+     * @param prompt 决策提示
+     */
+    public void publishPrompt(Long gameId, DecisionPrompt prompt) {
+        Room room = rooms.get(gameId);
+        if (room == null) {
+            return;
+        }
+        LazyFrame frame = new LazyFrame(encoder -> encoder.encodePrompt(prompt), null);
+        for (Subscriber subscriber : room.subscribers.values()) {
+            if (subscriber.player() != null && subscriber.player().id().equals(prompt.playerId())) {
+                deliver(subscriber, frame.get(subscriber.format()));
+            }
+        }
+    }
+
+    /**
+     * 回复行动提交结果
+     *
+     * @param connectionId 提交行动的连接ID
+     * @param idempotencyKey 行动的幂等键
+     * @param version 行动所基于的决策版本
+     * @param result 提交结果
+     */
+    public void acknowledge(String connectionId, String idempotencyKey, long version, SubmissionResult result) {
+        Room room = sessions.get(connectionId);
+        Subscriber subscriber = room == null ? null : room.subscribers.get(connectionId);
+        if (subscriber != null) {
+            deliver(subscriber, OutboundFrame.essential(
+                    encoders.get(subscriber.format()).encodeActionResult(idempotencyKey, version, result)));
+        }
+    }
+
+    /**
+     * 玩家连接所在的座位
+     *
+     * @param connectionId 连接ID
+     * @return 座位，观战连接或未知连接返回null
+     */
+    public Seat seatOf(String connectionId) {
+        Room room = sessions.get(connectionId);
+        Subscriber subscriber = room == null ? null : room.subscribers.get(connectionId);
+        if (subscriber == null || subscriber.player() == null) {
+            return null;
+        }
+        return new Seat(room.gameState.getGameId(), subscriber.player().id());
+    }
+
+    /**
+     * 玩家是否还有连接在房间中
+     *
+     * @param gameId 游戏ID
+     * @param playerId 玩家ID
+     * @return true表示至少有一个连接
+     */
+    public boolean isConnected(Long gameId, Long playerId) {
+        Room room = rooms.get(gameId);
+        return room != null && room.subscribers.values().stream()
+                .anyMatch(subscriber -> subscriber.player() != null && subscriber.player().id().equals(playerId));
+    }
+
+    /**
+     * 房间当前的连接数
+     *
+     * @param gameId 游戏ID
+     * @return 连接数
+     */
+    public int subscriberCount(Long gameId) {
+        Room room = rooms.get(gameId);
+        return room == null ? 0 : room.subscribers.size();
+    }
+
+    private Room room(Long gameId) {
+        Room room = rooms.get(gameId);
+        if (room == null) {
+            throw new IllegalArgumentException("游戏 " + gameId + " 不存在或已结束");
+        }
+        return room;
+    }
+
+    private void subscribe(Room room, ClientConnection connection, GameSnapshot.PlayerSnapshot player,
+                           WireFormat format, Integer lastSeq) {
+        if (!encoders.containsKey(format)) {
+            throw new IllegalArgumentException("不支持的格式: " + format);
+        }
+        SessionOutbox outbox = new SessionOutbox(connection, properties.getQueueCapacity(),
+                properties.getSlowConsumerPolicy(), properties.getSendTimeLimit(), sendExecutor);
+        Subscriber subscriber = new Subscriber(outbox, player, format);
+        // 快照或补发和加入在房间锁内完成，之后的帧与已发送的帧正好首尾相接
+        synchronized (room) {
+            room.subscribers.put(connection.getId(), subscriber);
+            sessions.put(connection.getId(), room);
+            if (player == null) {
+                room.subscribeSpectator(subscriber, lastSeq);
+            } else if (lastSeq != null && room.canResume(lastSeq)) {
+                room.replay(subscriber, lastSeq);
+            } else {
+                deliver(subscriber, room.snapshotFrame(subscriber));
+                if (lastSeq != null) {
+                    room.replayEvents(subscriber);
+                }
+            }
+        }
+        log.debug("连接 {} {}游戏 {}（{}）", connection.getId(), lastSeq == null ? "加入" : "重连",
+                room.gameState.getGameId(), player == null ? "观战" : player.seatNumber() + "号");
+    }
+
+    private void deliver(Subscriber subscriber, OutboundFrame frame) {
+        if (!subscriber.outbox.offer(frame)) {
+            leave(subscriber.outbox.getConnection().getId());
+        }
+    }
+
+    /**
+     * 玩家连接对应的座位
+     *
+     * @param gameId 游戏ID
+     * @param playerId 玩家ID
+     */
+    public record Seat(Long gameId, Long playerId) {
+    }
+
+    /**
+     * 房间内的连接：玩家连接带玩家信息，观战连接为 null
+     */
+    private record Subscriber(SessionOutbox outbox, GameSnapshot.PlayerSnapshot player, WireFormat format) {
+    }
+
+    private boolean isVisible(Subscriber subscriber, Entry entry) {
+        if (entry.visibility() == Visibility.SYSTEM) {
+            return false;
+        }
+        if (subscriber.player() == null) {
+            return entry.visibility() == Visibility.PUBLIC || properties.getSpectator().isGodView();
+        }
+        return switch (entry.visibility()) {
+            case WEREWOLF_TEAM -> subscriber.player().role() == RoleType.WEREWOLF;
+            case PRIVATE -> subscriber.player().id().equals(entry.event().getPlayerId());
+            default -> true;
+        };
+    }
+
+    /**
+     * 房间日志中的一条：事件及其之前的状态差量（没有变化时为null），
+     * state 为差量本身，延迟观战按放出进度推进状态时使用
+     */
+    private record Entry(int seq, GameEvent event, Visibility visibility, StateTracker.Delta state,
+                         LazyFrame delta, LazyFrame frame) {
+    }
+
+    /**
+     * 对观战者隐藏的事件
+     */
+    private record Withheld(int seq, GameEvent event) {
+    }
+
+    /**
+     * 待分发的内容，按接收连接的格式懒编码，每种格式最多编码一次
+     */
+    private final class LazyFrame {
+
+        private final Function<FrameEncoder, byte[]> content;
+        private final String coalesceKey;
+        private final OutboundFrame[] frames = new OutboundFrame[WireFormat.values().length];
+
+        LazyFrame(Function<FrameEncoder, byte[]> content, String coalesceKey) {
+            this.content = content;
+            this.coalesceKey = coalesceKey;
+        }
+
+        OutboundFrame get(WireFormat format) {
+            OutboundFrame frame = frames[format.ordinal()];
+            if (frame == null) {
+                byte[] payload = content.apply(encoders.get(format));
+                frame = coalesceKey == null
+                        ? OutboundFrame.essential(payload)
+                        : OutboundFrame.partial(payload, coalesceKey);
+                frames[format.ordinal()] = frame;
+            }
+            return frame;
+        }
+    }
+
+    /**
+     * 单个房间的全部连接
+     */
+    private class Room implements GameEventListener {
+
+        private final GameState gameState;
+        private final StateTracker tracker;
+        private final Map<String, Subscriber> subscribers = new ConcurrentHashMap<>();
+
+        // 最近的事件，重连补发使用，已编码的帧随之保留
+        private final Deque<Entry> recent = new ArrayDeque<>();
+
+        // 观战延迟缓冲，已放出的条目保留到被覆盖，供观战重连补发；延迟期间的条目不会提前放出
+        private final DelayedFeed<Entry> feed;
+        // 已放出给观战者的状态
+        private StateTracker.Snapshot spectatorState;
+        // 对观战者隐藏的事件，终局后补发；只引用事件流中已有的事件
+        private final List<Withheld> withheld = new ArrayList<>();
+        // 终局帧放出时的序号，0 表示尚未放出
+        private int revealedAt;
+        private boolean releaseScheduled;
+
+        Room(GameState gameState) {
+            this.gameState = gameState;
+            this.tracker = new StateTracker(gameState);
+            this.spectatorState = tracker.snapshot();
+            this.feed = new DelayedFeed<>(properties.getSpectator().getBufferSize(),
+                    properties.getSpectator().getDelay());
+        }
+
+        OutboundFrame snapshotFrame(Subscriber subscriber) {
+            StateTracker.Snapshot snapshot = subscriber.player() == null ? spectatorState : tracker.snapshot();
+            byte[] payload = encoders.get(subscriber.format()).encodeSnapshot(gameState.getGameId(), snapshot);
+            return OutboundFrame.essential(payload);
+        }
+
+        /**
+         * lastSeq 的条目及之后的帧都还在日志中时才能只补发（没有新事件时 lastSeq 为快照的序号）
+         */
+        boolean canResume(int lastSeq) {
+            if (recent.isEmpty()) {
+                return lastSeq == tracker.getEventSeq();
+            }
+            return lastSeq >= recent.peekFirst().seq() && lastSeq <= tracker.getEventSeq();
+        }
+
+        /**
+         * 补发 lastSeq 之后的差量和可见事件，lastSeq 的条目有差量时重发其事件
+         */
+        void replay(Subscriber subscriber, int lastSeq) {
+            for (Entry entry : recent) {
+                resend(subscriber, entry, lastSeq);
+            }
+        }
+
+        /**
+         * 重连补发一个条目：lastSeq 之后的整条发送；lastSeq 本身有差量时，客户端可能只收到了差量，重发事件
+         */
+        private void resend(Subscriber subscriber, Entry entry, int lastSeq) {
+            if (entry.seq() > lastSeq) {
+                send(subscriber, entry);
+            } else if (entry.seq() == lastSeq && entry.delta() != null && isVisible(subscriber, entry)) {
+                deliver(subscriber, entry.frame().get(subscriber.format()));
+            }
+        }
+
+        /**
+         * 发送快照之后补发保留的可见事件（只用于展示历史，状态以快照为准）
+         */
+        void replayEvents(Subscriber subscriber) {
+            for (Entry entry : recent) {
+                if (isVisible(subscriber, entry)) {
+                    deliver(subscriber, entry.frame().get(subscriber.format()));
+                }
+            }
+        }
+
+        /**
+         * 观战者加入或重连，只读取已放出的部分
+         */
+        void subscribeSpectator(Subscriber subscriber, Integer lastSeq) {
+            Entry first = feed.firstReleased();
+            boolean retained = first == null
+                    ? lastSeq != null && lastSeq == spectatorState.eventSeq()
+                    : lastSeq != null && lastSeq >= first.seq() && lastSeq <= spectatorState.eventSeq();
+            if (retained) {
+                feed.forEachReleased(entry -> resend(subscriber, entry, lastSeq));
+                if (revealedAt > lastSeq) {
+                    reveal(List.of(subscriber));
+                }
+                return;
+            }
+            deliver(subscriber, snapshotFrame(subscriber));
+            if (lastSeq != null) {
+                feed.forEachReleased(entry -> {
+                    if (isVisible(subscriber, entry)) {
+                        deliver(subscriber, entry.frame().get(subscriber.format()));
+                    }
+                });
+            }
+            if (revealedAt > 0) {
+                reveal(List.of(subscriber));
+            }
+        }
+
+        @Override
+        public synchronized void onEvent(GameState gameState, GameEvent event) {
+            // 没有连接时也要观察和记录，保证版本连续、之后的重连可以补发
+            StateTracker.Delta delta = tracker.observe(gameState);
+            int seq = tracker.getEventSeq();
+            Visibility visibility = event.getType() == null ? Visibility.SYSTEM : Visibility.of(event);
+            Entry entry = new Entry(seq, event, visibility, delta,
+                    delta == null ? null : new LazyFrame(encoder -> encoder.encodeDelta(delta), null),
+                    new LazyFrame(encoder -> encoder.encode(event, seq), null));
+            recent.addLast(entry);
+            while (recent.size() > properties.getResumeWindow()) {
+                recent.removeFirst();
+            }
+            if (!properties.getSpectator().isGodView()
+                    && visibility != Visibility.PUBLIC && visibility != Visibility.SYSTEM) {
+                withheld.add(new Withheld(seq, event));
+            }
+            for (Subscriber subscriber : subscribers.values()) {
+                if (subscriber.player() != null) {
+                    send(subscriber, entry);
+                }
+            }
+
+            long now = System.currentTimeMillis();
+            feed.append(now, entry);
+            feed.releaseDue(now, this::releaseToSpectators);
+            scheduleRelease(now);
+        }
+
+        /**
+         * 定时放出到期的观战帧
+         */
+        private synchronized void releaseDue() {
+            releaseScheduled = false;
+            long now = System.currentTimeMillis();
+            feed.releaseDue(now, this::releaseToSpectators);
+            scheduleRelease(now);
+        }
+
+        /**
+         * 缓冲中还有未放出的帧时等到最后一帧到期后再释放
+         */
+        synchronized void releaseWhenDrained() {
+            long due = feed.nextDue();
+            if (due < 0) {
+                release(gameState);
+                return;
+            }
+            try {
+                // 晚于到期时间一毫秒，放出任务先执行
+                scheduler.schedule(this::releaseWhenDrained,
+                        Math.max(0, due - System.currentTimeMillis()) + 1, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                release(gameState);
+            }
+        }
+
+        private void scheduleRelease(long now) {
+            long due = feed.nextDue();
+            if (due < 0 || releaseScheduled) {
+                return;
+            }
+            releaseScheduled = true;
+            try {
+                scheduler.schedule(this::releaseDue, Math.max(0, due - now), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // 服务关闭中，剩余的观战帧不再放出
+                log.debug("游戏 {} 观战帧未放出: 定时器已关闭", gameState.getGameId());
+            }
+        }
+
+        private void releaseToSpectators(Entry entry) {
+            if (entry.state() != null) {
+                spectatorState = spectatorState.apply(entry.state());
+            }
+            spectatorState = spectatorState.withEventSeq(entry.seq());
+            List<Subscriber> spectators = new ArrayList<>();
+            for (Subscriber subscriber : subscribers.values()) {
+                if (subscriber.player() == null) {
+                    send(subscriber, entry);
+                    spectators.add(subscriber);
+                }
+            }
+            if (entry.event().getType() == GameEvent.EventType.GAME_END && revealedAt == 0) {
+                revealedAt = entry.seq();
+                reveal(spectators);
+            }
+        }
+
+        /**
+         * 终局后向观战者补发此前隐藏的事件，帧沿用事件原来的序号
+         */
+        private void reveal(List<Subscriber> spectators) {
+            if (withheld.isEmpty() || spectators.isEmpty()) {
+                return;
+            }
+            // 放出在定时线程进行，不读取引擎可能正在追加的事件流
+            for (Withheld hidden : withheld) {
+                LazyFrame frame = new LazyFrame(encoder -> encoder.encode(hidden.event(), hidden.seq()), null);
+                for (Subscriber subscriber : spectators) {
+                    deliver(subscriber, frame.get(subscriber.format()));
+                }
+            }
+        }
+
+        private void send(Subscriber subscriber, Entry entry) {
+            if (entry.delta() != null) {
+                deliver(subscriber, entry.delta().get(subscriber.format()));
+            }
+            if (isVisible(subscriber, entry)) {
+                deliver(subscriber, entry.frame().get(subscriber.format()));
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.werewolf.web.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.werewolf.agent.ActionSubmission;
+import com.werewolf.agent.DecisionPrompt;
+import com.werewolf.agent.DecisionType;
+import com.werewolf.agent.HumanSeats;
+import com.werewolf.agent.SubmissionResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 游戏 WebSocket 入口
+ * 连接地址带 gameId 参数，带 playerId 时以玩家身份加入，否则为观战；
+ * format=binary 时使用紧凑二进制格式（见 {@link BinaryFrameEncoder}），默认 JSON。
+ * 断线重连时带 lastSeq（最后收到的事件或差量的 seq），只补发之后的帧；该序号的条目有差量时
+ * 同序号的事件会重发（客户端可能只收到了差量），客户端丢弃已收到过的序号的事件帧；
+ * 观战者经 {@link RelayHub} 加入，中继保留的帧中没有 lastSeq 时从最近的快照开始接收。
+ * 客户端发送 {"type":"sync"} 请求重新发送完整快照。
+ * 真人玩家收到决策提示（prompt）后发送
+ * {"type":"action","version":..,"key":..,"decision":..,"target":..,"antidote":..,"poison":..,"content":..}，
+ * version 为提示的版本，key 为客户端生成的幂等键（重试时不变），服务端回复 action_result；
+ * 玩家加入或重连时重新推送当前待提交的提示
+ *
+ * @author Claude & User
+ */
+@Slf4j
+public class GameWebSocketHandler extends TextWebSocketHandler {
+
+    private final GameGateway gateway;
+    private final RelayHub relayHub;
+    private final HumanSeats humanSeats;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public GameWebSocketHandler(GameGateway gateway, RelayHub relayHub, HumanSeats humanSeats) {
+        this.gateway = gateway;
+        this.relayHub = relayHub;
+        this.humanSeats = humanSeats;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws IOException {
+        Map<String, String> params = queryParams(session.getUri());
+        try {
+            Long gameId = Long.valueOf(params.get("gameId"));
+            WireFormat format = WireFormat.parse(params.get("format"));
+            WebSocketConnection connection = new WebSocketConnection(session);
+            Integer lastSeq = params.containsKey("lastSeq") ? Integer.valueOf(params.get("lastSeq")) : null;
+            if (params.containsKey("playerId")) {
+                Long playerId = Long.valueOf(params.get("playerId"));
+                gateway.join(gameId, playerId, connection, format, lastSeq);
+                DecisionPrompt prompt = humanSeats.currentPrompt(gameId, playerId);
+                if (prompt != null) {
+                    gateway.publishPrompt(gameId, prompt);
+                }
+            } else {
+                relayHub.spectate(gameId, connection, format, lastSeq);
+            }
+        } catch (IllegalStateException e) {
+            log.warn("观战连接 {} 无法建立中继: {}", session.getId(), e.getMessage());
+            session.close(CloseStatus.SERVER_ERROR.withReason("中继不可用"));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException 也是 IllegalArgumentException
+            log.debug("拒绝连接 {}: {}", session.getId(), e.getMessage());
+            session.close(CloseStatus.BAD_DATA.withReason("参数错误"));
+        }
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        JsonNode payload;
+        try {
+            payload = objectMapper.readTree(message.getPayload());
+        } catch (JsonProcessingException e) {
+            log.debug("忽略连接 {} 的无效消息", session.getId());
+            return;
+        }
+        String type = payload.path("type").asText();
+        if ("sync".equals(type)) {
+            gateway.resync(session.getId());
+            relayHub.resync(session.getId());
+        } else if ("action".equals(type)) {
+            submitAction(session.getId(), payload);
+        }
+    }
+
+    private void submitAction(String connectionId, JsonNode payload) {
+        GameGateway.Seat seat = gateway.seatOf(connectionId);
+        if (seat == null) {
+            log.debug("忽略非玩家连接 {} 的行动", connectionId);
+            return;
+        }
+        String key = payload.path("key").asText("");
+        long version = payload.path("version").asLong();
+        SubmissionResult result;
+        try {
+            result = humanSeats.submit(seat.gameId(), seat.playerId(), ActionSubmission.builder()
+                    .version(version)
+                    .idempotencyKey(key)
+                    .type(DecisionType.valueOf(payload.path("decision").asText()))
+                    .targetPlayerId(optionalId(payload.path("target")))
+                    .useAntidote(payload.path("antidote").asBoolean(false))
+                    .poisonTargetId(optionalId(payload.path("poison")))
+                    .content(payload.hasNonNull("content") ? payload.get("content").asText() : null)
+                    .build());
+        } catch (IllegalArgumentException e) {
+            // 未知的决策类型
+            result = SubmissionResult.REJECTED;
+        }
+        gateway.acknowledge(connectionId, key, version, result);
+    }
+
+    private static Long optionalId(JsonNode node) {
+        return node.isNumber() ? node.asLong() : null;
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        GameGateway.Seat seat = gateway.seatOf(session.getId());
+        gateway.leave(session.getId());
+        relayHub.leave(session.getId());
+        if (seat != null && !gateway.isConnected(seat.gameId(), seat.playerId())) {
+            // 玩家的最后一个连接断开，等待中的决策不再等到期限
+            humanSeats.expire(seat.gameId(), seat.playerId());
+        }
+    }
+
+    static Map<String, String> queryParams(URI uri) {
+        Map<String, String> params = new HashMap<>();
+        if (uri == null || uri.getRawQuery() == null) {
+            return params;
+        }
+        for (String pair : uri.getRawQuery().split("&")) {
+            int split = pair.indexOf('=');
+            if (split > 0) {
+                params.put(pair.substring(0, split), pair.substring(split + 1));
+            }
+        }
+        return params;
+    }
+}
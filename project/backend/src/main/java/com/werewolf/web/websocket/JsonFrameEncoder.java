@@ -0,0 +1,181 @@
+package com.werewolf.web.websocket;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.werewolf.agent.DecisionPrompt;
+import com.werewolf.agent.SubmissionResult;
+import com.werewolf.domain.model.GameEvent;
+
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JSON 帧编码（默认格式）
+ * 使用独立的紧凑 ObjectMapper（不受 spring.jackson.serialization.indent-output 影响），输出 UTF-8 JSON
+ *
+ * @author Claude & User
+ */
+public class JsonFrameEncoder implements FrameEncoder {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .disable(SerializationFeature.INDENT_OUTPUT)
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    private final AtomicLong encoded = new AtomicLong();
+
+    @Override
+    public byte[] encode(GameEvent event, int seq) {
+        ObjectNode frame = objectMapper.createObjectNode()
+                .put("type", "event")
+                .put("seq", seq)
+                .put("eventType", event.getType().name())
+                .put("round", event.getRound());
+        if (event.getPhase() != null) {
+            frame.put("phase", event.getPhase().name());
+        }
+        if (event.getPlayerId() != null) {
+            frame.put("playerId", event.getPlayerId());
+        }
+        if (event.getTargetPlayerId() != null) {
+            frame.put("targetPlayerId", event.getTargetPlayerId());
+        }
+        if (event.getDescription() != null) {
+            frame.put("description", event.getDescription());
+        }
+        if (event.getData() != null) {
+            frame.set("data", objectMapper.valueToTree(event.getData()));
+        }
+        if (event.getTimestamp() != null) {
+            // 与二进制格式一致，精确到毫秒
+            frame.put("timestamp", event.getTimestamp().truncatedTo(ChronoUnit.MILLIS).toString());
+        }
+        return write(frame);
+    }
+
+    @Override
+    public byte[] encodeDelta(StateTracker.Delta delta) {
+        ObjectNode frame = objectMapper.createObjectNode()
+                .put("type", "delta")
+                .put("base", delta.baseVersion())
+                .put("version", delta.version())
+                .put("seq", delta.seq());
+        if (delta.phase() != null) {
+            frame.put("phase", delta.phase().name());
+        }
+        if (delta.round() != null) {
+            frame.put("round", delta.round());
+        }
+        if (delta.status() != null) {
+            frame.put("status", delta.status().name());
+        }
+        if (delta.winningCamp() != null) {
+            frame.put("winningCamp", delta.winningCamp());
+        }
+        if (!delta.seats().isEmpty()) {
+            ArrayNode seats = frame.putArray("seats");
+            for (StateTracker.SeatChange change : delta.seats()) {
+                ObjectNode seat = seats.addObject().put("id", change.playerId());
+                if (change.alive() != null) {
+                    seat.put("alive", change.alive());
+                }
+                if (change.spoken() != null) {
+                    seat.put("spoken", change.spoken());
+                }
+                if (change.voted() != null) {
+                    seat.put("voted", change.voted());
+                }
+            }
+        }
+        return write(frame);
+    }
+
+    @Override
+    public byte[] encodeSnapshot(Long gameId, StateTracker.Snapshot snapshot) {
+        ObjectNode frame = objectMapper.createObjectNode()
+                .put("type", "snapshot")
+                .put("gameId", gameId)
+                .put("version", snapshot.version())
+                .put("eventSeq", snapshot.eventSeq())
+                .put("round", snapshot.round());
+        if (snapshot.phase() != null) {
+            frame.put("phase", snapshot.phase().name());
+        }
+        if (snapshot.status() != null) {
+            frame.put("status", snapshot.status().name());
+        }
+        if (snapshot.winningCamp() != null) {
+            frame.put("winningCamp", snapshot.winningCamp());
+        }
+        ArrayNode seats = frame.putArray("seats");
+        for (StateTracker.Seat seat : snapshot.seats()) {
+            seats.addObject()
+                    .put("id", seat.playerId())
+                    .put("seat", seat.seatNumber())
+                    .put("name", seat.name())
+                    .put("alive", seat.alive())
+                    .put("spoken", seat.spoken())
+                    .put("voted", seat.voted());
+        }
+        return write(frame);
+    }
+
+    @Override
+    public byte[] encodePartialSpeech(Long playerId, String text) {
+        return write(objectMapper.createObjectNode()
+                .put("type", "speech_partial")
+                .put("playerId", playerId)
+                .put("text", text));
+    }
+
+    @Override
+    public byte[] encodePrompt(DecisionPrompt prompt) {
+        ObjectNode frame = objectMapper.createObjectNode()
+                .put("type", "prompt")
+                .put("playerId", prompt.playerId())
+                .put("version", prompt.version())
+                .put("decision", prompt.type().name());
+        ArrayNode targets = frame.putArray("targets");
+        prompt.legalTargets().forEach(targets::add);
+        if (prompt.killedPlayerId() != null) {
+            frame.put("killed", prompt.killedPlayerId());
+        }
+        frame.put("antidote", prompt.antidoteAllowed())
+                .put("poison", prompt.poisonAllowed())
+                .put("abstain", prompt.abstainAllowed())
+                .put("timeout", prompt.timeout());
+        return write(frame);
+    }
+
+    @Override
+    public byte[] encodeActionResult(String idempotencyKey, long version, SubmissionResult result) {
+        return write(objectMapper.createObjectNode()
+                .put("type", "action_result")
+                .put("key", idempotencyKey)
+                .put("version", version)
+                .put("result", result.name()));
+    }
+
+    @Override
+    public WireFormat format() {
+        return WireFormat.JSON;
+    }
+
+    @Override
+    public long getEncodedCount() {
+        return encoded.get();
+    }
+
+    private byte[] write(ObjectNode frame) {
+        try {
+            byte[] bytes = objectMapper.writeValueAsBytes(frame);
+            encoded.incrementAndGet();
+            return bytes;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("帧编码失败", e);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.werewolf.web.websocket;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 本机房间作为上游：中继以一个观战连接加入网关，房间对中继只分发一次
+ *
+ * @author Claude & User
+ */
+public class LocalRelayUpstream implements RelayUpstream, ClientConnection {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private final GameGateway gateway;
+    private final SpectatorRelay relay;
+    private final String id = "relay-" + SEQUENCE.incrementAndGet();
+    private volatile boolean open = true;
+
+    private LocalRelayUpstream(GameGateway gateway, SpectatorRelay relay) {
+        this.gateway = gateway;
+        this.relay = relay;
+    }
+
+    /**
+     * 订阅本机房间
+     *
+     * @param gateway 网关
+     * @param gameId 游戏ID
+     * @param format 线上格式
+     * @param relay 中继
+     * @return 上游
+     */
+    public static LocalRelayUpstream connect(GameGateway gateway, Long gameId, WireFormat format,
+                                             SpectatorRelay relay) {
+        LocalRelayUpstream upstream = new LocalRelayUpstream(gateway, relay);
+        gateway.spectate(gameId, upstream, format, null);
+        return upstream;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public void send(ByteBuffer payload) {
+        relay.onFrame(payload);
+    }
+
+    @Override
+    public void close(String reason) {
+        // 网关断开了中继（过慢等），中继随之关闭
+        open = false;
+        relay.onUpstreamClosed(reason);
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void requestSnapshot() {
+        gateway.resync(id);
+    }
+
+    @Override
+    public void close() {
+        open = false;
+        gateway.leave(id);
+    }
+}
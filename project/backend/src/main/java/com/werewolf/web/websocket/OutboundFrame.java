@@ -0,0 +1,77 @@
+package com.werewolf.web.websocket;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 发往客户端的一帧
+ * 内容编码一次后不可变，同一帧在所有接收连接之间共享，各连接通过独立的只读视图写出，不复制内容
+ *
+ * @author Claude & User
+ */
+public final class OutboundFrame {
+
+    private final ByteBuffer payload;
+    private final String coalesceKey;
+
+    private OutboundFrame(ByteBuffer payload, String coalesceKey) {
+        this.payload = payload.slice().asReadOnlyBuffer();
+        this.coalesceKey = coalesceKey;
+    }
+
+    /**
+     * 不可丢弃的帧（游戏事件等）
+     *
+     * @param payload 已编码的消息
+     * @return 帧
+     */
+    public static OutboundFrame essential(byte[] payload) {
+        return new OutboundFrame(ByteBuffer.wrap(payload), null);
+    }
+
+    /**
+     * 转发收到的帧（中继使用），共享传入缓冲区剩余部分的内容，调用方之后不能再修改
+     *
+     * @param payload 已编码的消息
+     * @return 帧
+     */
+    public static OutboundFrame essential(ByteBuffer payload) {
+        return new OutboundFrame(payload, null);
+    }
+
+    /**
+     * 发言片段
+     *
+     * @param payload 已编码的消息（包含截至目前的完整文本）
+     * @param coalesceKey 合并键，同键的新帧取代旧帧
+     * @return 帧
+     */
+    public static OutboundFrame partial(byte[] payload, String coalesceKey) {
+        return new OutboundFrame(ByteBuffer.wrap(payload), coalesceKey);
+    }
+
+    /**
+     * 帧内容的只读视图，每次调用返回独立的读取位置
+     *
+     * @return 内容
+     */
+    public ByteBuffer payload() {
+        return payload.duplicate();
+    }
+
+    public int size() {
+        return payload.remaining();
+    }
+
+    /**
+     * 合并键，非空表示可合并或丢弃的发言片段
+     *
+     * @return 合并键
+     */
+    public String coalesceKey() {
+        return coalesceKey;
+    }
+
+    public boolean isPartial() {
+        return coalesceKey != null;
+    }
+}
@@ -0,0 +1,172 @@
+package com.werewolf.web.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * 本进程的观战中继
+ * 每个游戏、每种线上格式一个中继，第一个观战者加入时建立上游订阅，最后一个离开时取消。
+ * 源服务上的上游是本机房间；中继节点（配置了 websocket.relay.upstream-url）的上游是源服务或上一级中继，
+ * 多级中继可以把一场对局扩散给上万名观战者。
+ * 建立上游（远程上游需要网络握手）不持有中继表的锁：同一中继的观战者等待同一个建立中的中继，
+ * 其他中继的加入和离开不受影响
+ *
+ * @author Claude & User
+ */
+@Slf4j
+public class RelayHub {
+
+    private final WebSocketProperties properties;
+    private final Executor sendExecutor;
+    private final RelayUpstream.Factory upstreamFactory;
+
+    // 建立中或已建立的中继
+    private final Map<RelayKey, CompletableFuture<SpectatorRelay>> relays = new ConcurrentHashMap<>();
+
+    // 连接ID -> 所在中继
+    private final Map<String, SpectatorRelay> sessions = new ConcurrentHashMap<>();
+
+    public RelayHub(WebSocketProperties properties, Executor sendExecutor, RelayUpstream.Factory upstreamFactory) {
+        this.properties = properties;
+        this.sendExecutor = sendExecutor;
+        this.upstreamFactory = upstreamFactory;
+    }
+
+    /**
+     * 观战者经中继加入
+     *
+     * @param gameId 游戏ID
+     * @param connection 连接
+     * @param format 线上格式
+     */
+    public void spectate(Long gameId, ClientConnection connection, WireFormat format) {
+        spectate(gameId, connection, format, null);
+    }
+
+    /**
+     * 观战者经中继加入或重连
+     * 需要新建中继时在调用线程上连接上游，同一中继的其他观战者等待连接完成
+     *
+     * @param gameId 游戏ID
+     * @param connection 连接
+     * @param format 线上格式
+     * @param lastSeq 重连时最后收到的事件或差量的序号，首次加入为null
+     */
+    public void spectate(Long gameId, ClientConnection connection, WireFormat format, Integer lastSeq) {
+        RelayKey key = new RelayKey(gameId, format);
+        while (true) {
+            CompletableFuture<SpectatorRelay> created = new CompletableFuture<>();
+            CompletableFuture<SpectatorRelay> pending = relays.putIfAbsent(key, created);
+            if (pending == null) {
+                pending = created;
+                open(key, created);
+            }
+            SpectatorRelay relay = await(pending);
+            synchronized (this) {
+                // 等待期间最后一个观战者离开或上游断开时重新建立
+                if (relay.isClosed()) {
+                    relays.remove(key, pending);
+                    continue;
+                }
+                if (relays.get(key) != pending) {
+                    continue;
+                }
+                relay.addSpectator(connection, lastSeq);
+                sessions.put(connection.getId(), relay);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 观战者请求重新发送快照
+     *
+     * @param connectionId 连接ID
+     */
+    public void resync(String connectionId) {
+        SpectatorRelay relay = sessions.get(connectionId);
+        if (relay != null) {
+            relay.resync(connectionId);
+        }
+    }
+
+    /**
+     * 观战者断开，中继没有观战者时取消上游订阅
+     *
+     * @param connectionId 连接ID
+     */
+    public void leave(String connectionId) {
+        SpectatorRelay idle = null;
+        synchronized (this) {
+            SpectatorRelay relay = sessions.remove(connectionId);
+            if (relay != null && relay.removeSpectator(connectionId) == 0) {
+                relays.values().removeIf(pending -> pending.getNow(null) == relay);
+                idle = relay;
+            }
+        }
+        // 取消上游订阅可能涉及网络，不持有锁
+        if (idle != null) {
+            idle.close();
+        }
+    }
+
+    /**
+     * 当前的中继数
+     *
+     * @return 中继数
+     */
+    public int relayCount() {
+        return relays.size();
+    }
+
+    /**
+     * 经中继观战的连接数
+     *
+     * @param gameId 游戏ID
+     * @return 连接数
+     */
+    public int spectatorCount(Long gameId) {
+        return relays.entrySet().stream()
+                .filter(entry -> entry.getKey().gameId().equals(gameId))
+                .map(entry -> entry.getValue().getNow(null))
+                .filter(Objects::nonNull)
+                .mapToInt(SpectatorRelay::spectatorCount)
+                .sum();
+    }
+
+    /**
+     * 建立中继并连接上游，完成后唤醒等待同一中继的观战者；连接失败时移除占位，之后的观战者重新尝试
+     */
+    private void open(RelayKey key, CompletableFuture<SpectatorRelay> pending) {
+        try {
+            SpectatorRelay relay = new SpectatorRelay(properties, sendExecutor,
+                    closed -> relays.remove(key, pending));
+            relay.setUpstream(upstreamFactory.connect(key.gameId(), key.format(), relay));
+            log.debug("游戏 {} 建立观战中继（{}）", key.gameId(), key.format());
+            pending.complete(relay);
+        } catch (RuntimeException e) {
+            relays.remove(key, pending);
+            pending.completeExceptionally(e);
+        }
+    }
+
+    private static SpectatorRelay await(CompletableFuture<SpectatorRelay> pending) {
+        try {
+            return pending.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record RelayKey(Long gameId, WireFormat format) {
+    }
+}
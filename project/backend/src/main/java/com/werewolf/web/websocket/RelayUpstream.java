@@ -0,0 +1,36 @@
+package com.werewolf.web.websocket;
+
+/**
+ * 中继的上游订阅：本机房间或远程服务上的一个观战连接
+ *
+ * @author Claude & User
+ */
+public interface RelayUpstream {
+
+    /**
+     * 请求上游重新发送完整快照
+     */
+    void requestSnapshot();
+
+    /**
+     * 取消订阅
+     */
+    void close();
+
+    /**
+     * 上游工厂
+     */
+    @FunctionalInterface
+    interface Factory {
+
+        /**
+         * 为中继订阅游戏，收到的帧交给 {@link SpectatorRelay#onFrame}
+         *
+         * @param gameId 游戏ID
+         * @param format 线上格式
+         * @param relay 中继
+         * @return 上游
+         */
+        RelayUpstream connect(Long gameId, WireFormat format, SpectatorRelay relay);
+    }
+}
@@ -0,0 +1,111 @@
+package com.werewolf.web.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 远程服务作为上游：中继节点以观战者身份连接源服务（或上一级中继）的 WebSocket 地址
+ *
+ * @author Claude & User
+ */
+@Slf4j
+public class RemoteRelayUpstream implements RelayUpstream, WebSocket.Listener {
+
+    private static final String SYNC_REQUEST = "{\"type\":\"sync\"}";
+
+    private final SpectatorRelay relay;
+    // 一帧可能分多段到达
+    private final ByteArrayOutputStream partial = new ByteArrayOutputStream();
+    private volatile WebSocket webSocket;
+
+    private RemoteRelayUpstream(SpectatorRelay relay) {
+        this.relay = relay;
+    }
+
+    /**
+     * 连接远程上游
+     *
+     * @param client HTTP 客户端
+     * @param endpoint 上游 WebSocket 地址（不含参数），如 ws://origin:8021/ws/game
+     * @param gameId 游戏ID
+     * @param format 线上格式
+     * @param relay 中继
+     * @param timeout 连接超时
+     * @return 上游
+     */
+    public static RemoteRelayUpstream connect(HttpClient client, String endpoint, Long gameId, WireFormat format,
+                                              SpectatorRelay relay, Duration timeout) {
+        URI uri = URI.create(endpoint + "?gameId=" + gameId + "&format=" + format.name().toLowerCase());
+        RemoteRelayUpstream upstream = new RemoteRelayUpstream(relay);
+        try {
+            upstream.webSocket = client.newWebSocketBuilder()
+                    .connectTimeout(timeout)
+                    .buildAsync(uri, upstream)
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("连接中继上游被中断: " + uri, e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("连接中继上游失败: " + uri, e);
+        }
+        log.info("中继已连接上游: {}", uri);
+        return upstream;
+    }
+
+    @Override
+    public void onOpen(WebSocket webSocket) {
+        webSocket.request(1);
+    }
+
+    @Override
+    public CompletionStage<?> onBinary(WebSocket webSocket, ByteBuffer data, boolean last) {
+        // data 在返回后会被复用，需要复制
+        byte[] bytes = new byte[data.remaining()];
+        data.get(bytes);
+        partial.write(bytes, 0, bytes.length);
+        if (last) {
+            relay.onFrame(ByteBuffer.wrap(partial.toByteArray()));
+            partial.reset();
+        }
+        webSocket.request(1);
+        return null;
+    }
+
+    @Override
+    public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+        webSocket.request(1);
+        return null;
+    }
+
+    @Override
+    public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+        relay.onUpstreamClosed(reason == null || reason.isEmpty() ? "上游已关闭" : reason);
+        return null;
+    }
+
+    @Override
+    public void onError(WebSocket webSocket, Throwable error) {
+        log.warn("中继上游连接异常: {}", error.getMessage());
+        relay.onUpstreamClosed("上游连接异常");
+    }
+
+    @Override
+    public void requestSnapshot() {
+        webSocket.sendText(SYNC_REQUEST, true);
+    }
+
+    @Override
+    public void close() {
+        webSocket.sendClose(WebSocket.NORMAL_CLOSURE, "");
+    }
+}
@@ -0,0 +1,244 @@
+package com.werewolf.web.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.LongSupplier;
+
+/**
+ * 单个连接的有界发送队列
+ * 引擎线程只入队、不等待发送；同一连接同时最多一个发送任务在执行器上排空队列，
+ * 慢速客户端只会占住自己的发送任务，不影响引擎和其他连接。
+ * 过慢断开时只在调用线程上标记关闭，关闭连接（写关闭帧，可能排在卡住的发送之后）交给执行器
+ *
+ * @author Claude & User
+ */
+@Slf4j
+public class SessionOutbox {
+
+    private final ClientConnection connection;
+    private final int capacity;
+    private final SlowConsumerPolicy policy;
+    private final long sendTimeLimit;
+    private final Executor executor;
+    private final LongSupplier clock;
+
+    private final Deque<OutboundFrame> queue = new ArrayDeque<>();
+    private boolean draining;
+    private boolean closed;
+    // 当前帧开始发送的时间，0 表示没有正在发送的帧
+    private long sendStartedAt;
+
+    private long dropped;
+    private long coalesced;
+
+    public SessionOutbox(ClientConnection connection, int capacity, SlowConsumerPolicy policy,
+                         long sendTimeLimit, Executor executor) {
+        this(connection, capacity, policy, sendTimeLimit, executor, System::currentTimeMillis);
+    }
+
+    SessionOutbox(ClientConnection connection, int capacity, SlowConsumerPolicy policy,
+                  long sendTimeLimit, Executor executor, LongSupplier clock) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("发送队列上限必须大于0");
+        }
+        this.connection = connection;
+        this.capacity = capacity;
+        this.policy = policy;
+        this.sendTimeLimit = sendTimeLimit;
+        this.executor = executor;
+        this.clock = clock;
+    }
+
+    /**
+     * 入队一帧，不阻塞
+     *
+     * @param frame 帧
+     * @return false 表示连接已关闭（或因过慢被断开），调用方应移除该连接
+     */
+    public boolean offer(OutboundFrame frame) {
+        String disconnectReason;
+        synchronized (this) {
+            if (closed) {
+                return false;
+            }
+            disconnectReason = enqueue(frame);
+            if (disconnectReason == null) {
+                scheduleDrain();
+                return true;
+            }
+            closeLocked();
+        }
+        log.info("连接 {} 过慢，断开: {}", connection.getId(), disconnectReason);
+        closeConnection(disconnectReason);
+        return false;
+    }
+
+    /**
+     * 在执行器上关闭连接，调用方（可能是持有房间锁的引擎线程）不等待关闭帧写出
+     */
+    private void closeConnection(String reason) {
+        try {
+            executor.execute(() -> connection.close(reason));
+        } catch (RejectedExecutionException e) {
+            connection.close(reason);
+        }
+    }
+
+    /**
+     * 入队，无法入队时返回断开原因
+     */
+    private String enqueue(OutboundFrame frame) {
+        if (sendStartedAt > 0 && sendTimeLimit > 0 && clock.getAsLong() - sendStartedAt > sendTimeLimit) {
+            return "发送超时";
+        }
+        if (frame.isPartial() && policy == SlowConsumerPolicy.COALESCE && replace(frame)) {
+            return null;
+        }
+        if (queue.size() >= capacity && !makeRoom(frame)) {
+            if (frame.isPartial() && policy != SlowConsumerPolicy.DISCONNECT) {
+                dropped++;
+                return null;
+            }
+            return "发送队列已满";
+        }
+        queue.addLast(frame);
+        return null;
+    }
+
+    /**
+     * 用新片段取代队列中同键的旧片段（新片段移到队尾，旧片段之后只有片段）
+     */
+    private boolean replace(OutboundFrame frame) {
+        for (Iterator<OutboundFrame> it = queue.descendingIterator(); it.hasNext(); ) {
+            OutboundFrame queued = it.next();
+            if (!queued.isPartial()) {
+                // 旧片段之后已有事件，替换会让片段越过事件，改为追加
+                return false;
+            }
+            if (queued.coalesceKey().equals(frame.coalesceKey())) {
+                it.remove();
+                queue.addLast(frame);
+                coalesced++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 按策略腾出空间
+     *
+     * @return true表示已腾出空间
+     */
+    private boolean makeRoom(OutboundFrame frame) {
+        switch (policy) {
+            case COALESCE -> {
+                for (Iterator<OutboundFrame> it = queue.iterator(); it.hasNext(); ) {
+                    if (it.next().isPartial()) {
+                        it.remove();
+                        dropped++;
+                        return true;
+                    }
+                }
+                return false;
+            }
+            case DROP_PARTIAL -> {
+                int before = queue.size();
+                queue.removeIf(OutboundFrame::isPartial);
+                dropped += before - queue.size();
+                return !frame.isPartial() && queue.size() < capacity;
+            }
+            default -> {
+                return false;
+            }
+        }
+    }
+
+    private void scheduleDrain() {
+        if (draining || queue.isEmpty()) {
+            return;
+        }
+        draining = true;
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            draining = false;
+            closeLocked();
+            connection.close("服务关闭");
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            OutboundFrame frame;
+            synchronized (this) {
+                frame = closed ? null : queue.pollFirst();
+                if (frame == null) {
+                    draining = false;
+                    sendStartedAt = 0;
+                    return;
+                }
+                sendStartedAt = clock.getAsLong();
+            }
+            try {
+                connection.send(frame.payload());
+            } catch (IOException | RuntimeException e) {
+                log.debug("连接 {} 发送失败: {}", connection.getId(), e.getMessage());
+                synchronized (this) {
+                    draining = false;
+                    closeLocked();
+                }
+                connection.close("发送失败");
+                return;
+            }
+        }
+    }
+
+    /**
+     * 关闭队列，丢弃未发送的帧
+     */
+    public synchronized void close() {
+        closeLocked();
+    }
+
+    private void closeLocked() {
+        closed = true;
+        queue.clear();
+    }
+
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    public synchronized int size() {
+        return queue.size();
+    }
+
+    /**
+     * 被丢弃的发言片段数
+     *
+     * @return 帧数
+     */
+    public synchronized long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * 被合并的发言片段数
+     *
+     * @return 帧数
+     */
+    public synchronized long getCoalesced() {
+        return coalesced;
+    }
+
+    public ClientConnection getConnection() {
+        return connection;
+    }
+}
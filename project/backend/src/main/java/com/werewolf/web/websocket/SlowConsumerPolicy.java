@@ -0,0 +1,26 @@
+package com.werewolf.web.websocket;
+
+/**
+ * 慢速客户端处理策略（发送队列满时）
+ * 游戏事件不能丢弃，否则客户端状态与服务端不一致；只有发言片段可以合并或丢弃。
+ * 各策略在无法腾出空间时都会断开连接，客户端重连后重新同步
+ *
+ * @author Claude & User
+ */
+public enum SlowConsumerPolicy {
+
+    /**
+     * 合并：同一发言的片段只保留最新一帧，仍然满时丢弃最旧的片段
+     */
+    COALESCE,
+
+    /**
+     * 丢弃：清除队列中所有发言片段，完整发言随发言事件送达
+     */
+    DROP_PARTIAL,
+
+    /**
+     * 断开：队列满时直接断开连接
+     */
+    DISCONNECT
+}
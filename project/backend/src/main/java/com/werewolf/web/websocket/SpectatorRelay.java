@@ -0,0 +1,354 @@
+package com.werewolf.web.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * 观战中继
+ * 以一个观战连接订阅上游（本机房间或远程服务），收到的帧转发给大量观战者。
+ * 观战延迟在源头房间施加（见 {@link GameGateway}），中继收到的已经是延迟后的帧。
+ * 房间对每个中继只分发一次，观战者的发送队列由中继维护，观战人数不影响游戏线程。
+ * 中继保留最近一次快照及之后已广播的帧，新观战者先收到这些帧再接收实时帧；
+ * 保留的帧超过上限时向上游请求新的快照，收到后从新快照重新开始保留。
+ * 观战者请求重新同步时同样向上游请求新快照，新快照到达时只发给请求过的观战者，
+ * 与 {@link GameGateway#resync} 一致；级联的下级中继请求快照时因此不会重复收到已广播的帧。
+ * 向上游请求快照不持有中继的锁。
+ * 观战者重连时带 lastSeq，保留的帧中找到该序号时只补发之后的帧，否则从快照开始
+ *
+ * @author Claude & User
+ */
+@Slf4j
+public class SpectatorRelay {
+
+    private static final byte[] JSON_SNAPSHOT_PREFIX = "{\"type\":\"snapshot\"".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] JSON_EVENT_PREFIX = "{\"type\":\"event\"".getBytes(StandardCharsets.UTF_8);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final WebSocketProperties properties;
+    private final Executor sendExecutor;
+    private final int historyLimit;
+    private final Consumer<SpectatorRelay> onClosed;
+
+    private final Map<String, SessionOutbox> spectators = new ConcurrentHashMap<>();
+    // 最近的快照及之后已广播的帧
+    private final List<OutboundFrame> history = new ArrayList<>();
+    // 请求了重新同步、等待新快照的观战者
+    private final Set<String> resyncing = new HashSet<>();
+    private boolean snapshotRequested;
+    private boolean closed;
+    private volatile RelayUpstream upstream;
+
+    /**
+     * @param properties WebSocket 配置（观战者发送队列和中继参数）
+     * @param sendExecutor 观战者的发送执行器
+     * @param onClosed 中继关闭（上游断开）时的回调
+     */
+    public SpectatorRelay(WebSocketProperties properties, Executor sendExecutor, Consumer<SpectatorRelay> onClosed) {
+        WebSocketProperties.Relay relay = properties.getRelay();
+        if (relay.getHistoryLimit() <= 0 || relay.getHistoryLimit() >= properties.getQueueCapacity()) {
+            throw new IllegalArgumentException("中继保留帧数必须大于0且小于发送队列上限");
+        }
+        this.properties = properties;
+        this.sendExecutor = sendExecutor;
+        this.historyLimit = relay.getHistoryLimit();
+        this.onClosed = onClosed;
+    }
+
+    /**
+     * 设置上游，在上游连接建立后调用
+     *
+     * @param upstream 上游
+     */
+    public void setUpstream(RelayUpstream upstream) {
+        this.upstream = upstream;
+    }
+
+    /**
+     * 上游收到一帧（上游按顺序逐帧调用）
+     *
+     * @param payload 帧内容，之后不能再修改
+     */
+    public void onFrame(ByteBuffer payload) {
+        RelayUpstream request = publish(OutboundFrame.essential(payload));
+        if (request != null) {
+            request.requestSnapshot();
+        }
+    }
+
+    /**
+     * 保留并分发一帧
+     *
+     * @return 需要请求新快照时返回上游，由调用方在锁外请求
+     */
+    private synchronized RelayUpstream publish(OutboundFrame frame) {
+        if (closed) {
+            return null;
+        }
+        if (isSnapshot(frame)) {
+            // 已有快照的观战者只需要之后的差量，新快照只作为新观战者的起点和重新同步的回复
+            boolean first = history.isEmpty();
+            history.clear();
+            history.add(frame);
+            snapshotRequested = false;
+            if (first) {
+                fanOut(frame);
+            } else {
+                for (String connectionId : resyncing) {
+                    SessionOutbox outbox = spectators.get(connectionId);
+                    if (outbox != null && !outbox.offer(frame)) {
+                        spectators.remove(connectionId);
+                    }
+                }
+            }
+            resyncing.clear();
+            return null;
+        }
+        history.add(frame);
+        fanOut(frame);
+        return history.size() > historyLimit ? snapshotRequest() : null;
+    }
+
+    /**
+     * 标记已请求新快照，持有锁时调用
+     *
+     * @return 需要请求时返回上游，已在等待快照或上游未就绪时返回null
+     */
+    private RelayUpstream snapshotRequest() {
+        RelayUpstream current = upstream;
+        if (snapshotRequested || current == null) {
+            return null;
+        }
+        snapshotRequested = true;
+        return current;
+    }
+
+    private void fanOut(OutboundFrame frame) {
+        for (Map.Entry<String, SessionOutbox> entry : spectators.entrySet()) {
+            if (!entry.getValue().offer(frame)) {
+                spectators.remove(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * 观战者加入，先收到保留的帧
+     *
+     * @param connection 连接
+     */
+    public void addSpectator(ClientConnection connection) {
+        addSpectator(connection, null);
+    }
+
+    /**
+     * 观战者加入或重连
+     *
+     * @param connection 连接
+     * @param lastSeq 重连时最后收到的事件或差量的序号，首次加入为null
+     */
+    public void addSpectator(ClientConnection connection, Integer lastSeq) {
+        SessionOutbox outbox = new SessionOutbox(connection, properties.getQueueCapacity(),
+                properties.getSlowConsumerPolicy(), properties.getSendTimeLimit(), sendExecutor);
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("中继已关闭");
+            }
+            if (replay(outbox, lastSeq == null ? 0 : resumePosition(lastSeq))) {
+                spectators.put(connection.getId(), outbox);
+            }
+        }
+    }
+
+    /**
+     * 保留的帧中最后一个序号为 lastSeq 的帧之后的位置，找不到时从快照开始。
+     * 终局补发的帧沿用原序号，从后向前找保证取到客户端最后收到的那一帧；
+     * 该帧是紧跟在同序号差量之后的事件时，客户端可能只收到了差量，从事件开始重发
+     */
+    private int resumePosition(int lastSeq) {
+        for (int i = history.size() - 1; i > 0; i--) {
+            if (seqOf(history.get(i)) == lastSeq) {
+                boolean afterDelta = i > 1 && seqOf(history.get(i - 1)) == lastSeq
+                        && !isEvent(history.get(i - 1));
+                return afterDelta && isEvent(history.get(i)) ? i : i + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 向上游请求新快照，到达后发给该观战者；观战者（或下级中继）发现差量不连续时请求
+     *
+     * @param connectionId 连接ID
+     */
+    public void resync(String connectionId) {
+        RelayUpstream request;
+        synchronized (this) {
+            if (closed || !spectators.containsKey(connectionId)) {
+                return;
+            }
+            resyncing.add(connectionId);
+            request = snapshotRequest();
+        }
+        if (request != null) {
+            request.requestSnapshot();
+        }
+    }
+
+    private boolean replay(SessionOutbox outbox, int from) {
+        for (OutboundFrame frame : history.subList(from, history.size())) {
+            if (!outbox.offer(frame)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 观战者离开
+     *
+     * @param connectionId 连接ID
+     * @return 剩余观战者数
+     */
+    public int removeSpectator(String connectionId) {
+        SessionOutbox outbox = spectators.remove(connectionId);
+        if (outbox != null) {
+            outbox.close();
+        }
+        return spectators.size();
+    }
+
+    public int spectatorCount() {
+        return spectators.size();
+    }
+
+    /**
+     * 上游断开，关闭所有观战连接，客户端重连后会建立新的中继
+     *
+     * @param reason 原因
+     */
+    public void onUpstreamClosed(String reason) {
+        if (shutdown()) {
+            log.info("中继上游断开: {}", reason);
+            for (SessionOutbox outbox : spectators.values()) {
+                outbox.close();
+                outbox.getConnection().close(reason);
+            }
+            spectators.clear();
+            onClosed.accept(this);
+        }
+    }
+
+    /**
+     * 关闭中继并取消上游订阅（最后一个观战者离开时）
+     */
+    public void close() {
+        if (shutdown()) {
+            RelayUpstream current = upstream;
+            if (current != null) {
+                current.close();
+            }
+            spectators.values().forEach(SessionOutbox::close);
+            spectators.clear();
+        }
+    }
+
+    private synchronized boolean shutdown() {
+        if (closed) {
+            return false;
+        }
+        closed = true;
+        history.clear();
+        resyncing.clear();
+        return true;
+    }
+
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * 保留的帧数
+     *
+     * @return 帧数
+     */
+    synchronized int historySize() {
+        return history.size();
+    }
+
+    /**
+     * 快照帧：二进制格式首字节为快照类型，JSON 格式以 type 字段开头
+     */
+    static boolean isSnapshot(OutboundFrame frame) {
+        ByteBuffer payload = frame.payload();
+        if (!payload.hasRemaining()) {
+            return false;
+        }
+        if (payload.get(0) == BinaryFrameEncoder.TYPE_SNAPSHOT) {
+            return true;
+        }
+        if (payload.remaining() < JSON_SNAPSHOT_PREFIX.length) {
+            return false;
+        }
+        return payload.slice(0, JSON_SNAPSHOT_PREFIX.length).equals(ByteBuffer.wrap(JSON_SNAPSHOT_PREFIX));
+    }
+
+    /**
+     * 事件帧：二进制格式首字节为事件类型，JSON 格式以 type 字段开头
+     */
+    static boolean isEvent(OutboundFrame frame) {
+        ByteBuffer payload = frame.payload();
+        if (!payload.hasRemaining()) {
+            return false;
+        }
+        if (payload.get(0) == BinaryFrameEncoder.TYPE_EVENT) {
+            return true;
+        }
+        return payload.remaining() >= JSON_EVENT_PREFIX.length
+                && payload.slice(0, JSON_EVENT_PREFIX.length).equals(ByteBuffer.wrap(JSON_EVENT_PREFIX));
+    }
+
+    /**
+     * 事件或差量帧的序号，只在观战者重连时读取
+     *
+     * @return 序号，其他帧返回 -1
+     */
+    static int seqOf(OutboundFrame frame) {
+        ByteBuffer payload = frame.payload();
+        if (!payload.hasRemaining()) {
+            return -1;
+        }
+        byte type = payload.get(0);
+        if (type == BinaryFrameEncoder.TYPE_EVENT || type == BinaryFrameEncoder.TYPE_DELTA) {
+            ByteBuffer in = payload.slice();
+            in.get();
+            if (type == BinaryFrameEncoder.TYPE_DELTA) {
+                // 跳过 base 和 version
+                BinaryFrameDecoder.readVarint(in);
+                BinaryFrameDecoder.readVarint(in);
+            }
+            return (int) BinaryFrameDecoder.readVarint(in);
+        }
+        if (type != '{') {
+            return -1;
+        }
+        try {
+            JsonNode node = OBJECT_MAPPER.readTree(StandardCharsets.UTF_8.decode(payload.slice()).toString());
+            String frameType = node.path("type").asText();
+            return "event".equals(frameType) || "delta".equals(frameType) ? node.path("seq").asInt(-1) : -1;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.werewolf.web.websocket;
+
+import com.werewolf.domain.model.GameState;
+import com.werewolf.domain.model.Phase;
+import com.werewolf.domain.model.Player;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 房间公开状态的版本跟踪
+ * 记录上次观察到的阶段、回合和各座位标记，每次观察只比较这些字段，有变化时版本号加一并产生差量。
+ * 客户端加入时收到完整快照，之后只收到差量；差量的基准版本与本地版本不一致时重新请求快照
+ *
+ * @author Claude & User
+ */
+public class StateTracker {
+
+    private long version = 1;
+    private Phase phase;
+    private int round;
+    private GameState.GameStatus status;
+    private String winningCamp;
+    private final Map<Long, Seat> seats = new LinkedHashMap<>();
+
+    // 已观察到的事件数，即最后一条事件的序号
+    private int eventSeq;
+
+    public StateTracker(GameState gameState) {
+        this.phase = gameState.getCurrentPhase();
+        this.round = gameState.getCurrentRound();
+        this.status = gameState.getStatus();
+        this.winningCamp = gameState.getWinningCamp();
+        for (Player player : gameState.getPlayers()) {
+            seats.put(player.getId(), Seat.of(player));
+        }
+        this.eventSeq = gameState.getEvents().size();
+    }
+
+    /**
+     * 观察当前状态，与上次观察比较
+     *
+     * @param gameState 游戏状态
+     * @return 差量，没有变化时返回null
+     */
+    public synchronized Delta observe(GameState gameState) {
+        eventSeq = gameState.getEvents().size();
+        Phase newPhase = changed(phase, gameState.getCurrentPhase());
+        Integer newRound = round == gameState.getCurrentRound() ? null : gameState.getCurrentRound();
+        GameState.GameStatus newStatus = changed(status, gameState.getStatus());
+        String newWinningCamp = changed(winningCamp, gameState.getWinningCamp());
+
+        List<SeatChange> seatChanges = new ArrayList<>();
+        for (Player player : gameState.getPlayers()) {
+            Seat current = Seat.of(player);
+            Seat previous = seats.put(player.getId(), current);
+            SeatChange change = SeatChange.between(previous, current);
+            if (change != null) {
+                seatChanges.add(change);
+            }
+        }
+
+        if (newPhase == null && newRound == null && newStatus == null && newWinningCamp == null
+                && seatChanges.isEmpty()) {
+            return null;
+        }
+        phase = gameState.getCurrentPhase();
+        round = gameState.getCurrentRound();
+        status = gameState.getStatus();
+        winningCamp = gameState.getWinningCamp();
+        long base = version++;
+        return new Delta(base, version, eventSeq, newPhase, newRound, newStatus, newWinningCamp, seatChanges);
+    }
+
+    /**
+     * 最近一次观察到的完整状态
+     *
+     * @return 快照
+     */
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(version, phase, round, status, winningCamp, List.copyOf(seats.values()), eventSeq);
+    }
+
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * 已观察到的最后一条事件的序号
+     *
+     * @return 序号，没有事件时为0
+     */
+    public synchronized int getEventSeq() {
+        return eventSeq;
+    }
+
+    private static <T> T changed(T previous, T current) {
+        return Objects.equals(previous, current) ? null : current;
+    }
+
+    /**
+     * 座位的公开状态
+     */
+    public record Seat(Long playerId, int seatNumber, String name, boolean alive, boolean spoken, boolean voted) {
+
+        static Seat of(Player player) {
+            return new Seat(player.getId(), player.getSeatNumber(), player.getName(),
+                    player.isAlive(), player.isHasSpoken(), player.isHasVoted());
+        }
+    }
+
+    /**
+     * 座位变化，未变化的标记为null
+     */
+    public record SeatChange(Long playerId, Boolean alive, Boolean spoken, Boolean voted) {
+
+        static SeatChange between(Seat previous, Seat current) {
+            if (previous == null) {
+                return new SeatChange(current.playerId(), current.alive(), current.spoken(), current.voted());
+            }
+            Boolean alive = previous.alive() == current.alive() ? null : current.alive();
+            Boolean spoken = previous.spoken() == current.spoken() ? null : current.spoken();
+            Boolean voted = previous.voted() == current.voted() ? null : current.voted();
+            if (alive == null && spoken == null && voted == null) {
+                return null;
+            }
+            return new SeatChange(current.playerId(), alive, spoken, voted);
+        }
+    }
+
+    /**
+     * 状态差量：从 baseVersion 到 version 的变化，未变化的字段为null；seq 为触发观察的事件序号
+     */
+    public record Delta(long baseVersion, long version, int seq, Phase phase, Integer round,
+                        GameState.GameStatus status, String winningCamp, List<SeatChange> seats) {
+    }
+
+    /**
+     * 完整快照，eventSeq 为快照时已产生的事件数，之后的事件帧序号从 eventSeq + 1 开始
+     */
+    public record Snapshot(long version, Phase phase, int round, GameState.GameStatus status,
+                           String winningCamp, List<Seat> seats, int eventSeq) {
+
+        /**
+         * 在快照上应用差量（延迟观战按放出进度维护状态时使用）
+         *
+         * @param delta 以本快照版本为基准的差量
+         * @return 新快照
+         */
+        public Snapshot apply(Delta delta) {
+            Map<Long, SeatChange> changes = new LinkedHashMap<>();
+            delta.seats().forEach(change -> changes.put(change.playerId(), change));
+            List<Seat> newSeats = new ArrayList<>(seats.size());
+            for (Seat seat : seats) {
+                SeatChange change = changes.get(seat.playerId());
+                newSeats.add(change == null ? seat : new Seat(seat.playerId(), seat.seatNumber(), seat.name(),
+                        change.alive() == null ? seat.alive() : change.alive(),
+                        change.spoken() == null ? seat.spoken() : change.spoken(),
+                        change.voted() == null ? seat.voted() : change.voted()));
+            }
+            return new Snapshot(delta.version(),
+                    delta.phase() == null ? phase : delta.phase(),
+                    delta.round() == null ? round : delta.round(),
+                    delta.status() == null ? status : delta.status(),
+                    delta.winningCamp() == null ? winningCamp : delta.winningCamp(),
+                    List.copyOf(newSeats), delta.seq());
+        }
+
+        /**
+         * 推进事件序号
+         *
+         * @param seq 最后一条事件的序号
+         * @return 新快照
+         */
+        public Snapshot withEventSeq(int seq) {
+            return new Snapshot(version, phase, round, status, winningCamp, seats, seq);
+        }
+    }
+}
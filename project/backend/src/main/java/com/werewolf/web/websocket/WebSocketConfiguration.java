@@ -0,0 +1,97 @@
+package com.werewolf.web.websocket;
+
+import com.werewolf.agent.HumanSeats;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * WebSocket 组件装配
+ * 所有连接共用 websocket.send-threads 个发送线程。发送是阻塞写，同一连接同时最多占用一个线程；
+ * 同时卡住的慢速连接最多占满全部线程，此时其他连接的发送排队，直到卡住的写超时或连接被断开
+ *
+ * @author Claude & User
+ */
+@Configuration
+@EnableWebSocket
+public class WebSocketConfiguration implements WebSocketConfigurer {
+
+    private final WebSocketProperties properties;
+    private final ExecutorService sendExecutor;
+    private final ScheduledExecutorService scheduler;
+    private final GameGateway gameGateway;
+    private final RelayHub relayHub;
+    private final HumanSeats humanSeats = new HumanSeats();
+
+    public WebSocketConfiguration(WebSocketProperties properties) {
+        this.properties = properties;
+        if (properties.getSendThreads() <= 0) {
+            throw new IllegalArgumentException("发送线程数必须大于0");
+        }
+        // 线程数有上限，大量观战连接同时卡住时不会堆积线程
+        this.sendExecutor = Executors.newFixedThreadPool(properties.getSendThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "ws-send");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // 观战延迟只做定时，放出的帧仍由发送线程发送，单线程足够
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ws-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.gameGateway = new GameGateway(properties, sendExecutor, scheduler);
+        this.relayHub = new RelayHub(properties, sendExecutor, upstreamFactory(properties));
+    }
+
+    private RelayUpstream.Factory upstreamFactory(WebSocketProperties properties) {
+        WebSocketProperties.Relay relay = properties.getRelay();
+        if (relay.getUpstreamUrl() == null || relay.getUpstreamUrl().isBlank()) {
+            return (gameId, format, spectatorRelay) ->
+                    LocalRelayUpstream.connect(gameGateway, gameId, format, spectatorRelay);
+        }
+        HttpClient client = HttpClient.newHttpClient();
+        Duration timeout = Duration.ofMillis(relay.getConnectTimeout());
+        return (gameId, format, spectatorRelay) -> RemoteRelayUpstream.connect(client, relay.getUpstreamUrl(),
+                gameId, format, spectatorRelay, timeout);
+    }
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService webSocketSendExecutor() {
+        return sendExecutor;
+    }
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService webSocketScheduler() {
+        return scheduler;
+    }
+
+    @Bean
+    public GameGateway gameGateway() {
+        return gameGateway;
+    }
+
+    @Bean
+    public RelayHub relayHub() {
+        return relayHub;
+    }
+
+    @Bean
+    public HumanSeats humanSeats() {
+        return humanSeats;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(new GameWebSocketHandler(gameGateway, relayHub, humanSeats), properties.getEndpoint())
+                .setAllowedOrigins(properties.getAllowedOrigins().split(","));
+    }
+}
@@ -0,0 +1,50 @@
+package com.werewolf.web.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * 基于 Spring WebSocket 会话的客户端连接
+ *
+ * @author Claude & User
+ */
+@Slf4j
+public class WebSocketConnection implements ClientConnection {
+
+    private final WebSocketSession session;
+
+    public WebSocketConnection(WebSocketSession session) {
+        this.session = session;
+    }
+
+    @Override
+    public String getId() {
+        return session.getId();
+    }
+
+    @Override
+    public void send(ByteBuffer payload) throws IOException {
+        // 以二进制帧直接写出共享内容（UTF-8 JSON），避免文本帧的解码和重新编码
+        session.sendMessage(new BinaryMessage(payload));
+    }
+
+    @Override
+    public void close(String reason) {
+        try {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason(reason));
+        } catch (IOException e) {
+            log.debug("关闭连接 {} 失败: {}", session.getId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isOpen() {
+        return session.isOpen();
+    }
+}
@@ -0,0 +1,105 @@
+package com.werewolf.web.websocket;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * WebSocket 配置
+ * 绑定 application.yml 中的 websocket.* 配置项
+ *
+ * @author Claude & User
+ */
+@Data
+@ConfigurationProperties(prefix = "websocket")
+public class WebSocketProperties {
+
+    /**
+     * 连接地址
+     */
+    private String endpoint = "/ws/game";
+
+    /**
+     * 允许的来源
+     */
+    private String allowedOrigins = "*";
+
+    /**
+     * 每个连接的发送队列上限（帧数）
+     */
+    private int queueCapacity = 256;
+
+    /**
+     * 发送队列满时对慢速客户端的处理策略
+     */
+    private SlowConsumerPolicy slowConsumerPolicy = SlowConsumerPolicy.COALESCE;
+
+    /**
+     * 单帧发送超过该时间（毫秒）仍未完成时断开连接
+     */
+    private long sendTimeLimit = 10000;
+
+    /**
+     * 发送线程数，所有连接共用；发送是阻塞写，卡住的连接各占一个线程直到写超时
+     */
+    private int sendThreads = 64;
+
+    /**
+     * 每个房间保留的最近事件数，断线重连时落后不超过该数量可以只补发缺失的事件，
+     * 否则发送完整快照和保留的事件
+     */
+    private int resumeWindow = 256;
+
+    /**
+     * 观战延迟和可见范围
+     */
+    private Spectator spectator = new Spectator();
+
+    /**
+     * 观战中继
+     */
+    private Relay relay = new Relay();
+
+    /**
+     * 观战中继配置
+     */
+    @Data
+    public static class Relay {
+        /**
+         * 上游地址（如 ws://origin:8021/ws/game）；为空时订阅本机房间，
+         * 设置后本进程作为中继节点，只接受观战连接
+         */
+        private String upstreamUrl;
+
+        /**
+         * 中继为新观战者保留的帧数上限（从最近的快照算起），超过时向上游请求新快照；必须小于 queue-capacity
+         */
+        private int historyLimit = 128;
+
+        /**
+         * 连接上游的超时（毫秒）
+         */
+        private long connectTimeout = 5000;
+    }
+
+    /**
+     * 观战配置
+     */
+    @Data
+    public static class Spectator {
+        /**
+         * 观战延迟（毫秒），观战画面比实际进度晚该时间，防止观战者向玩家透露信息
+         */
+        private long delay = 0;
+
+        /**
+         * 每个房间观战延迟缓冲的初始容量（帧数），已放出的帧保留到被覆盖，供观战者重连补发；
+         * 延迟期间的事件超过容量时缓冲扩容，不会提前放出
+         */
+        private int bufferSize = 1024;
+
+        /**
+         * 上帝视角：观战者可以实时（延迟后）看到狼队和个人事件；关闭时这些事件在终局后补发
+         */
+        private boolean godView = false;
+    }
+}
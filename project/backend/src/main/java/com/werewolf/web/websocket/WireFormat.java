@@ -0,0 +1,37 @@
+package com.werewolf.web.websocket;
+
+import java.util.Locale;
+
+/**
+ * 线上格式，每个连接建立时通过 format 参数协商
+ *
+ * @author Claude & User
+ */
+public enum WireFormat {
+    /**
+     * UTF-8 JSON（默认），便于浏览器和调试
+     */
+    JSON,
+
+    /**
+     * 紧凑二进制（见 {@link BinaryFrameEncoder}），供机器人和观战转发等高并发客户端使用
+     */
+    BINARY;
+
+    /**
+     * 解析连接参数
+     *
+     * @param value 参数值，为空时使用 JSON
+     * @return 格式
+     */
+    public static WireFormat parse(String value) {
+        if (value == null || value.isEmpty()) {
+            return JSON;
+        }
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("不支持的格式: " + value);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.werewolf.agent;
+
+import com.werewolf.domain.model.GameEvent;
+import com.werewolf.domain.model.GameState;
+import com.werewolf.domain.model.Player;
+import com.werewolf.domain.role.Role;
+import com.werewolf.domain.role.Seer;
+import com.werewolf.domain.role.Villager;
+import com.werewolf.domain.role.Werewolf;
+import com.werewolf.domain.role.Witch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * HeuristicAgent 与 LegalActions 单元测试
+ */
+@DisplayName("规则AI测试")
+class HeuristicAgentTest {
+
+    private GameState gameState;
+
+    @BeforeEach
+    void setUp() {
+        gameState = createGameState();
+    }
+
+    @Test
+    @DisplayName("狼人击杀 - 只能选择存活的非狼人玩家")
+    void testWerewolfKill_LegalTargets() {
+        DecisionRequest request = LegalActions.werewolfKill(gameState, gameState.getPlayerBySeat(1));
+
+        assertEquals(List.of(103L, 104L, 105L, 106L), request.getLegalTargets());
+        AgentDecision decision = new HeuristicAgent(101L).decideNow(request);
+        assertTrue(request.getLegalTargets().contains(decision.getTargetPlayerId()));
+        assertEquals(HeuristicAgent.SOURCE, decision.getSource());
+    }
+
+    @Test
+    @DisplayName("狼人击杀 - 优先击杀跳预言家的玩家")
+    void testWerewolfKill_TargetsSeerClaimant() {
+        HeuristicAgent agent = new HeuristicAgent(101L);
+        agent.onEvent(speech(104L, "4号玩家发言：我是预言家，查验结果：1号是狼人。"));
+
+        AgentDecision decision = agent.decideNow(LegalActions.werewolfKill(gameState, gameState.getPlayerBySeat(1)));
+
+        assertEquals(104L, decision.getTargetPlayerId());
+    }
+
+    @Test
+    @DisplayName("预言家查验 - 不能查验自己和死亡玩家，不重复查验")
+    void testSeerCheck() {
+        gameState.getPlayerBySeat(1).setAlive(false);
+        HeuristicAgent agent = new HeuristicAgent(105L);
+        DecisionRequest request = LegalActions.seerCheck(gameState, gameState.getPlayerBySeat(5));
+        assertEquals(List.of(102L, 103L, 104L, 106L), request.getLegalTargets());
+
+        agent.getBelief().initialize(gameState, gameState.getPlayerBySeat(5));
+        agent.getBelief().recordCheck(102L, true);
+        agent.getBelief().recordCheck(103L, false);
+        agent.getBelief().recordCheck(104L, false);
+
+        assertEquals(106L, agent.decideNow(request).getTargetPlayerId());
+    }
+
+    @Test
+    @DisplayName("女巫 - 首夜有人被杀时使用解药")
+    void testWitchSavesFirstNight() {
+        DecisionRequest request = LegalActions.witchAction(gameState, gameState.getPlayerBySeat(6), 103L);
+
+        assertTrue(request.isAntidoteAllowed());
+        AgentDecision decision = new HeuristicAgent(106L).decideNow(request);
+        assertTrue(decision.isUseAntidote());
+        assertNull(decision.getPoisonTargetId());
+    }
+
+    @Test
+    @DisplayName("女巫 - 首夜不能自救")
+    void testWitchCannotSelfSaveFirstNight() {
+        DecisionRequest request = LegalActions.witchAction(gameState, gameState.getPlayerBySeat(6), 106L);
+
+        assertFalse(request.isAntidoteAllowed());
+        assertFalse(new HeuristicAgent(106L).decideNow(request).isUseAntidote());
+    }
+
+    @Test
+    @DisplayName("女巫 - 毒杀被预言家查杀的玩家")
+    void testWitchPoisonsClaimedWerewolf() {
+        gameState.setCurrentRound(2);
+        ((Witch) gameState.getPlayerBySeat(6).getRole()).getAntidoteSkill().use();
+        HeuristicAgent agent = new HeuristicAgent(106L);
+        agent.onEvent(speech(105L, "5号玩家发言：我是预言家，查验结果：2号是狼人。"));
+        agent.onEvent(speech(102L, "2号玩家发言：我是好人，目前我觉得3号比较可疑。"));
+
+        AgentDecision decision = agent.decideNow(LegalActions.witchAction(gameState, gameState.getPlayerBySeat(6), null));
+
+        assertFalse(decision.isUseAntidote());
+        assertEquals(102L, decision.getPoisonTargetId());
+    }
+
+    @Test
+    @DisplayName("投票 - 好人跟随预言家的查杀")
+    void testVote_FollowsSeerClaim() {
+        HeuristicAgent agent = new HeuristicAgent(103L);
+        DecisionRequest request = LegalActions.vote(gameState, gameState.getPlayerBySeat(3));
+        request.setDaySpeeches(Map.of(105L, "我是预言家，查验结果：2号是狼人。"));
+
+        assertTrue(request.isAbstainAllowed());
+        assertFalse(request.getLegalTargets().contains(103L));
+        assertEquals(102L, agent.decideNow(request).getTargetPlayerId());
+    }
+
+    @Test
+    @DisplayName("投票 - 狼人不投队友")
+    void testVote_WerewolfAvoidsTeammate() {
+        HeuristicAgent agent = new HeuristicAgent(101L);
+        DecisionRequest request = LegalActions.vote(gameState, gameState.getPlayerBySeat(1));
+        request.setDaySpeeches(Map.of(104L, "我是预言家，查验结果：2号是狼人。"));
+
+        for (int i = 0; i < 20; i++) {
+            Long target = agent.decideNow(request).getTargetPlayerId();
+            assertNotEquals(102L, target);
+        }
+    }
+
+    @Test
+    @DisplayName("发言 - 预言家公布查验结果")
+    void testSpeech() {
+        HeuristicAgent seer = new HeuristicAgent(105L);
+        seer.onEvent(GameEvent.builder()
+                .type(GameEvent.EventType.SEER_CHECK)
+                .playerId(105L)
+                .targetPlayerId(102L)
+                .description("预言家查验了玩家2，结果是狼人")
+                .build());
+        AgentDecision speech = seer.decideNow(LegalActions.daySpeech(gameState, gameState.getPlayerBySeat(5)));
+        AgentDecision lastWords = new HeuristicAgent(104L)
+                .decideNow(LegalActions.lastWords(gameState, gameState.getPlayerBySeat(4)));
+
+        assertTrue(speech.getContent().contains("我是预言家"));
+        assertTrue(speech.getContent().contains("2号是狼人"));
+        assertTrue(lastWords.getContent().startsWith("4号玩家遗言"));
+    }
+
+    @Test
+    @DisplayName("相同种子产生相同决策")
+    void testDeterministicWithSeed() {
+        DecisionRequest request = LegalActions.werewolfKill(gameState, gameState.getPlayerBySeat(1));
+
+        Long first = new HeuristicAgent(101L, new Random(42)).decideNow(request).getTargetPlayerId();
+        Long second = new HeuristicAgent(101L, new Random(42)).decideNow(request).getTargetPlayerId();
+
+        assertEquals(first, second);
+    }
+
+    @Test
+    @DisplayName("合法性校验 - 非法目标按放弃处理，解药和毒药不能同时使用")
+    void testSanitize() {
+        DecisionRequest kill = LegalActions.werewolfKill(gameState, gameState.getPlayerBySeat(1));
+        assertNull(LegalActions.sanitize(kill, AgentDecision.target(DecisionType.WEREWOLF_KILL, 102L))
+                .getTargetPlayerId());
+
+        DecisionRequest witch = LegalActions.witchAction(gameState, gameState.getPlayerBySeat(6), 103L);
+        AgentDecision both = LegalActions.sanitize(witch, AgentDecision.witch(true, 101L));
+        assertTrue(both.isUseAntidote());
+        assertNull(both.getPoisonTargetId());
+    }
+
+    private GameEvent speech(Long playerId, String content) {
+        return GameEvent.builder()
+                .type(GameEvent.EventType.PLAYER_SPEECH)
+                .playerId(playerId)
+                .description(content)
+                .isPublic(true)
+                .build();
+    }
+
+    private GameState createGameState() {
+        List<Player> players = new ArrayList<>();
+        Role[] roles = {new Werewolf(), new Werewolf(), new Villager(), new Villager(), new Seer(), new Witch()};
+        for (int seat = 1; seat <= roles.length; seat++) {
+            players.add(Player.builder()
+                    .id(100L + seat)
+                    .name("玩家" + seat)
+                    .role(roles[seat - 1])
+                    .alive(true)
+                    .seatNumber(seat)
+                    .build());
+        }
+        return GameState.builder()
+                .gameId(1L)
+                .currentRound(1)
+                .players(players)
+                .build();
+    }
+}
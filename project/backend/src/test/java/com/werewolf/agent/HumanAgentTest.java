@@ -0,0 +1,247 @@
+package com.werewolf.agent;
+
+import com.werewolf.domain.model.GameState;
+import com.werewolf.domain.model.Player;
+import com.werewolf.domain.role.Role;
+import com.werewolf.domain.role.Seer;
+import com.werewolf.domain.role.Villager;
+import com.werewolf.domain.role.Werewolf;
+import com.werewolf.domain.role.Witch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * HumanAgent 与 DecisionSlot 单元测试
+ *
+ * @author Claude & User
+ */
+@DisplayName("真人座位测试")
+class HumanAgentTest {
+
+    private GameState gameState;
+    private ScheduledExecutorService scheduler;
+    private final List<DecisionPrompt> prompts = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        gameState = createGameState();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("提交行动 - 提示带版本，按版本提交后生效")
+    void testSubmit() throws Exception {
+        HumanAgent agent = agent(105L, 60_000);
+        CompletableFuture<AgentDecision> result =
+                agent.decide(LegalActions.seerCheck(gameState, gameState.getPlayerBySeat(5)));
+
+        DecisionPrompt prompt = prompts.get(0);
+        assertEquals(1, prompt.version());
+        assertEquals(DecisionType.SEER_CHECK, prompt.type());
+        assertEquals(prompt, agent.currentPrompt());
+
+        assertEquals(SubmissionResult.ACCEPTED, agent.submit(target(prompt, "k1", 101L)));
+        AgentDecision decision = result.get(1, TimeUnit.SECONDS);
+        assertEquals(101L, decision.getTargetPlayerId());
+        assertFalse(decision.isFallback());
+        assertNull(agent.currentPrompt());
+    }
+
+    @Test
+    @DisplayName("重复提交 - 同一幂等键返回第一次的结果，不会再次生效")
+    void testDuplicate() throws Exception {
+        HumanAgent agent = agent(101L, 60_000);
+        CompletableFuture<AgentDecision> first = agent.decide(LegalActions.vote(gameState, gameState.getPlayerBySeat(1)));
+        DecisionPrompt prompt = prompts.get(0);
+        assertEquals(SubmissionResult.ACCEPTED, agent.submit(target(prompt, "k1", 103L)));
+
+        // 下一次决策打开后重试旧请求：仍返回已采纳，且不会作用于新决策
+        CompletableFuture<AgentDecision> second = agent.decide(LegalActions.vote(gameState, gameState.getPlayerBySeat(1)));
+        assertEquals(SubmissionResult.ACCEPTED, agent.submit(target(prompt, "k1", 103L)));
+        assertEquals(103L, first.get(1, TimeUnit.SECONDS).getTargetPlayerId());
+        assertFalse(second.isDone());
+
+        assertEquals(2, prompts.get(1).version());
+        assertEquals(SubmissionResult.ACCEPTED, agent.submit(target(prompts.get(1), "k2", 104L)));
+        assertEquals(104L, second.get(1, TimeUnit.SECONDS).getTargetPlayerId());
+    }
+
+    @Test
+    @DisplayName("过期提交 - 版本不符或决策已完成时返回 STALE")
+    void testStale() {
+        HumanAgent agent = agent(101L, 60_000);
+        assertEquals(SubmissionResult.STALE, agent.submit(ActionSubmission.builder()
+                .version(1).idempotencyKey("k0").type(DecisionType.VOTE).targetPlayerId(103L).build()));
+
+        agent.decide(LegalActions.vote(gameState, gameState.getPlayerBySeat(1)));
+        DecisionPrompt prompt = prompts.get(0);
+        assertEquals(SubmissionResult.STALE, agent.submit(ActionSubmission.builder()
+                .version(prompt.version() + 1).idempotencyKey("k1").type(DecisionType.VOTE).targetPlayerId(103L).build()));
+        assertEquals(SubmissionResult.ACCEPTED, agent.submit(target(prompt, "k2", 103L)));
+        assertEquals(SubmissionResult.STALE, agent.submit(target(prompt, "k3", 104L)));
+    }
+
+    @Test
+    @DisplayName("非法提交 - 缺少幂等键、类型不符、目标不合法时返回 REJECTED，决策仍可提交")
+    void testRejected() throws Exception {
+        HumanAgent agent = agent(106L, 60_000);
+        CompletableFuture<AgentDecision> result =
+                agent.decide(LegalActions.witchAction(gameState, gameState.getPlayerBySeat(6), 103L));
+        DecisionPrompt prompt = prompts.get(0);
+        assertEquals(103L, prompt.killedPlayerId());
+
+        assertEquals(SubmissionResult.REJECTED, agent.submit(ActionSubmission.builder()
+                .version(prompt.version()).type(DecisionType.WITCH_ACTION).useAntidote(true).build()));
+        assertEquals(SubmissionResult.REJECTED, agent.submit(ActionSubmission.builder()
+                .version(prompt.version()).idempotencyKey("k1").type(DecisionType.VOTE).targetPlayerId(103L).build()));
+        // 首夜已救人时不能同时用毒
+        assertEquals(SubmissionResult.REJECTED, agent.submit(ActionSubmission.builder()
+                .version(prompt.version()).idempotencyKey("k2").type(DecisionType.WITCH_ACTION)
+                .useAntidote(true).poisonTargetId(101L).build()));
+        assertFalse(result.isDone());
+
+        assertEquals(SubmissionResult.ACCEPTED, agent.submit(ActionSubmission.builder()
+                .version(prompt.version()).idempotencyKey("k3").type(DecisionType.WITCH_ACTION)
+                .useAntidote(true).build()));
+        assertTrue(result.get(1, TimeUnit.SECONDS).isUseAntidote());
+    }
+
+    @Test
+    @DisplayName("超时 - 提交降级AI的默认决策，之后的提交返回 STALE")
+    void testTimeout() throws Exception {
+        HumanAgent agent = agent(105L, 50);
+        CompletableFuture<AgentDecision> result =
+                agent.decide(LegalActions.seerCheck(gameState, gameState.getPlayerBySeat(5)));
+
+        AgentDecision decision = result.get(2, TimeUnit.SECONDS);
+        assertTrue(decision.isFallback());
+        assertEquals(SubmissionResult.STALE, agent.submit(target(prompts.get(0), "k1", 101L)));
+    }
+
+    @Test
+    @DisplayName("掉线 - 不等期限立即提交默认决策")
+    void testExpire() throws Exception {
+        HumanAgent agent = agent(101L, 60_000);
+        CompletableFuture<AgentDecision> result = agent.decide(LegalActions.vote(gameState, gameState.getPlayerBySeat(1)));
+
+        agent.expire();
+
+        assertTrue(result.get(1, TimeUnit.SECONDS).isFallback());
+        assertEquals(SubmissionResult.STALE, agent.submit(target(prompts.get(0), "k1", 103L)));
+    }
+
+    @Test
+    @DisplayName("并发提交 - 同一决策只有一次提交生效")
+    void testConcurrentSubmit() throws Exception {
+        HumanAgent agent = agent(101L, 60_000);
+        CompletableFuture<AgentDecision> result = agent.decide(LegalActions.vote(gameState, gameState.getPlayerBySeat(1)));
+        DecisionPrompt prompt = prompts.get(0);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<SubmissionResult>> submissions = new ArrayList<>();
+        try {
+            for (int i = 0; i < 16; i++) {
+                String key = "k" + (i % 4);
+                long target = 103L + i % 4;
+                submissions.add(executor.submit(() -> {
+                    start.await();
+                    return agent.submit(target(prompt, key, target));
+                }));
+            }
+            start.countDown();
+            int accepted = 0;
+            for (Future<SubmissionResult> submission : submissions) {
+                if (submission.get(5, TimeUnit.SECONDS) == SubmissionResult.ACCEPTED) {
+                    accepted++;
+                }
+            }
+            // 同一键的 4 次提交结果相同，只有一个键被采纳
+            assertEquals(4, accepted);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertNotNull(result.get(1, TimeUnit.SECONDS).getTargetPlayerId());
+    }
+
+    @Test
+    @DisplayName("关闭座位 - 取消等待中的决策")
+    void testClose() {
+        HumanAgent agent = agent(101L, 60_000);
+        CompletableFuture<AgentDecision> result = agent.decide(LegalActions.vote(gameState, gameState.getPlayerBySeat(1)));
+
+        agent.close();
+
+        assertTrue(result.isCancelled());
+        assertNull(agent.currentPrompt());
+    }
+
+    @Test
+    @DisplayName("座位登记 - 未登记的座位拒绝提交")
+    void testHumanSeats() {
+        HumanSeats seats = new HumanSeats();
+        HumanAgent agent = agent(101L, 60_000);
+        seats.register(1L, agent);
+        agent.decide(LegalActions.vote(gameState, gameState.getPlayerBySeat(1)));
+        DecisionPrompt prompt = prompts.get(0);
+
+        assertEquals(prompt, seats.currentPrompt(1L, 101L));
+        assertEquals(SubmissionResult.REJECTED, seats.submit(1L, 102L, target(prompt, "k1", 103L)));
+        assertEquals(SubmissionResult.ACCEPTED, seats.submit(1L, 101L, target(prompt, "k1", 103L)));
+
+        seats.release(1L);
+        assertNull(seats.currentPrompt(1L, 101L));
+    }
+
+    private HumanAgent agent(Long playerId, long timeout) {
+        return new HumanAgent(playerId, new HeuristicAgent(playerId), scheduler, timeout, prompts::add);
+    }
+
+    private static ActionSubmission target(DecisionPrompt prompt, String key, Long target) {
+        return ActionSubmission.builder()
+                .version(prompt.version())
+                .idempotencyKey(key)
+                .type(prompt.type())
+                .targetPlayerId(target)
+                .build();
+    }
+
+    private GameState createGameState() {
+        List<Player> players = new ArrayList<>();
+        Role[] roles = {new Werewolf(), new Werewolf(), new Villager(), new Villager(), new Seer(), new Witch()};
+        for (int seat = 1; seat <= roles.length; seat++) {
+            players.add(Player.builder()
+                    .id(100L + seat)
+                    .name("玩家" + seat)
+                    .role(roles[seat - 1])
+                    .alive(true)
+                    .seatNumber(seat)
+                    .build());
+        }
+        return GameState.builder()
+                .gameId(1L)
+                .currentRound(1)
+                .players(players)
+                .build();
+    }
+}
@@ -0,0 +1,500 @@
+package com.werewolf.agent;
+
+import com.werewolf.digest.RoundDigest;
+import com.werewolf.domain.model.GameEvent;
+import com.werewolf.domain.model.GameState;
+import com.werewolf.domain.model.Player;
+import com.werewolf.domain.role.Role;
+import com.werewolf.domain.role.Seer;
+import com.werewolf.domain.role.Villager;
+import com.werewolf.domain.role.Werewolf;
+import com.werewolf.domain.role.Witch;
+import com.werewolf.llm.ChatMessage;
+import com.werewolf.llm.LLMClient;
+import com.werewolf.llm.LLMException;
+import com.werewolf.llm.LLMProperties;
+import com.werewolf.llm.LLMRequest;
+import com.werewolf.llm.LLMResponse;
+import com.werewolf.llm.ModelConfig;
+import com.werewolf.llm.adapter.LLMModelAdapter;
+import com.werewolf.llm.resilience.CircuitBreaker;
+import com.werewolf.llm.resilience.CircuitBreakerRegistry;
+import com.werewolf.llm.routing.ModelRouter;
+import com.werewolf.llm.scheduling.CallScheduler;
+import com.werewolf.llm.scheduling.LoadShedder;
+import com.werewolf.llm.session.SessionExpiredException;
+import com.werewolf.view.PlayerView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LLMAgent 单元测试
+ */
+@DisplayName("LLM智能体测试")
+class LLMAgentTest {
+
+    private ScheduledExecutorService scheduler;
+    private LLMProperties properties;
+    private CircuitBreakerRegistry breakers;
+    private ScriptedAdapter adapter;
+    private LLMAgent agent;
+    private GameState gameState;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = Executors.newScheduledThreadPool(2);
+        properties = new LLMProperties();
+        properties.getHedge().setEnabled(false);
+        properties.getRetry().setMaxAttempts(1);
+        breakers = new CircuitBreakerRegistry(properties.getCircuitBreaker());
+        adapter = new ScriptedAdapter();
+        ModelRouter router = new ModelRouter(properties.getRouting(), List.of("gpt-4"));
+        LLMClient client = new LLMClient(properties, Map.of("gpt-4", adapter), router, breakers, scheduler);
+        gameState = createGameState();
+        agent = new LLMAgent(105L, "gpt-4", client, new HeuristicAgent(105L), new AIProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("解析座位号并转换为玩家ID")
+    void testParseSeat() {
+        adapter.reply = "我决定查验4号玩家";
+
+        AgentDecision decision = agent.decide(LegalActions.seerCheck(gameState, seer())).join();
+
+        assertEquals(104L, decision.getTargetPlayerId());
+        assertEquals("llm:gpt-4", decision.getSource());
+        assertFalse(decision.isFallback());
+    }
+
+    @Test
+    @DisplayName("按决策类型请求结构化输出并解码JSON回复")
+    void testStructuredOutput() {
+        adapter.reply = "```json\n{\"target\": \"4号\"}\n```";
+
+        AgentDecision decision = agent.decide(LegalActions.seerCheck(gameState, seer())).join();
+
+        assertEquals(104L, decision.getTargetPlayerId());
+        assertFalse(decision.isFallback());
+        assertEquals("seer_check", adapter.lastRequest.getResponseSchemaName());
+        assertNotNull(adapter.lastRequest.getResponseSchema());
+        assertEquals(1, adapter.calls.get());
+    }
+
+    @Test
+    @DisplayName("回复无法解析时重新询问一次")
+    void testReaskOnce() {
+        adapter.replies.add("我再想想");
+        adapter.reply = "{\"target\": 4}";
+
+        AgentDecision decision = agent.decide(LegalActions.seerCheck(gameState, seer())).join();
+
+        assertFalse(decision.isFallback());
+        assertEquals(104L, decision.getTargetPlayerId());
+        assertEquals(2, adapter.calls.get());
+        List<ChatMessage> messages = adapter.lastRequest.getMessages();
+        assertEquals("我再想想", messages.get(messages.size() - 2).getContent());
+    }
+
+    @Test
+    @DisplayName("重新询问使用决策开始时的上下文，不读取之后变化的游戏状态")
+    void testReaskUsesContextFromDecisionStart() {
+        adapter.hang = true;
+        CompletableFuture<AgentDecision> result = agent.decide(LegalActions.seerCheck(gameState, seer()));
+        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (adapter.pending == null && System.nanoTime() < until) {
+            Thread.onSpinWait();
+        }
+        List<ChatMessage> prompt = adapter.lastRequest.getMessages();
+        assertTrue(adapter.lastRequest.isAllowDowngrade());
+
+        // 模型回调之前引擎继续推进
+        adapter.hang = false;
+        adapter.reply = "{\"target\": 4}";
+        gameState.setCurrentRound(2);
+        gameState.getPlayerBySeat(1).setType(Player.PlayerType.HUMAN);
+        gameState.addEvent(GameEvent.createPublicEvent(GameEvent.EventType.DAY_START, "天亮了，3号死亡"));
+        adapter.pending.complete(LLMResponse.builder().content("我再想想").modelId("gpt-4").build());
+
+        AgentDecision decision = result.join();
+        assertFalse(decision.isFallback());
+        assertEquals(104L, decision.getTargetPlayerId());
+        assertEquals(2, adapter.calls.get());
+        assertTrue(adapter.lastRequest.isAllowDowngrade());
+        List<ChatMessage> reask = adapter.lastRequest.getMessages();
+        assertEquals(prompt, reask.subList(0, prompt.size()));
+        assertTrue(reask.stream().noneMatch(message -> message.getContent().contains("天亮了，3号死亡")));
+    }
+
+    @Test
+    @DisplayName("重新询问后仍无法解析时降级为规则AI")
+    void testUnparsableFallsBack() {
+        adapter.reply = "我再想想";
+
+        AgentDecision decision = agent.decide(LegalActions.seerCheck(gameState, seer())).join();
+
+        assertTrue(decision.isFallback());
+        assertEquals(HeuristicAgent.SOURCE, decision.getSource());
+        assertNotNull(decision.getTargetPlayerId());
+        assertEquals(2, adapter.calls.get());
+    }
+
+    @Test
+    @DisplayName("调用失败时降级为规则AI")
+    void testFailureFallsBack() {
+        adapter.failure = new LLMException("服务不可用", 503);
+
+        AgentDecision decision = agent.decide(LegalActions.seerCheck(gameState, seer())).join();
+
+        assertTrue(decision.isFallback());
+        assertNotNull(decision.getTargetPlayerId());
+    }
+
+    @Test
+    @DisplayName("超过决策期限时提交预先计算的默认决策并取消调用")
+    void testDeadlineCommitsPrecomputedDefault() {
+        properties.getDeadline().setMinDeadline(50);
+        properties.getDeadline().setMaxDeadline(50);
+        adapter.hang = true;
+
+        long start = System.nanoTime();
+        AgentDecision decision = agent.decide(LegalActions.seerCheck(gameState, seer())).join();
+
+        assertTrue(decision.isFallback());
+        assertEquals(HeuristicAgent.SOURCE, decision.getSource());
+        assertNotNull(decision.getTargetPlayerId());
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 5000);
+        // 提交默认决策的线程随后才取消在途调用
+        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!adapter.pending.isCancelled() && System.nanoTime() < until) {
+            Thread.onSpinWait();
+        }
+        assertTrue(adapter.pending.isCancelled());
+    }
+
+    @Test
+    @DisplayName("关闭智能体时取消进行中的决策和模型调用")
+    void testCloseCancelsInFlight() {
+        adapter.hang = true;
+
+        CompletableFuture<AgentDecision> decision = agent.decide(LegalActions.seerCheck(gameState, seer()));
+        agent.close();
+
+        assertTrue(decision.isCancelled());
+        assertTrue(adapter.pending.isCancelled());
+    }
+
+    @Test
+    @DisplayName("过载时降级为规则AI并记录事件，负载回落后恢复")
+    void testLoadShedding() {
+        AtomicLong queueWait = new AtomicLong(10000);
+        LLMAgent shedAgent = new LLMAgent(105L, "gpt-4", sheddingClient(queueWait), new HeuristicAgent(105L),
+                new AIProperties());
+        adapter.reply = "{\"target\": 4}";
+
+        AgentDecision degraded = shedAgent.decide(LegalActions.seerCheck(gameState, seer())).join();
+
+        assertTrue(degraded.isFallback());
+        assertEquals(0, adapter.calls.get());
+        assertEquals(LoadShedder.HEURISTIC, shedAgent.getDegradedTo());
+        assertTrue(gameState.isModelDegraded());
+        GameEvent event = gameState.getEvents().get(gameState.getEvents().size() - 1);
+        assertEquals(GameEvent.EventType.MODEL_DEGRADED, event.getType());
+        assertEquals("gpt-4", event.getData().get("from"));
+        assertTrue(PlayerView.snapshot(gameState, seer()).getVisibleEvents().isEmpty());
+
+        queueWait.set(0);
+        AgentDecision restored = shedAgent.decide(LegalActions.seerCheck(gameState, seer())).join();
+
+        assertFalse(restored.isFallback());
+        assertEquals(104L, restored.getTargetPlayerId());
+        assertNull(shedAgent.getDegradedTo());
+        assertEquals(GameEvent.EventType.MODEL_RESTORED,
+                gameState.getEvents().get(gameState.getEvents().size() - 1).getType());
+    }
+
+    @Test
+    @DisplayName("一次决策只解析一次降级级别，调用的模型与降级事件一致")
+    void testDowngradeResolvedOncePerDecision() {
+        properties.getLoadShedding().setEvaluationInterval(0);
+        ScriptedAdapter small = new ScriptedAdapter();
+        small.reply = "{\"target\": 4}";
+        LoadShedder shedder = new LoadShedder(properties.getLoadShedding(), List.of(
+                ModelConfig.builder().id("gpt-4").downgradeTo("gpt-3.5-turbo").build(),
+                ModelConfig.builder().id("gpt-3.5-turbo").downgradeTo(LoadShedder.HEURISTIC).build()),
+                () -> 10000);
+        LLMClient client = new LLMClient(properties, Map.of("gpt-4", adapter, "gpt-3.5-turbo", small),
+                new ModelRouter(properties.getRouting(), List.of("gpt-4")), breakers, scheduler,
+                new CallScheduler(4), shedder);
+        LLMAgent shedAgent = new LLMAgent(105L, "gpt-4", client, new HeuristicAgent(105L), new AIProperties());
+
+        // 排队持续超时，每次评估都会再升一级；调用时不能按新级别降到规则AI
+        AgentDecision decision = shedAgent.decide(LegalActions.seerCheck(gameState, seer())).join();
+
+        assertFalse(decision.isFallback());
+        assertEquals(1, small.calls.get());
+        assertEquals(0, adapter.calls.get());
+        assertEquals(1, small.lastRequest.getDowngradeLevel());
+        GameEvent event = gameState.getEvents().get(gameState.getEvents().size() - 1);
+        assertEquals("gpt-3.5-turbo", event.getData().get("to"));
+        assertEquals(1, event.getData().get("level"));
+    }
+
+    @Test
+    @DisplayName("有真人玩家的房间不降级")
+    void testNoSheddingWithHumans() {
+        gameState.getPlayerBySeat(1).setType(Player.PlayerType.HUMAN);
+        LLMAgent shedAgent = new LLMAgent(105L, "gpt-4", sheddingClient(new AtomicLong(10000)),
+                new HeuristicAgent(105L), new AIProperties());
+        adapter.reply = "{\"target\": 4}";
+
+        AgentDecision decision = shedAgent.decide(LegalActions.seerCheck(gameState, seer())).join();
+
+        assertFalse(decision.isFallback());
+        assertFalse(adapter.lastRequest.isAllowDowngrade());
+        assertFalse(gameState.isModelDegraded());
+    }
+
+    @Test
+    @DisplayName("模型熔断时不发起调用，直接降级")
+    void testOpenBreakerSkipsCall() {
+        CircuitBreaker breaker = breakers.forModel("gpt-4");
+        for (int i = 0; i < properties.getCircuitBreaker().getMinCalls(); i++) {
+            breaker.onFailure(breaker.tryAcquire());
+        }
+
+        AgentDecision decision = agent.decide(LegalActions.seerCheck(gameState, seer())).join();
+
+        assertTrue(decision.isFallback());
+        assertEquals(0, adapter.calls.get());
+    }
+
+    @Test
+    @DisplayName("女巫回复解析解药与毒药")
+    void testParseWitch() {
+        Player witch = gameState.getPlayerBySeat(6);
+        LLMAgent witchAgent = new LLMAgent(106L, "gpt-4", agentClient(), new HeuristicAgent(106L),
+                new AIProperties());
+
+        adapter.reply = "不救，毒1号";
+        AgentDecision decision = witchAgent.decide(LegalActions.witchAction(gameState, witch, 103L)).join();
+
+        assertFalse(decision.isUseAntidote());
+        assertEquals(101L, decision.getPoisonTargetId());
+    }
+
+    @Test
+    @DisplayName("狼队联合决策解析击杀目标和讨论")
+    void testParseTeamKill() {
+        Player werewolf = gameState.getPlayerBySeat(1);
+        LLMAgent werewolfAgent = new LLMAgent(101L, "gpt-4", agentClient(), new HeuristicAgent(101L),
+                new AIProperties());
+
+        adapter.reply = "5号昨天发言像预言家，今晚先处理掉。\n击杀：5号";
+        AgentDecision decision = werewolfAgent.decide(LegalActions.werewolfTeamKill(gameState, werewolf)).join();
+
+        assertEquals(105L, decision.getTargetPlayerId());
+        assertEquals("5号昨天发言像预言家，今晚先处理掉。", decision.getContent());
+        assertFalse(decision.isFallback());
+        assertTrue(adapter.lastRequest.getMessages().get(3).getContent().contains("代表狼队（1号、2号）"));
+    }
+
+    @Test
+    @DisplayName("投票回复弃票")
+    void testParseAbstain() {
+        adapter.reply = "弃票";
+
+        AgentDecision decision = agent.decide(LegalActions.vote(gameState, seer())).join();
+
+        assertNull(decision.getTargetPlayerId());
+        assertFalse(decision.isFallback());
+    }
+
+    @Test
+    @DisplayName("已摘要回合的公开事件只以摘要形式出现在提示词中")
+    void testPromptUsesDigests() {
+        gameState.addEvent(GameEvent.createPublicEvent(GameEvent.EventType.PLAYER_SPEECH, "玩家1: 第一轮发言"));
+        gameState.setCurrentRound(2);
+        gameState.addEvent(GameEvent.createPublicEvent(GameEvent.EventType.PLAYER_SPEECH, "玩家1: 第二轮发言"));
+        DecisionRequest request = LegalActions.seerCheck(gameState, seer());
+        request.setDigests(List.of(RoundDigest.builder().round(1).summary("第1轮：平安夜；无人出局。").build()));
+        adapter.reply = "4号";
+
+        agent.decide(request).join();
+
+        String prompt = adapter.lastRequest.getMessages().get(2).getContent();
+        assertTrue(prompt.contains("R1 夜亡:- 票:- 弃:- 逐:-"));
+        assertFalse(prompt.contains("第一轮发言"));
+        assertTrue(prompt.contains("第二轮发言"));
+    }
+
+    @Test
+    @DisplayName("支持会话的模型每轮只发送新增事件")
+    void testSessionSendsOnlyDelta() {
+        adapter.sessions = true;
+        adapter.reply = "4号";
+
+        agent.decide(LegalActions.seerCheck(gameState, seer())).join();
+        assertTrue(adapter.lastRequest.isSession());
+        assertNull(adapter.lastRequest.getPreviousResponseId());
+        assertEquals(4, adapter.lastRequest.getMessages().size());
+
+        gameState.addEvent(GameEvent.createPublicEvent(GameEvent.EventType.DAY_START, "天亮了，3号死亡"));
+        AgentDecision decision = agent.decide(LegalActions.vote(gameState, seer())).join();
+
+        assertFalse(decision.isFallback());
+        assertEquals("resp-1", adapter.lastRequest.getPreviousResponseId());
+        assertEquals(1, adapter.lastRequest.getMessages().size());
+        String delta = adapter.lastRequest.getMessages().get(0).getContent();
+        assertTrue(delta.contains("天亮了，3号死亡"));
+        assertFalse(delta.contains("【板子规则】"));
+        assertEquals(2, agent.getSession().getTurns());
+        assertTrue(agent.getSession().getTokensSaved() > 0);
+    }
+
+    @Test
+    @DisplayName("会话过期时根据玩家视图透明重建")
+    void testSessionRebuildOnExpiry() {
+        adapter.sessions = true;
+        adapter.reply = "4号";
+        agent.decide(LegalActions.seerCheck(gameState, seer())).join();
+
+        adapter.expireSessions = true;
+        AgentDecision decision = agent.decide(LegalActions.vote(gameState, seer())).join();
+
+        assertFalse(decision.isFallback());
+        assertEquals(104L, decision.getTargetPlayerId());
+        assertEquals(3, adapter.calls.get());
+        assertNull(adapter.lastRequest.getPreviousResponseId());
+        assertEquals(4, adapter.lastRequest.getMessages().size());
+        assertEquals(1, agent.getSession().getRebuilds());
+        assertEquals("resp-3", agent.getSession().getResponseId());
+    }
+
+    @Test
+    @DisplayName("不支持会话的模型每次发送完整上下文")
+    void testNoSessionWithoutProviderSupport() {
+        adapter.reply = "4号";
+
+        agent.decide(LegalActions.seerCheck(gameState, seer())).join();
+        agent.decide(LegalActions.vote(gameState, seer())).join();
+
+        assertFalse(adapter.lastRequest.isSession());
+        assertEquals(4, adapter.lastRequest.getMessages().size());
+        assertEquals(0, agent.getSession().getTurns());
+    }
+
+    private LLMClient sheddingClient(AtomicLong queueWait) {
+        properties.getLoadShedding().setEvaluationInterval(0);
+        ModelRouter router = new ModelRouter(properties.getRouting(), List.of("gpt-4"));
+        LoadShedder shedder = new LoadShedder(properties.getLoadShedding(),
+                List.of(ModelConfig.builder().id("gpt-4").downgradeTo(LoadShedder.HEURISTIC).build()), queueWait::get);
+        return new LLMClient(properties, Map.of("gpt-4", adapter), router, breakers, scheduler,
+                new CallScheduler(4), shedder);
+    }
+
+    private LLMClient agentClient() {
+        ModelRouter router = new ModelRouter(properties.getRouting(), List.of("gpt-4"));
+        return new LLMClient(properties, Map.of("gpt-4", adapter), router, breakers, scheduler);
+    }
+
+    private Player seer() {
+        return gameState.getPlayerBySeat(5);
+    }
+
+    private GameState createGameState() {
+        List<Player> players = new ArrayList<>();
+        Role[] roles = {new Werewolf(), new Werewolf(), new Villager(), new Villager(), new Seer(), new Witch()};
+        for (int seat = 1; seat <= roles.length; seat++) {
+            players.add(Player.builder()
+                    .id(100L + seat)
+                    .name("玩家" + seat)
+                    .role(roles[seat - 1])
+                    .alive(true)
+                    .seatNumber(seat)
+                    .build());
+        }
+        return GameState.builder()
+                .gameId(1L)
+                .currentRound(1)
+                .players(players)
+                .build();
+    }
+
+    /**
+     * 返回固定回复的测试适配器
+     */
+    private static class ScriptedAdapter implements LLMModelAdapter {
+        private final AtomicInteger calls = new AtomicInteger();
+        private final Deque<String> replies = new ArrayDeque<>();
+        private String reply = "";
+        private RuntimeException failure;
+        private LLMRequest lastRequest;
+        private boolean sessions;
+        private boolean expireSessions;
+        private boolean hang;
+        private volatile CompletableFuture<LLMResponse> pending;
+
+        @Override
+        public String getModelName() {
+            return "gpt-4";
+        }
+
+        @Override
+        public CompletableFuture<LLMResponse> generateAsync(LLMRequest request) {
+            calls.incrementAndGet();
+            lastRequest = request;
+            if (failure != null) {
+                return CompletableFuture.failedFuture(failure);
+            }
+            if (hang) {
+                pending = new CompletableFuture<>();
+                return pending;
+            }
+            if (expireSessions && request.getPreviousResponseId() != null) {
+                return CompletableFuture.failedFuture(
+                        new SessionExpiredException("gpt-4", request.getPreviousResponseId(), 404));
+            }
+            return CompletableFuture.completedFuture(LLMResponse.builder()
+                    .content(replies.isEmpty() ? reply : replies.poll())
+                    .modelId("gpt-4")
+                    .responseId(request.isSession() ? "resp-" + calls.get() : null)
+                    .completionTokens(5)
+                    .build());
+        }
+
+        @Override
+        public boolean supportsSessions() {
+            return sessions;
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public void configure(Map<String, String> settings) {
+        }
+    }
+}
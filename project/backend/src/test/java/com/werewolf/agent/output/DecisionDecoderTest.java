@@ -0,0 +1,146 @@
+package com.werewolf.agent.output;
+
+import com.werewolf.agent.AgentDecision;
+import com.werewolf.agent.DecisionType;
+import com.werewolf.agent.LegalActions;
+import com.werewolf.domain.model.GameState;
+import com.werewolf.domain.model.Player;
+import com.werewolf.domain.role.Role;
+import com.werewolf.domain.role.Seer;
+import com.werewolf.domain.role.Villager;
+import com.werewolf.domain.role.Werewolf;
+import com.werewolf.domain.role.Witch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DecisionDecoder / DecisionSchema 单元测试
+ *
+ * @author Claude & User
+ */
+@DisplayName("结构化输出解码测试")
+class DecisionDecoderTest {
+
+    private GameState gameState;
+
+    @BeforeEach
+    void setUp() {
+        List<Player> players = new ArrayList<>();
+        Role[] roles = {new Werewolf(), new Werewolf(), new Villager(), new Villager(), new Seer(), new Witch()};
+        String[] names = {"张三", "李四", "王五", "赵六", "孙七", "周八"};
+        for (int seat = 1; seat <= roles.length; seat++) {
+            players.add(Player.builder()
+                    .id(100L + seat)
+                    .name(names[seat - 1])
+                    .role(roles[seat - 1])
+                    .alive(true)
+                    .seatNumber(seat)
+                    .build());
+        }
+        gameState = GameState.builder()
+                .gameId(1L)
+                .currentRound(1)
+                .players(players)
+                .build();
+    }
+
+    @Test
+    @DisplayName("座位号转换为玩家ID")
+    void testSeat() {
+        AgentDecision decision = DecisionDecoder.decode(
+                LegalActions.seerCheck(gameState, seer()), "{\"target\": 4}");
+
+        assertEquals(DecisionType.SEER_CHECK, decision.getType());
+        assertEquals(104L, decision.getTargetPlayerId());
+    }
+
+    @Test
+    @DisplayName("修复目标：“X号”写法、玩家ID、玩家名字")
+    void testRepairTarget() {
+        List<Long> legal = LegalActions.seerCheck(gameState, seer()).getLegalTargets();
+
+        assertEquals(103L, DecisionDecoder.resolveTarget(gameState.getSnapshot(), legal, "3号"));
+        assertEquals(103L, DecisionDecoder.resolveTarget(gameState.getSnapshot(), legal, "3"));
+        assertEquals(102L, DecisionDecoder.resolveTarget(gameState.getSnapshot(), legal, 102L));
+        assertEquals(101L, DecisionDecoder.resolveTarget(gameState.getSnapshot(), legal, "张三"));
+        assertEquals(104L, DecisionDecoder.resolveTarget(gameState.getSnapshot(), legal, "查验赵六"));
+        assertNull(DecisionDecoder.resolveTarget(gameState.getSnapshot(), legal, 5L));
+        assertNull(DecisionDecoder.resolveTarget(gameState.getSnapshot(), legal, "孙七"));
+        assertNull(DecisionDecoder.resolveTarget(gameState.getSnapshot(), legal, null));
+    }
+
+    @Test
+    @DisplayName("女巫：布尔值写成文字、不可用的药被忽略")
+    void testWitch() {
+        AgentDecision save = DecisionDecoder.decode(LegalActions.witchAction(gameState, witch(), 103L),
+                "{\"antidote\": \"是\", \"poison\": null}");
+        assertTrue(save.isUseAntidote());
+        assertNull(save.getPoisonTargetId());
+
+        AgentDecision poison = DecisionDecoder.decode(LegalActions.witchAction(gameState, witch(), 103L),
+                "{\"antidote\": false, \"poison\": \"1号\"}");
+        assertFalse(poison.isUseAntidote());
+        assertEquals(101L, poison.getPoisonTargetId());
+
+        assertNull(DecisionDecoder.decode(LegalActions.witchAction(gameState, witch(), 103L), "{\"救\": 1}"));
+    }
+
+    @Test
+    @DisplayName("投票：target为null表示弃票")
+    void testVoteAbstain() {
+        AgentDecision decision = DecisionDecoder.decode(LegalActions.vote(gameState, seer()), "{\"target\": null}");
+
+        assertNotNull(decision);
+        assertNull(decision.getTargetPlayerId());
+        assertNull(DecisionDecoder.decode(LegalActions.vote(gameState, seer()), "{}"));
+    }
+
+    @Test
+    @DisplayName("狼队击杀带讨论，发言字段名写错时取文本字段")
+    void testTeamKillAndSpeech() {
+        AgentDecision kill = DecisionDecoder.decode(
+                LegalActions.werewolfTeamKill(gameState, gameState.getPlayerBySeat(1)),
+                "{\"discussion\": \"5号像预言家\", \"target\": 5}");
+        assertEquals(105L, kill.getTargetPlayerId());
+        assertEquals("5号像预言家", kill.getContent());
+
+        AgentDecision speech = DecisionDecoder.decode(
+                LegalActions.daySpeech(gameState, seer()), "{\"发言\": \"我是预言家\"}");
+        assertEquals("我是预言家", speech.getContent());
+    }
+
+    @Test
+    @DisplayName("无法修复时返回null")
+    void testUndecodable() {
+        assertNull(DecisionDecoder.decode(LegalActions.seerCheck(gameState, seer()), "我选4号"));
+        assertNull(DecisionDecoder.decode(LegalActions.seerCheck(gameState, seer()), "{\"target\": \"不知道\"}"));
+    }
+
+    @Test
+    @DisplayName("Schema字段全部必填且与决策类型对应")
+    @SuppressWarnings("unchecked")
+    void testSchema() {
+        Map<String, Object> witch = DecisionSchema.of(DecisionType.WITCH_ACTION);
+
+        assertEquals(List.of("antidote", "poison"), witch.get("required"));
+        assertEquals(Boolean.FALSE, witch.get("additionalProperties"));
+        assertEquals(List.of("integer", "null"),
+                ((Map<String, Map<String, Object>>) witch.get("properties")).get("poison").get("type"));
+        assertEquals("werewolf_team_kill", DecisionSchema.name(DecisionType.WEREWOLF_TEAM_KILL));
+    }
+
+    private Player seer() {
+        return gameState.getPlayerBySeat(5);
+    }
+
+    private Player witch() {
+        return gameState.getPlayerBySeat(6);
+    }
+}
@@ -0,0 +1,81 @@
+package com.werewolf.agent.output;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TolerantJsonReader 单元测试
+ *
+ * @author Claude & User
+ */
+@DisplayName("宽松JSON解码器测试")
+class TolerantJsonReaderTest {
+
+    @Test
+    @DisplayName("解析标准JSON")
+    void testStrictJson() {
+        Map<String, Object> json = TolerantJsonReader.parse("{\"target\": 3, \"abstain\": false, \"note\": null}");
+
+        assertEquals(3L, json.get("target"));
+        assertEquals(Boolean.FALSE, json.get("abstain"));
+        assertTrue(json.containsKey("note"));
+        assertNull(json.get("note"));
+    }
+
+    @Test
+    @DisplayName("忽略代码块标记和前后多余文字")
+    void testSurroundingText() {
+        Map<String, Object> json = TolerantJsonReader.parse(
+                "好的，我的决定如下：\n```json\n{\"target\": 4}\n```\n希望能找到狼人。");
+
+        assertEquals(Map.of("target", 4L), json);
+    }
+
+    @Test
+    @DisplayName("容忍单引号、中文引号、未加引号的键值、中文标点和多余逗号")
+    void testLooseSyntax() {
+        Map<String, Object> json = TolerantJsonReader.parse(
+                "{target：'5号'， discussion: “先刀5号”, antidote: yes, list: [1, 2,],}");
+
+        assertEquals("5号", json.get("target"));
+        assertEquals("先刀5号", json.get("discussion"));
+        assertEquals("yes", json.get("antidote"));
+        assertEquals(List.of(1L, 2L), json.get("list"));
+    }
+
+    @Test
+    @DisplayName("输出被截断时补齐缺少的括号和引号")
+    void testTruncated() {
+        Map<String, Object> json = TolerantJsonReader.parse("{\"speech\": \"我是好人，3号发言很可疑");
+
+        assertEquals("我是好人，3号发言很可疑", json.get("speech"));
+    }
+
+    @Test
+    @DisplayName("增量喂入，右括号到达后对象完整")
+    void testIncremental() {
+        TolerantJsonReader reader = new TolerantJsonReader();
+        reader.feed("思考中…");
+        assertNull(reader.readObject());
+        assertFalse(reader.isComplete());
+
+        reader.feed("{\"target\":");
+        assertFalse(reader.isComplete());
+        reader.feed(" 2}");
+
+        assertTrue(reader.isComplete());
+        assertEquals(2L, reader.readObject().get("target"));
+    }
+
+    @Test
+    @DisplayName("没有对象时返回null")
+    void testNoObject() {
+        assertNull(TolerantJsonReader.parse("3号"));
+        assertNull(TolerantJsonReader.parse(null));
+    }
+}
@@ -0,0 +1,113 @@
+package com.werewolf.agent.prompt;
+
+import com.werewolf.digest.Claim;
+import com.werewolf.digest.RoundDigest;
+import com.werewolf.domain.model.GameState;
+import com.werewolf.domain.model.Player;
+import com.werewolf.domain.role.RoleType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * GameStateEncoder 单元测试
+ *
+ * @author Claude & User
+ */
+@DisplayName("紧凑局面编码测试")
+class GameStateEncoderTest {
+
+    private GameState gameState;
+
+    @BeforeEach
+    void setUp() {
+        List<Player> players = new ArrayList<>();
+        for (int seat = 1; seat <= 6; seat++) {
+            players.add(Player.builder()
+                    .id(100L + seat)
+                    .name("玩家" + seat)
+                    .alive(seat != 3)
+                    .seatNumber(seat)
+                    .build());
+        }
+        gameState = GameState.builder().gameId(1L).players(players).build();
+    }
+
+    @Test
+    @DisplayName("座位表和存活掩码")
+    void testEncodeBoard() {
+        assertEquals("座位 1 2 3 4 5 6\n存活 1 1 0 1 1 1", GameStateEncoder.encodeBoard(gameState));
+    }
+
+    @Test
+    @DisplayName("回合行包含夜亡、声明、票型和放逐")
+    void testEncodeRound() {
+        Map<Long, Long> votes = new LinkedHashMap<>();
+        votes.put(101L, 105L);
+        votes.put(102L, 105L);
+        votes.put(105L, 102L);
+        RoundDigest digest = RoundDigest.builder()
+                .round(1)
+                .nightDeaths(List.of(103L))
+                .claims(List.of(seerClaim(105L, 102L, true)))
+                .votes(votes)
+                .abstained(Set.of(106L, 104L))
+                .exiledPlayerId(105L)
+                .build();
+
+        assertEquals("R1 夜亡:3 声明:5=预言家(2狼) 票:1>5 2>5 5>2 弃:4,6 逐:5",
+                GameStateEncoder.encodeRound(gameState, digest));
+    }
+
+    @Test
+    @DisplayName("平安夜和平票")
+    void testEncodeRound_PeacefulNightAndTie() {
+        RoundDigest digest = RoundDigest.builder().round(2).tie(true).build();
+
+        assertEquals("R2 夜亡:- 票:- 弃:- 逐:平票", GameStateEncoder.encodeRound(gameState, digest));
+    }
+
+    @Test
+    @DisplayName("声明列表跨回合累计查验结果")
+    void testEncodeClaims() {
+        RoundDigest round1 = RoundDigest.builder().round(1)
+                .claims(List.of(seerClaim(105L, 102L, true),
+                        Claim.builder().playerId(104L).claimedRole(RoleType.VILLAGER).build()))
+                .build();
+        RoundDigest round2 = RoundDigest.builder().round(2)
+                .claims(List.of(seerClaim(105L, 101L, false)))
+                .build();
+
+        assertEquals("声明 4=平民 5=预言家(2狼,1好)", GameStateEncoder.encodeClaims(gameState, List.of(round1, round2)));
+        assertNull(GameStateEncoder.encodeClaims(gameState, List.of()));
+    }
+
+    @Test
+    @DisplayName("紧凑格式比事件描述更省token")
+    void testCompactnessAgainstProse() {
+        Map<Long, Long> votes = new LinkedHashMap<>();
+        for (long voter = 101; voter <= 106; voter++) {
+            votes.put(voter, voter == 105L ? 102L : 105L);
+        }
+        RoundDigest digest = RoundDigest.builder().round(1).votes(votes).exiledPlayerId(105L).build();
+        String prose = "投票结果：\n- 玩家5: 5票\n- 玩家2: 1票\n玩家1投票给玩家5，玩家2投票给玩家5，玩家3投票给玩家5，"
+                + "玩家4投票给玩家5，玩家5投票给玩家2，玩家6投票给玩家5\n玩家5被放逐出局";
+
+        assertTrue(TokenEstimator.estimate(GameStateEncoder.encodeRound(gameState, digest))
+                < TokenEstimator.estimate(prose) / 2);
+    }
+
+    private Claim seerClaim(Long claimant, Long target, boolean werewolf) {
+        Claim claim = Claim.builder().playerId(claimant).claimedRole(RoleType.SEER).build();
+        claim.getCheckResults().put(target, werewolf);
+        return claim;
+    }
+}
@@ -0,0 +1,97 @@
+package com.werewolf.agent.prompt;
+
+import com.werewolf.agent.AIProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PromptBudget / TokenEstimator 单元测试
+ *
+ * @author Claude & User
+ */
+@DisplayName("提示词预算测试")
+class PromptBudgetTest {
+
+    @Test
+    @DisplayName("token估算：汉字按字计数，英文数字按词段计数")
+    void testEstimate() {
+        assertEquals(0, TokenEstimator.estimate(""));
+        assertEquals(0, TokenEstimator.estimate(null));
+        assertEquals(4, TokenEstimator.estimate("狼人杀呀"));
+        assertEquals(2, TokenEstimator.estimate("werewolf"));
+        assertEquals(4, TokenEstimator.estimate("1>5 2"));
+        assertEquals(5, TokenEstimator.estimate("R1 夜亡:3"));
+    }
+
+    @Test
+    @DisplayName("未超出预算时原样返回")
+    void testFitWithinBudget() {
+        List<String> entries = List.of("a", "b", "c");
+
+        assertSame(entries, new PromptBudget(3, 0).fit(entries));
+        assertSame(entries, PromptBudget.UNLIMITED.fit(entries));
+    }
+
+    @Test
+    @DisplayName("超出条目上限时丢弃最早的条目")
+    void testFitByEntries() {
+        List<String> fitted = new PromptBudget(2, 0).fit(List.of("第一条", "第二条", "第三条"));
+
+        assertEquals(List.of("（更早的1条记录已省略）", "第二条", "第三条"), fitted);
+    }
+
+    @Test
+    @DisplayName("超出token预算时丢弃最早的条目")
+    void testFitByTokens() {
+        List<String> fitted = new PromptBudget(0, 6).fit(List.of("一二三", "四五六", "七八九"));
+
+        assertEquals(List.of("（更早的1条记录已省略）", "四五六", "七八九"), fitted);
+    }
+
+    @Test
+    @DisplayName("按半个预算成块裁剪，历史追加时裁剪点保持不变")
+    void testFitInStableChunks() {
+        PromptBudget byEntries = new PromptBudget(10, 0);
+        List<String> entries = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            entries.add("第" + i + "条");
+        }
+        assertSame(entries, byEntries.fit(entries));
+        for (int i = 11; i <= 15; i++) {
+            entries.add("第" + i + "条");
+            List<String> fitted = byEntries.fit(entries);
+            assertEquals("（更早的5条记录已省略）", fitted.get(0));
+            assertEquals("第6条", fitted.get(1));
+        }
+        entries.add("第16条");
+        assertEquals("（更早的10条记录已省略）", byEntries.fit(entries).get(0));
+
+        PromptBudget byTokens = new PromptBudget(0, 12);
+        List<String> speeches = new ArrayList<>(List.of("一二三", "四五六", "七八九", "十一二", "三四五"));
+        List<String> first = byTokens.fit(speeches);
+        assertEquals("（更早的2条记录已省略）", first.get(0));
+        speeches.add("六七八");
+        assertEquals(first, byTokens.fit(speeches).subList(0, first.size()));
+        speeches.add("九十一");
+        assertEquals("（更早的4条记录已省略）", byTokens.fit(speeches).get(0));
+    }
+
+    @Test
+    @DisplayName("从game.ai配置创建预算")
+    void testFromProperties() {
+        AIProperties properties = new AIProperties();
+        properties.setMemoryLimit(20);
+        properties.setPromptTokenBudget(500);
+
+        PromptBudget budget = PromptBudget.from(properties);
+
+        assertEquals(20, budget.getMaxEntries());
+        assertEquals(500, budget.getMaxTokens());
+        assertThrows(IllegalArgumentException.class, () -> new PromptBudget(-1, 0));
+    }
+}
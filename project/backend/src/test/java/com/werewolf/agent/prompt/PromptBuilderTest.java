@@ -0,0 +1,123 @@
+package com.werewolf.agent.prompt;
+
+import com.werewolf.agent.AIProperties;
+import com.werewolf.agent.DecisionRequest;
+import com.werewolf.agent.LegalActions;
+import com.werewolf.domain.model.GameEvent;
+import com.werewolf.domain.model.GameState;
+import com.werewolf.domain.model.Player;
+import com.werewolf.domain.role.Role;
+import com.werewolf.domain.role.Seer;
+import com.werewolf.domain.role.Villager;
+import com.werewolf.domain.role.Werewolf;
+import com.werewolf.domain.role.Witch;
+import com.werewolf.llm.ChatMessage;
+import com.werewolf.view.PlayerView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PromptBuilder 单元测试
+ *
+ * @author Claude & User
+ */
+@DisplayName("Prompt构建器测试")
+class PromptBuilderTest {
+
+    private final PromptBuilder builder = new PromptBuilder(new AIProperties());
+    private GameState gameState;
+
+    @BeforeEach
+    void setUp() {
+        List<Player> players = new ArrayList<>();
+        Role[] roles = {new Werewolf(), new Werewolf(), new Villager(), new Villager(), new Seer(), new Witch()};
+        for (int seat = 1; seat <= roles.length; seat++) {
+            players.add(Player.builder()
+                    .id((long) seat)
+                    .name("玩家" + seat)
+                    .role(roles[seat - 1])
+                    .alive(true)
+                    .seatNumber(seat)
+                    .build());
+        }
+        gameState = GameState.builder()
+                .gameId(1L)
+                .currentRound(1)
+                .players(players)
+                .events(new ArrayList<>())
+                .build();
+    }
+
+    @Test
+    @DisplayName("消息按规则、角色、历史、当前任务排列，前三条设置缓存断点")
+    void testLayout() {
+        List<ChatMessage> messages = build(LegalActions.seerCheck(gameState, gameState.getPlayerBySeat(5)));
+
+        assertEquals(4, messages.size());
+        assertEquals(RolePrompts.RULES, messages.get(0).getContent());
+        assertTrue(messages.get(1).getContent().startsWith(RolePrompts.of(gameState.getPlayerBySeat(5)
+                .getRole().getRoleType())));
+        assertTrue(messages.get(2).getContent().startsWith("【历史信息】"));
+        assertTrue(messages.get(3).getContent().contains("【当前任务】"));
+        assertTrue(messages.get(0).isCacheBreakpoint());
+        assertTrue(messages.get(1).isCacheBreakpoint());
+        assertTrue(messages.get(2).isCacheBreakpoint());
+        assertFalse(messages.get(3).isCacheBreakpoint());
+    }
+
+    @Test
+    @DisplayName("新事件只追加在历史末尾，前缀保持不变")
+    void testPrefixStableAcrossCalls() {
+        Player seer = gameState.getPlayerBySeat(5);
+        gameState.addEvent(GameEvent.createPublicEvent(GameEvent.EventType.NIGHT_START, "第1夜开始"));
+        List<ChatMessage> first = build(LegalActions.seerCheck(gameState, seer));
+
+        gameState.addEvent(GameEvent.createPublicEvent(GameEvent.EventType.DAY_START, "第1天开始"));
+        gameState.getPlayerBySeat(3).setAlive(false);
+        List<ChatMessage> second = build(LegalActions.vote(gameState, seer));
+
+        assertEquals(first.get(0), second.get(0));
+        assertEquals(first.get(1), second.get(1));
+        assertTrue(second.get(2).getContent().startsWith(first.get(2).getContent()));
+        assertNotEquals(first.get(3), second.get(3));
+    }
+
+    @Test
+    @DisplayName("同角色不同座位共享规则和角色模板前缀")
+    void testSharedPrefixAcrossSeats() {
+        List<ChatMessage> villager3 = build(LegalActions.vote(gameState, gameState.getPlayerBySeat(3)));
+        List<ChatMessage> villager4 = build(LegalActions.vote(gameState, gameState.getPlayerBySeat(4)));
+
+        assertEquals(villager3.get(0), villager4.get(0));
+        assertTrue(villager3.get(1).getContent().startsWith(RolePrompts.of(
+                gameState.getPlayerBySeat(3).getRole().getRoleType())));
+        assertTrue(villager4.get(1).getContent().endsWith("4号玩家。"));
+    }
+
+    @Test
+    @DisplayName("私有信息放在易变部分")
+    void testPrivateFactsInQuestion() {
+        Player seer = gameState.getPlayerBySeat(5);
+        GameEvent check = GameEvent.createPrivateEvent(GameEvent.EventType.SEER_CHECK, 5L, "查验1号：狼人");
+        check.setTargetPlayerId(1L);
+        check.setData(Map.of("werewolf", true));
+        gameState.addEvent(check);
+
+        List<ChatMessage> messages = build(LegalActions.daySpeech(gameState, seer));
+
+        assertTrue(messages.get(3).getContent().contains("已验身份：1号是狼人"));
+        assertFalse(messages.get(2).getContent().contains("已验身份"));
+    }
+
+    private List<ChatMessage> build(DecisionRequest request) {
+        PlayerView view = PlayerView.snapshot(gameState, request.getPlayer());
+        return builder.build(request, view, view.getVisibleEvents());
+    }
+}
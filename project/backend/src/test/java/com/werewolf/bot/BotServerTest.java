@@ -0,0 +1,323 @@
+package com.werewolf.bot;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.werewolf.agent.AgentDecision;
+import com.werewolf.agent.HeuristicAgent;
+import com.werewolf.agent.LegalActions;
+import com.werewolf.agent.PlayerAgent;
+import com.werewolf.domain.model.GameState;
+import com.werewolf.domain.model.Player;
+import com.werewolf.engine.GameController;
+import com.werewolf.runtime.GameRunner;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BotServer 单元测试
+ *
+ * @author Claude & User
+ */
+@DisplayName("外部智能体协议测试")
+class BotServerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private BotProperties properties;
+    private BotServer server;
+    private final List<BotClient> clients = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        properties = new BotProperties();
+        properties.setPort(0);
+        properties.setActionTimeout(60_000);
+        server = new BotServer(properties);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+        clients.forEach(BotClient::close);
+    }
+
+    @Test
+    @DisplayName("一条连接同时驱动多局对局，所有行动都被采纳")
+    void testMultiplexedGames() throws Exception {
+        BotClient bot = connect("farm");
+        Map<String, AtomicInteger> received = new ConcurrentHashMap<>();
+        Thread loop = new Thread(() -> bot.play(received));
+        loop.setDaemon(true);
+        loop.start();
+
+        int games = 30;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<GameState>> results = new ArrayList<>();
+        try {
+            for (long gameId = 1; gameId <= games; gameId++) {
+                long id = gameId;
+                results.add(executor.submit(() -> {
+                    GameState gameState = createGame(id);
+                    new GameController().initializeGame(gameState);
+                    Map<Long, PlayerAgent> agents = new HashMap<>();
+                    for (Player player : gameState.getPlayers()) {
+                        agents.put(player.getId(), server.agent("farm", id, player.getId(),
+                                new HeuristicAgent(player.getId())));
+                    }
+                    new GameRunner(gameState, agents).playToEnd(20);
+                    return gameState;
+                }));
+            }
+            for (Future<GameState> result : results) {
+                assertTrue(result.get(60, TimeUnit.SECONDS).isFinished());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // 对局结束时座位关闭，之后不会再收到提示
+        awaitCount(received, "seat_closed", games * 6);
+        int prompts = received.get("prompt").get();
+        assertTrue(prompts > games);
+        awaitCount(received, "ACCEPTED", prompts);
+        assertNull(received.get("REJECTED"));
+        assertNull(received.get("STALE"));
+        assertTrue(received.get("event").get() > 0);
+    }
+
+    @Test
+    @DisplayName("未知座位的行动被拒绝，重复提交返回第一次的结果")
+    void testActionResults() throws Exception {
+        BotClient bot = connect("bot");
+        GameState gameState = createGame(1L);
+        new GameController().initializeGame(gameState);
+        Player voter = gameState.getPlayerBySeat(1);
+        RemoteBotAgent agent = server.agent("bot", 1L, voter.getId(), new HeuristicAgent(voter.getId()));
+        assertEquals(1, server.connection("bot").seatCount());
+
+        bot.send(action(1L, 99L, 1, "k0", "VOTE", 2L));
+        assertEquals("REJECTED", bot.next("action_result").get("result").asText());
+
+        CompletableFuture<AgentDecision> decision = agent.decide(LegalActions.vote(gameState, voter));
+        JsonNode prompt = bot.next("prompt");
+        assertEquals(1L, prompt.get("game").asLong());
+        assertEquals(voter.getId(), prompt.get("player").asLong());
+        Long target = prompt.get("targets").get(0).asLong();
+
+        ObjectNode vote = action(1L, voter.getId(), prompt.get("version").asLong(), "k1", "VOTE", target);
+        bot.send(vote);
+        bot.send(vote);
+        assertEquals("ACCEPTED", bot.next("action_result").get("result").asText());
+        assertEquals("ACCEPTED", bot.next("action_result").get("result").asText());
+        assertEquals(target, decision.get(1, TimeUnit.SECONDS).getTargetPlayerId());
+
+        agent.close();
+        assertEquals(voter.getId(), bot.next("seat_closed").get("player").asLong());
+        assertEquals(0, server.connection("bot").seatCount());
+    }
+
+    @Test
+    @DisplayName("连接断开后等待中的决策立即使用降级决策")
+    void testDisconnect() throws Exception {
+        BotClient bot = connect("bot");
+        GameState gameState = createGame(1L);
+        new GameController().initializeGame(gameState);
+        Player voter = gameState.getPlayerBySeat(1);
+        RemoteBotAgent agent = server.agent("bot", 1L, voter.getId(), new HeuristicAgent(voter.getId()));
+
+        CompletableFuture<AgentDecision> decision = agent.decide(LegalActions.vote(gameState, voter));
+        bot.next("prompt");
+        bot.close();
+
+        assertTrue(decision.get(5, TimeUnit.SECONDS).isFallback());
+        assertTrue(agent.decide(LegalActions.vote(gameState, voter)).get(1, TimeUnit.SECONDS).isFallback());
+        awaitDisconnected("bot");
+        assertThrows(IllegalStateException.class, () -> server.agent("bot", 1L, voter.getId(), null));
+    }
+
+    @Test
+    @DisplayName("握手错误、重名和超长帧返回错误后断开")
+    void testProtocolErrors() throws Exception {
+        connect("bot");
+
+        BotClient duplicate = open();
+        duplicate.send(objectMapper.createObjectNode().put("type", "hello").put("bot", "bot"));
+        assertEquals("error", duplicate.read().get("type").asText());
+        assertNull(duplicate.read());
+
+        BotClient noHello = open();
+        noHello.send(objectMapper.createObjectNode().put("type", "action"));
+        assertEquals("error", noHello.read().get("type").asText());
+        assertNull(noHello.read());
+
+        BotClient oversized = open();
+        oversized.out.writeInt(properties.getMaxFrameSize() + 1);
+        oversized.out.flush();
+        assertEquals("error", oversized.read().get("type").asText());
+        assertNull(oversized.read());
+
+        assertEquals(Set.of("bot"), server.connectedBots());
+    }
+
+    private BotClient connect(String name) throws Exception {
+        BotClient client = open();
+        client.send(objectMapper.createObjectNode().put("type", "hello").put("bot", name));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!server.connectedBots().contains(name) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(server.connectedBots().contains(name));
+        return client;
+    }
+
+    private BotClient open() throws IOException {
+        BotClient client = new BotClient(new Socket("127.0.0.1", server.getPort()));
+        clients.add(client);
+        return client;
+    }
+
+    private void awaitDisconnected(String name) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (server.connectedBots().contains(name) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private void awaitCount(Map<String, AtomicInteger> received, String key, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline
+                && received.getOrDefault(key, new AtomicInteger()).get() < count) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, received.getOrDefault(key, new AtomicInteger()).get(), key);
+    }
+
+    private ObjectNode action(Long gameId, Long playerId, long version, String key, String decision, Long target) {
+        ObjectNode action = objectMapper.createObjectNode()
+                .put("type", "action")
+                .put("game", gameId)
+                .put("player", playerId)
+                .put("version", version)
+                .put("key", key)
+                .put("decision", decision);
+        if (target != null) {
+            action.put("target", target);
+        }
+        return action;
+    }
+
+    private GameState createGame(long gameId) {
+        List<Player> players = new ArrayList<>();
+        for (int seat = 1; seat <= 6; seat++) {
+            players.add(Player.builder()
+                    .id((long) seat)
+                    .name("玩家" + seat)
+                    .type(Player.PlayerType.AI)
+                    .alive(true)
+                    .seatNumber(seat)
+                    .build());
+        }
+        return GameState.builder()
+                .gameId(gameId)
+                .seed(gameId)
+                .players(players)
+                .status(GameState.GameStatus.WAITING)
+                .build();
+    }
+
+    /**
+     * 测试用的外部智能体：总是选择第一个合法目标、不用药、发言“过”
+     */
+    private final class BotClient {
+
+        private final Socket socket;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+
+        BotClient(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.out = new DataOutputStream(socket.getOutputStream());
+        }
+
+        synchronized void send(JsonNode frame) throws IOException {
+            byte[] body = objectMapper.writeValueAsBytes(frame);
+            out.writeInt(body.length);
+            out.write(body);
+            out.flush();
+        }
+
+        JsonNode read() throws IOException {
+            byte[] body = BotCodec.readFrame(in, Integer.MAX_VALUE);
+            return body == null ? null : objectMapper.readTree(body);
+        }
+
+        JsonNode next(String type) throws IOException {
+            for (JsonNode frame = read(); frame != null; frame = read()) {
+                if (type.equals(frame.get("type").asText())) {
+                    return frame;
+                }
+            }
+            throw new IOException("连接已关闭");
+        }
+
+        void play(Map<String, AtomicInteger> received) {
+            try {
+                for (JsonNode frame = read(); frame != null; frame = read()) {
+                    String type = frame.get("type").asText();
+                    String key = "action_result".equals(type) ? frame.get("result").asText() : type;
+                    received.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+                    if ("prompt".equals(type)) {
+                        send(answer(frame));
+                    }
+                }
+            } catch (IOException e) {
+                // 连接关闭
+            }
+        }
+
+        private ObjectNode answer(JsonNode prompt) {
+            String decision = prompt.get("decision").asText();
+            JsonNode targets = prompt.get("targets");
+            Long target = decision.equals("WITCH_ACTION") || targets.isEmpty() ? null : targets.get(0).asLong();
+            ObjectNode action = action(prompt.get("game").asLong(), prompt.get("player").asLong(),
+                    prompt.get("version").asLong(), prompt.get("game") + "-" + prompt.get("player") + "-"
+                            + prompt.get("version"), decision, target);
+            if (decision.equals("DAY_SPEECH") || decision.equals("LAST_WORDS")) {
+                action.put("content", "过");
+            }
+            return action;
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // 忽略
+            }
+        }
+    }
+}
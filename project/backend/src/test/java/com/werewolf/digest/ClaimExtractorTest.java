@@ -0,0 +1,46 @@
+package com.werewolf.digest;
+
+import com.werewolf.domain.role.RoleType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ClaimExtractor 单元测试
+ */
+@DisplayName("身份声明识别测试")
+class ClaimExtractorTest {
+
+    private final IntFunction<Long> seatToId = seat -> seat >= 1 && seat <= 6 ? 100L + seat : null;
+
+    @Test
+    @DisplayName("识别预言家声明及查验结果")
+    void testSeerClaim() {
+        Claim claim = ClaimExtractor.extract(105L, "我是预言家，查验结果：2号是狼人，3号是好人。", seatToId);
+
+        assertNotNull(claim);
+        assertEquals(RoleType.SEER, claim.getClaimedRole());
+        assertEquals(Boolean.TRUE, claim.getCheckResults().get(102L));
+        assertEquals(Boolean.FALSE, claim.getCheckResults().get(103L));
+    }
+
+    @Test
+    @DisplayName("非预言家声明不记录查验结果")
+    void testVillagerClaim() {
+        Claim claim = ClaimExtractor.extract(104L, "我是平民，我觉得2号是狼人", seatToId);
+
+        assertEquals(RoleType.VILLAGER, claim.getClaimedRole());
+        assertTrue(claim.getCheckResults().isEmpty());
+    }
+
+    @Test
+    @DisplayName("没有身份声明时返回null，忽略不存在的座位")
+    void testNoClaim() {
+        assertNull(ClaimExtractor.extract(104L, "我是好人，过", seatToId));
+        Claim claim = ClaimExtractor.extract(105L, "我是预言家，9号是狼人", seatToId);
+        assertTrue(claim.getCheckResults().isEmpty());
+    }
+}
@@ -0,0 +1,115 @@
+package com.werewolf.digest;
+
+import com.werewolf.domain.model.GameState;
+import com.werewolf.domain.model.Phase;
+import com.werewolf.domain.model.Player;
+import com.werewolf.domain.role.Role;
+import com.werewolf.domain.role.RoleType;
+import com.werewolf.domain.role.Seer;
+import com.werewolf.domain.role.Villager;
+import com.werewolf.domain.role.Werewolf;
+import com.werewolf.domain.role.Witch;
+import com.werewolf.engine.GameController;
+import com.werewolf.engine.day.DayPhaseEngine;
+import com.werewolf.engine.night.NightPhaseEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * RoundDigestFactory 与 DigestStore 单元测试
+ */
+@DisplayName("回合摘要测试")
+class RoundDigestFactoryTest {
+
+    private GameState gameState;
+    private GameController.RoundResult roundResult;
+
+    @BeforeEach
+    void setUp() {
+        List<Player> players = new ArrayList<>();
+        Role[] roles = {new Werewolf(), new Werewolf(), new Villager(), new Villager(), new Seer(), new Witch()};
+        for (int seat = 1; seat <= roles.length; seat++) {
+            players.add(Player.builder()
+                    .id(100L + seat)
+                    .name("玩家" + seat)
+                    .role(roles[seat - 1])
+                    .alive(true)
+                    .seatNumber(seat)
+                    .build());
+        }
+        gameState = GameState.builder()
+                .gameId(7L)
+                .currentRound(1)
+                .currentPhase(Phase.DAY)
+                .players(players)
+                .build();
+        gameState.getPlayerById(103L).markDead(Player.DeathReason.KILLED_BY_WEREWOLF);
+
+        Map<Long, String> speeches = new LinkedHashMap<>();
+        speeches.put(101L, "我是好人，过");
+        speeches.put(105L, "我是预言家，查验结果：2号是狼人。");
+        Map<Long, Long> votes = new HashMap<>();
+        votes.put(101L, 105L);
+        votes.put(102L, 105L);
+        votes.put(104L, 102L);
+        votes.put(105L, 102L);
+        votes.put(106L, 102L);
+
+        DayPhaseEngine.DayPhaseResult day = new DayPhaseEngine().executeDayPhase(
+                gameState, List.of(103L), Map.of(103L, "我是平民"), speeches, votes);
+
+        roundResult = new GameController.RoundResult();
+        roundResult.setRound(1);
+        roundResult.setNightResult(new NightPhaseEngine.NightResult());
+        roundResult.setDayResult(day);
+    }
+
+    @Test
+    @DisplayName("摘要包含死讯、声明、投票和放逐结果")
+    void testCreate() {
+        RoundDigest digest = RoundDigestFactory.create(gameState, roundResult);
+
+        assertEquals(1, digest.getRound());
+        assertEquals(List.of(103L), digest.getNightDeaths());
+        assertEquals(102L, digest.getExiledPlayerId());
+        assertEquals(5, digest.getVotes().size());
+        assertEquals(2, digest.getClaims().size());
+        Claim seerClaim = digest.getClaims().get(1);
+        assertEquals(RoleType.SEER, seerClaim.getClaimedRole());
+        assertEquals(Boolean.TRUE, seerClaim.getCheckResults().get(102L));
+        assertEquals("第1轮：夜晚3号死亡；3号声称平民；5号声称预言家，查验2号是狼人；"
+                + "投票：1→5 2→5 4→2 5→2 6→2；2号被放逐。", digest.getSummary());
+    }
+
+    @Test
+    @DisplayName("白天未执行时不能生成摘要")
+    void testCreate_WithoutDay() {
+        roundResult.setDayResult(null);
+
+        assertThrows(IllegalArgumentException.class, () -> RoundDigestFactory.create(gameState, roundResult));
+    }
+
+    @Test
+    @DisplayName("同一房间同一回合只计算一次")
+    void testStoreComputesOnce() {
+        DigestStore store = new DigestStore();
+
+        RoundDigest first = store.getOrCompute(gameState, roundResult);
+        RoundDigest second = store.getOrCompute(gameState, roundResult);
+
+        assertSame(first, second);
+        assertEquals(List.of(first), store.getDigests(7L));
+
+        store.release(7L);
+        assertTrue(store.getDigests(7L).isEmpty());
+    }
+}
@@ -2,6 +2,7 @@ package com.werewolf.domain.model;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.werewolf.domain.role.RoleType;
 import com.werewolf.domain.role.Werewolf;
 import com.werewolf.domain.role.Seer;
 import com.werewolf.domain.role.Villager;
@@ -129,6 +130,26 @@ class GameStateTest {
         assertEquals(Phase.NIGHT, gameState.getEvents().get(0).getPhase());
     }
 
+    @Test
+    void testEventListener() {
+        GameState gameState = GameState.builder()
+                .gameId(1L)
+                .currentRound(1)
+                .events(new ArrayList<>())
+                .build();
+        List<GameEvent> received = new ArrayList<>();
+        GameEventListener listener = (state, event) -> received.add(event);
+
+        gameState.addEventListener(listener);
+        gameState.addEvent(GameEvent.createPublicEvent(GameEvent.EventType.NIGHT_START, "夜晚开始"));
+        gameState.removeEventListener(listener);
+        gameState.addEvent(GameEvent.createPublicEvent(GameEvent.EventType.DAY_START, "白天开始"));
+
+        assertEquals(1, received.size());
+        assertEquals(1, received.get(0).getRound());
+        assertEquals(2, gameState.getEvents().size());
+    }
+
     @Test
     void testNextRound() {
         List<Player> players = createTestPlayers();
@@ -262,6 +283,95 @@ class GameStateTest {
         assertEquals(1, dayEvents.size());
     }
 
+    @Test
+    void testSnapshot() throws Exception {
+        GameState gameState = GameState.builder()
+                .gameId(1L)
+                .currentPhase(Phase.NIGHT)
+                .currentRound(1)
+                .players(createTestPlayers())
+                .status(GameState.GameStatus.RUNNING)
+                .build();
+
+        // 未发布时现场生成
+        assertEquals(0, gameState.getSnapshot().version());
+        GameSnapshot first = gameState.publishSnapshot();
+        gameState.addEvent(GameEvent.createPublicEvent(GameEvent.EventType.NIGHT_START, "夜晚开始"));
+        gameState.getPlayerById(1L).setAlive(false);
+        assertSame(first, gameState.getSnapshot());
+        assertTrue(first.events().isEmpty());
+        assertTrue(first.player(1L).alive());
+
+        GameSnapshot second = gameState.publishSnapshot();
+        assertEquals(2, second.version());
+        assertEquals(1, second.events().size());
+        assertFalse(second.player(1L).alive());
+        assertEquals(5, second.alivePlayers().size());
+        assertEquals(RoleType.WEREWOLF, second.playerBySeat(1).role());
+
+        // 快照不参与序列化
+        String json = objectMapper.writeValueAsString(gameState);
+        assertFalse(json.contains("snapshot"));
+    }
+
+    @Test
+    void testSnapshotEventsShareLog() {
+        GameState gameState = GameState.builder()
+                .gameId(1L)
+                .currentPhase(Phase.NIGHT)
+                .currentRound(1)
+                .players(createTestPlayers())
+                .status(GameState.GameStatus.RUNNING)
+                .build();
+
+        // 跨越多个分段和目录扩容，每份快照只看到发布时刻的事件
+        List<GameSnapshot> snapshots = new ArrayList<>();
+        for (int i = 0; i < EventLog.SEGMENT_SIZE * 5 + 3; i++) {
+            gameState.addEvent(GameEvent.createPublicEvent(GameEvent.EventType.PLAYER_SPEECH, "发言" + i));
+            if (i % 100 == 0) {
+                snapshots.add(gameState.publishSnapshot());
+            }
+        }
+        GameSnapshot last = gameState.publishSnapshot();
+        assertEquals(1, snapshots.get(0).events().size());
+        for (GameSnapshot snapshot : snapshots) {
+            List<GameEvent> events = snapshot.events();
+            assertEquals(gameState.getEvents().subList(0, events.size()), events);
+        }
+        assertEquals(gameState.getEvents(), last.events());
+        assertThrows(UnsupportedOperationException.class, () -> last.events().add(null));
+        assertThrows(IndexOutOfBoundsException.class, () -> snapshots.get(0).events().get(1));
+
+        // 事件列表被整体替换时重新建立日志
+        gameState.setEvents(new ArrayList<>(List.of(
+                GameEvent.createPublicEvent(GameEvent.EventType.NIGHT_START, "夜晚开始"))));
+        assertEquals(gameState.getEvents(), gameState.publishSnapshot().events());
+        assertEquals(EventLog.SEGMENT_SIZE * 5 + 3, last.events().size());
+    }
+
+    @Test
+    void testSnapshotFallbackReadOnly() {
+        GameState gameState = GameState.builder()
+                .gameId(1L)
+                .currentPhase(Phase.NIGHT)
+                .currentRound(1)
+                .players(createTestPlayers())
+                .status(GameState.GameStatus.RUNNING)
+                .build();
+        gameState.addEvent(GameEvent.createPublicEvent(GameEvent.EventType.NIGHT_START, "夜晚开始"));
+
+        // 未发布时的快照是独立的副本，不写入事件日志
+        GameSnapshot fallback = gameState.getSnapshot();
+        assertEquals(0, fallback.version());
+        gameState.addEvent(GameEvent.createPublicEvent(GameEvent.EventType.NIGHT_END, "夜晚结束"));
+        assertEquals(1, fallback.events().size());
+        assertEquals(0, gameState.getSnapshot().version());
+
+        GameSnapshot published = gameState.publishSnapshot();
+        assertEquals(1, published.version());
+        assertEquals(gameState.getEvents(), published.events());
+    }
+
     private List<Player> createTestPlayers() {
         List<Player> players = new ArrayList<>();
         for (int i = 1; i <= 6; i++) {
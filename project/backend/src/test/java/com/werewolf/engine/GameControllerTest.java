@@ -1,5 +1,6 @@
 package com.werewolf.engine;
 
+import com.werewolf.domain.model.GameSnapshot;
 import com.werewolf.domain.model.GameState;
 import com.werewolf.domain.model.Phase;
 import com.werewolf.domain.model.Player;
@@ -9,6 +10,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -103,6 +107,23 @@ class GameControllerTest {
         assertEquals(2, villagerCount, "应该有2个平民");
     }
 
+    @Test
+    @DisplayName("初始化游戏 - 相同种子分配相同角色，未指定种子时生成并记录")
+    void testInitializeGame_Seed() {
+        gameState.setSeed(2024L);
+        gameController.initializeGame(gameState);
+        List<RoleType> first = players.stream().map(player -> player.getRole().getRoleType()).toList();
+
+        setUp();
+        gameState.setSeed(2024L);
+        new GameController().initializeGame(gameState);
+        assertEquals(first, players.stream().map(player -> player.getRole().getRoleType()).toList());
+
+        setUp();
+        new GameController(new Random(1)).initializeGame(gameState);
+        assertEquals(new Random(1).nextLong(), gameState.getSeed());
+    }
+
     @Test
     @DisplayName("初始化游戏 - 空游戏状态抛出异常")
     void testInitializeGame_NullGameState() {
@@ -300,6 +321,58 @@ class GameControllerTest {
         assertTrue(roundCount < maxRounds, "游戏应该在10回合内结束");
     }
 
+    @Test
+    @DisplayName("子阶段结束时发布只读快照，引擎运行期间并发读取不受影响")
+    void testPublishedSnapshots() throws Exception {
+        gameController.initializeGame(gameState);
+        GameSnapshot initial = gameState.getSnapshot();
+        assertEquals(1, initial.version());
+        assertEquals(Phase.NIGHT, initial.phase());
+        assertNotNull(initial.player(1L).role());
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicLong reads = new AtomicLong();
+        Thread reader = new Thread(() -> {
+            long lastVersion = 0;
+            int lastEvents = 0;
+            try {
+                while (running.get()) {
+                    GameSnapshot snapshot = gameState.getSnapshot();
+                    assertTrue(snapshot.version() >= lastVersion);
+                    assertTrue(snapshot.events().size() >= lastEvents);
+                    assertTrue(snapshot.alivePlayers().size() <= snapshot.players().size());
+                    snapshot.events().forEach(Objects::requireNonNull);
+                    lastVersion = snapshot.version();
+                    lastEvents = snapshot.events().size();
+                    reads.incrementAndGet();
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        reader.start();
+        while (reads.get() == 0 && failure.get() == null) {
+            Thread.sleep(1);
+        }
+        for (int round = 0; round < 10 && !gameState.isFinished(); round++) {
+            gameController.executeRound(gameState, createBasicRoundActions());
+        }
+        running.set(false);
+        reader.join();
+
+        assertNull(failure.get());
+        assertTrue(reads.get() > 0);
+        GameSnapshot last = gameState.getSnapshot();
+        assertTrue(last.version() > initial.version());
+        assertEquals(gameState.getEvents().size(), last.events().size());
+        assertEquals(gameState.getCurrentRound(), last.round());
+        assertThrows(UnsupportedOperationException.class, () -> last.events().add(null));
+        // 已发布的快照不随之后的修改变化
+        gameState.getPlayers().get(0).setAlive(!gameState.getPlayers().get(0).isAlive());
+        assertNotEquals(gameState.getPlayers().get(0).isAlive(), last.players().get(0).alive());
+    }
+
     @Test
     @DisplayName("阶段切换测试")
     void testPhaseTransitions() {
@@ -320,6 +393,36 @@ class GameControllerTest {
         }
     }
 
+    @Test
+    @DisplayName("分阶段执行 - 夜晚结束后停在夜晚阶段，白天执行后进入下一回合")
+    void testExecuteNightThenDay() {
+        gameController.initializeGame(gameState);
+        GameController.RoundActions actions = createBasicRoundActions();
+
+        GameController.RoundResult nightResult = gameController.executeNight(gameState, actions);
+
+        assertNotNull(nightResult.getNightResult());
+        assertNull(nightResult.getDayResult());
+        assertEquals(1, gameState.getCurrentRound());
+
+        if (!nightResult.isGameEnded()) {
+            GameController.RoundResult dayResult = gameController.executeDay(gameState, nightResult, actions);
+            assertNotNull(dayResult.getDayResult());
+            if (!dayResult.isGameEnded()) {
+                assertEquals(2, gameState.getCurrentRound());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("分阶段执行 - 未执行夜晚时不能执行白天")
+    void testExecuteDay_WithoutNight() {
+        gameController.initializeGame(gameState);
+
+        assertThrows(IllegalStateException.class, () ->
+                gameController.executeDay(gameState, new GameController.RoundResult(), createBasicRoundActions()));
+    }
+
     /**
      * 创建基础的回合行动数据
      */
@@ -243,6 +243,11 @@ class DayPhaseEngineTest {
         // 2号应该被放逐（获得4票）
         assertEquals(2L, result.getExiledPlayerId());
         assertFalse(gameState.getPlayerById(2L).isAlive());
+
+        // 投票详情不含弃票
+        assertEquals(4, result.getVoteDetails().size());
+        assertEquals(2L, result.getVoteDetails().get(3L));
+        assertEquals(Set.of(2L, 4L), result.getAbstainedPlayers());
     }
 
     @Test
@@ -0,0 +1,289 @@
+package com.werewolf.llm;
+
+import com.werewolf.llm.adapter.LLMModelAdapter;
+import com.werewolf.llm.resilience.CircuitBreakerRegistry;
+import com.werewolf.llm.routing.ModelRouter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LLMClient 单元测试
+ */
+@DisplayName("LLM调用入口测试")
+class LLMClientTest {
+
+    private ScheduledExecutorService scheduler;
+    private LLMProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = Executors.newScheduledThreadPool(4);
+        properties = new LLMProperties();
+        properties.getRetry().setMaxAttempts(3);
+        properties.getRetry().setInitialDelay(10);
+        properties.getRetry().setMaxDelay(20);
+        properties.getHedge().setMinDelay(50);
+        properties.getHedge().setMaxDelay(50);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("对冲 - 原请求过慢时采用备用模型的结果并取消原请求")
+    void testHedge_AlternateWins() {
+        FakeAdapter slow = new FakeAdapter("gpt-4", 2000);
+        FakeAdapter fast = new FakeAdapter("qwen-max", 10);
+        LLMClient client = createClient(slow, fast);
+
+        LLMResponse response = client.complete(request("gpt-4")).join();
+
+        assertEquals("qwen-max", response.getModelId());
+        assertTrue(response.isHedged());
+        assertEquals(1, slow.cancelled.get());
+    }
+
+    @Test
+    @DisplayName("对冲 - 原请求按时返回时不发出对冲请求")
+    void testHedge_PrimaryWithinThreshold() throws Exception {
+        FakeAdapter primary = new FakeAdapter("gpt-4", 5);
+        FakeAdapter other = new FakeAdapter("qwen-max", 5);
+        LLMClient client = createClient(primary, other);
+
+        LLMResponse response = client.complete(request("gpt-4")).join();
+        Thread.sleep(100);
+
+        assertEquals("gpt-4", response.getModelId());
+        assertFalse(response.isHedged());
+        assertEquals(0, other.calls.get());
+    }
+
+    @Test
+    @DisplayName("用量统计 - 按模型累计输入 token 和缓存命中")
+    void testTokenUsage() {
+        FakeAdapter adapter = new FakeAdapter("gpt-4", 5);
+        LLMClient client = createClient(adapter);
+
+        client.complete(request("gpt-4")).join();
+        client.complete(request("gpt-4")).join();
+
+        TokenUsage usage = client.tokenUsage("gpt-4");
+        assertEquals(2, usage.getCalls());
+        assertEquals(200, usage.getPromptTokens());
+        assertEquals(150, usage.getCachedTokens());
+        assertEquals(0.75, usage.getCacheHitRate());
+        assertEquals(0, client.tokenUsage("qwen-max").getCalls());
+    }
+
+    @Test
+    @DisplayName("重试 - 可重试错误按配置次数重试")
+    void testRetry_RetryableError() {
+        properties.getHedge().setEnabled(false);
+        FakeAdapter flaky = new FakeAdapter("gpt-4", 1);
+        flaky.failures.add(new LLMException("限流", 429));
+        flaky.failures.add(new LLMException("服务不可用", 503));
+        LLMClient client = createClient(flaky);
+
+        LLMResponse response = client.complete(request("gpt-4")).join();
+
+        assertEquals("gpt-4", response.getModelId());
+        assertEquals(3, flaky.calls.get());
+    }
+
+    @Test
+    @DisplayName("重试 - 不可重试错误直接失败")
+    void testRetry_NonRetryableError() {
+        properties.getHedge().setEnabled(false);
+        FakeAdapter adapter = new FakeAdapter("gpt-4", 1);
+        adapter.failures.add(new LLMException("参数错误", 400));
+        LLMClient client = createClient(adapter);
+
+        CompletableFuture<LLMResponse> future = client.complete(request("gpt-4"));
+
+        assertThrows(Exception.class, future::join);
+        assertEquals(1, adapter.calls.get());
+    }
+
+    @Test
+    @DisplayName("重试延迟 - 指数退避且不超过上限")
+    void testRetryDelay() {
+        properties.getRetry().setInitialDelay(1000);
+        properties.getRetry().setMaxDelay(5000);
+        LLMClient client = createClient(new FakeAdapter("gpt-4", 1));
+
+        assertEquals(1000L, client.retryDelay(1));
+        assertEquals(2000L, client.retryDelay(2));
+        assertEquals(4000L, client.retryDelay(3));
+        assertEquals(5000L, client.retryDelay(4));
+    }
+
+    @Test
+    @DisplayName("对冲延迟 - 样本充足时使用分位数并受上下限约束")
+    void testHedgeDelay() {
+        properties.getHedge().setMinDelay(100);
+        properties.getHedge().setMaxDelay(10000);
+        properties.getHedge().setMinSamples(5);
+        LLMClient client = createClient(new FakeAdapter("gpt-4", 1));
+
+        assertEquals(10000L, client.hedgeDelay("gpt-4"));
+
+        for (int i = 1; i <= 10; i++) {
+            client.getRouter().recordCall("gpt-4", i * 300L, true);
+        }
+        assertEquals(3000L, client.hedgeDelay("gpt-4"));
+    }
+
+    @Test
+    @DisplayName("决策期限 - 按延迟分位数乘以系数计算，样本不足时使用硬上限")
+    void testDeadline() {
+        properties.getDeadline().setMinSamples(5);
+        properties.getDeadline().setPercentile(0.9);
+        properties.getDeadline().setMultiplier(1.5);
+        properties.getDeadline().setMinDeadline(1000);
+        properties.getDeadline().setMaxDeadline(8000);
+        LLMClient client = createClient(new FakeAdapter("gpt-4", 1));
+
+        assertEquals(8000L, client.deadlineFor(1L, 1L, "gpt-4"));
+
+        for (int i = 1; i <= 10; i++) {
+            client.getRouter().recordCall("gpt-4", i * 200L, true);
+        }
+        assertEquals(2700L, client.deadlineFor(1L, 1L, "gpt-4"));
+
+        for (int i = 1; i <= 10; i++) {
+            client.getRouter().recordCall("gpt-4", 20000L, true);
+        }
+        assertEquals(8000L, client.deadlineFor(1L, 1L, "gpt-4"));
+
+        properties.getDeadline().setEnabled(false);
+        assertEquals(8000L, createClient(new FakeAdapter("gpt-4", 1)).deadlineFor(1L, 1L, "gpt-4"));
+    }
+
+    @Test
+    @DisplayName("取消游戏 - 中断该局全部在途调用，不影响其他房间")
+    void testCancelGame() {
+        properties.getHedge().setEnabled(false);
+        FakeAdapter adapter = new FakeAdapter("gpt-4", 5000);
+        LLMClient client = createClient(adapter);
+
+        CompletableFuture<LLMResponse> first = client.complete(request("gpt-4"));
+        CompletableFuture<LLMResponse> second = client.complete(request("gpt-4").toBuilder().playerId(2L).build());
+        CompletableFuture<LLMResponse> otherRoom = client.complete(request("gpt-4").toBuilder().gameId(2L).build());
+        assertEquals(2, client.inFlightCount(1L));
+
+        assertEquals(2, client.cancelGame(1L));
+
+        assertTrue(first.isCancelled());
+        assertTrue(second.isCancelled());
+        assertFalse(otherRoom.isDone());
+        assertEquals(2, adapter.cancelled.get());
+        assertEquals(0, client.inFlightCount(1L));
+        assertEquals(1, client.inFlightCount(2L));
+        otherRoom.cancel(true);
+    }
+
+    @Test
+    @DisplayName("取消游戏 - 等待中的重试不再发出")
+    void testCancelGameDropsQueuedRetry() throws Exception {
+        properties.getHedge().setEnabled(false);
+        properties.getRetry().setInitialDelay(200);
+        properties.getRetry().setMaxDelay(200);
+        FakeAdapter adapter = new FakeAdapter("gpt-4", 1);
+        adapter.failures.add(new LLMException("服务不可用", 503));
+        LLMClient client = createClient(adapter);
+
+        CompletableFuture<LLMResponse> call = client.complete(request("gpt-4"));
+        Thread.sleep(50);
+        client.cancelGame(1L);
+        Thread.sleep(300);
+
+        assertTrue(call.isCancelled());
+        assertEquals(1, adapter.calls.get());
+    }
+
+    private LLMClient createClient(FakeAdapter... adapters) {
+        Map<String, LLMModelAdapter> adapterMap = new java.util.LinkedHashMap<>();
+        for (FakeAdapter adapter : adapters) {
+            adapterMap.put(adapter.getModelName(), adapter);
+        }
+        ModelRouter router = new ModelRouter(properties.getRouting(), List.copyOf(adapterMap.keySet()));
+        return new LLMClient(properties, adapterMap, router,
+                new CircuitBreakerRegistry(properties.getCircuitBreaker()), scheduler);
+    }
+
+    private LLMRequest request(String modelId) {
+        return LLMRequest.builder()
+                .modelId(modelId)
+                .gameId(1L)
+                .playerId(1L)
+                .messages(List.of(ChatMessage.user("请选择查验目标")))
+                .build();
+    }
+
+    /**
+     * 固定延迟的测试适配器
+     */
+    private class FakeAdapter implements LLMModelAdapter {
+        private final String modelId;
+        private final long delayMs;
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger cancelled = new AtomicInteger();
+        private final Deque<RuntimeException> failures = new ArrayDeque<>();
+
+        FakeAdapter(String modelId, long delayMs) {
+            this.modelId = modelId;
+            this.delayMs = delayMs;
+        }
+
+        @Override
+        public String getModelName() {
+            return modelId;
+        }
+
+        @Override
+        public CompletableFuture<LLMResponse> generateAsync(LLMRequest request) {
+            calls.incrementAndGet();
+            CompletableFuture<LLMResponse> future = new CompletableFuture<>();
+            RuntimeException failure = failures.poll();
+            scheduler.schedule(() -> {
+                if (failure != null) {
+                    future.completeExceptionally(failure);
+                } else {
+                    future.complete(LLMResponse.builder().content("3").modelId(modelId)
+                            .promptTokens(100).cachedTokens(75).build());
+                }
+            }, delayMs, TimeUnit.MILLISECONDS);
+            future.whenComplete((response, error) -> {
+                if (future.isCancelled()) {
+                    cancelled.incrementAndGet();
+                }
+            });
+            return future;
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public void configure(Map<String, String> settings) {
+        }
+    }
+}
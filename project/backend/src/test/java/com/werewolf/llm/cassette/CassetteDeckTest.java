@@ -0,0 +1,210 @@
+package com.werewolf.llm.cassette;
+
+import com.werewolf.agent.AIProperties;
+import com.werewolf.agent.HeuristicAgent;
+import com.werewolf.agent.LLMAgent;
+import com.werewolf.agent.PlayerAgent;
+import com.werewolf.domain.model.GameState;
+import com.werewolf.domain.model.Player;
+import com.werewolf.engine.GameController;
+import com.werewolf.llm.ChatMessage;
+import com.werewolf.llm.LLMClient;
+import com.werewolf.llm.LLMProperties;
+import com.werewolf.llm.LLMRequest;
+import com.werewolf.llm.LLMResponse;
+import com.werewolf.llm.adapter.LLMModelAdapter;
+import com.werewolf.llm.resilience.CircuitBreaker;
+import com.werewolf.llm.resilience.CircuitBreakerRegistry;
+import com.werewolf.llm.routing.ModelRouter;
+import com.werewolf.llm.stub.StubReplyGenerator;
+import com.werewolf.runtime.GameRunner;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CassetteDeck 单元测试
+ *
+ * @author Claude & User
+ */
+@DisplayName("录制回放测试")
+class CassetteDeckTest {
+
+    private static final long SEED = 2024L;
+
+    private ScheduledExecutorService scheduler;
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        scheduler = Executors.newScheduledThreadPool(2);
+        directory = Files.createTempDirectory("cassettes");
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("录制整局游戏后回放，不访问模型且对局过程相同")
+    void testRecordAndReplayGame() {
+        GeneratedAdapter recording = new GeneratedAdapter();
+        List<String> recorded = playGame(CassetteDeck.Mode.RECORD, recording);
+        assertTrue(recording.calls.get() > 0);
+        assertTrue(Files.exists(directory.resolve("game-" + SEED + ".cassette.gz")));
+
+        GeneratedAdapter replaying = new GeneratedAdapter();
+        List<String> replayed = playGame(CassetteDeck.Mode.REPLAY, replaying);
+
+        assertEquals(0, replaying.calls.get());
+        assertEquals(recorded, replayed);
+    }
+
+    @Test
+    @DisplayName("回放不受当前熔断状态影响")
+    void testReplayIgnoresBreaker() {
+        List<String> recorded = playGame(CassetteDeck.Mode.RECORD, new GeneratedAdapter());
+
+        GeneratedAdapter replaying = new GeneratedAdapter();
+        List<String> replayed = playGame(CassetteDeck.Mode.REPLAY, replaying, true);
+
+        assertEquals(0, replaying.calls.get());
+        assertEquals(recorded, replayed);
+    }
+
+    @Test
+    @DisplayName("回放模式下缺少录制文件时拒绝开始")
+    void testMissingCassette() {
+        CassetteDeck deck = new CassetteDeck(config(CassetteDeck.Mode.REPLAY));
+
+        assertThrows(IllegalArgumentException.class, () -> deck.insert(1L, 42L));
+    }
+
+    @Test
+    @DisplayName("关闭时不录制也不回放")
+    void testOff() {
+        CassetteDeck deck = new CassetteDeck(config(CassetteDeck.Mode.OFF));
+
+        deck.insert(1L, 42L);
+
+        assertFalse(deck.isReplaying(1L));
+        assertNull(deck.eject(1L));
+    }
+
+    /**
+     * 以录制或回放模式跑一局全模型对局，返回按顺序的事件描述
+     */
+    private List<String> playGame(CassetteDeck.Mode mode, LLMModelAdapter adapter) {
+        return playGame(mode, adapter, false);
+    }
+
+    private List<String> playGame(CassetteDeck.Mode mode, LLMModelAdapter adapter, boolean breakerOpen) {
+        LLMProperties properties = new LLMProperties();
+        properties.getHedge().setEnabled(false);
+        properties.getRetry().setMaxAttempts(1);
+        properties.setCassette(config(mode));
+        ModelRouter router = new ModelRouter(properties.getRouting(), List.of("gpt-4"));
+        CircuitBreakerRegistry breakers = new CircuitBreakerRegistry(properties.getCircuitBreaker());
+        if (breakerOpen) {
+            CircuitBreaker breaker = breakers.forModel("gpt-4");
+            for (int i = 0; i < properties.getCircuitBreaker().getMinCalls(); i++) {
+                breaker.onFailure(breaker.tryAcquire());
+            }
+            assertTrue(breaker.isOpen());
+        }
+        LLMClient client = new LLMClient(properties, Map.of("gpt-4", adapter), router, breakers, scheduler);
+
+        GameState gameState = createGame();
+        new GameController().initializeGame(gameState);
+        client.getCassettes().insert(gameState.getGameId(), gameState.getSeed());
+
+        Map<Long, PlayerAgent> agents = new HashMap<>();
+        for (Player player : gameState.getPlayers()) {
+            agents.put(player.getId(), new LLMAgent(player.getId(), "gpt-4", client, new HeuristicAgent(player.getId()),
+                    new AIProperties()));
+        }
+        new GameRunner(gameState, agents).playToEnd(20);
+        client.cancelGame(gameState.getGameId());
+
+        assertTrue(gameState.isFinished());
+        List<String> events = new ArrayList<>();
+        gameState.getEvents().forEach(event -> events.add(event.getType() + " " + event.getDescription()));
+        return events;
+    }
+
+    private LLMProperties.Cassette config(CassetteDeck.Mode mode) {
+        LLMProperties.Cassette config = new LLMProperties.Cassette();
+        config.setMode(mode);
+        config.setDirectory(directory.toString());
+        return config;
+    }
+
+    private GameState createGame() {
+        List<Player> players = new ArrayList<>();
+        for (int seat = 1; seat <= 6; seat++) {
+            players.add(Player.builder()
+                    .id((long) seat)
+                    .name("玩家" + seat)
+                    .type(Player.PlayerType.AI)
+                    .alive(true)
+                    .seatNumber(seat)
+                    .build());
+        }
+        return GameState.builder()
+                .gameId(1L)
+                .seed(SEED)
+                .players(players)
+                .status(GameState.GameStatus.WAITING)
+                .build();
+    }
+
+    /**
+     * 根据提示词生成合法回复的模型，每次回复都带随机性
+     */
+    private static class GeneratedAdapter implements LLMModelAdapter {
+        private final AtomicInteger calls = new AtomicInteger();
+        private final StubReplyGenerator generator = new StubReplyGenerator(List.of());
+        private final Random random = new Random();
+
+        @Override
+        public String getModelName() {
+            return "gpt-4";
+        }
+
+        @Override
+        public CompletableFuture<LLMResponse> generateAsync(LLMRequest request) {
+            calls.incrementAndGet();
+            List<ChatMessage> messages = request.getMessages();
+            String prompt = messages.get(messages.size() - 1).getContent();
+            return CompletableFuture.completedFuture(LLMResponse.builder()
+                    .content(generator.generate(prompt, random))
+                    .modelId("gpt-4")
+                    .build());
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public void configure(Map<String, String> settings) {
+        }
+    }
+}
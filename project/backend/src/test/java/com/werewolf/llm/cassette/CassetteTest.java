@@ -0,0 +1,97 @@
+package com.werewolf.llm.cassette;
+
+import com.werewolf.llm.ChatMessage;
+import com.werewolf.llm.LLMException;
+import com.werewolf.llm.LLMRequest;
+import com.werewolf.llm.LLMResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cassette 单元测试
+ *
+ * @author Claude & User
+ */
+@DisplayName("模型调用录制测试")
+class CassetteTest {
+
+    @Test
+    @DisplayName("写入文件后读取，按座位和请求回放")
+    void testWriteAndReplay() throws Exception {
+        Cassette cassette = new Cassette(2024L);
+        cassette.record(request(1L, "查验"), CompletableFuture.completedFuture(response("{\"target\": 3}")));
+        cassette.record(request(2L, "查验"), CompletableFuture.completedFuture(response("{\"target\": 5}")));
+        Path file = Files.createTempDirectory("cassette").resolve("game.cassette.gz");
+
+        cassette.write(file);
+        Cassette loaded = Cassette.read(file);
+
+        assertEquals(2024L, loaded.getSeed());
+        assertEquals(2, loaded.getEntries().size());
+        // 座位之间的调用顺序变化不影响匹配
+        assertEquals("{\"target\": 5}", loaded.replay(request(2L, "查验")).getContent());
+        LLMResponse replayed = loaded.replay(request(1L, "查验"));
+        assertEquals("{\"target\": 3}", replayed.getContent());
+        assertEquals("gpt-4", replayed.getModelId());
+        assertEquals(7, replayed.getCompletionTokens());
+    }
+
+    @Test
+    @DisplayName("相同请求按出现次数依次回放")
+    void testRepeatedRequests() {
+        Cassette cassette = new Cassette(1L);
+        cassette.record(request(1L, "投票"), CompletableFuture.completedFuture(response("第一次")));
+        cassette.record(request(1L, "投票"), CompletableFuture.completedFuture(response("第二次")));
+
+        assertEquals("第一次", cassette.replay(request(1L, "投票")).getContent());
+        assertEquals("第二次", cassette.replay(request(1L, "投票")).getContent());
+        assertThrows(LLMException.class, () -> cassette.replay(request(1L, "投票")));
+        assertEquals(1, cassette.getMisses());
+    }
+
+    @Test
+    @DisplayName("失败和取消的调用回放为失败")
+    void testFailures() {
+        Cassette cassette = new Cassette(1L);
+        cassette.record(request(1L, "发言"), CompletableFuture.failedFuture(new LLMException("限流", 429)));
+        CompletableFuture<LLMResponse> cancelled = new CompletableFuture<>();
+        cassette.record(request(2L, "发言"), cancelled);
+        cancelled.cancel(true);
+
+        LLMException rateLimited = assertThrows(LLMException.class, () -> cassette.replay(request(1L, "发言")));
+        assertEquals(429, rateLimited.getStatusCode());
+        assertThrows(LLMException.class, () -> cassette.replay(request(2L, "发言")));
+        assertEquals(0, cassette.getMisses());
+    }
+
+    @Test
+    @DisplayName("请求内容不同时不匹配，模型不同时仍匹配")
+    void testFingerprint() {
+        LLMRequest request = request(1L, "查验");
+
+        assertEquals(Cassette.fingerprint(request), Cassette.fingerprint(request.toBuilder().modelId("qwen-max").build()));
+        assertNotEquals(Cassette.fingerprint(request), Cassette.fingerprint(request(1L, "投票")));
+        assertNotEquals(Cassette.fingerprint(request),
+                Cassette.fingerprint(request.toBuilder().previousResponseId("resp-1").build()));
+    }
+
+    private LLMRequest request(Long playerId, String prompt) {
+        return LLMRequest.builder()
+                .modelId("gpt-4")
+                .gameId(1L)
+                .playerId(playerId)
+                .messages(List.of(ChatMessage.system("你是狼人杀玩家"), ChatMessage.user(prompt)))
+                .build();
+    }
+
+    private LLMResponse response(String content) {
+        return LLMResponse.builder().content(content).modelId("gpt-4").completionTokens(7).build();
+    }
+}
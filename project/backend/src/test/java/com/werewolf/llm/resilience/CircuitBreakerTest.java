@@ -0,0 +1,163 @@
+package com.werewolf.llm.resilience;
+
+import com.werewolf.llm.LLMProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CircuitBreaker 单元测试
+ */
+@DisplayName("模型熔断器测试")
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong(0);
+    private LLMProperties.CircuitBreaker config;
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        config = new LLMProperties.CircuitBreaker();
+        config.setWindowSize(10);
+        config.setMinCalls(4);
+        config.setFailureRateThreshold(0.5);
+        config.setSlowCallThreshold(1000);
+        config.setSlowCallRateThreshold(0.75);
+        config.setOpenDuration(5000);
+        config.setHalfOpenPermits(2);
+        breaker = new CircuitBreaker("gpt-4", config, now::get);
+    }
+
+    @Test
+    @DisplayName("调用数不足最小值时不熔断")
+    void testBelowMinCalls() {
+        for (int i = 0; i < 3; i++) {
+            breaker.onFailure(acquire());
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    @DisplayName("错误率达到阈值后熔断并拒绝调用")
+    void testOpenOnFailureRate() {
+        breaker.onSuccess(acquire(), 10);
+        breaker.onSuccess(acquire(), 10);
+        breaker.onFailure(acquire());
+        breaker.onFailure(acquire());
+
+        assertTrue(breaker.isOpen());
+        assertNull(breaker.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("慢调用率达到阈值后熔断")
+    void testOpenOnSlowCallRate() {
+        breaker.onSuccess(acquire(), 10);
+        breaker.onSuccess(acquire(), 1500);
+        breaker.onSuccess(acquire(), 1500);
+        breaker.onSuccess(acquire(), 1500);
+
+        assertTrue(breaker.isOpen());
+    }
+
+    @Test
+    @DisplayName("熔断时长结束后进入半开，试探成功则恢复")
+    void testHalfOpenRecovers() {
+        openBreaker();
+        now.addAndGet(5000);
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        CircuitBreaker.Permit first = acquire();
+        CircuitBreaker.Permit second = acquire();
+        assertTrue(first.probe());
+        assertNull(breaker.tryAcquire());
+
+        breaker.onSuccess(first, 10);
+        breaker.onSuccess(second, 10);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    @DisplayName("半开状态试探失败则重新熔断")
+    void testHalfOpenFailureReopens() {
+        openBreaker();
+        now.addAndGet(5000);
+
+        breaker.onFailure(acquire());
+
+        assertTrue(breaker.isOpen());
+        now.addAndGet(4999);
+        assertTrue(breaker.isOpen());
+    }
+
+    @Test
+    @DisplayName("取消的试探调用归还许可")
+    void testCancelReleasesPermit() {
+        openBreaker();
+        now.addAndGet(5000);
+
+        acquire();
+        breaker.onCancel(acquire());
+
+        assertNotNull(breaker.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("关闭时申请、半开后才结束的调用不计入试探")
+    void testStalePermitIgnored() {
+        CircuitBreaker.Permit slowFailure = acquire();
+        CircuitBreaker.Permit slowSuccess = acquire();
+        CircuitBreaker.Permit cancelled = acquire();
+        openBreaker();
+        now.addAndGet(5000);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        CircuitBreaker.Permit probe = acquire();
+        breaker.onFailure(slowFailure);
+        breaker.onSuccess(slowSuccess, 10);
+        breaker.onCancel(cancelled);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        // 过期的结果没有归还或占用试探名额
+        CircuitBreaker.Permit probe2 = acquire();
+        assertNull(breaker.tryAcquire());
+
+        breaker.onSuccess(probe, 10);
+        breaker.onSuccess(probe2, 10);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    @DisplayName("上一轮半开的试探结果不影响新的半开")
+    void testStaleProbeIgnored() {
+        openBreaker();
+        now.addAndGet(5000);
+        CircuitBreaker.Permit oldProbe = acquire();
+        breaker.onFailure(acquire());
+        assertTrue(breaker.isOpen());
+
+        now.addAndGet(5000);
+        breaker.onSuccess(oldProbe, 10);
+        breaker.onFailure(oldProbe);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        acquire();
+        acquire();
+        assertNull(breaker.tryAcquire());
+    }
+
+    private CircuitBreaker.Permit acquire() {
+        CircuitBreaker.Permit permit = breaker.tryAcquire();
+        assertNotNull(permit);
+        return permit;
+    }
+
+    private void openBreaker() {
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure(acquire());
+        }
+        assertTrue(breaker.isOpen());
+    }
+}
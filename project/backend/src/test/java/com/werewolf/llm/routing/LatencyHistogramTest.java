@@ -0,0 +1,58 @@
+package com.werewolf.llm.routing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LatencyHistogram 单元测试
+ */
+@DisplayName("延迟直方图测试")
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("分位数 - 只统计成功调用")
+    void testPercentile_IgnoresFailures() {
+        LatencyHistogram histogram = new LatencyHistogram(10);
+        for (int i = 1; i <= 4; i++) {
+            histogram.record(i * 100L, true);
+        }
+        histogram.record(99999L, false);
+
+        assertEquals(200L, histogram.percentile(0.5));
+        assertEquals(400L, histogram.percentile(0.99));
+        assertEquals(100L, histogram.percentile(0.0));
+    }
+
+    @Test
+    @DisplayName("分位数 - 无成功样本返回-1")
+    void testPercentile_NoSamples() {
+        LatencyHistogram histogram = new LatencyHistogram(10);
+        assertEquals(-1L, histogram.percentile(0.5));
+
+        histogram.record(100L, false);
+        assertEquals(-1L, histogram.percentile(0.5));
+    }
+
+    @Test
+    @DisplayName("滑动窗口 - 旧样本被淘汰")
+    void testWindow_EvictsOldSamples() {
+        LatencyHistogram histogram = new LatencyHistogram(3);
+        histogram.record(5000L, false);
+        histogram.record(100L, true);
+        histogram.record(100L, true);
+        assertEquals(1.0 / 3, histogram.errorRate(), 0.0001);
+
+        histogram.record(100L, true);  // 淘汰失败样本
+
+        assertEquals(3, histogram.sampleCount());
+        assertEquals(0.0, histogram.errorRate(), 0.0001);
+    }
+
+    @Test
+    @DisplayName("创建直方图 - 窗口大小非法抛出异常")
+    void testInvalidWindowSize() {
+        assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram(0));
+    }
+}
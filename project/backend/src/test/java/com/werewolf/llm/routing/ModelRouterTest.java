@@ -0,0 +1,170 @@
+package com.werewolf.llm.routing;
+
+import com.werewolf.llm.LLMProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ModelRouter 单元测试
+ */
+@DisplayName("模型路由器测试")
+class ModelRouterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private ModelRouter router;
+
+    @BeforeEach
+    void setUp() {
+        LLMProperties.Routing config = new LLMProperties.Routing();
+        config.setWindowSize(20);
+        config.setMaxErrorRate(0.3);
+        config.setMinSamples(5);
+        config.setProbeInterval(30_000);
+        router = new ModelRouter(config, List.of("qwen-max", "gpt-4", "gpt-3.5-turbo"), now::get);
+    }
+
+    @Test
+    @DisplayName("路由 - 健康的偏好模型保持不变")
+    void testRoute_KeepsHealthyPreferredModel() {
+        recordLatency("qwen-max", 3000L, 10);
+        recordLatency("gpt-4", 1000L, 10);
+
+        assertEquals("qwen-max", router.route("1:1", "qwen-max"));
+    }
+
+    @Test
+    @DisplayName("路由 - 无偏好时选择延迟最低的模型")
+    void testRoute_NoPreferencePicksFastest() {
+        recordLatency("qwen-max", 3000L, 10);
+        recordLatency("gpt-4", 1000L, 10);
+        recordLatency("gpt-3.5-turbo", 2000L, 10);
+
+        assertEquals("gpt-4", router.route("1:1", null));
+    }
+
+    @Test
+    @DisplayName("路由 - 错误率过高时切换模型并保持粘性")
+    void testRoute_SwitchesAwayFromFailingModel() {
+        recordLatency("gpt-4", 1500L, 10);
+        assertEquals("qwen-max", router.route("1:2", "qwen-max"));
+
+        for (int i = 0; i < 10; i++) {
+            router.recordCall("qwen-max", 30000L, false);
+        }
+
+        assertEquals("gpt-4", router.route("1:2", "qwen-max"));
+        // 原模型恢复后，座位仍保留新模型
+        recordLatency("qwen-max", 500L, 20);
+        assertEquals("gpt-4", router.route("1:2", "qwen-max"));
+    }
+
+    @Test
+    @DisplayName("健康判定 - 样本不足时单次失败不排除模型")
+    void testIsHealthy_MinSamples() {
+        router.recordCall("gpt-4", 1000L, false);
+        assertEquals(1.0, router.getHistogram("gpt-4").errorRate());
+        assertTrue(router.isHealthy("gpt-4"));
+
+        for (int i = 0; i < 4; i++) {
+            router.recordCall("gpt-4", 1000L, false);
+        }
+        assertFalse(router.isHealthy("gpt-4"));
+    }
+
+    @Test
+    @DisplayName("健康判定 - 超过试探间隔后重新放行，试探失败再排除一个周期")
+    void testIsHealthy_Probe() {
+        for (int i = 0; i < 5; i++) {
+            router.recordCall("gpt-4", 1000L, false);
+        }
+        assertFalse(router.isHealthy("gpt-4"));
+
+        now.addAndGet(30_000);
+        assertTrue(router.isHealthy("gpt-4"));
+        assertEquals("gpt-4", router.route("1:1", "gpt-4"));
+
+        router.recordCall("gpt-4", 1000L, false);
+        assertFalse(router.isHealthy("gpt-4"));
+        now.addAndGet(29_999);
+        assertFalse(router.isHealthy("gpt-4"));
+
+        // 试探成功后样本逐步恢复，错误率降到阈值以下后不再依赖试探间隔
+        now.addAndGet(1);
+        for (int i = 0; i < 20; i++) {
+            router.recordCall("gpt-4", 1000L, true);
+        }
+        assertTrue(router.isHealthy("gpt-4"));
+    }
+
+    @Test
+    @DisplayName("健康判定 - 同一时刻只有一个座位试探，试探成功后下一个座位接着试探")
+    void testIsHealthy_SingleProbe() {
+        recordLatency("qwen-max", 1000L, 10);
+        for (int i = 0; i < 5; i++) {
+            router.recordCall("gpt-4", 1000L, false);
+        }
+        now.addAndGet(30_000);
+
+        assertEquals("gpt-4", router.route("1:1", "gpt-4"));
+        assertFalse(router.isHealthy("gpt-4"));
+        assertEquals("qwen-max", router.route("1:2", "gpt-4"));
+        assertEquals("qwen-max", router.route("1:3", "gpt-4"));
+        // 持有试探的座位在结果返回前保持该模型
+        assertEquals("gpt-4", router.route("1:1", "gpt-4"));
+
+        router.recordCall("gpt-4", 1000L, true);
+        assertTrue(router.isHealthy("gpt-4"));
+        assertEquals("gpt-4", router.route("1:4", "gpt-4"));
+        assertEquals("qwen-max", router.route("1:5", "gpt-4"));
+
+        // 试探一直没有结果时，超过试探间隔后由其他座位重新抢占
+        now.addAndGet(30_000);
+        assertEquals("gpt-4", router.route("1:6", "gpt-4"));
+        assertEquals("qwen-max", router.route("1:4", "gpt-4"));
+    }
+
+    @Test
+    @DisplayName("对冲备用模型 - 选择其他健康模型")
+    void testAlternateFor() {
+        recordLatency("gpt-3.5-turbo", 800L, 10);
+        recordLatency("gpt-4", 1200L, 10);
+
+        assertEquals("gpt-3.5-turbo", router.alternateFor("qwen-max"));
+        assertEquals("gpt-4", router.alternateFor("gpt-3.5-turbo"));
+    }
+
+    @Test
+    @DisplayName("对冲备用模型 - 没有健康模型时重复请求原模型")
+    void testAlternateFor_NoHealthyAlternative() {
+        for (String modelId : List.of("gpt-4", "gpt-3.5-turbo")) {
+            for (int i = 0; i < 5; i++) {
+                router.recordCall(modelId, 100L, false);
+            }
+        }
+
+        assertEquals("qwen-max", router.alternateFor("qwen-max"));
+    }
+
+    @Test
+    @DisplayName("释放游戏 - 座位分配被清除")
+    void testReleaseGame() {
+        recordLatency("gpt-4", 1000L, 10);
+        assertEquals("qwen-max", router.route("7:1", "qwen-max"));
+
+        router.releaseGame(7L);
+
+        assertEquals("gpt-4", router.route("7:1", null));
+    }
+
+    private void recordLatency(String modelId, long latencyMs, int times) {
+        for (int i = 0; i < times; i++) {
+            router.recordCall(modelId, latencyMs, true);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.werewolf.llm.scheduling;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CallScheduler 单元测试
+ *
+ * @author Claude & User
+ */
+@DisplayName("模型调用调度器测试")
+class CallSchedulerTest {
+
+    @Test
+    @DisplayName("超过并发上限的调用排队，名额释放后按顺序启动")
+    void testQueueing() {
+        CallScheduler scheduler = new CallScheduler(1);
+        List<CompletableFuture<String>> calls = new ArrayList<>();
+        AtomicInteger started = new AtomicInteger();
+
+        CompletableFuture<String> first = scheduler.submit("openai", () -> track(calls, started));
+        CompletableFuture<String> second = scheduler.submit("openai", () -> track(calls, started));
+
+        assertEquals(1, started.get());
+        assertEquals(1, scheduler.running("openai"));
+        assertEquals(1, scheduler.queued("openai"));
+
+        calls.get(0).complete("a");
+        assertEquals("a", first.join());
+        assertEquals(2, started.get());
+        assertEquals(0, scheduler.queued("openai"));
+
+        calls.get(1).complete("b");
+        assertEquals("b", second.join());
+        assertEquals(0, scheduler.running("openai"));
+    }
+
+    @Test
+    @DisplayName("不同 provider 的队列互不影响")
+    void testProvidersIndependent() {
+        CallScheduler scheduler = new CallScheduler(1);
+        AtomicInteger started = new AtomicInteger();
+        List<CompletableFuture<String>> calls = new ArrayList<>();
+
+        scheduler.submit("openai", () -> track(calls, started));
+        scheduler.submit("qwen", () -> track(calls, started));
+
+        assertEquals(2, started.get());
+    }
+
+    @Test
+    @DisplayName("排队中的调用被取消时出队，不会启动")
+    void testCancelQueued() {
+        CallScheduler scheduler = new CallScheduler(1);
+        List<CompletableFuture<String>> calls = new ArrayList<>();
+        AtomicInteger started = new AtomicInteger();
+
+        scheduler.submit("openai", () -> track(calls, started));
+        CompletableFuture<String> queued = scheduler.submit("openai", () -> track(calls, started));
+        queued.cancel(true);
+
+        assertEquals(0, scheduler.queued("openai"));
+        calls.get(0).complete("a");
+        assertEquals(1, started.get());
+        assertEquals(0, scheduler.running("openai"));
+    }
+
+    @Test
+    @DisplayName("取消已启动的调用时向下传递并释放名额")
+    void testCancelRunning() {
+        CallScheduler scheduler = new CallScheduler(1);
+        List<CompletableFuture<String>> calls = new ArrayList<>();
+        AtomicInteger started = new AtomicInteger();
+
+        CompletableFuture<String> running = scheduler.submit("openai", () -> track(calls, started));
+        scheduler.submit("openai", () -> track(calls, started));
+        running.cancel(true);
+
+        assertTrue(calls.get(0).isCancelled());
+        assertEquals(2, started.get());
+    }
+
+    @Test
+    @DisplayName("排队等待：读取后重置，并包含队首已等待的时间")
+    void testDrainQueueWait() throws Exception {
+        CallScheduler scheduler = new CallScheduler(1);
+        List<CompletableFuture<String>> calls = new ArrayList<>();
+        AtomicInteger started = new AtomicInteger();
+
+        scheduler.submit("openai", () -> track(calls, started));
+        assertEquals(0, scheduler.drainQueueWait());
+
+        scheduler.submit("openai", () -> track(calls, started));
+        Thread.sleep(60);
+        assertTrue(scheduler.drainQueueWait() >= 50);
+
+        calls.get(0).complete("a");
+        assertTrue(scheduler.drainQueueWait() >= 50);
+        assertEquals(0, scheduler.drainQueueWait());
+    }
+
+    private CompletableFuture<String> track(List<CompletableFuture<String>> calls, AtomicInteger started) {
+        started.incrementAndGet();
+        CompletableFuture<String> call = new CompletableFuture<>();
+        calls.add(call);
+        return call;
+    }
+}
@@ -0,0 +1,99 @@
+package com.werewolf.llm.scheduling;
+
+import com.werewolf.llm.LLMProperties;
+import com.werewolf.llm.ModelConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LoadShedder 单元测试
+ *
+ * @author Claude & User
+ */
+@DisplayName("过载降级测试")
+class LoadShedderTest {
+
+    private LLMProperties.LoadShedding config;
+    private AtomicLong queueWait;
+    private LoadShedder shedder;
+
+    @BeforeEach
+    void setUp() {
+        config = new LLMProperties.LoadShedding();
+        config.setQueueWaitSlo(1000);
+        config.setRecoveryRatio(0.5);
+        config.setEvaluationInterval(100);
+        queueWait = new AtomicLong();
+        shedder = new LoadShedder(config, List.of(
+                model("gpt-4", "gpt-3.5-turbo"),
+                model("gpt-3.5-turbo", LoadShedder.HEURISTIC),
+                model("qwen-max", null)), queueWait::get);
+    }
+
+    @Test
+    @DisplayName("降级阶梯长度决定最高级别")
+    void testMaxLevel() {
+        assertEquals(2, shedder.getMaxLevel());
+        assertEquals("gpt-4", shedder.downgrade("gpt-4"));
+    }
+
+    @Test
+    @DisplayName("排队等待超过SLO时逐级降级，每个周期最多一级")
+    void testDowngrade() {
+        queueWait.set(5000);
+
+        shedder.evaluate(0);
+        shedder.evaluate(50);
+        assertEquals(1, shedder.getLevel());
+
+        shedder.evaluate(100);
+        assertEquals(2, shedder.getLevel());
+        shedder.evaluate(200);
+        assertEquals(2, shedder.getLevel());
+    }
+
+    @Test
+    @DisplayName("沿阶梯降级，没有配置阶梯的模型保持不变")
+    void testLadder() {
+        queueWait.set(5000);
+        shedder.evaluate(0);
+        config.setEnabled(false);
+
+        assertEquals("gpt-3.5-turbo", shedder.downgrade("gpt-4"));
+        assertEquals(LoadShedder.HEURISTIC, shedder.downgrade("gpt-3.5-turbo"));
+        assertEquals("qwen-max", shedder.downgrade("qwen-max"));
+
+        config.setEnabled(true);
+        shedder.evaluate(100);
+        config.setEnabled(false);
+        assertEquals(LoadShedder.HEURISTIC, shedder.downgrade("gpt-4"));
+    }
+
+    @Test
+    @DisplayName("排队等待回落到恢复线以下时逐级恢复，介于两者之间时保持")
+    void testRecovery() {
+        queueWait.set(5000);
+        shedder.evaluate(0);
+        shedder.evaluate(100);
+
+        queueWait.set(700);
+        shedder.evaluate(200);
+        assertEquals(2, shedder.getLevel());
+
+        queueWait.set(100);
+        shedder.evaluate(300);
+        assertEquals(1, shedder.getLevel());
+        shedder.evaluate(400);
+        assertEquals(0, shedder.getLevel());
+    }
+
+    private ModelConfig model(String id, String downgradeTo) {
+        return ModelConfig.builder().id(id).enabled(true).downgradeTo(downgradeTo).build();
+    }
+}
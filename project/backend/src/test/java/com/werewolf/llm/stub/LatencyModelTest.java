@@ -0,0 +1,88 @@
+package com.werewolf.llm.stub;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LatencyModel 单元测试
+ *
+ * @author Claude & User
+ */
+@DisplayName("替身延迟分布测试")
+class LatencyModelTest {
+
+    @Test
+    @DisplayName("固定分布总是返回中位数")
+    void testFixed() {
+        LatencyModel model = new LatencyModel(latency(LatencyModel.Distribution.FIXED));
+
+        assertEquals(800, model.sample(new Random(1)));
+    }
+
+    @Test
+    @DisplayName("对数正态和重尾分布的中位数接近配置值，重尾分布的尾部更长")
+    void testMedianAndTail() {
+        long[] logNormal = samples(LatencyModel.Distribution.LOG_NORMAL);
+        long[] heavyTail = samples(LatencyModel.Distribution.HEAVY_TAIL);
+
+        assertEquals(800, logNormal[logNormal.length / 2], 80);
+        assertEquals(800, heavyTail[heavyTail.length / 2], 80);
+        int p999 = logNormal.length * 999 / 1000;
+        assertTrue(heavyTail[p999] > logNormal[p999]);
+    }
+
+    @Test
+    @DisplayName("采样不超过上限且同一种子可复现")
+    void testCapAndDeterminism() {
+        StubLLMProperties.Latency config = latency(LatencyModel.Distribution.HEAVY_TAIL);
+        config.setTailAlpha(0.5);
+        config.setMax(5000);
+        LatencyModel model = new LatencyModel(config);
+
+        long[] first = new long[1000];
+        long[] second = new long[1000];
+        Random a = new Random(7);
+        Random b = new Random(7);
+        for (int i = 0; i < first.length; i++) {
+            first[i] = model.sample(a);
+            second[i] = model.sample(b);
+            assertTrue(first[i] <= 5000);
+        }
+        assertArrayEquals(first, second);
+    }
+
+    @Test
+    @DisplayName("中位数超过上限时拒绝配置")
+    void testInvalidConfig() {
+        StubLLMProperties.Latency config = latency(LatencyModel.Distribution.FIXED);
+        config.setMax(100);
+
+        assertThrows(IllegalArgumentException.class, () -> new LatencyModel(config));
+    }
+
+    private long[] samples(LatencyModel.Distribution distribution) {
+        LatencyModel model = new LatencyModel(latency(distribution));
+        Random random = new Random(42);
+        long[] samples = new long[20000];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = model.sample(random);
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    private StubLLMProperties.Latency latency(LatencyModel.Distribution distribution) {
+        StubLLMProperties.Latency config = new StubLLMProperties.Latency();
+        config.setDistribution(distribution);
+        config.setMedian(800);
+        config.setSigma(0.5);
+        config.setTailAlpha(1.5);
+        config.setMax(600000);
+        return config;
+    }
+}
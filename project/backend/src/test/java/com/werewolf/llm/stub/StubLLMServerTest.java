@@ -0,0 +1,174 @@
+package com.werewolf.llm.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * StubLLMServer 单元测试
+ *
+ * @author Claude & User
+ */
+@DisplayName("本地模型替身服务测试")
+class StubLLMServerTest {
+
+    private static final String CHAT_BODY = "{\"model\": \"gpt-4\", \"messages\": ["
+            + "{\"role\": \"system\", \"content\": \"你是狼人杀玩家\"},"
+            + "{\"role\": \"user\", \"content\": \"请投票放逐一名玩家，可选：2号、5号。只回复JSON：{\\\"target\\\": 座位号}\"}]}";
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private StubLLMProperties properties;
+    private StubLLMServer server;
+
+    @BeforeEach
+    void setUp() {
+        properties = new StubLLMProperties();
+        properties.setPort(0);
+        properties.getLatency().setDistribution(LatencyModel.Distribution.FIXED);
+        properties.getLatency().setMedian(0);
+        properties.setTokensPerSecond(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("chat/completions 返回合法目标和用量")
+    void testChatCompletion() throws Exception {
+        start();
+
+        HttpResponse<String> response = post("/chat/completions", CHAT_BODY);
+
+        assertEquals(200, response.statusCode());
+        JsonNode body = objectMapper.readTree(response.body());
+        String content = body.path("choices").path(0).path("message").path("content").asText();
+        assertTrue(content.equals("{\"target\": 2}") || content.equals("{\"target\": 5}"), content);
+        assertTrue(body.path("usage").path("prompt_tokens").asInt() > 0);
+        assertTrue(body.path("usage").path("completion_tokens").asInt() > 0);
+    }
+
+    @Test
+    @DisplayName("相同种子和请求得到相同回复")
+    void testDeterministic() throws Exception {
+        start();
+        String first = content(post("/chat/completions", CHAT_BODY));
+        server.stop();
+        server = null;
+
+        start();
+        assertEquals(first, content(post("/chat/completions", CHAT_BODY)));
+    }
+
+    @Test
+    @DisplayName("限流率为1时返回429和Retry-After")
+    void testRateLimit() throws Exception {
+        properties.setRateLimitRate(1.0);
+        properties.setRetryAfterSeconds(3);
+        start();
+
+        HttpResponse<String> response = post("/chat/completions", CHAT_BODY);
+
+        assertEquals(429, response.statusCode());
+        assertEquals("3", response.headers().firstValue("Retry-After").orElse(null));
+        assertEquals(1, server.getRateLimitedCount());
+    }
+
+    @Test
+    @DisplayName("错误率为1时返回500")
+    void testServerError() throws Exception {
+        properties.setErrorRate(1.0);
+        start();
+
+        assertEquals(500, post("/chat/completions", CHAT_BODY).statusCode());
+        assertEquals(1, server.getErrorCount());
+    }
+
+    @Test
+    @DisplayName("responses 接口返回响应ID和 output_text")
+    void testResponses() throws Exception {
+        properties.setScriptedReplies(List.of("{\"speech\": \"过\"}"));
+        start();
+
+        HttpResponse<String> response = post("/responses",
+                "{\"model\": \"gpt-4\", \"store\": true, \"input\": [{\"role\": \"user\", \"content\": \"发言\"}]}");
+
+        assertEquals(200, response.statusCode());
+        JsonNode body = objectMapper.readTree(response.body());
+        assertTrue(body.path("id").asText().startsWith("resp-"));
+        assertEquals("{\"speech\": \"过\"}",
+                body.path("output").path(0).path("content").path(0).path("text").asText());
+        assertTrue(body.path("usage").path("input_tokens").asInt() > 0);
+    }
+
+    @Test
+    @DisplayName("流式请求按 SSE 推送并以 [DONE] 结束")
+    void testStreaming() throws Exception {
+        properties.setScriptedReplies(List.of("{\"target\": 3}"));
+        start();
+
+        HttpResponse<String> response = post("/chat/completions",
+                "{\"model\": \"gpt-4\", \"stream\": true, \"messages\": [{\"role\": \"user\", \"content\": \"投票\"}]}");
+
+        assertEquals(200, response.statusCode());
+        StringBuilder content = new StringBuilder();
+        for (String line : response.body().split("\n")) {
+            if (line.startsWith("data: {")) {
+                content.append(objectMapper.readTree(line.substring(6))
+                        .path("choices").path(0).path("delta").path("content").asText());
+            }
+        }
+        assertEquals("{\"target\": 3}", content.toString());
+        assertTrue(response.body().trim().endsWith("data: [DONE]"));
+    }
+
+    @Test
+    @DisplayName("未知接口返回404，非法请求体返回400")
+    void testInvalidRequests() throws Exception {
+        start();
+
+        assertEquals(404, post("/embeddings", "{}").statusCode());
+        assertEquals(400, post("/chat/completions", "not json").statusCode());
+    }
+
+    @Test
+    @DisplayName("错误率和限流率合计超过1时拒绝配置")
+    void testInvalidRates() {
+        properties.setErrorRate(0.6);
+        properties.setRateLimitRate(0.6);
+
+        assertThrows(IllegalArgumentException.class, () -> new StubLLMServer(properties));
+    }
+
+    private void start() throws Exception {
+        server = new StubLLMServer(properties);
+        server.start();
+    }
+
+    private HttpResponse<String> post(String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(server.getBaseUrl() + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private String content(HttpResponse<String> response) throws Exception {
+        return objectMapper.readTree(response.body()).path("choices").path(0).path("message").path("content").asText();
+    }
+}
@@ -0,0 +1,61 @@
+package com.werewolf.llm.stub;
+
+import com.werewolf.agent.output.TolerantJsonReader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * StubReplyGenerator 单元测试
+ *
+ * @author Claude & User
+ */
+@DisplayName("替身回复生成测试")
+class StubReplyGeneratorTest {
+
+    private final StubReplyGenerator generator = new StubReplyGenerator(List.of());
+
+    @Test
+    @DisplayName("目标决策只从可选座位中选择")
+    void testTarget() {
+        for (int seed = 0; seed < 20; seed++) {
+            Map<String, Object> reply = TolerantJsonReader.parse(generator.generate(
+                    "请选择今晚要查验的玩家，可选：3号、4号。只回复JSON：{\"target\": 座位号}。", new Random(seed)));
+            assertTrue(List.of(3L, 4L).contains(reply.get("target")));
+        }
+    }
+
+    @Test
+    @DisplayName("按格式说明生成发言、女巫和狼队决策")
+    void testDecisionTypes() {
+        Random random = new Random(1);
+
+        assertInstanceOf(String.class, TolerantJsonReader.parse(generator.generate(
+                "轮到你发言。只回复JSON：{\"speech\": \"发言内容\"}。", random)).get("speech"));
+
+        Map<String, Object> witch = TolerantJsonReader.parse(generator.generate(
+                "今晚没有玩家被杀。只回复JSON：{\"antidote\": 是否使用解药true/false, \"poison\": null}。", random));
+        assertEquals(false, witch.get("antidote"));
+
+        Map<String, Object> team = TolerantJsonReader.parse(generator.generate(
+                "决定今晚的击杀目标，可选：5号。只回复JSON：{\"discussion\": \"狼队讨论\", \"target\": 座位号}。", random));
+        assertEquals(5L, team.get("target"));
+        assertNotNull(team.get("discussion"));
+    }
+
+    @Test
+    @DisplayName("固定回复按顺序循环")
+    void testScriptedReplies() {
+        StubReplyGenerator scripted = new StubReplyGenerator(List.of("a", "b"));
+        Random random = new Random(1);
+
+        assertEquals("a", scripted.generate("x", random));
+        assertEquals("b", scripted.generate("x", random));
+        assertEquals("a", scripted.generate("x", random));
+    }
+}
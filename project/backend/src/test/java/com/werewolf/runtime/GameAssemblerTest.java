@@ -0,0 +1,286 @@
+package com.werewolf.runtime;
+
+import com.werewolf.agent.AIProperties;
+import com.werewolf.agent.HumanSeats;
+import com.werewolf.agent.WerewolfDecisionMode;
+import com.werewolf.domain.model.GameState;
+import com.werewolf.domain.model.Player;
+import com.werewolf.engine.GameController;
+import com.werewolf.llm.ChatMessage;
+import com.werewolf.llm.LLMClient;
+import com.werewolf.llm.LLMProperties;
+import com.werewolf.llm.LLMRequest;
+import com.werewolf.llm.LLMResponse;
+import com.werewolf.llm.adapter.LLMModelAdapter;
+import com.werewolf.llm.cassette.CassetteDeck;
+import com.werewolf.llm.resilience.CircuitBreakerRegistry;
+import com.werewolf.llm.routing.ModelRouter;
+import com.werewolf.llm.stub.StubReplyGenerator;
+import com.werewolf.web.websocket.ClientConnection;
+import com.werewolf.web.websocket.GameGateway;
+import com.werewolf.web.websocket.WebSocketProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * GameAssembler 单元测试
+ *
+ * @author Claude & User
+ */
+@DisplayName("对局装配测试")
+class GameAssemblerTest {
+
+    private static final long SEED = 2024L;
+
+    private ScheduledExecutorService scheduler;
+    private GeneratedAdapter adapter;
+    private final List<Long> releasedGames = new CopyOnWriteArrayList<>();
+    private LLMClient client;
+    private AIProperties aiProperties;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = Executors.newScheduledThreadPool(2);
+        adapter = new GeneratedAdapter();
+        client = newClient(adapter, new LLMProperties.Cassette());
+        aiProperties = new AIProperties();
+        aiProperties.setDefaultModel("gpt-4");
+    }
+
+    private GameAssembler assembler(LLMClient llmClient) {
+        GameGateway gateway = new GameGateway(new WebSocketProperties(), Runnable::run, scheduler);
+        return new GameAssembler(aiProperties, new GameTimeoutProperties(), llmClient, new HumanSeats(), gateway);
+    }
+
+    private LLMClient newClient(LLMModelAdapter adapter, LLMProperties.Cassette cassette) {
+        LLMProperties properties = new LLMProperties();
+        properties.getHedge().setEnabled(false);
+        properties.getRetry().setMaxAttempts(1);
+        properties.setCassette(cassette);
+        ModelRouter router = new ModelRouter(properties.getRouting(), List.of("gpt-4")) {
+            @Override
+            public void releaseGame(Long gameId) {
+                releasedGames.add(gameId);
+                super.releaseGame(gameId);
+            }
+        };
+        return new LLMClient(properties, Map.of("gpt-4", adapter), router,
+                new CircuitBreakerRegistry(properties.getCircuitBreaker()), scheduler);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("配置了默认模型时AI座位调用该模型")
+    void testDefaultModel() {
+        GameState gameState = createGame(1L);
+
+        assembler(client).assemble(gameState).playToEnd(20);
+
+        assertTrue(gameState.isFinished());
+        assertTrue(adapter.calls.get() > 0);
+    }
+
+    @Test
+    @DisplayName("对局结束后释放房间的推送")
+    void testReleaseRoom() {
+        GameGateway gateway = new GameGateway(new WebSocketProperties(), Runnable::run, scheduler);
+        GameAssembler assembler = new GameAssembler(aiProperties, new GameTimeoutProperties(), client,
+                new HumanSeats(), gateway);
+        GameRunner runner = assembler.assemble(createGame(1L));
+        gateway.spectate(1L, new ClientConnection() {
+            @Override
+            public String getId() {
+                return "spectator";
+            }
+
+            @Override
+            public void send(ByteBuffer payload) {
+            }
+
+            @Override
+            public void close(String reason) {
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+        });
+        assertEquals(1, gateway.subscriberCount(1L));
+
+        runner.playToEnd(20);
+
+        // 没有观战延迟时立即释放
+        assertEquals(0, gateway.subscriberCount(1L));
+        assertThrows(IllegalArgumentException.class, () -> gateway.spectate(1L, null));
+    }
+
+    @Test
+    @DisplayName("对局结束或关闭时取消该局的模型调用并释放座位分配")
+    void testCancelGameOnRelease() {
+        assembler(client).assemble(createGame(1L)).playToEnd(20);
+        GameRunner closed = assembler(client).assemble(createGame(2L));
+        closed.playRound();
+        closed.close();
+
+        assertEquals(List.of(1L, 2L), releasedGames);
+        assertEquals(0, client.inFlightCount(1L));
+        assertEquals(0, client.inFlightCount(2L));
+    }
+
+    @Test
+    @DisplayName("录制整局后按同一种子回放，不访问模型且事件相同")
+    void testRecordAndReplay() throws Exception {
+        Path directory = Files.createTempDirectory("cassettes");
+        List<String> recorded = playRecorded(CassetteDeck.Mode.RECORD, directory, adapter);
+        assertTrue(adapter.calls.get() > 0);
+        assertTrue(Files.exists(directory.resolve("game-" + SEED + ".cassette.gz")));
+
+        GeneratedAdapter replaying = new GeneratedAdapter();
+        List<String> replayed = playRecorded(CassetteDeck.Mode.REPLAY, directory, replaying);
+
+        assertEquals(0, replaying.calls.get());
+        assertEquals(recorded, replayed);
+    }
+
+    @Test
+    @DisplayName("回放模式下缺少录制文件时拒绝组装")
+    void testReplayWithoutCassette() throws Exception {
+        LLMProperties.Cassette cassette = new LLMProperties.Cassette();
+        cassette.setMode(CassetteDeck.Mode.REPLAY);
+        cassette.setDirectory(Files.createTempDirectory("cassettes").toString());
+        GameAssembler assembler = assembler(newClient(adapter, cassette));
+
+        assertThrows(IllegalArgumentException.class, () -> assembler.assemble(createGame(1L)));
+    }
+
+    private List<String> playRecorded(CassetteDeck.Mode mode, Path directory, LLMModelAdapter model) {
+        LLMProperties.Cassette cassette = new LLMProperties.Cassette();
+        cassette.setMode(mode);
+        cassette.setDirectory(directory.toString());
+        GameState gameState = createGame(1L);
+
+        assembler(newClient(model, cassette)).assemble(gameState).playToEnd(20);
+
+        assertTrue(gameState.isFinished());
+        List<String> events = new ArrayList<>();
+        gameState.getEvents().forEach(event -> events.add(event.getType() + " " + event.getDescription()));
+        return events;
+    }
+
+    @Test
+    @DisplayName("没有默认模型时使用规则AI")
+    void testWithoutModel() {
+        aiProperties.setDefaultModel(null);
+        GameState gameState = createGame(1L);
+
+        assembler(client).assemble(gameState).playToEnd(20);
+
+        assertTrue(gameState.isFinished());
+        assertEquals(0, adapter.calls.get());
+    }
+
+    @Test
+    @DisplayName("狼人决策方式取自配置")
+    void testWerewolfDecisionMode() {
+        aiProperties.setWerewolfDecisionMode(WerewolfDecisionMode.PER_WOLF);
+
+        GameRunner runner = assembler(client).assemble(createGame(1L));
+
+        assertEquals(WerewolfDecisionMode.PER_WOLF, runner.getWerewolfDecisionMode());
+    }
+
+    @Test
+    @DisplayName("提示词历史按注入的配置裁剪")
+    void testPromptBudgetFromProperties() {
+        aiProperties.setPromptTokenBudget(0);
+        assembler(client).assemble(createGame(1L)).playRound();
+        int unlimited = adapter.longestHistory;
+
+        adapter.longestHistory = 0;
+        aiProperties.setMemoryLimit(1);
+        assembler(client).assemble(createGame(2L)).playRound();
+
+        assertTrue(adapter.longestHistory < unlimited);
+    }
+
+    static GameState createGame(Long gameId) {
+        List<Player> players = new ArrayList<>();
+        for (int seat = 1; seat <= 6; seat++) {
+            players.add(Player.builder()
+                    .id((long) seat)
+                    .name("玩家" + seat)
+                    .type(Player.PlayerType.AI)
+                    .alive(true)
+                    .seatNumber(seat)
+                    .build());
+        }
+        GameState gameState = GameState.builder()
+                .gameId(gameId)
+                .seed(SEED)
+                .players(players)
+                .status(GameState.GameStatus.WAITING)
+                .build();
+        new GameController().initializeGame(gameState);
+        return gameState;
+    }
+
+    /**
+     * 根据提示词生成合法回复的模型，记录最长的历史消息
+     */
+    static class GeneratedAdapter implements LLMModelAdapter {
+        final AtomicInteger calls = new AtomicInteger();
+        volatile int longestHistory;
+        private final StubReplyGenerator generator = new StubReplyGenerator(List.of());
+        private final Random random = new Random();
+
+        @Override
+        public String getModelName() {
+            return "gpt-4";
+        }
+
+        @Override
+        public CompletableFuture<LLMResponse> generateAsync(LLMRequest request) {
+            calls.incrementAndGet();
+            List<ChatMessage> messages = request.getMessages();
+            if (messages.size() >= 3) {
+                longestHistory = Math.max(longestHistory, messages.get(2).getContent().length());
+            }
+            String prompt = messages.get(messages.size() - 1).getContent();
+            return CompletableFuture.completedFuture(LLMResponse.builder()
+                    .content(generator.generate(prompt, random))
+                    .modelId("gpt-4")
+                    .build());
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public void configure(Map<String, String> settings) {
+        }
+    }
+}
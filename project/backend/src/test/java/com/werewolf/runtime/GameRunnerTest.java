@@ -0,0 +1,291 @@
+package com.werewolf.runtime;
+
+import com.werewolf.agent.AgentDecision;
+import com.werewolf.agent.DecisionRequest;
+import com.werewolf.agent.DecisionType;
+import com.werewolf.agent.HeuristicAgent;
+import com.werewolf.agent.PlayerAgent;
+import com.werewolf.agent.WerewolfDecisionMode;
+import com.werewolf.domain.model.GameEvent;
+import com.werewolf.domain.model.GameState;
+import com.werewolf.domain.model.Phase;
+import com.werewolf.domain.model.Player;
+import com.werewolf.domain.role.Werewolf;
+import com.werewolf.engine.GameController;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * GameRunner 单元测试
+ */
+@DisplayName("游戏驱动器测试")
+class GameRunnerTest {
+
+    private GameState gameState;
+
+    @BeforeEach
+    void setUp() {
+        List<Player> players = new ArrayList<>();
+        for (int seat = 1; seat <= 6; seat++) {
+            players.add(Player.builder()
+                    .id((long) seat)
+                    .name("玩家" + seat)
+                    .type(Player.PlayerType.AI)
+                    .alive(true)
+                    .seatNumber(seat)
+                    .build());
+        }
+        gameState = GameState.builder()
+                .gameId(1L)
+                .currentPhase(Phase.WAITING)
+                .players(players)
+                .status(GameState.GameStatus.WAITING)
+                .build();
+        new GameController().initializeGame(gameState);
+    }
+
+    @Test
+    @DisplayName("空座位自动补充规则AI")
+    void testFillEmptySeats() {
+        RecordingAgent own = new RecordingAgent(1L);
+
+        Map<Long, PlayerAgent> agents = GameRunner.fillEmptySeats(gameState, Map.of(1L, own));
+
+        assertEquals(6, agents.size());
+        assertSame(own, agents.get(1L));
+        assertTrue(agents.get(2L) instanceof HeuristicAgent);
+    }
+
+    @Test
+    @DisplayName("规则AI能把游戏跑到结束")
+    void testPlayToEnd() {
+        Map<Long, PlayerAgent> agents = GameRunner.fillEmptySeats(gameState, Map.of(),
+                player -> new HeuristicAgent(player.getId(), new Random(7)));
+
+        List<GameController.RoundResult> results = new GameRunner(gameState, agents).playToEnd(20);
+
+        assertTrue(gameState.isFinished());
+        assertTrue(results.get(results.size() - 1).isGameEnded());
+        assertNotNull(gameState.getWinningCamp());
+    }
+
+    @Test
+    @DisplayName("智能体只收到自己可见的事件")
+    void testEventVisibility() {
+        Player villager = gameState.getPlayers().stream()
+                .filter(p -> !(p.getRole() instanceof Werewolf))
+                .filter(p -> p.getRole().getRoleType() == com.werewolf.domain.role.RoleType.VILLAGER)
+                .findFirst().orElseThrow();
+        RecordingAgent recorder = new RecordingAgent(villager.getId());
+        Map<Long, PlayerAgent> agents = GameRunner.fillEmptySeats(gameState, Map.of(villager.getId(), recorder));
+
+        new GameRunner(gameState, agents).playRound();
+
+        assertFalse(recorder.events.isEmpty());
+        for (GameEvent event : recorder.events) {
+            assertTrue(event.isPublic() || villager.getId().equals(event.getPlayerId()));
+        }
+    }
+
+    @Test
+    @DisplayName("后发言的玩家能看到前面的发言")
+    void testSpeechesVisibleToLaterSpeakers() {
+        Map<Long, RecordingAgent> recorders = new HashMap<>();
+        Map<Long, PlayerAgent> agents = new HashMap<>();
+        for (Player player : gameState.getPlayers()) {
+            RecordingAgent recorder = new RecordingAgent(player.getId());
+            recorders.put(player.getId(), recorder);
+            agents.put(player.getId(), recorder);
+        }
+
+        new GameRunner(gameState, agents).playRound();
+
+        List<Integer> seen = new ArrayList<>();
+        for (Player player : gameState.getPlayers()) {
+            recorders.get(player.getId()).requests.stream()
+                    .filter(request -> request.getType() == DecisionType.DAY_SPEECH)
+                    .forEach(request -> seen.add(request.getDaySpeeches().size()));
+        }
+        assertEquals(seen.size(), seen.stream().distinct().count());
+        assertTrue(seen.contains(0));
+    }
+
+    @Test
+    @DisplayName("狼队联合决策每晚只调用一次，讨论仅狼人可见")
+    void testJointWerewolfDecision() {
+        Map<Long, RecordingAgent> recorders = recordAll();
+
+        new GameRunner(gameState, new HashMap<>(recorders)).playRound();
+
+        long teamCalls = recorders.values().stream()
+                .flatMap(recorder -> recorder.requests.stream())
+                .filter(request -> request.getType() == DecisionType.WEREWOLF_TEAM_KILL)
+                .count();
+        long singleCalls = recorders.values().stream()
+                .flatMap(recorder -> recorder.requests.stream())
+                .filter(request -> request.getType() == DecisionType.WEREWOLF_KILL)
+                .count();
+        assertEquals(1, teamCalls);
+        assertEquals(0, singleCalls);
+        for (Player player : gameState.getPlayers()) {
+            boolean sawDiscussion = recorders.get(player.getId()).events.stream()
+                    .anyMatch(event -> event.getType() == GameEvent.EventType.WEREWOLF_DISCUSSION);
+            assertEquals(player.getRole() instanceof Werewolf, sawDiscussion);
+        }
+    }
+
+    @Test
+    @DisplayName("单独决策模式下每名狼人各决策一次")
+    void testPerWolfDecision() {
+        Map<Long, RecordingAgent> recorders = recordAll();
+        GameRunner runner = new GameRunner(gameState, new HashMap<>(recorders));
+        runner.setWerewolfDecisionMode(WerewolfDecisionMode.PER_WOLF);
+
+        runner.playRound();
+
+        long singleCalls = recorders.values().stream()
+                .flatMap(recorder -> recorder.requests.stream())
+                .filter(request -> request.getType() == DecisionType.WEREWOLF_KILL)
+                .count();
+        assertEquals(2, singleCalls);
+        assertTrue(gameState.getEvents().stream()
+                .noneMatch(event -> event.getType() == GameEvent.EventType.WEREWOLF_DISCUSSION));
+    }
+
+    @Test
+    @DisplayName("对局结束时关闭全部智能体")
+    void testAgentsClosedWhenGameEnds() {
+        Map<Long, RecordingAgent> recorders = recordAll();
+        GameRunner runner = new GameRunner(gameState, new HashMap<>(recorders));
+
+        runner.playToEnd(20);
+
+        assertTrue(runner.isClosed());
+        recorders.values().forEach(recorder -> assertEquals(1, recorder.closed));
+    }
+
+    @Test
+    @DisplayName("房间关闭时取消等待中的决策，回合以异常结束")
+    void testCloseCancelsPendingDecision() throws Exception {
+        Map<Long, PlayerAgent> agents = new HashMap<>(recordAll());
+        Long firstWerewolf = gameState.getPlayers().stream()
+                .filter(player -> player.getRole() instanceof Werewolf)
+                .findFirst().orElseThrow().getId();
+        HangingAgent hanging = new HangingAgent(firstWerewolf);
+        agents.put(firstWerewolf, hanging);
+        GameRunner runner = new GameRunner(gameState, agents);
+
+        CompletableFuture<GameController.RoundResult> round = CompletableFuture.supplyAsync(runner::playRound);
+        hanging.started.get(5, TimeUnit.SECONDS);
+        runner.close();
+
+        Exception error = assertThrows(Exception.class, () -> round.get(5, TimeUnit.SECONDS));
+        assertTrue(error.getCause() instanceof IllegalStateException);
+        assertTrue(hanging.pending.isCancelled());
+        assertThrows(IllegalStateException.class, runner::playRound);
+    }
+
+    @Test
+    @DisplayName("对局结束和房间关闭时各执行一次清理动作")
+    void testReleaseHooks() {
+        GameRunner finished = new GameRunner(gameState, new HashMap<>(recordAll()));
+        AtomicInteger finishedHooks = new AtomicInteger();
+        finished.onRelease(finishedHooks::incrementAndGet);
+        finished.playToEnd(20);
+        finished.close();
+
+        GameRunner closed = new GameRunner(gameState, new HashMap<>(recordAll()));
+        AtomicInteger closedHooks = new AtomicInteger();
+        closed.onRelease(closedHooks::incrementAndGet);
+        closed.close();
+        closed.close();
+
+        assertEquals(1, finishedHooks.get());
+        assertEquals(1, closedHooks.get());
+    }
+
+    private Map<Long, RecordingAgent> recordAll() {
+        Map<Long, RecordingAgent> recorders = new HashMap<>();
+        for (Player player : gameState.getPlayers()) {
+            recorders.put(player.getId(), new RecordingAgent(player.getId()));
+        }
+        return recorders;
+    }
+
+    /**
+     * 记录请求和事件的测试智能体，行为委托给规则AI
+     */
+    private static class RecordingAgent implements PlayerAgent {
+        private final HeuristicAgent delegate;
+        private final List<DecisionRequest> requests = new ArrayList<>();
+        private final List<GameEvent> events = new ArrayList<>();
+        private int closed;
+
+        RecordingAgent(Long playerId) {
+            this.delegate = new HeuristicAgent(playerId);
+        }
+
+        @Override
+        public Long getPlayerId() {
+            return delegate.getPlayerId();
+        }
+
+        @Override
+        public CompletableFuture<AgentDecision> decide(DecisionRequest request) {
+            requests.add(request);
+            return delegate.decide(request);
+        }
+
+        @Override
+        public void onEvent(GameEvent event) {
+            events.add(event);
+            delegate.onEvent(event);
+        }
+
+        @Override
+        public void close() {
+            closed++;
+        }
+    }
+
+    /**
+     * 决策永远不返回的测试智能体，关闭时取消进行中的决策
+     */
+    private static class HangingAgent implements PlayerAgent {
+        private final Long playerId;
+        private final CompletableFuture<Void> started = new CompletableFuture<>();
+        private final CompletableFuture<AgentDecision> pending = new CompletableFuture<>();
+
+        HangingAgent(Long playerId) {
+            this.playerId = playerId;
+        }
+
+        @Override
+        public Long getPlayerId() {
+            return playerId;
+        }
+
+        @Override
+        public CompletableFuture<AgentDecision> decide(DecisionRequest request) {
+            started.complete(null);
+            return pending;
+        }
+
+        @Override
+        public void close() {
+            pending.cancel(true);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.werewolf.runtime;
+
+import com.werewolf.agent.AIProperties;
+import com.werewolf.agent.AgentDecision;
+import com.werewolf.agent.DecisionRequest;
+import com.werewolf.agent.DecisionType;
+import com.werewolf.agent.HeuristicAgent;
+import com.werewolf.agent.WerewolfDecisionMode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * GameSimulator 单元测试
+ */
+@DisplayName("批量对局模拟器测试")
+class GameSimulatorTest {
+
+    @Test
+    @DisplayName("批量模拟 - 所有对局都能结束")
+    void testRun() {
+        GameSimulator.SimulationReport report = new GameSimulator().run(50, 2024L);
+
+        assertEquals(50, report.getGames());
+        assertEquals(0, report.getUnfinished());
+        assertEquals(50, report.getGoodWins() + report.getWerewolfWins());
+        assertTrue(report.getAverageRounds() >= 1);
+    }
+
+    @Test
+    @DisplayName("批量模拟 - 相同种子结果相同")
+    void testRun_Reproducible() {
+        GameSimulator.SimulationReport first = new GameSimulator().run(20, 7L);
+        GameSimulator.SimulationReport second = new GameSimulator().run(20, 7L);
+
+        assertEquals(first, second);
+    }
+
+    @Test
+    @DisplayName("批量模拟 - 狼人决策方式取自配置")
+    void testRun_DecisionModeFromProperties() {
+        AIProperties properties = new AIProperties();
+        properties.setWerewolfDecisionMode(WerewolfDecisionMode.PER_WOLF);
+        Set<DecisionType> types = ConcurrentHashMap.newKeySet();
+
+        new GameSimulator((player, random) -> new HeuristicAgent(player.getId(), random) {
+            @Override
+            public CompletableFuture<AgentDecision> decide(DecisionRequest request) {
+                types.add(request.getType());
+                return super.decide(request);
+            }
+        }, properties).run(5, 3L);
+
+        assertTrue(types.contains(DecisionType.WEREWOLF_KILL));
+        assertFalse(types.contains(DecisionType.WEREWOLF_TEAM_KILL));
+    }
+
+    @Test
+    @DisplayName("批量模拟 - 对局数必须为正")
+    void testRun_InvalidGames() {
+        assertThrows(IllegalArgumentException.class, () -> new GameSimulator().run(0, 1L));
+    }
+}
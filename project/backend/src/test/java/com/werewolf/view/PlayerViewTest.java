@@ -0,0 +1,163 @@
+package com.werewolf.view;
+
+import com.werewolf.domain.model.GameEvent;
+import com.werewolf.domain.model.GameState;
+import com.werewolf.domain.model.Phase;
+import com.werewolf.domain.model.Player;
+import com.werewolf.domain.role.Role;
+import com.werewolf.domain.role.Seer;
+import com.werewolf.domain.role.Villager;
+import com.werewolf.domain.role.Werewolf;
+import com.werewolf.domain.role.Witch;
+import com.werewolf.engine.night.NightPhaseEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PlayerView / PlayerViewRegistry 单元测试
+ *
+ * @author Claude & User
+ */
+@DisplayName("玩家信息集视图测试")
+class PlayerViewTest {
+
+    private GameState gameState;
+    private PlayerViewRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        List<Player> players = new ArrayList<>();
+        players.add(player(1L, new Werewolf()));
+        players.add(player(2L, new Werewolf()));
+        players.add(player(3L, new Villager()));
+        players.add(player(4L, new Villager()));
+        players.add(player(5L, new Seer()));
+        players.add(player(6L, new Witch()));
+        gameState = GameState.builder()
+                .gameId(1L)
+                .currentRound(1)
+                .currentPhase(Phase.NIGHT)
+                .players(players)
+                .events(new ArrayList<>())
+                .build();
+        registry = new PlayerViewRegistry();
+    }
+
+    @Test
+    @DisplayName("事件写入时按可见性增量分发")
+    void testIncrementalVisibility() {
+        registry.attach(gameState);
+
+        new NightPhaseEngine().executeNightPhase(gameState, Map.of(1L, 3L, 2L, 3L), 1L, false, null);
+
+        PlayerView werewolf = registry.getView(1L, 1L);
+        PlayerView seer = registry.getView(1L, 5L);
+        PlayerView villager = registry.getView(1L, 4L);
+        assertTrue(werewolf.getVisibleEvents().stream()
+                .anyMatch(event -> event.getType() == GameEvent.EventType.WEREWOLF_KILL));
+        assertTrue(seer.getVisibleEvents().stream()
+                .noneMatch(event -> event.getType() == GameEvent.EventType.WEREWOLF_KILL));
+        assertTrue(villager.getVisibleEvents().stream().allMatch(GameEvent::isPublic));
+        assertEquals(3L, werewolf.getWerewolfKills().get(1));
+        assertEquals(Map.of(1L, true), seer.getSeerResults());
+    }
+
+    @Test
+    @DisplayName("狼人视图知道队友")
+    void testWerewolfTeammates() {
+        registry.attach(gameState);
+
+        assertEquals(List.of(2L), List.copyOf(registry.getView(1L, 1L).getWerewolfTeammates()));
+        assertTrue(registry.getView(1L, 3L).getWerewolfTeammates().isEmpty());
+    }
+
+    @Test
+    @DisplayName("女巫视图记录用药目标")
+    void testWitchKnowledge() {
+        registry.attach(gameState);
+
+        new NightPhaseEngine().executeNightPhase(gameState, Map.of(1L, 3L, 2L, 3L), null, true, null);
+
+        PlayerView witch = registry.getView(1L, 6L);
+        assertEquals(3L, witch.getAntidoteSavedPlayerId());
+        assertNull(witch.getPoisonedPlayerId());
+        assertNull(registry.getView(1L, 5L).getAntidoteSavedPlayerId());
+    }
+
+    @Test
+    @DisplayName("游标只返回上次之后的新事件")
+    void testCursorDelta() {
+        registry.attach(gameState);
+        PlayerView view = registry.getView(1L, 3L);
+        PlayerView.Cursor cursor = view.newCursor();
+
+        gameState.addEvent(GameEvent.createPublicEvent(GameEvent.EventType.NIGHT_START, "夜晚开始"));
+        assertEquals(1, cursor.fetch().size());
+        assertTrue(cursor.fetch().isEmpty());
+
+        gameState.addEvent(GameEvent.createPublicEvent(GameEvent.EventType.DAY_START, "白天开始"));
+        gameState.addEvent(GameEvent.createPrivateEvent(GameEvent.EventType.SEER_CHECK, 5L, "查验"));
+        List<GameEvent> delta = cursor.fetch();
+        assertEquals(1, delta.size());
+        assertEquals(GameEvent.EventType.DAY_START, delta.get(0).getType());
+        assertEquals(2, cursor.getPosition());
+    }
+
+    @Test
+    @DisplayName("注册前已有的事件会补充进视图")
+    void testAttachBackfillsExistingEvents() {
+        gameState.addEvent(GameEvent.createPublicEvent(GameEvent.EventType.NIGHT_START, "夜晚开始"));
+        gameState.addEvent(GameEvent.createPrivateEvent(GameEvent.EventType.SEER_CHECK, 5L, "查验"));
+
+        registry.attach(gameState);
+
+        assertEquals(1, registry.getView(1L, 3L).size());
+        assertEquals(2, registry.getView(1L, 5L).size());
+    }
+
+    @Test
+    @DisplayName("释放后不再接收事件")
+    void testRelease() {
+        registry.attach(gameState);
+        PlayerView view = registry.getView(1L, 3L);
+
+        registry.release(gameState);
+        gameState.addEvent(GameEvent.createPublicEvent(GameEvent.EventType.NIGHT_START, "夜晚开始"));
+
+        assertNull(registry.getView(1L, 3L));
+        assertEquals(0, view.size());
+    }
+
+    @Test
+    @DisplayName("快照与增量视图内容一致")
+    void testSnapshotMatchesIncrementalView() {
+        registry.attach(gameState);
+        new NightPhaseEngine().executeNightPhase(gameState, Map.of(1L, 4L, 2L, 4L), 2L, false, 1L);
+
+        for (Player player : gameState.getPlayers()) {
+            PlayerView snapshot = PlayerView.snapshot(gameState, player);
+            PlayerView incremental = registry.getView(1L, player.getId());
+            assertEquals(snapshot.getVisibleEvents(), incremental.getVisibleEvents());
+            assertEquals(snapshot.getSeerResults(), incremental.getSeerResults());
+            assertEquals(snapshot.getPoisonedPlayerId(), incremental.getPoisonedPlayerId());
+        }
+        assertEquals(1L, registry.getView(1L, 6L).getPoisonedPlayerId());
+    }
+
+    private Player player(Long id, Role role) {
+        return Player.builder()
+                .id(id)
+                .name("玩家" + id)
+                .role(role)
+                .alive(true)
+                .seatNumber(id.intValue())
+                .build();
+    }
+}
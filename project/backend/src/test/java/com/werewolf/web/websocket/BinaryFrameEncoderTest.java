@@ -0,0 +1,133 @@
+package com.werewolf.web.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.werewolf.agent.DecisionPrompt;
+import com.werewolf.agent.DecisionType;
+import com.werewolf.agent.SubmissionResult;
+import com.werewolf.domain.model.GameEvent;
+import com.werewolf.domain.model.GameState;
+import com.werewolf.domain.model.Phase;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BinaryFrameEncoder 单元测试
+ *
+ * @author Claude & User
+ */
+@DisplayName("二进制帧编码测试")
+class BinaryFrameEncoderTest {
+
+    private final BinaryFrameEncoder binary = new BinaryFrameEncoder();
+    private final JsonFrameEncoder json = new JsonFrameEncoder();
+    private final BinaryFrameDecoder decoder = new BinaryFrameDecoder();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("事件解码后与 JSON 帧字段一致，且体积更小")
+    void testEvent() throws Exception {
+        GameEvent event = GameEvent.builder()
+                .type(GameEvent.EventType.SEER_CHECK)
+                .round(3)
+                .phase(Phase.NIGHT)
+                .playerId(5L)
+                .targetPlayerId(300L)
+                .description("预言家查验了3号")
+                .data(Map.of("werewolf", true))
+                .isPublic(false)
+                .timestamp(LocalDateTime.of(2025, 1, 1, 21, 30, 15, 123_000_000))
+                .build();
+
+        byte[] encoded = binary.encode(event, 200);
+        byte[] reference = json.encode(event, 200);
+
+        assertEquals(objectMapper.readTree(reference), decode(ByteBuffer.wrap(encoded)));
+        assertTrue(encoded.length * 2 < reference.length, encoded.length + " / " + reference.length);
+    }
+
+    @Test
+    @DisplayName("只有必填字段的事件")
+    void testMinimalEvent() throws Exception {
+        GameEvent event = GameEvent.builder().type(GameEvent.EventType.GAME_END).build();
+
+        assertEquals(objectMapper.readTree(json.encode(event, 1)),
+                decode(ByteBuffer.wrap(binary.encode(event, 1))));
+    }
+
+    @Test
+    @DisplayName("差量和快照解码后与 JSON 帧字段一致")
+    void testDeltaAndSnapshot() throws Exception {
+        StateTracker.Delta delta = new StateTracker.Delta(7, 8, 30, Phase.DAY, 2, GameState.GameStatus.FINISHED,
+                "GOOD", List.of(new StateTracker.SeatChange(2L, false, null, true),
+                new StateTracker.SeatChange(4L, null, true, null)));
+        StateTracker.Snapshot snapshot = new StateTracker.Snapshot(8, Phase.VOTING, 2,
+                GameState.GameStatus.RUNNING, null,
+                List.of(new StateTracker.Seat(1L, 1, "玩家1", true, true, false),
+                        new StateTracker.Seat(2L, 2, "玩家2", false, false, false)), 42);
+
+        assertEquals(objectMapper.readTree(json.encodeDelta(delta)),
+                decode(ByteBuffer.wrap(binary.encodeDelta(delta))));
+        assertEquals(objectMapper.readTree(json.encodeSnapshot(9L, snapshot)),
+                decode(ByteBuffer.wrap(binary.encodeSnapshot(9L, snapshot))));
+
+        StateTracker.Delta seatOnly = new StateTracker.Delta(8, 9, 31, null, null, null, null,
+                List.of(new StateTracker.SeatChange(3L, false, null, null)));
+        // 类型、两个版本号、事件序号、标志、座位数、座位ID、掩码
+        assertEquals(8, binary.encodeDelta(seatOnly).length);
+    }
+
+    @Test
+    @DisplayName("发言片段与变长整数边界")
+    void testPartialSpeechAndVarint() throws Exception {
+        for (long playerId : new long[]{0, 127, 128, 16_383, 16_384, Long.MAX_VALUE}) {
+            assertEquals(objectMapper.readTree(json.encodePartialSpeech(playerId, "我是好人")),
+                    decode(ByteBuffer.wrap(binary.encodePartialSpeech(playerId, "我是好人"))));
+        }
+        assertEquals(2, BinaryFrameDecoder.readVarint(ByteBuffer.wrap(new byte[]{2})));
+        assertEquals(300, BinaryFrameDecoder.readVarint(ByteBuffer.wrap(new byte[]{(byte) 0xAC, 0x02})));
+    }
+
+    @Test
+    @DisplayName("决策提示和提交结果解码后与 JSON 帧字段一致")
+    void testPromptAndActionResult() throws Exception {
+        DecisionPrompt witch = new DecisionPrompt(106L, 3, DecisionType.WITCH_ACTION, List.of(101L, 102L),
+                103L, true, true, false, 60_000);
+        DecisionPrompt vote = new DecisionPrompt(101L, 200, DecisionType.VOTE, List.of(), null,
+                false, false, true, 30_000);
+
+        for (DecisionPrompt prompt : List.of(witch, vote)) {
+            assertEquals(objectMapper.readTree(json.encodePrompt(prompt)),
+                    decode(ByteBuffer.wrap(binary.encodePrompt(prompt))));
+        }
+        for (SubmissionResult result : SubmissionResult.values()) {
+            assertEquals(objectMapper.readTree(json.encodeActionResult("k-1", 3, result)),
+                    decode(ByteBuffer.wrap(binary.encodeActionResult("k-1", 3, result))));
+        }
+    }
+
+    @Test
+    @DisplayName("不完整或未知类型的帧解码失败")
+    void testInvalidFrame() {
+        byte[] frame = binary.encodePartialSpeech(1L, "我是好人");
+        ByteBuffer truncated = ByteBuffer.wrap(frame, 0, frame.length - 1);
+
+        assertThrows(IllegalArgumentException.class, () -> decoder.decode(truncated));
+        assertThrows(IllegalArgumentException.class, () -> decoder.decode(ByteBuffer.wrap(new byte[]{99})));
+        assertThrows(IllegalArgumentException.class, () -> decoder.decode(ByteBuffer.allocate(0)));
+    }
+
+    /**
+     * 解码并重新解析，使数值类型与 JSON 解析结果一致
+     */
+    private JsonNode decode(ByteBuffer frame) throws Exception {
+        return objectMapper.readTree(decoder.decode(frame).toString());
+    }
+}
@@ -0,0 +1,77 @@
+package com.werewolf.web.websocket;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DelayedFeed 单元测试
+ *
+ * @author Claude & User
+ */
+@DisplayName("延迟缓冲测试")
+class DelayedFeedTest {
+
+    @Test
+    @DisplayName("条目延迟后按写入顺序放出")
+    void testReleaseDue() {
+        DelayedFeed<String> feed = new DelayedFeed<>(4, 100);
+        List<String> released = new ArrayList<>();
+        feed.append(0, "a");
+        feed.append(50, "b");
+        assertEquals(100, feed.nextDue());
+
+        feed.releaseDue(99, released::add);
+        assertTrue(released.isEmpty());
+        feed.releaseDue(120, released::add);
+        assertEquals(List.of("a"), released);
+        assertEquals(150, feed.nextDue());
+        feed.releaseDue(150, released::add);
+        assertEquals(List.of("a", "b"), released);
+        assertEquals(-1, feed.nextDue());
+    }
+
+    @Test
+    @DisplayName("已放出的条目保留到被新条目覆盖")
+    void testBounded() {
+        DelayedFeed<Integer> feed = new DelayedFeed<>(3, 0);
+        for (int i = 1; i <= 5; i++) {
+            feed.append(0, i);
+            feed.releaseDue(0, item -> { });
+        }
+        List<Integer> retained = new ArrayList<>();
+        feed.forEachReleased(retained::add);
+        assertEquals(List.of(3, 4, 5), retained);
+        assertEquals(3, feed.firstReleased());
+        assertEquals(5, feed.getReleasedCount());
+        assertEquals(3, feed.capacity());
+        assertThrows(IllegalArgumentException.class, () -> new DelayedFeed<>(0, 0));
+    }
+
+    @Test
+    @DisplayName("延迟期间的条目占满缓冲时扩容，不提前放出")
+    void testGrowInsteadOfEarlyRelease() {
+        DelayedFeed<Integer> feed = new DelayedFeed<>(2, 1000);
+        List<Integer> released = new ArrayList<>();
+        feed.append(0, 1);
+        feed.releaseDue(1000, released::add);
+        for (int i = 2; i <= 6; i++) {
+            feed.append(500, i);
+            feed.releaseDue(999, released::add);
+        }
+
+        assertEquals(List.of(1), released);
+        assertEquals(8, feed.capacity());
+        feed.releaseDue(1500, released::add);
+        assertEquals(List.of(1, 2, 3, 4, 5, 6), released);
+        // 写入 3 时未放出的条目没有占满缓冲，覆盖了已放出的 1
+        List<Integer> retained = new ArrayList<>();
+        feed.forEachReleased(retained::add);
+        assertEquals(List.of(2, 3, 4, 5, 6), retained);
+        assertEquals(2, feed.firstReleased());
+    }
+}
@@ -0,0 +1,616 @@
+package com.werewolf.web.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.werewolf.agent.DecisionPrompt;
+import com.werewolf.agent.DecisionType;
+import com.werewolf.agent.HeuristicAgent;
+import com.werewolf.agent.PlayerAgent;
+import com.werewolf.agent.SubmissionResult;
+import com.werewolf.domain.model.GameEvent;
+import com.werewolf.domain.model.GameState;
+import com.werewolf.domain.model.Player;
+import com.werewolf.domain.role.Werewolf;
+import com.werewolf.engine.GameController;
+import com.werewolf.runtime.GameRunner;
+import com.werewolf.view.Visibility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * GameGateway 单元测试
+ *
+ * @author Claude & User
+ */
+@DisplayName("游戏事件网关测试")
+class GameGatewayTest {
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduler;
+    private WebSocketProperties properties;
+    private GameGateway gateway;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private GameState gameState;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newCachedThreadPool();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        properties = new WebSocketProperties();
+        gateway = new GameGateway(properties, executor, scheduler);
+        gameState = createGame();
+        new GameController().initializeGame(gameState);
+        gateway.attach(gameState);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("按可见性分发：观战者只收到公开事件，狼人收到狼队事件")
+    void testVisibility() throws Exception {
+        Player werewolf = player(true);
+        Player villager = player(false);
+        RecordingConnection wolfConnection = new RecordingConnection("wolf");
+        RecordingConnection villagerConnection = new RecordingConnection("villager");
+        RecordingConnection spectator = new RecordingConnection("spectator");
+        gateway.join(1L, werewolf.getId(), wolfConnection);
+        gateway.join(1L, villager.getId(), villagerConnection);
+        gateway.spectate(1L, spectator);
+
+        gameState.addEvent(event(GameEvent.EventType.DAY_START, true, null));
+        gameState.addEvent(event(GameEvent.EventType.WEREWOLF_DISCUSSION, false, werewolf.getId()));
+        gameState.addEvent(event(GameEvent.EventType.MODEL_DEGRADED, false, villager.getId()));
+        awaitFrames(wolfConnection, "event", 2);
+        awaitFrames(villagerConnection, "event", 1);
+        awaitFrames(spectator, "event", 1);
+
+        assertTrue(frames(wolfConnection, "event").get(1).contains("WEREWOLF_DISCUSSION"));
+        assertTrue(frames(spectator, "event").get(0).contains("\"eventType\":\"DAY_START\""));
+        Thread.sleep(50);
+        assertEquals(1, frames(villagerConnection, "event").size());
+        assertEquals(1, frames(spectator, "event").size());
+    }
+
+    @Test
+    @DisplayName("每个事件只编码一次，与连接数无关")
+    void testEncodeOncePerEvent() throws Exception {
+        FrameEncoder encoder = new JsonFrameEncoder();
+        GameState game = createGame();
+        new GameController().initializeGame(game);
+        GameGateway shared = new GameGateway(properties, executor, scheduler, encoder);
+        shared.attach(game);
+        List<RecordingConnection> spectators = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            RecordingConnection spectator = new RecordingConnection("spectator-" + i);
+            shared.spectate(1L, spectator);
+            spectators.add(spectator);
+        }
+        Player werewolf = player(game, true);
+        RecordingConnection wolfConnection = new RecordingConnection("wolf");
+        shared.join(1L, werewolf.getId(), wolfConnection);
+
+        game.addEvent(event(GameEvent.EventType.DAY_START, true, null));
+        game.addEvent(event(GameEvent.EventType.WEREWOLF_DISCUSSION, false, werewolf.getId()));
+        // 没有接收者的个人事件不编码
+        game.addEvent(event(GameEvent.EventType.SEER_CHECK, false, player(game, false).getId()));
+        for (RecordingConnection spectator : spectators) {
+            awaitFrames(spectator, "event", 1);
+            assertEquals(frames(spectators.get(0), "event"), frames(spectator, "event"));
+        }
+        awaitFrames(wolfConnection, "event", 2);
+
+        // 21 个加入快照 + 2 个事件
+        assertEquals(23, encoder.getEncodedCount());
+        assertFalse(wolfConnection.sent.get(0).contains("\n"));
+    }
+
+    @Test
+    @DisplayName("加入时收到完整快照，之后只推送变化的座位，请求时重新发送快照")
+    void testSnapshotAndDelta() throws Exception {
+        RecordingConnection spectator = new RecordingConnection("spectator");
+        gateway.spectate(1L, spectator);
+        awaitFrames(spectator, "snapshot", 1);
+        JsonNode snapshot = objectMapper.readTree(frames(spectator, "snapshot").get(0));
+        assertEquals(6, snapshot.get("seats").size());
+        long version = snapshot.get("version").asLong();
+
+        gameState.getPlayerById(2L).markDead(Player.DeathReason.KILLED_BY_WEREWOLF);
+        gameState.addEvent(event(GameEvent.EventType.DEATH_ANNOUNCEMENT, true, 2L));
+        awaitFrames(spectator, "event", 1);
+
+        JsonNode delta = objectMapper.readTree(frames(spectator, "delta").get(0));
+        assertEquals(version, delta.get("base").asLong());
+        assertEquals(version + 1, delta.get("version").asLong());
+        assertEquals(1, delta.get("seats").size());
+        assertFalse(delta.get("seats").get(0).get("alive").asBoolean());
+        assertFalse(delta.has("phase"));
+        assertEquals(gameState.getEvents().size(),
+                objectMapper.readTree(frames(spectator, "event").get(0)).get("seq").asInt());
+
+        gateway.resync("spectator");
+        awaitFrames(spectator, "snapshot", 2);
+        assertEquals(version + 1, objectMapper.readTree(frames(spectator, "snapshot").get(1)).get("version").asLong());
+    }
+
+    @Test
+    @DisplayName("连接各自协商格式，同一事件每种格式只编码一次")
+    void testWireFormats() throws Exception {
+        JsonFrameEncoder json = new JsonFrameEncoder();
+        BinaryFrameEncoder binary = new BinaryFrameEncoder();
+        GameState game = createGame();
+        new GameController().initializeGame(game);
+        GameGateway mixed = new GameGateway(properties, executor, scheduler, json, binary);
+        mixed.attach(game);
+        RecordingConnection jsonClient = new RecordingConnection("json");
+        mixed.spectate(1L, jsonClient);
+        List<RecordingConnection> bots = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            RecordingConnection bot = new RecordingConnection("bot-" + i);
+            mixed.spectate(1L, bot, WireFormat.BINARY, null);
+            bots.add(bot);
+        }
+
+        game.addEvent(event(GameEvent.EventType.DAY_START, true, null));
+        awaitFrames(jsonClient, "event", 1);
+        BinaryFrameDecoder decoder = new BinaryFrameDecoder();
+        for (RecordingConnection bot : bots) {
+            long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+            while (bot.received.size() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals("snapshot", decoder.decode(bot.received.get(0)).get("type").asText());
+            assertEquals(objectMapper.readTree(frames(jsonClient, "event").get(0)),
+                    objectMapper.readTree(decoder.decode(bot.received.get(1)).toString()));
+        }
+
+        // 快照每个连接一次，事件每种格式一次
+        assertEquals(2, json.getEncodedCount());
+        assertEquals(6, binary.getEncodedCount());
+        assertThrows(IllegalArgumentException.class, () -> WireFormat.parse("xml"));
+        assertEquals(WireFormat.BINARY, WireFormat.parse("binary"));
+    }
+
+    @Test
+    @DisplayName("重连时带最后收到的序号，只补发缺失的差量和可见事件")
+    void testResume() throws Exception {
+        Player villager = player(false);
+        RecordingConnection reference = new RecordingConnection("reference");
+        RecordingConnection flaky = new RecordingConnection("flaky");
+        gateway.join(1L, villager.getId(), reference);
+        gateway.join(1L, villager.getId(), flaky);
+
+        gameState.addEvent(event(GameEvent.EventType.DAY_START, true, null));
+        awaitFrames(flaky, "event", 1);
+        int lastSeq = objectMapper.readTree(frames(flaky, "event").get(0)).get("seq").asInt();
+        gateway.leave("flaky");
+
+        gameState.getPlayerById(villager.getId()).setHasSpoken(true);
+        gameState.addEvent(event(GameEvent.EventType.PLAYER_SPEECH, true, villager.getId()));
+        gameState.addEvent(event(GameEvent.EventType.WEREWOLF_DISCUSSION, false, player(true).getId()));
+        gameState.addEvent(event(GameEvent.EventType.SEER_CHECK, false, villager.getId()));
+        awaitFrames(reference, "event", 3);
+
+        RecordingConnection resumed = new RecordingConnection("flaky");
+        gateway.join(1L, villager.getId(), resumed, WireFormat.JSON, lastSeq);
+        List<String> missed = reference.sent.stream()
+                .filter(frame -> !frame.contains("\"snapshot\""))
+                .filter(frame -> readSeq(frame) > lastSeq)
+                .toList();
+        // 发言前的座位差量、发言、私有查验，狼队讨论不可见
+        assertEquals(3, missed.size());
+        awaitFrames(resumed, "event", 2);
+        Thread.sleep(50);
+        assertEquals(missed, resumed.sent);
+    }
+
+    @Test
+    @DisplayName("只收到差量就断线时，带差量的序号重连会重发同序号的事件")
+    void testResumeAfterDelta() throws Exception {
+        Player villager = player(false);
+        RecordingConnection reference = new RecordingConnection("reference");
+        gateway.join(1L, villager.getId(), reference);
+
+        gameState.getPlayerById(villager.getId()).setHasSpoken(true);
+        gameState.addEvent(event(GameEvent.EventType.PLAYER_SPEECH, true, villager.getId()));
+        gameState.addEvent(event(GameEvent.EventType.SYSTEM_MESSAGE, true, null));
+        awaitFrames(reference, "event", 2);
+        int deltaSeq = objectMapper.readTree(frames(reference, "delta").get(0)).get("seq").asInt();
+
+        RecordingConnection resumed = new RecordingConnection("resumed");
+        gateway.join(1L, villager.getId(), resumed, WireFormat.JSON, deltaSeq);
+        awaitFrames(resumed, "event", 2);
+        Thread.sleep(50);
+        // 差量不重发，同序号的发言事件和之后的事件补发
+        assertTrue(frames(resumed, "delta").isEmpty());
+        assertEquals(List.of(deltaSeq, deltaSeq + 1), frames(resumed, "event").stream().map(this::readSeq).toList());
+    }
+
+    @Test
+    @DisplayName("落后超过保留的事件数时发送快照和保留的事件")
+    void testResumeTooOld() throws Exception {
+        properties.setResumeWindow(2);
+        GameState game = createGame();
+        new GameController().initializeGame(game);
+        GameGateway small = new GameGateway(properties, executor, scheduler);
+        small.attach(game);
+        for (int i = 0; i < 5; i++) {
+            game.addEvent(event(GameEvent.EventType.SYSTEM_MESSAGE, true, null));
+        }
+        int current = game.getEvents().size();
+        Long playerId = player(game, false).getId();
+
+        // lastSeq 的条目已不在日志中
+        RecordingConnection tooOld = new RecordingConnection("old");
+        small.join(1L, playerId, tooOld, WireFormat.JSON, current - 2);
+        awaitFrames(tooOld, "event", 2);
+        assertTrue(tooOld.sent.get(0).startsWith("{\"type\":\"snapshot\""));
+        assertEquals(current, objectMapper.readTree(tooOld.sent.get(0)).get("eventSeq").asInt());
+        assertEquals(current, readSeq(tooOld.sent.get(2)));
+
+        RecordingConnection recent = new RecordingConnection("recent");
+        small.join(1L, playerId, recent, WireFormat.JSON, current - 1);
+        awaitFrames(recent, "event", 1);
+        assertTrue(frames(recent, "snapshot").isEmpty());
+
+        RecordingConnection future = new RecordingConnection("future");
+        small.join(1L, playerId, future, WireFormat.JSON, current + 1);
+        awaitFrames(future, "snapshot", 1);
+    }
+
+    @Test
+    @DisplayName("慢速观战者不阻塞引擎和其他连接，队列满后被断开")
+    void testSlowSpectator() throws Exception {
+        properties.setQueueCapacity(4);
+        RecordingConnection slow = new RecordingConnection("slow");
+        slow.gate = new CountDownLatch(1);
+        RecordingConnection fast = new RecordingConnection("fast");
+        gateway.spectate(1L, slow);
+        gateway.spectate(1L, fast);
+
+        for (int i = 1; i <= 10; i++) {
+            gameState.addEvent(event(GameEvent.EventType.SYSTEM_MESSAGE, true, null));
+            awaitFrames(fast, "event", i);
+        }
+
+        // 快照卡在发送中，4 帧排队，第 5 个事件时队列已满
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (slow.closeReason == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals("发送队列已满", slow.closeReason);
+        assertEquals(1, gateway.subscriberCount(1L));
+        slow.gate.countDown();
+    }
+
+    @Test
+    @DisplayName("整局游戏的公开事件都推送给观战者，隐藏的事件在终局后补发")
+    void testFullGame() throws Exception {
+        RecordingConnection spectator = new RecordingConnection("spectator");
+        gateway.spectate(1L, spectator);
+        int joinedAt = gameState.getEvents().size();
+
+        Map<Long, PlayerAgent> agents = GameRunner.fillEmptySeats(gameState, Map.of(),
+                player -> new HeuristicAgent(player.getId()));
+        new GameRunner(gameState, agents).playToEnd(20);
+
+        assertTrue(gameState.isFinished());
+        List<GameEvent> events = gameState.getEvents().subList(joinedAt, gameState.getEvents().size());
+        long publicEvents = events.stream().filter(GameEvent::isPublic).count();
+        long hidden = events.stream()
+                .filter(event -> !event.isPublic() && Visibility.of(event) != Visibility.SYSTEM)
+                .count();
+        assertTrue(hidden > 0);
+        awaitFrames(spectator, "event", (int) (publicEvents + hidden));
+
+        List<String> received = frames(spectator, "event");
+        int gameEnd = (int) publicEvents - 1;
+        assertTrue(received.get(gameEnd).contains("GAME_END"));
+        // 补发的事件沿用原来的序号，都在终局之前
+        for (String frame : received.subList(gameEnd + 1, received.size())) {
+            assertTrue(readSeq(frame) < readSeq(received.get(gameEnd)));
+        }
+    }
+
+    @Test
+    @DisplayName("观战者按延迟收到帧，玩家实时收到；有延迟时发言片段不发给观战者")
+    void testSpectatorDelay() throws Exception {
+        properties.getSpectator().setDelay(300);
+        GameState game = createGame();
+        new GameController().initializeGame(game);
+        GameGateway delayed = new GameGateway(properties, executor, scheduler);
+        delayed.attach(game);
+        RecordingConnection spectator = new RecordingConnection("spectator");
+        RecordingConnection villager = new RecordingConnection("villager");
+        delayed.spectate(1L, spectator);
+        delayed.join(1L, player(game, false).getId(), villager);
+
+        long start = System.currentTimeMillis();
+        game.getPlayers().get(0).setHasSpoken(true);
+        game.addEvent(event(GameEvent.EventType.PLAYER_SPEECH, true, game.getPlayers().get(0).getId()));
+        delayed.publishPartialSpeech(1L, 1L, "我是好人");
+        awaitFrames(villager, "event", 1);
+        awaitFrames(villager, "speech_partial", 1);
+        Thread.sleep(100);
+        assertTrue(frames(spectator, "event").isEmpty());
+        assertTrue(frames(spectator, "delta").isEmpty());
+
+        awaitFrames(spectator, "event", 1);
+        assertTrue(System.currentTimeMillis() - start >= 300);
+        assertEquals(frames(villager, "delta"), frames(spectator, "delta"));
+        assertTrue(frames(spectator, "speech_partial").isEmpty());
+
+        // 延迟期间加入的观战者收到的是延迟后的状态
+        game.addEvent(event(GameEvent.EventType.DAY_START, true, null));
+        RecordingConnection late = new RecordingConnection("late");
+        delayed.spectate(1L, late);
+        awaitFrames(late, "snapshot", 1);
+        JsonNode snapshot = objectMapper.readTree(frames(late, "snapshot").get(0));
+        assertEquals(game.getEvents().size() - 1, snapshot.get("eventSeq").asInt());
+        awaitFrames(late, "event", 1);
+        assertEquals(game.getEvents().size(), readSeq(frames(late, "event").get(0)));
+    }
+
+    @Test
+    @DisplayName("狼队和个人事件对观战者隐藏，终局后补发；上帝视角直接可见")
+    void testSpectatorReveal() throws Exception {
+        Player werewolf = player(true);
+        RecordingConnection spectator = new RecordingConnection("spectator");
+        gateway.spectate(1L, spectator);
+
+        gameState.addEvent(event(GameEvent.EventType.WEREWOLF_DISCUSSION, false, werewolf.getId()));
+        gameState.addEvent(event(GameEvent.EventType.SEER_CHECK, false, player(false).getId()));
+        gameState.addEvent(event(GameEvent.EventType.MODEL_DEGRADED, false, null));
+        gameState.addEvent(event(GameEvent.EventType.DAY_START, true, null));
+        awaitFrames(spectator, "event", 1);
+        Thread.sleep(50);
+        assertEquals(1, frames(spectator, "event").size());
+
+        gameState.addEvent(event(GameEvent.EventType.GAME_END, true, null));
+        awaitFrames(spectator, "event", 4);
+        List<String> events = frames(spectator, "event");
+        assertTrue(events.get(1).contains("GAME_END"));
+        assertTrue(events.get(2).contains("WEREWOLF_DISCUSSION"));
+        assertTrue(events.get(3).contains("SEER_CHECK"));
+
+        // 终局后加入的观战者在快照之后收到补发
+        RecordingConnection late = new RecordingConnection("late");
+        gateway.spectate(1L, late);
+        awaitFrames(late, "event", 2);
+        assertTrue(late.sent.get(0).startsWith("{\"type\":\"snapshot\""));
+        assertTrue(frames(late, "event").get(0).contains("WEREWOLF_DISCUSSION"));
+
+        properties.getSpectator().setGodView(true);
+        GameState game = createGame();
+        new GameController().initializeGame(game);
+        GameGateway godView = new GameGateway(properties, executor, scheduler);
+        godView.attach(game);
+        RecordingConnection observer = new RecordingConnection("observer");
+        godView.spectate(1L, observer);
+        game.addEvent(event(GameEvent.EventType.WEREWOLF_DISCUSSION, false, player(game, true).getId()));
+        game.addEvent(event(GameEvent.EventType.MODEL_DEGRADED, false, null));
+        awaitFrames(observer, "event", 1);
+        assertTrue(frames(observer, "event").get(0).contains("WEREWOLF_DISCUSSION"));
+    }
+
+    @Test
+    @DisplayName("观战者重连从延迟缓冲补发，缓冲满时扩容而不提前放出")
+    void testSpectatorBuffer() throws Exception {
+        properties.getSpectator().setDelay(60000);
+        properties.getSpectator().setBufferSize(2);
+        GameState game = createGame();
+        new GameController().initializeGame(game);
+        GameGateway delayed = new GameGateway(properties, executor, scheduler);
+        delayed.attach(game);
+        RecordingConnection spectator = new RecordingConnection("spectator");
+        delayed.spectate(1L, spectator);
+        int start = game.getEvents().size();
+
+        for (int i = 0; i < 5; i++) {
+            game.addEvent(event(GameEvent.EventType.SYSTEM_MESSAGE, true, null));
+        }
+        // 缓冲初始只容纳 2 帧，延迟期间的帧仍然全部保留到到期
+        awaitFrames(spectator, "snapshot", 1);
+        Thread.sleep(50);
+        assertTrue(frames(spectator, "event").isEmpty());
+        assertTrue(game.getEvents().size() >= start + 5);
+
+        // 没有延迟时帧立即放出，缓冲里只保留最近 2 帧供重连补发
+        properties.getSpectator().setDelay(0);
+        GameState live = createGame();
+        new GameController().initializeGame(live);
+        GameGateway immediate = new GameGateway(properties, executor, scheduler);
+        immediate.attach(live);
+        for (int i = 0; i < 5; i++) {
+            live.addEvent(event(GameEvent.EventType.SYSTEM_MESSAGE, true, null));
+        }
+        int current = live.getEvents().size();
+
+        RecordingConnection resumed = new RecordingConnection("resumed");
+        immediate.spectate(1L, resumed, WireFormat.JSON, current - 1);
+        awaitFrames(resumed, "event", 1);
+        assertTrue(frames(resumed, "snapshot").isEmpty());
+        assertEquals(current, readSeq(frames(resumed, "event").get(0)));
+
+        RecordingConnection tooOld = new RecordingConnection("old");
+        immediate.spectate(1L, tooOld, WireFormat.JSON, current - 2);
+        awaitFrames(tooOld, "snapshot", 1);
+        assertEquals(current, objectMapper.readTree(tooOld.sent.get(0)).get("eventSeq").asInt());
+    }
+
+    @Test
+    @DisplayName("对局结束后等观战延迟的帧全部放出再释放房间")
+    void testReleaseWhenDrained() throws Exception {
+        properties.getSpectator().setDelay(200);
+        GameState game = createGame();
+        new GameController().initializeGame(game);
+        GameGateway delayed = new GameGateway(properties, executor, scheduler);
+        delayed.attach(game);
+        RecordingConnection spectator = new RecordingConnection("spectator");
+        delayed.spectate(1L, spectator);
+        for (int i = 0; i < 3; i++) {
+            game.addEvent(event(GameEvent.EventType.SYSTEM_MESSAGE, true, null));
+        }
+
+        delayed.releaseWhenDrained(game);
+        assertEquals(1, delayed.subscriberCount(1L));
+        awaitFrames(spectator, "event", 3);
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (delayed.subscriberCount(1L) > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThrows(IllegalArgumentException.class, () -> delayed.spectate(1L, new RecordingConnection("late")));
+        // 释放后不再监听事件
+        game.addEvent(event(GameEvent.EventType.SYSTEM_MESSAGE, true, null));
+        Thread.sleep(300);
+        assertEquals(3, frames(spectator, "event").size());
+    }
+
+    @Test
+    @DisplayName("发言片段推送给房间内所有连接，断开后不再推送")
+    void testPartialSpeechAndLeave() throws Exception {
+        RecordingConnection spectator = new RecordingConnection("spectator");
+        gateway.spectate(1L, spectator);
+
+        gateway.publishPartialSpeech(1L, 1L, "我是好人");
+        awaitFrames(spectator, "speech_partial", 1);
+
+        gateway.leave("spectator");
+        gateway.publishPartialSpeech(1L, 1L, "我是好人，过");
+        assertEquals(0, gateway.subscriberCount(1L));
+        Thread.sleep(50);
+        assertEquals(1, frames(spectator, "speech_partial").size());
+    }
+
+    @Test
+    @DisplayName("决策提示只发给该玩家的连接，提交结果回复给提交的连接")
+    void testPromptAndAcknowledge() throws Exception {
+        Player werewolf = player(true);
+        Player villager = player(false);
+        RecordingConnection wolfConnection = new RecordingConnection("wolf");
+        RecordingConnection villagerConnection = new RecordingConnection("villager");
+        RecordingConnection spectator = new RecordingConnection("spectator");
+        gateway.join(1L, werewolf.getId(), wolfConnection);
+        gateway.join(1L, villager.getId(), villagerConnection);
+        gateway.spectate(1L, spectator);
+
+        assertEquals(new GameGateway.Seat(1L, villager.getId()), gateway.seatOf("villager"));
+        assertNull(gateway.seatOf("spectator"));
+        assertNull(gateway.seatOf("unknown"));
+
+        gateway.publishPrompt(1L, new DecisionPrompt(villager.getId(), 1, DecisionType.VOTE,
+                List.of(werewolf.getId()), null, false, false, true, 60_000));
+        awaitFrames(villagerConnection, "prompt", 1);
+        JsonNode prompt = objectMapper.readTree(frames(villagerConnection, "prompt").get(0));
+        assertEquals("VOTE", prompt.get("decision").asText());
+        assertEquals(werewolf.getId(), prompt.get("targets").get(0).asLong());
+
+        gateway.acknowledge("villager", "k1", 1, SubmissionResult.ACCEPTED);
+        awaitFrames(villagerConnection, "action_result", 1);
+        JsonNode result = objectMapper.readTree(frames(villagerConnection, "action_result").get(0));
+        assertEquals("k1", result.get("key").asText());
+        assertEquals("ACCEPTED", result.get("result").asText());
+
+        Thread.sleep(50);
+        assertTrue(frames(wolfConnection, "prompt").isEmpty());
+        assertTrue(frames(spectator, "prompt").isEmpty());
+    }
+
+    @Test
+    @DisplayName("接入房间时发布快照，连接线程不现场复制游戏状态")
+    void testAttachPublishesSnapshot() {
+        GameState game = createGame();
+        assertEquals(0, game.getSnapshot().version());
+
+        new GameGateway(properties, executor, scheduler).attach(game);
+
+        assertEquals(1, game.getSnapshot().version());
+    }
+
+    @Test
+    @DisplayName("加入不存在的游戏或以非本局玩家身份加入时拒绝")
+    void testRejectUnknown() {
+        assertThrows(IllegalArgumentException.class, () -> gateway.spectate(99L, new RecordingConnection("x")));
+        assertThrows(IllegalArgumentException.class, () -> gateway.join(1L, 99L, new RecordingConnection("y")));
+    }
+
+    private void awaitFrames(RecordingConnection connection, String type, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (frames(connection, type).size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        int received = frames(connection, type).size();
+        assertTrue(received >= count, connection.getId() + " 只收到 " + received + " 个 " + type + "，期望 " + count);
+    }
+
+    private int readSeq(String frame) {
+        try {
+            return objectMapper.readTree(frame).path("seq").asInt();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<String> frames(RecordingConnection connection, String type) {
+        return connection.sent.stream()
+                .filter(frame -> frame.startsWith("{\"type\":\"" + type + "\""))
+                .toList();
+    }
+
+    private Player player(boolean werewolf) {
+        return player(gameState, werewolf);
+    }
+
+    private Player player(GameState game, boolean werewolf) {
+        return game.getPlayers().stream()
+                .filter(player -> (player.getRole() instanceof Werewolf) == werewolf)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private GameEvent event(GameEvent.EventType type, boolean isPublic, Long playerId) {
+        return GameEvent.builder()
+                .type(type)
+                .playerId(playerId)
+                .description(type.name())
+                .isPublic(isPublic)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private GameState createGame() {
+        List<Player> players = new ArrayList<>();
+        for (int seat = 1; seat <= 6; seat++) {
+            players.add(Player.builder()
+                    .id((long) seat)
+                    .name("玩家" + seat)
+                    .type(Player.PlayerType.AI)
+                    .alive(true)
+                    .seatNumber(seat)
+                    .build());
+        }
+        return GameState.builder()
+                .gameId(1L)
+                .seed(7L)
+                .players(players)
+                .status(GameState.GameStatus.WAITING)
+                .build();
+    }
+}
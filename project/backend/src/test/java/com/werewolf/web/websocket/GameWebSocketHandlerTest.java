@@ -0,0 +1,210 @@
+package com.werewolf.web.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.werewolf.agent.AIProperties;
+import com.werewolf.agent.DecisionPrompt;
+import com.werewolf.agent.DecisionType;
+import com.werewolf.agent.HumanSeats;
+import com.werewolf.domain.model.GameState;
+import com.werewolf.domain.model.Player;
+import com.werewolf.domain.role.Werewolf;
+import com.werewolf.engine.GameController;
+import com.werewolf.llm.LLMClient;
+import com.werewolf.llm.LLMProperties;
+import com.werewolf.llm.resilience.CircuitBreakerRegistry;
+import com.werewolf.llm.routing.ModelRouter;
+import com.werewolf.runtime.GameAssembler;
+import com.werewolf.runtime.GameRunner;
+import com.werewolf.runtime.GameTimeoutProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * GameWebSocketHandler 单元测试
+ *
+ * @author Claude & User
+ */
+@DisplayName("WebSocket 入口测试")
+class GameWebSocketHandlerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduler;
+    private GameGateway gateway;
+    private HumanSeats humanSeats;
+    private GameWebSocketHandler handler;
+    private GameAssembler assembler;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newCachedThreadPool();
+        scheduler = Executors.newScheduledThreadPool(2);
+        WebSocketProperties properties = new WebSocketProperties();
+        gateway = new GameGateway(properties, executor, scheduler);
+        RelayHub relayHub = new RelayHub(properties, executor,
+                (gameId, format, relay) -> LocalRelayUpstream.connect(gateway, gameId, format, relay));
+        humanSeats = new HumanSeats();
+        handler = new GameWebSocketHandler(gateway, relayHub, humanSeats);
+
+        LLMProperties llmProperties = new LLMProperties();
+        LLMClient llmClient = new LLMClient(llmProperties, Map.of(),
+                new ModelRouter(llmProperties.getRouting(), List.of("gpt-4")),
+                new CircuitBreakerRegistry(llmProperties.getCircuitBreaker()), scheduler);
+        assembler = new GameAssembler(new AIProperties(), new GameTimeoutProperties(), llmClient,
+                humanSeats, gateway);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("真人玩家经连接提交的投票计入白天投票，对局结束后座位注销")
+    void testActionFrameAppliesVote() throws Exception {
+        GameState gameState = createGame();
+        Player human = gameState.getAlivePlayers().stream()
+                .filter(player -> player.getRole() instanceof Werewolf)
+                .min(Comparator.comparingInt(Player::getSeatNumber))
+                .orElseThrow();
+        human.setType(Player.PlayerType.HUMAN);
+        GameRunner runner = assembler.assemble(gameState);
+        RecordingSession session = new RecordingSession("human",
+                URI.create("ws://localhost/ws/game?gameId=1&playerId=" + human.getId()));
+        handler.afterConnectionEstablished(session);
+
+        CompletableFuture<GameController.RoundResult> round = CompletableFuture.supplyAsync(runner::playRound);
+        Long voteTarget = null;
+        int answered = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!round.isDone() && System.nanoTime() < deadline) {
+            List<JsonNode> prompts = frames(session, "prompt");
+            for (JsonNode prompt : prompts.subList(answered, prompts.size())) {
+                Long target = answer(session, prompt);
+                if (DecisionType.VOTE.name().equals(prompt.path("decision").asText())) {
+                    voteTarget = target;
+                }
+            }
+            answered = prompts.size();
+            Thread.sleep(10);
+        }
+        GameController.RoundResult result = round.get(5, TimeUnit.SECONDS);
+
+        assertNotNull(voteTarget);
+        assertEquals(voteTarget, result.getDayResult().getVoteDetails().get(human.getId()));
+        assertTrue(frames(session, "action_result").stream()
+                .allMatch(frame -> "ACCEPTED".equals(frame.path("result").asText())));
+
+        runner.close();
+        assertNull(humanSeats.currentPrompt(1L, human.getId()));
+    }
+
+    @Test
+    @DisplayName("玩家的最后一个连接断开时，等待中的决策立即使用默认决策")
+    void testDisconnectExpiresPending() throws Exception {
+        GameState gameState = createGame();
+        Player human = gameState.getAlivePlayers().stream()
+                .filter(player -> player.getRole() instanceof Werewolf)
+                .min(Comparator.comparingInt(Player::getSeatNumber))
+                .orElseThrow();
+        human.setType(Player.PlayerType.HUMAN);
+        GameRunner runner = assembler.assemble(gameState);
+        URI uri = URI.create("ws://localhost/ws/game?gameId=1&playerId=" + human.getId());
+        RecordingSession first = new RecordingSession("first", uri);
+        RecordingSession second = new RecordingSession("second", uri);
+        handler.afterConnectionEstablished(first);
+        handler.afterConnectionEstablished(second);
+
+        CompletableFuture.runAsync(runner::playRound);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (humanSeats.currentPrompt(1L, human.getId()) == null && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        DecisionPrompt pending = humanSeats.currentPrompt(1L, human.getId());
+        assertNotNull(pending);
+
+        // 还有一个连接时继续等待玩家提交
+        handler.afterConnectionClosed(first, CloseStatus.NORMAL);
+        Thread.sleep(50);
+        assertSame(pending, humanSeats.currentPrompt(1L, human.getId()));
+
+        handler.afterConnectionClosed(second, CloseStatus.GOING_AWAY);
+        deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (humanSeats.currentPrompt(1L, human.getId()) == pending && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertNotSame(pending, humanSeats.currentPrompt(1L, human.getId()));
+        runner.close();
+    }
+
+    /**
+     * 以第一个合法目标回应提示，返回选择的目标
+     */
+    private Long answer(RecordingSession session, JsonNode prompt) throws Exception {
+        JsonNode targets = prompt.path("targets");
+        Long target = targets.isEmpty() ? null : targets.get(0).asLong();
+        ObjectNode action = objectMapper.createObjectNode()
+                .put("type", "action")
+                .put("version", prompt.path("version").asLong())
+                .put("key", "key-" + prompt.path("version").asLong())
+                .put("decision", prompt.path("decision").asText())
+                .put("content", "我是好人");
+        if (target != null && !"WITCH_ACTION".equals(prompt.path("decision").asText())) {
+            action.put("target", target);
+        }
+        handler.handleTextMessage(session, new TextMessage(objectMapper.writeValueAsString(action)));
+        return target;
+    }
+
+    private List<JsonNode> frames(RecordingSession session, String type) throws Exception {
+        List<JsonNode> frames = new ArrayList<>();
+        for (String text : session.sent) {
+            JsonNode frame = objectMapper.readTree(text);
+            if (type.equals(frame.path("type").asText())) {
+                frames.add(frame);
+            }
+        }
+        return frames;
+    }
+
+    private GameState createGame() {
+        List<Player> players = new ArrayList<>();
+        for (int seat = 1; seat <= 6; seat++) {
+            players.add(Player.builder()
+                    .id((long) seat)
+                    .name("玩家" + seat)
+                    .type(Player.PlayerType.AI)
+                    .alive(true)
+                    .seatNumber(seat)
+                    .build());
+        }
+        GameState gameState = GameState.builder()
+                .gameId(1L)
+                .seed(7L)
+                .players(players)
+                .status(GameState.GameStatus.WAITING)
+                .build();
+        new GameController().initializeGame(gameState);
+        return gameState;
+    }
+}
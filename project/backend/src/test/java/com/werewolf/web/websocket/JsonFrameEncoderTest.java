@@ -0,0 +1,68 @@
+package com.werewolf.web.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.werewolf.domain.model.GameEvent;
+import com.werewolf.domain.model.Phase;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JsonFrameEncoder 单元测试
+ *
+ * @author Claude & User
+ */
+@DisplayName("JSON帧编码测试")
+class JsonFrameEncoderTest {
+
+    private final FrameEncoder encoder = new JsonFrameEncoder();
+
+    @Test
+    @DisplayName("事件编码为紧凑的 UTF-8 JSON，省略空字段")
+    void testEncodeEvent() throws Exception {
+        GameEvent event = GameEvent.builder()
+                .type(GameEvent.EventType.PLAYER_SPEECH)
+                .round(2)
+                .phase(Phase.DAY)
+                .playerId(3L)
+                .description("3号发言")
+                .data(Map.of("speech", "我是好人"))
+                .isPublic(true)
+                .timestamp(LocalDateTime.of(2025, 1, 1, 12, 0))
+                .build();
+
+        String json = new String(encoder.encode(event, 5), StandardCharsets.UTF_8);
+
+        assertFalse(json.contains("\n"));
+        assertFalse(json.contains("targetPlayerId"));
+        JsonNode node = new ObjectMapper().readTree(json);
+        assertEquals("event", node.get("type").asText());
+        assertEquals("PLAYER_SPEECH", node.get("eventType").asText());
+        assertEquals(5, node.get("seq").asInt());
+        assertEquals(3L, node.get("playerId").asLong());
+        assertEquals("我是好人", node.get("data").get("speech").asText());
+        assertEquals(1, encoder.getEncodedCount());
+    }
+
+    @Test
+    @DisplayName("共享帧的各个视图互不影响，内容不可修改")
+    void testSharedFrame() {
+        OutboundFrame frame = OutboundFrame.essential(encoder.encodePartialSpeech(1L, "我是好人"));
+
+        ByteBuffer first = frame.payload();
+        first.get(new byte[first.remaining()]);
+        ByteBuffer second = frame.payload();
+
+        assertEquals(0, first.remaining());
+        assertEquals(frame.size(), second.remaining());
+        assertTrue(second.isReadOnly());
+        assertTrue(StandardCharsets.UTF_8.decode(second).toString().contains("speech_partial"));
+    }
+}
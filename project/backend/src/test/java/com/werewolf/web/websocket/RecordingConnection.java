@@ -0,0 +1,54 @@
+package com.werewolf.web.websocket;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * 记录发送内容的测试连接，可以阻塞发送模拟慢速客户端
+ */
+class RecordingConnection implements ClientConnection {
+
+    final List<String> sent = new CopyOnWriteArrayList<>();
+    final List<ByteBuffer> received = new CopyOnWriteArrayList<>();
+    final String id;
+    volatile CountDownLatch gate;
+    volatile String closeReason;
+
+    RecordingConnection(String id) {
+        this.id = id;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public void send(ByteBuffer payload) throws IOException {
+        CountDownLatch current = gate;
+        if (current != null) {
+            try {
+                current.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+        received.add(payload.duplicate());
+        sent.add(StandardCharsets.UTF_8.decode(payload).toString());
+    }
+
+    @Override
+    public void close(String reason) {
+        closeReason = reason;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return closeReason == null;
+    }
+}
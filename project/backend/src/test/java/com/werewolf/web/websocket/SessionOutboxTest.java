@@ -0,0 +1,179 @@
+package com.werewolf.web.websocket;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SessionOutbox 单元测试
+ *
+ * @author Claude & User
+ */
+@DisplayName("连接发送队列测试")
+class SessionOutboxTest {
+
+    /**
+     * 手动执行的执行器：入队后不发送，模拟客户端来不及接收
+     */
+    private final Deque<Runnable> tasks = new ArrayDeque<>();
+    private final Executor manual = tasks::add;
+    private final RecordingConnection connection = new RecordingConnection("s1");
+
+    @Test
+    @DisplayName("按入队顺序发送，同一连接只有一个发送任务")
+    void testSendInOrder() {
+        SessionOutbox outbox = outbox(4, SlowConsumerPolicy.DISCONNECT);
+
+        outbox.offer(essential("a"));
+        outbox.offer(essential("b"));
+        assertEquals(1, tasks.size());
+        runAll();
+
+        assertEquals(List.of("a", "b"), connection.sent);
+        outbox.offer(essential("c"));
+        runAll();
+        assertEquals(List.of("a", "b", "c"), connection.sent);
+    }
+
+    @Test
+    @DisplayName("合并策略：同一发言的片段只保留最新一帧")
+    void testCoalesce() {
+        SessionOutbox outbox = outbox(4, SlowConsumerPolicy.COALESCE);
+
+        outbox.offer(essential("start"));
+        outbox.offer(partial("我是", "speech:1"));
+        outbox.offer(partial("我是好人", "speech:1"));
+        outbox.offer(partial("我是好人，过", "speech:1"));
+        runAll();
+
+        assertEquals(List.of("start", "我是好人，过"), connection.sent);
+        assertEquals(2, outbox.getCoalesced());
+    }
+
+    @Test
+    @DisplayName("合并策略：片段不越过其后的事件")
+    void testCoalesceKeepsOrder() {
+        SessionOutbox outbox = outbox(8, SlowConsumerPolicy.COALESCE);
+
+        outbox.offer(partial("我是", "speech:1"));
+        outbox.offer(essential("event"));
+        outbox.offer(partial("我是好人", "speech:1"));
+        runAll();
+
+        assertEquals(List.of("我是", "event", "我是好人"), connection.sent);
+    }
+
+    @Test
+    @DisplayName("合并策略：队列满时丢弃最旧的片段，事件不丢")
+    void testCoalesceFull() {
+        SessionOutbox outbox = outbox(2, SlowConsumerPolicy.COALESCE);
+
+        outbox.offer(partial("1号片段", "speech:1"));
+        outbox.offer(essential("e1"));
+        assertTrue(outbox.offer(essential("e2")));
+        runAll();
+
+        assertEquals(List.of("e1", "e2"), connection.sent);
+        assertEquals(1, outbox.getDropped());
+    }
+
+    @Test
+    @DisplayName("丢弃策略：队列满时清除全部片段")
+    void testDropPartial() {
+        SessionOutbox outbox = outbox(3, SlowConsumerPolicy.DROP_PARTIAL);
+
+        outbox.offer(partial("1号", "speech:1"));
+        outbox.offer(essential("e1"));
+        outbox.offer(partial("2号", "speech:2"));
+        assertTrue(outbox.offer(partial("3号", "speech:3")));
+        assertTrue(outbox.offer(essential("e2")));
+        runAll();
+
+        assertEquals(List.of("e1", "e2"), connection.sent);
+        assertEquals(3, outbox.getDropped());
+    }
+
+    @Test
+    @DisplayName("队列被事件占满时断开连接")
+    void testDisconnectWhenFull() {
+        SessionOutbox outbox = outbox(2, SlowConsumerPolicy.COALESCE);
+
+        outbox.offer(essential("e1"));
+        outbox.offer(essential("e2"));
+
+        assertFalse(outbox.offer(essential("e3")));
+        assertTrue(outbox.isClosed());
+        // 入队线程只标记关闭，连接在执行器上关闭
+        assertNull(connection.closeReason);
+        runAll();
+        assertNotNull(connection.closeReason);
+        assertFalse(outbox.offer(essential("e4")));
+    }
+
+    @Test
+    @DisplayName("断开策略：队列满时片段也会触发断开")
+    void testDisconnectPolicy() {
+        SessionOutbox outbox = outbox(1, SlowConsumerPolicy.DISCONNECT);
+
+        outbox.offer(essential("e1"));
+
+        assertFalse(outbox.offer(partial("片段", "speech:1")));
+        assertTrue(outbox.isClosed());
+    }
+
+    @Test
+    @DisplayName("单帧发送超过时限时断开连接")
+    void testSendTimeLimit() {
+        AtomicLong now = new AtomicLong(1000);
+        SessionOutbox outbox = new SessionOutbox(connection, 8, SlowConsumerPolicy.COALESCE, 500,
+                Runnable::run, now::get);
+
+        outbox.offer(essential("e1"));
+        assertTrue(outbox.offer(essential("e2")));
+        assertEquals(List.of("e1", "e2"), connection.sent);
+
+        SessionOutbox stuck = new SessionOutbox(connection, 8, SlowConsumerPolicy.COALESCE, 500, manual, now::get);
+        stuck.offer(essential("e3"));
+        Runnable drain = tasks.poll();
+        // 发送卡住期间推进时钟
+        connection.gate = new CountDownLatch(1);
+        Thread sender = new Thread(drain);
+        sender.start();
+        while (sender.getState() != Thread.State.WAITING) {
+            Thread.onSpinWait();
+        }
+        now.addAndGet(1000);
+
+        assertFalse(stuck.offer(essential("e4")));
+        tasks.poll().run();
+        assertEquals("发送超时", connection.closeReason);
+        connection.gate.countDown();
+    }
+
+    private SessionOutbox outbox(int capacity, SlowConsumerPolicy policy) {
+        return new SessionOutbox(connection, capacity, policy, 0, manual);
+    }
+
+    private void runAll() {
+        while (!tasks.isEmpty()) {
+            tasks.poll().run();
+        }
+    }
+
+    private static OutboundFrame essential(String payload) {
+        return OutboundFrame.essential(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static OutboundFrame partial(String payload, String coalesceKey) {
+        return OutboundFrame.partial(payload.getBytes(StandardCharsets.UTF_8), coalesceKey);
+    }
+}
@@ -0,0 +1,360 @@
+package com.werewolf.web.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.werewolf.domain.model.GameEvent;
+import com.werewolf.domain.model.GameState;
+import com.werewolf.domain.model.Player;
+import com.werewolf.engine.GameController;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SpectatorRelay / RelayHub 单元测试
+ *
+ * @author Claude & User
+ */
+@DisplayName("观战中继测试")
+class SpectatorRelayTest {
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduler;
+    private WebSocketProperties properties;
+    private GameGateway gateway;
+    private GameState gameState;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newCachedThreadPool();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        properties = new WebSocketProperties();
+        gateway = new GameGateway(properties, executor, scheduler);
+        gameState = createGame();
+        new GameController().initializeGame(gameState);
+        gateway.attach(gameState);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("房间只向中继分发一次，中继扩散给所有观战者")
+    void testFanOut() throws Exception {
+        RelayHub hub = hub();
+        List<RecordingConnection> spectators = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            RecordingConnection spectator = new RecordingConnection("s" + i);
+            hub.spectate(1L, spectator, i % 2 == 0 ? WireFormat.JSON : WireFormat.BINARY);
+            spectators.add(spectator);
+        }
+
+        gameState.addEvent(event());
+        gameState.addEvent(event());
+
+        // 每种格式一个中继
+        assertEquals(2, gateway.subscriberCount(1L));
+        assertEquals(2, hub.relayCount());
+        assertEquals(200, hub.spectatorCount(1L));
+        for (RecordingConnection spectator : spectators) {
+            await(() -> spectator.sent.size() >= 3);
+        }
+        assertTrue(SpectatorRelay.isSnapshot(OutboundFrame.essential(spectators.get(0).received.get(0))));
+        assertTrue(SpectatorRelay.isSnapshot(OutboundFrame.essential(spectators.get(1).received.get(0))));
+        assertEquals(spectators.get(0).sent, spectators.get(198).sent);
+    }
+
+    @Test
+    @DisplayName("保留的帧超过上限时向上游请求新快照，新观战者从新快照开始")
+    void testHistoryLimit() throws Exception {
+        properties.getRelay().setHistoryLimit(3);
+        SpectatorRelay[] relay = new SpectatorRelay[1];
+        RelayHub hub = new RelayHub(properties, executor, (gameId, format, spectatorRelay) -> {
+            relay[0] = spectatorRelay;
+            return LocalRelayUpstream.connect(gateway, gameId, format, spectatorRelay);
+        });
+        RecordingConnection early = new RecordingConnection("early");
+        hub.spectate(1L, early, WireFormat.JSON);
+
+        for (int i = 0; i < 6; i++) {
+            gameState.addEvent(event());
+        }
+        await(() -> early.sent.size() == 7);
+        // 新快照在所有事件之后到达
+        await(() -> relay[0].historySize() == 1);
+
+        RecordingConnection late = new RecordingConnection("late");
+        hub.spectate(1L, late, WireFormat.JSON);
+        await(() -> !late.sent.isEmpty());
+        Thread.sleep(50);
+        // 已有观战者不会重复收到快照
+        assertEquals(7, early.sent.size());
+        assertTrue(late.sent.get(0).startsWith("{\"type\":\"snapshot\""));
+        // 新快照在 6 个事件之后产生，新观战者只需要快照
+        assertEquals(1, late.sent.size());
+        ObjectMapper objectMapper = new ObjectMapper();
+        assertEquals(objectMapper.readTree(early.sent.get(6)).get("seq").asInt(),
+                objectMapper.readTree(late.sent.get(0)).get("eventSeq").asInt());
+    }
+
+    @Test
+    @DisplayName("观战者带 lastSeq 经中继重连，只补发之后的帧，找不到时从快照开始")
+    void testResume() throws Exception {
+        RelayHub hub = hub();
+        RecordingConnection json = new RecordingConnection("json");
+        RecordingConnection binary = new RecordingConnection("binary");
+        hub.spectate(1L, json, WireFormat.JSON);
+        hub.spectate(1L, binary, WireFormat.BINARY);
+        for (int i = 0; i < 4; i++) {
+            gameState.addEvent(event());
+        }
+        await(() -> json.sent.size() == 5 && binary.received.size() == 5);
+        ObjectMapper objectMapper = new ObjectMapper();
+        int secondSeq = objectMapper.readTree(json.sent.get(2)).get("seq").asInt();
+        assertEquals(secondSeq, SpectatorRelay.seqOf(OutboundFrame.essential(binary.received.get(2))));
+
+        RecordingConnection jsonResumed = new RecordingConnection("json-resumed");
+        hub.spectate(1L, jsonResumed, WireFormat.JSON, secondSeq);
+        RecordingConnection binaryResumed = new RecordingConnection("binary-resumed");
+        hub.spectate(1L, binaryResumed, WireFormat.BINARY, secondSeq);
+        await(() -> jsonResumed.sent.size() == 2 && binaryResumed.received.size() == 2);
+        assertEquals(json.sent.subList(3, 5), jsonResumed.sent);
+        assertEquals(binary.sent.subList(3, 5), binaryResumed.sent);
+
+        RecordingConnection unknown = new RecordingConnection("unknown");
+        hub.spectate(1L, unknown, WireFormat.JSON, 999);
+        await(() -> unknown.sent.size() == 5);
+        assertTrue(unknown.sent.get(0).startsWith("{\"type\":\"snapshot\""));
+
+        // 只收到差量就断线，重连时重发同序号的事件
+        gameState.getPlayers().get(0).setHasSpoken(true);
+        gameState.addEvent(event());
+        await(() -> json.sent.size() == 7);
+        assertTrue(json.sent.get(5).startsWith("{\"type\":\"delta\""));
+        int deltaSeq = objectMapper.readTree(json.sent.get(5)).get("seq").asInt();
+        RecordingConnection afterDelta = new RecordingConnection("after-delta");
+        hub.spectate(1L, afterDelta, WireFormat.JSON, deltaSeq);
+        await(() -> afterDelta.sent.size() == 1);
+        assertEquals(json.sent.get(6), afterDelta.sent.get(0));
+    }
+
+    @Test
+    @DisplayName("级联中继请求快照时只收到新快照，下级观战者不会重复收到已广播的帧")
+    void testChainedRelays() throws Exception {
+        // 上级中继保留全部帧，下级中继很快需要新快照
+        RelayHub hub = hub();
+        WebSocketProperties downstreamProperties = new WebSocketProperties();
+        downstreamProperties.getRelay().setHistoryLimit(3);
+        SpectatorRelay downstream = new SpectatorRelay(downstreamProperties, executor, relay -> { });
+        ChainedUpstream chained = new ChainedUpstream(hub, downstream);
+        hub.spectate(1L, chained, WireFormat.JSON);
+        downstream.setUpstream(chained);
+        RecordingConnection spectator = new RecordingConnection("tier2");
+        downstream.addSpectator(spectator);
+
+        for (int i = 0; i < 8; i++) {
+            gameState.addEvent(event());
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        await(() -> spectator.sent.stream().filter(frame -> frame.startsWith("{\"type\":\"event\"")).count() == 8);
+        // 下级中继超过保留上限后请求的新快照到达
+        await(() -> downstream.historySize() < 4);
+        Thread.sleep(50);
+
+        assertTrue(chained.requests.get() >= 1);
+        List<String> received = new ArrayList<>();
+        for (String frame : spectator.sent) {
+            JsonNode node = objectMapper.readTree(frame);
+            received.add(node.get("type").asText() + ":" + node.path("seq").asInt());
+        }
+        assertEquals(received.size(), received.stream().distinct().count(), received.toString());
+        assertEquals(1, received.stream().filter(frame -> frame.startsWith("snapshot")).count());
+
+        // 观战者请求重新同步时只收到一份新快照
+        int before = spectator.sent.size();
+        RecordingConnection client = new RecordingConnection("client");
+        hub.spectate(1L, client, WireFormat.JSON);
+        await(() -> !client.sent.isEmpty());
+        int joined = client.sent.size();
+        hub.resync("client");
+        await(() -> client.sent.size() == joined + 1);
+        Thread.sleep(50);
+        assertEquals(joined + 1, client.sent.size());
+        assertTrue(client.sent.get(joined).startsWith("{\"type\":\"snapshot\""));
+        assertEquals(before, spectator.sent.size());
+    }
+
+    @Test
+    @DisplayName("最后一个观战者离开时取消上游订阅，上游断开时关闭观战连接")
+    void testLifecycle() throws Exception {
+        RelayHub hub = hub();
+        RecordingConnection first = new RecordingConnection("first");
+        hub.spectate(1L, first, WireFormat.JSON);
+        assertEquals(1, gateway.subscriberCount(1L));
+        hub.leave("first");
+        assertEquals(0, gateway.subscriberCount(1L));
+        assertEquals(0, hub.relayCount());
+
+        RecordingConnection second = new RecordingConnection("second");
+        SpectatorRelay[] relay = new SpectatorRelay[1];
+        RelayHub capturing = new RelayHub(properties, executor, (gameId, format, spectatorRelay) -> {
+            relay[0] = spectatorRelay;
+            return LocalRelayUpstream.connect(gateway, gameId, format, spectatorRelay);
+        });
+        capturing.spectate(1L, second, WireFormat.JSON);
+        relay[0].onUpstreamClosed("源服务关闭");
+        assertEquals("源服务关闭", second.closeReason);
+        assertEquals(0, capturing.relayCount());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> hub.spectate(99L, new RecordingConnection("x"), WireFormat.JSON));
+        properties.getRelay().setHistoryLimit(properties.getQueueCapacity());
+        assertThrows(IllegalArgumentException.class,
+                () -> new SpectatorRelay(properties, executor, closed -> { }));
+    }
+
+    @Test
+    @DisplayName("连接上游时不阻塞其他中继，同一中继的观战者共用一次连接")
+    void testConnectOutsideLock() throws Exception {
+        CountDownLatch handshake = new CountDownLatch(1);
+        AtomicInteger connects = new AtomicInteger();
+        RelayHub hub = new RelayHub(properties, executor, (gameId, format, relay) -> {
+            if (format == WireFormat.JSON) {
+                connects.incrementAndGet();
+                try {
+                    handshake.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return LocalRelayUpstream.connect(gateway, gameId, format, relay);
+        });
+        RecordingConnection first = new RecordingConnection("first");
+        RecordingConnection second = new RecordingConnection("second");
+        CompletableFuture<Void> slowFirst = CompletableFuture.runAsync(() -> hub.spectate(1L, first, WireFormat.JSON));
+        await(() -> connects.get() == 1);
+        CompletableFuture<Void> slowSecond = CompletableFuture.runAsync(() -> hub.spectate(1L, second, WireFormat.JSON));
+
+        // 握手进行中，其他中继照常加入和离开
+        RecordingConnection binary = new RecordingConnection("binary");
+        CompletableFuture.runAsync(() -> {
+            hub.spectate(1L, binary, WireFormat.BINARY);
+            hub.leave("binary");
+        }).get(5, TimeUnit.SECONDS);
+        assertFalse(slowFirst.isDone());
+        assertFalse(slowSecond.isDone());
+
+        handshake.countDown();
+        slowFirst.get(5, TimeUnit.SECONDS);
+        slowSecond.get(5, TimeUnit.SECONDS);
+        assertEquals(1, connects.get());
+        assertEquals(2, hub.spectatorCount(1L));
+        assertEquals(1, hub.relayCount());
+    }
+
+    private RelayHub hub() {
+        return new RelayHub(properties, executor,
+                (gameId, format, relay) -> LocalRelayUpstream.connect(gateway, gameId, format, relay));
+    }
+
+    private void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(condition.getAsBoolean(), "等待超时");
+    }
+
+    /**
+     * 以上级中继的观战连接作为下级中继的上游
+     */
+    private static final class ChainedUpstream implements RelayUpstream, ClientConnection {
+
+        private final RelayHub hub;
+        private final SpectatorRelay downstream;
+        private final AtomicInteger requests = new AtomicInteger();
+
+        ChainedUpstream(RelayHub hub, SpectatorRelay downstream) {
+            this.hub = hub;
+            this.downstream = downstream;
+        }
+
+        @Override
+        public String getId() {
+            return "chained";
+        }
+
+        @Override
+        public void send(ByteBuffer payload) {
+            downstream.onFrame(payload);
+        }
+
+        @Override
+        public void close(String reason) {
+            downstream.onUpstreamClosed(reason);
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void requestSnapshot() {
+            requests.incrementAndGet();
+            hub.resync(getId());
+        }
+
+        @Override
+        public void close() {
+            hub.leave(getId());
+        }
+    }
+
+    private GameEvent event() {
+        return GameEvent.builder()
+                .type(GameEvent.EventType.SYSTEM_MESSAGE)
+                .description("系统消息")
+                .isPublic(true)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private GameState createGame() {
+        List<Player> players = new ArrayList<>();
+        for (int seat = 1; seat <= 6; seat++) {
+            players.add(Player.builder()
+                    .id((long) seat)
+                    .name("玩家" + seat)
+                    .type(Player.PlayerType.AI)
+                    .alive(true)
+                    .seatNumber(seat)
+                    .build());
+        }
+        return GameState.builder()
+                .gameId(1L)
+                .seed(7L)
+                .players(players)
+                .status(GameState.GameStatus.WAITING)
+                .build();
+    }
+}
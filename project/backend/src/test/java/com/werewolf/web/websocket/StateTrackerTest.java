@@ -0,0 +1,140 @@
+package com.werewolf.web.websocket;
+
+import com.werewolf.agent.HeuristicAgent;
+import com.werewolf.agent.PlayerAgent;
+import com.werewolf.domain.model.GameEventListener;
+import com.werewolf.domain.model.GameState;
+import com.werewolf.domain.model.Phase;
+import com.werewolf.domain.model.Player;
+import com.werewolf.engine.GameController;
+import com.werewolf.runtime.GameRunner;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * StateTracker 单元测试
+ *
+ * @author Claude & User
+ */
+@DisplayName("房间状态版本跟踪测试")
+class StateTrackerTest {
+
+    private GameState gameState;
+    private StateTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        gameState = createGame();
+        new GameController().initializeGame(gameState);
+        tracker = new StateTracker(gameState);
+    }
+
+    @Test
+    @DisplayName("状态没有变化时不产生差量，版本不变")
+    void testNoChange() {
+        long version = tracker.getVersion();
+
+        assertNull(tracker.observe(gameState));
+        assertEquals(version, tracker.getVersion());
+    }
+
+    @Test
+    @DisplayName("差量只包含变化的字段和座位")
+    void testDelta() {
+        long version = tracker.getVersion();
+        gameState.changePhase(Phase.VOTING);
+        gameState.getPlayerById(3L).markDead(Player.DeathReason.VOTED_OUT);
+
+        StateTracker.Delta delta = tracker.observe(gameState);
+
+        assertEquals(version, delta.baseVersion());
+        assertEquals(version + 1, delta.version());
+        assertEquals(Phase.VOTING, delta.phase());
+        assertNull(delta.round());
+        assertNull(delta.status());
+        assertEquals(List.of(new StateTracker.SeatChange(3L, false, null, null)), delta.seats());
+        assertNull(tracker.observe(gameState));
+    }
+
+    @Test
+    @DisplayName("快照反映最近一次观察到的状态，连续的差量首尾相接")
+    void testSnapshotAndChain() {
+        gameState.getPlayerById(1L).setHasSpoken(true);
+        StateTracker.Delta first = tracker.observe(gameState);
+        gameState.nextRound();
+        StateTracker.Delta second = tracker.observe(gameState);
+
+        assertEquals(first.version(), second.baseVersion());
+        assertEquals(List.of(new StateTracker.SeatChange(1L, null, false, null)), second.seats());
+        StateTracker.Snapshot snapshot = tracker.snapshot();
+        assertEquals(second.version(), snapshot.version());
+        assertEquals(gameState.getCurrentRound(), snapshot.round());
+        assertEquals(6, snapshot.seats().size());
+        assertFalse(snapshot.seats().get(0).spoken());
+    }
+
+    @Test
+    @DisplayName("在旧快照上依次应用差量得到与当前快照相同的状态")
+    void testApply() {
+        StateTracker.Snapshot delayed = tracker.snapshot();
+        gameState.changePhase(Phase.VOTING);
+        gameState.getPlayerById(2L).setHasSpoken(true);
+        StateTracker.Delta first = tracker.observe(gameState);
+        gameState.getPlayerById(3L).markDead(Player.DeathReason.VOTED_OUT);
+        gameState.nextRound();
+        StateTracker.Delta second = tracker.observe(gameState);
+
+        StateTracker.Snapshot applied = delayed.apply(first).apply(second);
+
+        assertEquals(tracker.snapshot(), applied.withEventSeq(tracker.getEventSeq()));
+        assertEquals(delayed.eventSeq() + 3, delayed.withEventSeq(delayed.eventSeq() + 3).eventSeq());
+    }
+
+    @Test
+    @DisplayName("整局游戏中差量的总大小远小于每次变化都发送完整快照")
+    void testDeltaSize() {
+        FrameEncoder encoder = new JsonFrameEncoder();
+        long[] bytes = new long[2];
+        GameEventListener listener = (state, event) -> {
+            StateTracker.Delta delta = tracker.observe(state);
+            if (delta != null) {
+                bytes[0] += encoder.encodeDelta(delta).length;
+                bytes[1] += encoder.encodeSnapshot(state.getGameId(), tracker.snapshot()).length;
+            }
+        };
+        gameState.addEventListener(listener);
+
+        Map<Long, PlayerAgent> agents = GameRunner.fillEmptySeats(gameState, Map.of(),
+                player -> new HeuristicAgent(player.getId()));
+        new GameRunner(gameState, agents).playToEnd(20);
+
+        assertTrue(gameState.isFinished());
+        assertTrue(bytes[0] * 4 < bytes[1], "差量 " + bytes[0] + " 字节，快照 " + bytes[1] + " 字节");
+    }
+
+    private GameState createGame() {
+        List<Player> players = new ArrayList<>();
+        for (int seat = 1; seat <= 6; seat++) {
+            players.add(Player.builder()
+                    .id((long) seat)
+                    .name("玩家" + seat)
+                    .type(Player.PlayerType.AI)
+                    .alive(true)
+                    .seatNumber(seat)
+                    .build());
+        }
+        return GameState.builder()
+                .gameId(1L)
+                .seed(7L)
+                .players(players)
+                .status(GameState.GameStatus.WAITING)
+                .build();
+    }
+}